@@ -0,0 +1,126 @@
+package io.cyborgcode.roa.maven.plugins.allocator;
+
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestRoot;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import io.cyborgcode.roa.maven.plugins.allocator.service.AllocationScan;
+import io.cyborgcode.roa.maven.plugins.allocator.service.BaseAllocatorService;
+import io.cyborgcode.roa.maven.plugins.allocator.service.ReactorAllocatorService;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Maven plugin goal that allocates the tests of all modules of a multi-module build together.
+ *
+ * <p>Where {@code split} balances the tests of one project, {@code split-reactor} runs once for the whole
+ * reactor: it scans the compiled tests of every module in parallel, with the same engine and filters as
+ * {@code split}, and packs the units of all modules into one global set of buckets. Each job of the manifest
+ * names the modules to build with {@code -pl} and the classes to pass as the test filter. Configurations whose
+ * jobs are run from engine-specific attributes, such as TestNG bucket suites, are rejected; TestNG modules
+ * without suites are allocated by class.
+ *
+ * <p>Module directories configured relative to the executing project, such as the reports directory, are
+ * resolved against each module. Modules with {@code pom} packaging or without compiled tests are skipped, so
+ * the goal is run after {@code test-compile}, e.g. {@code mvn test-compile test-allocator:split-reactor}.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Mojo(
+      name = "split-reactor",
+      aggregator = true,
+      requiresDependencyResolution = ResolutionScope.TEST,
+      threadSafe = true
+)
+public class ReactorAllocatorMojo extends TestAllocatorMojo {
+
+   /**
+    * All projects of the reactor, in build order.
+    */
+   @Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+   private List<MavenProject> reactorProjects;
+
+   /**
+    * Executes the reactor-wide test allocation.
+    *
+    * @throws MojoExecutionException if an error occurs during test allocation.
+    */
+   @Override
+   public void execute() throws MojoExecutionException {
+      if (!isEnabled()) {
+         getLog().info("[TestSplitter] Disabled. Skipping.");
+         return;
+      }
+
+      rejectProjectAllocationSettings("the split-reactor goal");
+      final List<MavenProject> modules = reactorProjects.stream()
+            .filter(module -> !"pom".equals(module.getPackaging()))
+            .filter(module -> new File(module.getBuild().getTestOutputDirectory()).isDirectory())
+            .toList();
+      modules.forEach(module -> rejectSuiteXmlFiles("the split-reactor goal", module, SUREFIRE_PLUGIN));
+
+      final ProjectLayout root = projectLayout();
+      final TestSplitterConfiguration config = createConfigurationAndService(root).getLeft();
+      logConfiguration(config);
+      getLog().info(String.format("[TestSplitter] Scanning %d of %d reactor modules",
+            modules.size(), reactorProjects.size()));
+
+      final List<AllocationScan> scans = modules.parallelStream()
+            .map(module -> {
+               Pair<TestSplitterConfiguration, BaseAllocatorService> pair =
+                     createConfigurationAndService(moduleLayout(module, root));
+               return pair.getRight().scan(pair.getLeft());
+            })
+            .toList();
+
+      final Map<String, AllocationScan> scansByModule = new LinkedHashMap<>();
+      for (int i = 0; i < modules.size(); i++) {
+         MavenProject module = modules.get(i);
+         String coordinates = module.getGroupId() + ":" + module.getArtifactId();
+         getLog().info(String.format("[TestSplitter] Module %s: %d units",
+               coordinates, scans.get(i).getClassMethodCounts().size()));
+         scansByModule.put(coordinates, scans.get(i));
+      }
+
+      new ReactorAllocatorService(getLog()).allocateTests(scansByModule, config);
+   }
+
+   /**
+    * Resolves the directories of a module, rebasing directories configured inside the executing project.
+    *
+    * @param module The reactor module.
+    * @param root   The layout of the executing project.
+    * @return The layout of the module.
+    */
+   private static ProjectLayout moduleLayout(MavenProject module, ProjectLayout root) {
+      final File baseDirectory = module.getBasedir();
+      final File buildDirectory = new File(module.getBuild().getDirectory());
+      final File rootBuildDirectory = new File(root.project().getBuild().getDirectory());
+      return new ProjectLayout(
+            module,
+            new File(module.getBuild().getTestOutputDirectory()),
+            baseDirectory,
+            rebase(root.reportsDirectory(), rootBuildDirectory, buildDirectory),
+            rebase(root.featuresDirectory(), root.baseDirectory(), baseDirectory),
+            rebase(root.suiteOutputDirectory(), rootBuildDirectory, buildDirectory),
+            List.of(),
+            TestRoot.SUREFIRE
+      );
+   }
+
+   private static File rebase(File directory, File fromRoot, File toRoot) {
+      if (directory == null) {
+         return null;
+      }
+      final Path path = directory.toPath().toAbsolutePath().normalize();
+      final Path from = fromRoot.toPath().toAbsolutePath().normalize();
+      return path.startsWith(from) ? toRoot.toPath().resolve(from.relativize(path)).toFile() : directory;
+   }
+
+}
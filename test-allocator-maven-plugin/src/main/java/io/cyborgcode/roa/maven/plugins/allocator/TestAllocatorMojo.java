@@ -1,17 +1,43 @@
 package io.cyborgcode.roa.maven.plugins.allocator;
 
+import io.cyborgcode.roa.maven.plugins.allocator.cache.AllocatorCaches;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TagProfile;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestRoot;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationCucumber;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationJunit;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationMixed;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationTestng;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestJarDiscovery;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestClassPatterns;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.Shard;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
+import io.cyborgcode.roa.maven.plugins.allocator.impact.TestImpactAnalysis;
+import io.cyborgcode.roa.maven.plugins.allocator.impact.TestResultCache;
+import io.cyborgcode.roa.maven.plugins.allocator.service.AllocationScan;
+import io.cyborgcode.roa.maven.plugins.allocator.service.BaseAllocatorService;
+import io.cyborgcode.roa.maven.plugins.allocator.service.CucumberAllocatorService;
 import io.cyborgcode.roa.maven.plugins.allocator.service.JunitAllocatorService;
+import io.cyborgcode.roa.maven.plugins.allocator.service.MixedAllocatorService;
+import io.cyborgcode.roa.maven.plugins.allocator.service.ReactorAllocatorService;
+import io.cyborgcode.roa.maven.plugins.allocator.service.RerunAllocatorService;
 import io.cyborgcode.roa.maven.plugins.allocator.service.TestAllocatorService;
 import io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorService;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -19,25 +45,40 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 
 /**
  * Maven plugin that allocates and splits tests into multiple execution groups.
  *
  * <p>This plugin helps distribute test methods across multiple execution buckets
- * for parallel execution based on the selected test engine (JUnit or TestNG).
+ * for parallel execution based on the selected test engine (JUnit, TestNG, Cucumber scenarios, or all
+ * engines of a project together).
  *
- * <p>Supports filtering by tags (JUnit) and suite names (TestNG), and allows
+ * <p>Supports filtering by tags (JUnit), suite names and groups (TestNG), tag expressions (Cucumber), and allows
  * configuring the number of methods per group and parallel execution settings.
  *
+ * <p>The goal is thread-safe: modules built concurrently with {@code mvn -T} allocate independently and only
+ * share the caches of the session, such as parsed suite files and test histories.
+ *
  * @author Cyborg Code Syndicate 💍👨💻
  */
 @Mojo(
       name = "split",
       defaultPhase = LifecyclePhase.TEST_COMPILE,
-      requiresDependencyResolution = ResolutionScope.TEST
+      requiresDependencyResolution = ResolutionScope.TEST,
+      threadSafe = true
 )
 public class TestAllocatorMojo extends AbstractMojo {
 
+   static final String SUREFIRE_PLUGIN = "org.apache.maven.plugins:maven-surefire-plugin";
+
+   static final String FAILSAFE_PLUGIN = "org.apache.maven.plugins:maven-failsafe-plugin";
+
+   /**
+    * Surefire {@code test} pattern excluding every class, used for an empty shard.
+    */
+   private static final String EXCLUDE_ALL_TESTS = "!**/*";
+
    /**
     * Enables or disables test splitting.
     */
@@ -45,7 +86,8 @@ public class TestAllocatorMojo extends AbstractMojo {
    private boolean enabled;
 
    /**
-    * Defines the test framework to use (JUnit or TestNG).
+    * Defines the test framework to use: {@code junit}, {@code testng}, {@code cucumber} to allocate
+    * individual scenarios, or {@code auto}/{@code mixed} to allocate the classes of all engines together.
     */
    @Parameter(property = "testSplitter.test.engine", required = true, defaultValue = "junit")
    private String testEngine;
@@ -63,13 +105,80 @@ public class TestAllocatorMojo extends AbstractMojo {
    private String tagsExclude;
 
    /**
-    * Comma-separated list of TestNG suite names.
+    * How JUnit tests are discovered: {@code reflection} counts annotated methods, {@code launcher} runs the
+    * project's JUnit Platform launcher to find the tests of every engine and records their unique IDs.
+    */
+   @Parameter(property = "testSplitter.junit.discovery", defaultValue = "reflection")
+   private String junitDiscovery;
+
+   /**
+    * Keeps the tests found by reflection in memory between builds of a long-lived JVM, such as a Maven
+    * daemon, so only changed test classes are loaded again.
+    */
+   @Parameter(property = "testSplitter.junit.inventory.cache", defaultValue = "true")
+   private boolean inventoryCache;
+
+   /**
+    * Named JUnit tag filters, each allocated into its own {@code <json.output>-<name>.json} from a single
+    * discovery pass. When set, the include and exclude tags are ignored.
+    */
+   @Parameter
+   private List<TagProfile> tagProfiles;
+
+   /**
+    * Comma-separated list of TestNG suite names. Without suites, the {@code testng} engine allocates every
+    * TestNG class.
     */
    @Parameter(property = "testSplitter.testng.suites")
    private String suites;
 
    /**
-    * Maximum number of test methods per execution bucket.
+    * Comma-separated globs, relative to the project root, of files searched for TestNG suites.
+    */
+   @Parameter(property = "testSplitter.testng.suiteFiles.include")
+   private String suiteFilesInclude;
+
+   /**
+    * Comma-separated globs, relative to the project root, excluded from TestNG suite discovery.
+    */
+   @Parameter(property = "testSplitter.testng.suiteFiles.exclude")
+   private String suiteFilesExclude;
+
+   /**
+    * Comma-separated list of included TestNG groups.
+    */
+   @Parameter(property = "testSplitter.testng.groups.include")
+   private String groupsInclude;
+
+   /**
+    * Comma-separated list of excluded TestNG groups.
+    */
+   @Parameter(property = "testSplitter.testng.groups.exclude")
+   private String groupsExclude;
+
+   /**
+    * Directory receiving one trimmed TestNG suite file per bucket.
+    */
+   @Parameter(property = "testSplitter.testng.suiteOutputDirectory",
+         defaultValue = "${project.build.directory}/test-splitter-suites")
+   private File suiteOutputDirectory;
+
+   /**
+    * Directory searched for Cucumber {@code .feature} files.
+    */
+   @Parameter(property = "testSplitter.cucumber.features", defaultValue = "${project.basedir}/src/test/resources")
+   private File featuresDirectory;
+
+   /**
+    * Cucumber tag expression selecting the allocated scenarios, such as {@code @smoke and not @wip}.
+    */
+   @Parameter(property = "testSplitter.cucumber.tags")
+   private String cucumberTags;
+
+   /**
+    * Maximum estimated cost of an execution bucket, in method-time units: a test method executed alone costs
+    * {@code 1}. A bucket of sequential methods therefore holds at most this many methods, while methods that run
+    * concurrently cost less, so a bucket of them holds proportionally more.
     */
    @Parameter(property = "testSplitter.maxMethods", defaultValue = "20")
    private int maxMethods;
@@ -86,6 +195,12 @@ public class TestAllocatorMojo extends AbstractMojo {
    @Parameter(defaultValue = "${project}", readonly = true)
    private MavenProject project;
 
+   /**
+    * The current Maven session, holding the caches shared by all allocations of the build.
+    */
+   @Parameter(defaultValue = "${session}", readonly = true)
+   private MavenSession session;
+
    /**
     * Name of the output JSON file that stores the test allocation results.
     */
@@ -110,6 +225,150 @@ public class TestAllocatorMojo extends AbstractMojo {
    @Parameter(property = "testSplitter.max.number.runners", defaultValue = "20", required = true)
    private int maxNumberOfParallelRunners;
 
+   /**
+    * Number of cores a runner offers for concurrent test execution; {@code 0} uses the local machine's cores.
+    */
+   @Parameter(property = "testSplitter.runner.cores", defaultValue = "0")
+   private int runnerCores;
+
+   /**
+    * Directory containing the JUnit XML reports of a previous run, used as execution history.
+    */
+   @Parameter(property = "testSplitter.history.reports", defaultValue = "${project.build.directory}/surefire-reports")
+   private File reportsDirectory;
+
+   /**
+    * Comma-separated {@code groupId:artifactId[:type[:classifier]]} patterns of dependencies whose classes are
+    * allocated along with the compiled test classes, as with Surefire's {@code dependenciesToScan}.
+    */
+   @Parameter(property = "testSplitter.dependenciesToScan")
+   private String dependenciesToScan;
+
+   /**
+    * Directories of compiled test classes allocated in one run, each with its runner plugin, in order of
+    * precedence. When set, they replace the test output directory.
+    */
+   @Parameter
+   private List<TestRoot> testRoots;
+
+   /**
+    * How test roots are packed: {@code together} into one manifest, or {@code separate} into
+    * {@code <json.output>-<runner>.json} per runner, for separate pipeline stages.
+    */
+   @Parameter(property = "testSplitter.roots.packing", defaultValue = "together")
+   private String rootPacking;
+
+   /**
+    * Whether class files are selected by the include and exclude patterns of the Surefire or Failsafe plugin,
+    * so classes the plugin never runs are not allocated. Ignored by the {@code testng} engine with suites, as
+    * the suites select the classes to run.
+    */
+   @Parameter(property = "testSplitter.runnerPatterns", defaultValue = "true")
+   private boolean runnerPatterns;
+
+   /**
+    * Comma-separated include patterns of the test classes, replacing the includes of the runner plugin.
+    */
+   @Parameter(property = "testSplitter.includes")
+   private String includes;
+
+   /**
+    * Comma-separated exclude patterns of the test classes, replacing the excludes of the runner plugin.
+    */
+   @Parameter(property = "testSplitter.excludes")
+   private String excludes;
+
+   /**
+    * Base revision, e.g. {@code origin/main}, whose diff with the git working tree selects the tests to
+    * allocate: only test classes depending on changed classes are allocated. Not supported by the
+    * {@code cucumber} engine.
+    */
+   @Parameter(property = "testSplitter.impact.base")
+   private String impactBase;
+
+   /**
+    * Directory of per-test-class JaCoCo execution data of a previous full run, one {@code <test class>.exec}
+    * file each. When set, impact selection picks the tests that executed the changed classes instead of
+    * those referencing them in bytecode.
+    */
+   @Parameter(property = "testSplitter.impact.coverage")
+   private File impactCoverage;
+
+   /**
+    * Directory of the local store of passed test classes, keyed by the content hash of each class and the
+    * classes it depends on. When set, classes that passed with their current content are left out of the
+    * buckets and listed in {@code <json.output>-cached.json}; outcomes are read from the reports of the run
+    * following the previous allocation. Not supported by the {@code cucumber} engine, with test roots or by the
+    * {@code split-reactor} goal.
+    */
+   @Parameter(property = "testSplitter.resultCache")
+   private File resultCache;
+
+   /**
+    * Keeps classes in the jobs of the previous manifest, read from the JSON output file before it is
+    * overwritten, so runners keep caches warmed for their classes. New, removed and displaced classes are
+    * absorbed by moving as few classes as possible. Not supported with test roots or by the
+    * {@code split-reactor} goal.
+    */
+   @Parameter(property = "testSplitter.sticky", defaultValue = "false")
+   private boolean sticky;
+
+   /**
+    * Tolerated increase of the longest job over a fresh allocation when classes are kept in their previous
+    * jobs, as a fraction, such as {@code 0.1} for 10%.
+    */
+   @Parameter(property = "testSplitter.sticky.tolerance", defaultValue = "0.1")
+   private double stickyTolerance;
+
+   /**
+    * Order of the classes within each job: {@code packing} keeps the order they were packed in,
+    * {@code failures} runs the classes that failed most often in the history reports first and, among equally
+    * failing ones, the shortest first. The order is kept in the manifest and in the generated TestNG suites.
+    * {@code failures} is not supported with test roots or by the {@code split-reactor} goal.
+    */
+   @Parameter(property = "testSplitter.order", defaultValue = "packing")
+   private String order;
+
+   /**
+    * Wall-clock time each of the {@code maxNumberOfParallelRunners} runners may take, in seconds. When
+    * positive, only the most valuable tests that fit are allocated, one job per runner, and the others are
+    * written to {@code <json.output>-deferred.json}. Tests are valued by their recent failure rate, by the
+    * impact of the changes if impact selection is enabled, and by the priority tags. Not supported with shards,
+    * test roots or by the {@code split-reactor} goal.
+    */
+   @Parameter(property = "testSplitter.budget", defaultValue = "0")
+   private int timeBudget;
+
+   /**
+    * Comma-separated tags, or TestNG groups, of the tests valued higher when selecting within a time budget.
+    */
+   @Parameter(property = "testSplitter.budget.priorityTags")
+   private String priorityTags;
+
+   /**
+    * Allocates only the test methods that failed or errored in the reports of the previous attempt, read from
+    * the history reports directory, packed by their recorded durations. Test classes are not scanned.
+    */
+   @Parameter(property = "testSplitter.rerun.failed", defaultValue = "false")
+   private boolean rerunFailed;
+
+   /**
+    * Shard of the tests this runner executes, as {@code <index>/<total>}, such as {@code 3/16}. When set, no
+    * manifest is written: the tests are counted locally and the classes of the shard are passed to Surefire as
+    * its {@code test} property. Only supported for classes run without suites: not by the {@code testng} and
+    * {@code cucumber} engines, TestNG suites, Surefire {@code suiteXmlFiles}, launcher discovery or test roots.
+    */
+   @Parameter(property = "testSplitter.shard")
+   private String shard;
+
+   /**
+    * How a runner selects its shard: {@code hash} assigns classes by hashing their names, so runners agree
+    * without sharing anything, {@code packed} balances estimated durations, so runners must read the same
+    * history reports.
+    */
+   @Parameter(property = "testSplitter.shard.strategy", defaultValue = "hash")
+   private String shardStrategy;
+
    /**
     * Executes the test allocation process.
     *
@@ -122,7 +381,22 @@ public class TestAllocatorMojo extends AbstractMojo {
          return;
       }
 
-      Pair<TestSplitterConfiguration, TestAllocatorService> pair = createConfigurationAndService();
+      if (rerunFailed) {
+         rerunFailedTests(projectLayout());
+         return;
+      }
+
+      if (shard != null && !shard.isBlank()) {
+         selectShard(projectLayout());
+         return;
+      }
+
+      if (testRoots != null && !testRoots.isEmpty()) {
+         allocateTestRoots(projectLayout());
+         return;
+      }
+
+      Pair<TestSplitterConfiguration, BaseAllocatorService> pair = createConfigurationAndService(projectLayout());
       TestSplitterConfiguration config = pair.getLeft();
       TestAllocatorService testAllocatorService = pair.getRight();
 
@@ -130,66 +404,552 @@ public class TestAllocatorMojo extends AbstractMojo {
       testAllocatorService.allocateTests(config);
    }
 
+   /**
+    * Allocates the tests that failed in the previous attempt.
+    *
+    * @param layout The directories of the project, locating the reports of the attempt.
+    * @throws MojoExecutionException if the manifest cannot be written.
+    */
+   private void rerunFailedTests(ProjectLayout layout) throws MojoExecutionException {
+      if ("cucumber".equalsIgnoreCase(testEngine)) {
+         throw new IllegalArgumentException("Rerunning failed tests is not supported by the cucumber engine.");
+      }
+      final TestSplitterConfiguration config = TestSplitterConfiguration.builder()
+            .enabled(enabled)
+            .testOutputDirectory(layout.testOutputDirectory())
+            .mavenProject(layout.project())
+            .jsonOutputFile(outputJsonFile)
+            .projectRoot(layout.baseDirectory().getAbsolutePath())
+            .maxNumberOfParallelRunners(maxNumberOfParallelRunners)
+            .reportsDirectory(layout.reportsDirectory())
+            .build();
+      getLog().info(String.format("[TestSplitter] reportsDirectory = %s", config.getReportsDirectory()));
+      new RerunAllocatorService(getLog()).allocateTests(config);
+   }
+
+   /**
+    * Keeps the tests of the shard of this runner and configures Surefire to run only them.
+    *
+    * <p>The classes of the shard are set as the {@code test} property of the project, read by Surefire when it
+    * executes later in the build. Surefire ignores its {@code suiteXmlFiles} when {@code test} is set, so
+    * sharding is rejected wherever suites, or the unique IDs of launcher discovery, describe what to run. An
+    * empty shard excludes every class instead, as an empty {@code test} property would run all of them, and
+    * lets Surefire pass without running any.
+    *
+    * @param layout The directories of the project whose tests are sharded.
+    */
+   private void selectShard(ProjectLayout layout) {
+      if ("cucumber".equalsIgnoreCase(testEngine)) {
+         throw new IllegalArgumentException("Sharding is not supported by the cucumber engine.");
+      }
+      if ("testng".equalsIgnoreCase(testEngine) || !parseInput(suites).isEmpty()) {
+         throw new IllegalArgumentException("Sharding is not supported with TestNG suites.");
+      }
+      if (hasSuiteXmlFiles(layout.project(), SUREFIRE_PLUGIN)) {
+         throw new IllegalArgumentException("Sharding is not supported with Surefire suiteXmlFiles.");
+      }
+      if (isLauncherDiscovery()) {
+         throw new IllegalArgumentException("Sharding is not supported with launcher discovery.");
+      }
+      if (testRoots != null && !testRoots.isEmpty()) {
+         throw new IllegalArgumentException("Sharding is not supported with test roots.");
+      }
+      if (timeBudget > 0) {
+         throw new IllegalArgumentException("Sharding is not supported with a time budget.");
+      }
+      final Shard selected = Shard.parse(shard);
+      final boolean packed = isPackedSharding();
+      final Pair<TestSplitterConfiguration, BaseAllocatorService> pair = createConfigurationAndService(layout);
+      logConfiguration(pair.getLeft());
+
+      final TestBucket bucket = pair.getRight().selectShard(pair.getLeft(), selected, packed);
+      final Properties properties = layout.project().getProperties();
+      if (bucket.getClassNames().isEmpty()) {
+         properties.setProperty("test", EXCLUDE_ALL_TESTS);
+         properties.setProperty("surefire.failIfNoSpecifiedTests", "false");
+         getLog().info(String.format("[TestSplitter] Shard %s is empty, excluding all tests", selected));
+         return;
+      }
+      properties.setProperty("test", String.join(",", bucket.getClassNames()));
+      getLog().info(String.format("[TestSplitter] Set test to the %d classes of shard %s",
+            bucket.getClassNames().size(), selected));
+   }
+
+   private boolean isPackedSharding() {
+      if (shardStrategy == null || "hash".equalsIgnoreCase(shardStrategy)) {
+         return false;
+      }
+      if ("packed".equalsIgnoreCase(shardStrategy)) {
+         return true;
+      }
+      throw new IllegalArgumentException(
+            "Invalid shard strategy: " + shardStrategy + ". Supported: hash, packed."
+      );
+   }
+
+   private boolean isFailuresFirstOrder() {
+      if (order == null || "packing".equalsIgnoreCase(order)) {
+         return false;
+      }
+      if ("failures".equalsIgnoreCase(order)) {
+         return true;
+      }
+      throw new IllegalArgumentException(
+            "Invalid order: " + order + ". Supported: packing, failures."
+      );
+   }
+
+   /**
+    * Allocates the tests of all test roots, grouped by runner.
+    *
+    * <p>Each root is scanned with its own cost model and history, in parallel. A class compiled into several
+    * roots is allocated with the first of them only.
+    *
+    * @param layout The directories of the project.
+    * @throws MojoExecutionException if an error occurs during test allocation.
+    */
+   private void allocateTestRoots(ProjectLayout layout) throws MojoExecutionException {
+      rejectProjectAllocationSettings("test roots");
+      final boolean separate = isSeparateRootPacking();
+      final List<ProjectLayout> rootLayouts = new ArrayList<>();
+      final List<File> preceding = new ArrayList<>();
+      for (TestRoot testRoot : testRoots) {
+         if (testRoot.getDirectory() == null) {
+            throw new IllegalArgumentException("Every test root requires a directory.");
+         }
+         rejectSuiteXmlFiles("test roots", layout.project(),
+               TestRoot.FAILSAFE.equals(testRoot.getRunner()) ? FAILSAFE_PLUGIN : SUREFIRE_PLUGIN);
+         rootLayouts.add(rootLayout(layout, testRoot, List.copyOf(preceding)));
+         preceding.add(testRoot.getDirectory());
+      }
+
+      final TestSplitterConfiguration config = createConfigurationAndService(rootLayouts.get(0)).getLeft();
+      logConfiguration(config);
+      getLog().info(String.format("[TestSplitter] Scanning %d test roots", testRoots.size()));
+
+      final List<AllocationScan> scans = rootLayouts.parallelStream()
+            .map(rootLayout -> {
+               Pair<TestSplitterConfiguration, BaseAllocatorService> pair = createConfigurationAndService(rootLayout);
+               return pair.getRight().scan(pair.getLeft());
+            })
+            .toList();
+
+      final Map<String, AllocationScan> scansByRunner = new LinkedHashMap<>();
+      for (int i = 0; i < testRoots.size(); i++) {
+         TestRoot testRoot = testRoots.get(i);
+         getLog().info(String.format("[TestSplitter] Test root %s (%s): %d units",
+               testRoot.getDirectory(), testRoot.getRunner(), scans.get(i).getClassMethodCounts().size()));
+         scansByRunner.merge(testRoot.getRunner(), scans.get(i), AllocationScan::merge);
+      }
+
+      final ReactorAllocatorService service = new ReactorAllocatorService(getLog(), "runners", "classesByRunner");
+      if (!separate) {
+         service.allocateTests(scansByRunner, config);
+         return;
+      }
+      for (Map.Entry<String, AllocationScan> runner : scansByRunner.entrySet()) {
+         service.allocateTests(Map.of(runner.getKey(), runner.getValue()), config,
+               config.getJsonOutputFile() + "-" + runner.getKey());
+      }
+   }
+
+   /**
+    * Rejects the settings applied only when the tests of a single project are allocated.
+    *
+    * <p>Test roots and reactor modules are scanned per root or module and packed together, without the result
+    * cache, the previous manifest, the time budget or the failure history being consulted, so these settings
+    * would be silently ignored. Their jobs only list classes per root or module, so configurations whose jobs
+    * are run from engine-specific attributes, the TestNG {@code suiteFile} of configured suites, the
+    * {@code uniqueIds} of launcher discovery and the {@code engines} of mixed allocations, are rejected too.
+    * TestNG classes without suites are allocated by class, like JUnit classes.
+    *
+    * @param allocation Describes the allocation, completing "not supported with".
+    */
+   void rejectProjectAllocationSettings(String allocation) {
+      if (!"junit".equalsIgnoreCase(testEngine) && !"testng".equalsIgnoreCase(testEngine)
+            && !"cucumber".equalsIgnoreCase(testEngine)) {
+         throw new IllegalArgumentException("The " + testEngine + " engine is not supported with " + allocation
+               + ". Supported: junit, testng, cucumber.");
+      }
+      if ("testng".equalsIgnoreCase(testEngine) && !parseInput(suites).isEmpty()) {
+         throw new IllegalArgumentException("TestNG suites are not supported with " + allocation + ".");
+      }
+      if (isLauncherDiscovery()) {
+         throw new IllegalArgumentException("Launcher discovery is not supported with " + allocation + ".");
+      }
+      if (resultCache != null) {
+         throw new IllegalArgumentException("The result cache is not supported with " + allocation + ".");
+      }
+      if (sticky) {
+         throw new IllegalArgumentException("Sticky allocation is not supported with " + allocation + ".");
+      }
+      if (timeBudget > 0) {
+         throw new IllegalArgumentException("A time budget is not supported with " + allocation + ".");
+      }
+      if (isFailuresFirstOrder()) {
+         throw new IllegalArgumentException("The failures order is not supported with " + allocation + ".");
+      }
+   }
+
+   /**
+    * Rejects a runner plugin configured with TestNG suite files, when allocating TestNG classes by class.
+    *
+    * <p>The runner ignores its {@code suiteXmlFiles} when the classes of a job are passed as its {@code test}
+    * filter, so the suites would silently stop applying.
+    *
+    * @param allocation   Describes the allocation, completing "not supported with".
+    * @param mavenProject The project whose runner plugin runs the classes.
+    * @param pluginKey    The key of the Surefire or Failsafe plugin.
+    */
+   void rejectSuiteXmlFiles(String allocation, MavenProject mavenProject, String pluginKey) {
+      if ("testng".equalsIgnoreCase(testEngine) && hasSuiteXmlFiles(mavenProject, pluginKey)) {
+         throw new IllegalArgumentException("The suiteXmlFiles of " + pluginKey.substring(pluginKey.indexOf(':') + 1)
+               + " are not supported with " + allocation + ".");
+      }
+   }
+
+   private static ProjectLayout rootLayout(ProjectLayout layout, TestRoot testRoot, List<File> precedingTestRoots) {
+      File rootReports = testRoot.getReportsDirectory();
+      if (rootReports == null && TestRoot.FAILSAFE.equals(testRoot.getRunner())) {
+         rootReports = new File(buildDirectory(layout), "failsafe-reports");
+      }
+      return new ProjectLayout(
+            layout.project(),
+            testRoot.getDirectory(),
+            layout.baseDirectory(),
+            rootReports == null ? layout.reportsDirectory() : rootReports,
+            layout.featuresDirectory(),
+            layout.suiteOutputDirectory(),
+            precedingTestRoots,
+            testRoot.getRunner()
+      );
+   }
+
+   private static File buildDirectory(ProjectLayout layout) {
+      return layout.project() != null && layout.project().getBuild() != null
+            ? new File(layout.project().getBuild().getDirectory())
+            : new File(layout.baseDirectory(), "target");
+   }
+
+   private boolean isSeparateRootPacking() {
+      if (rootPacking == null || "together".equalsIgnoreCase(rootPacking)) {
+         return false;
+      }
+      if ("separate".equalsIgnoreCase(rootPacking)) {
+         return true;
+      }
+      throw new IllegalArgumentException(
+            "Invalid test root packing: " + rootPacking + ". Supported: together, separate."
+      );
+   }
+
    /**
     * Creates the appropriate test configuration and service based on the selected test engine.
     *
+    * <p>{@code auto} and {@code mixed} allocate the classes of all engines of the project together.
+    *
+    * @param layout The directories of the project whose tests are allocated.
     * @return A pair containing the test configuration and the test allocation service.
     */
-   private Pair<TestSplitterConfiguration, TestAllocatorService> createConfigurationAndService() {
+   Pair<TestSplitterConfiguration, BaseAllocatorService> createConfigurationAndService(ProjectLayout layout) {
       TestSplitterConfiguration config;
-      TestAllocatorService service = switch (testEngine.toLowerCase()) {
+      BaseAllocatorService service = switch (testEngine.toLowerCase()) {
          case "junit" -> {
-            config = TestSplitterConfigurationJunit.builder()
-                  .enabled(enabled)
-                  .maxMethodsPerBucket(maxMethods)
-                  .testOutputDirectory(testOutputDir)
-                  .mavenProject(project)
-                  .jsonOutputFile(outputJsonFile)
-                  .projectRoot(projectBaseDir.getAbsolutePath())
-                  .parallelMethods(parallelMethods)
-                  .maxNumberOfParallelRunners(maxNumberOfParallelRunners)
-                  .includeTags(parseInput(tagsInclude))
-                  .excludeTags(parseInput(tagsExclude))
-                  .build();
+            config = createJunitConfiguration(layout);
             yield new JunitAllocatorService(getLog());
          }
          case "testng" -> {
-            config = TestSplitterConfigurationTestng.builder()
-                  .enabled(enabled)
-                  .maxMethodsPerBucket(maxMethods)
-                  .testOutputDirectory(testOutputDir)
-                  .mavenProject(project)
-                  .jsonOutputFile(outputJsonFile)
-                  .projectRoot(projectBaseDir.getAbsolutePath())
-                  .parallelMethods(parallelMethods)
-                  .maxNumberOfParallelRunners(maxNumberOfParallelRunners)
-                  .suites(parseInput(suites))
-                  .build();
+            config = createTestNgConfiguration(layout);
             yield new TestNgAllocatorService(getLog());
          }
+         case "cucumber" -> {
+            TestSplitterConfigurationCucumber.TestSplitterConfigurationCucumberBuilder<?, ?> builder =
+                  TestSplitterConfigurationCucumber.builder()
+                        .featuresDirectory(layout.featuresDirectory())
+                        .tagExpression(cucumberTags);
+            applyCommonSettings(builder, layout);
+            config = builder.build();
+            yield new CucumberAllocatorService(getLog());
+         }
+         case "auto", "mixed" -> {
+            TestSplitterConfigurationMixed.TestSplitterConfigurationMixedBuilder<?, ?> builder =
+                  TestSplitterConfigurationMixed.builder()
+                        .junit(createJunitConfiguration(layout))
+                        .testng(createTestNgConfiguration(layout));
+            applyCommonSettings(builder, layout);
+            config = builder.build();
+            yield new MixedAllocatorService(getLog());
+         }
          default -> throw new IllegalArgumentException(
-               "Invalid test engine: " + testEngine + ". Supported: junit, testng."
+               "Invalid test engine: " + testEngine + ". Supported: junit, testng, cucumber, auto, mixed."
          );
       };
 
       return new Pair<>(config, service);
    }
 
+   /**
+    * Returns the directories of the project this goal is executed for.
+    *
+    * @return The layout of the current project.
+    */
+   ProjectLayout projectLayout() {
+      return new ProjectLayout(project, testOutputDir, projectBaseDir, reportsDirectory, featuresDirectory,
+            suiteOutputDirectory, List.of(), TestRoot.SUREFIRE);
+   }
+
+   /**
+    * Indicates whether test splitting is enabled.
+    *
+    * @return {@code true} if tests are allocated.
+    */
+   boolean isEnabled() {
+      return enabled;
+   }
 
-   private void logConfiguration(TestSplitterConfiguration config) {
+   private TestSplitterConfigurationJunit createJunitConfiguration(ProjectLayout layout) {
+      TestSplitterConfigurationJunit.TestSplitterConfigurationJunitBuilder<?, ?> builder =
+            TestSplitterConfigurationJunit.builder()
+                  .includeTags(parseInput(tagsInclude))
+                  .excludeTags(parseInput(tagsExclude))
+                  .launcherDiscovery(isLauncherDiscovery())
+                  .inventoryCache(inventoryCache)
+                  .tagProfiles(tagProfiles == null ? List.of() : List.copyOf(tagProfiles));
+      applyCommonSettings(builder, layout);
+      return builder.build();
+   }
+
+   private boolean isLauncherDiscovery() {
+      if (junitDiscovery == null || "reflection".equalsIgnoreCase(junitDiscovery)) {
+         return false;
+      }
+      if ("launcher".equalsIgnoreCase(junitDiscovery)) {
+         return true;
+      }
+      throw new IllegalArgumentException(
+            "Invalid JUnit discovery: " + junitDiscovery + ". Supported: reflection, launcher."
+      );
+   }
+
+   private TestSplitterConfigurationTestng createTestNgConfiguration(ProjectLayout layout) {
+      TestSplitterConfigurationTestng.TestSplitterConfigurationTestngBuilder<?, ?> builder =
+            TestSplitterConfigurationTestng.builder()
+                  .suites(parseInput(suites))
+                  .suiteFileIncludes(parseInput(suiteFilesInclude))
+                  .suiteFileExcludes(parseInput(suiteFilesExclude))
+                  .includeGroups(parseInput(groupsInclude))
+                  .excludeGroups(parseInput(groupsExclude))
+                  .suiteOutputDirectory(layout.suiteOutputDirectory());
+      applyCommonSettings(builder, layout);
+      return builder.build();
+   }
+
+   private void applyCommonSettings(TestSplitterConfiguration.TestSplitterConfigurationBuilder<?, ?> builder,
+                                    ProjectLayout layout) {
+      builder.enabled(enabled)
+            .maxMethodsPerBucket(maxMethods)
+            .testOutputDirectory(layout.testOutputDirectory())
+            .mavenProject(layout.project())
+            .jsonOutputFile(outputJsonFile)
+            .projectRoot(layout.baseDirectory().getAbsolutePath())
+            .parallelMethods(parallelMethods)
+            .maxNumberOfParallelRunners(maxNumberOfParallelRunners)
+            .runnerCores(runnerCores)
+            .reportsDirectory(layout.reportsDirectory())
+            .dependenciesToScan(resolveDependenciesToScan(layout.project()))
+            .precedingTestRoots(layout.precedingTestRoots())
+            .testClassPatterns(resolveTestClassPatterns(layout))
+            .impactAnalysis(resolveImpactAnalysis(layout))
+            .resultCache(resolveResultCache(layout))
+            .sticky(sticky)
+            .stickyTolerance(stickyTolerance)
+            .failuresFirst(isFailuresFirstOrder())
+            .timeBudget(timeBudget)
+            .priorityTags(parseInput(priorityTags))
+            .caches(AllocatorCaches.forSession(session));
+   }
+
+
+   private List<File> resolveDependenciesToScan(MavenProject mavenProject) {
+      final Set<String> patterns = parseInput(dependenciesToScan);
+      if (patterns.isEmpty() || mavenProject == null) {
+         return List.of();
+      }
+      return TestJarDiscovery.resolve(mavenProject.getArtifacts(), patterns);
+   }
+
+   /**
+    * Compiles the include and exclude patterns of the plugin running the tests of a layout.
+    *
+    * <p>Patterns given to this goal take precedence over those configured for the runner plugin in the
+    * project model, which take precedence over the defaults of the plugin.
+    *
+    * @param layout The directories of the project whose tests are allocated.
+    * @return The compiled patterns, or {@code null} if class files are not selected by pattern.
+    */
+   private TestClassPatterns resolveTestClassPatterns(ProjectLayout layout) {
+      if (!runnerPatterns || "testng".equalsIgnoreCase(testEngine) && !parseInput(suites).isEmpty()) {
+         return null;
+      }
+      final boolean failsafe = TestRoot.FAILSAFE.equals(layout.runner());
+      final String pluginKey = failsafe ? FAILSAFE_PLUGIN : SUREFIRE_PLUGIN;
+      return TestClassPatterns.compile(
+            resolvePatterns(includes, layout.project(), pluginKey, "includes",
+                  failsafe ? TestClassPatterns.FAILSAFE_INCLUDES : TestClassPatterns.SUREFIRE_INCLUDES),
+            resolvePatterns(excludes, layout.project(), pluginKey, "excludes", TestClassPatterns.DEFAULT_EXCLUDES)
+      );
+   }
+
+   private static boolean hasSuiteXmlFiles(MavenProject mavenProject, String pluginKey) {
+      final Plugin plugin = mavenProject == null ? null : mavenProject.getPlugin(pluginKey);
+      return plugin != null && plugin.getConfiguration() instanceof Xpp3Dom configuration
+            && configuration.getChild("suiteXmlFiles") != null
+            && configuration.getChild("suiteXmlFiles").getChildCount() > 0;
+   }
+
+   private static Collection<String> resolvePatterns(String input, MavenProject mavenProject, String pluginKey,
+                                                     String name, List<String> defaults) {
+      final Set<String> patterns = parseInput(input);
+      if (!patterns.isEmpty()) {
+         return patterns;
+      }
+      final Plugin plugin = mavenProject == null ? null : mavenProject.getPlugin(pluginKey);
+      if (plugin != null && plugin.getConfiguration() instanceof Xpp3Dom configuration
+            && configuration.getChild(name) != null) {
+         for (Xpp3Dom pattern : configuration.getChild(name).getChildren()) {
+            if (pattern.getValue() != null && !pattern.getValue().isBlank()) {
+               patterns.add(pattern.getValue().trim());
+            }
+         }
+      }
+      return patterns.isEmpty() ? defaults : patterns;
+   }
+
+   /**
+    * Creates the analysis selecting the tests affected by the changes of the working tree.
+    *
+    * <p>The dependency graph covers the test output directory and the class directories of the test
+    * classpath, such as the main output directory and those of other reactor modules. The graph, or the
+    * coverage index when execution data is given, is cached per test output directory in the build
+    * directory.
+    *
+    * @param layout The directories of the project whose tests are allocated.
+    * @return The analysis, or {@code null} if impact selection is disabled.
+    */
+   private TestImpactAnalysis resolveImpactAnalysis(ProjectLayout layout) {
+      if (impactBase == null || impactBase.isBlank() || "cucumber".equalsIgnoreCase(testEngine)) {
+         return null;
+      }
+      final List<File> sourceRoots = new ArrayList<>();
+      final MavenProject mavenProject = layout.project();
+      if (mavenProject != null) {
+         mavenProject.getCompileSourceRoots().forEach(root -> sourceRoots.add(new File(root)));
+         mavenProject.getTestCompileSourceRoots().forEach(root -> sourceRoots.add(new File(root)));
+      }
+      final List<File> classDirectories = new ArrayList<>();
+      classDirectories.add(layout.testOutputDirectory());
+      testClasspath(layout, "impact selection").stream()
+            .filter(element -> element.isDirectory() && !classDirectories.contains(element))
+            .forEach(classDirectories::add);
+      final String cacheName = impactCoverage != null
+            ? "coverage-index-" + layout.testOutputDirectory().getName() + ".bin"
+            : classDependenciesCacheName(layout);
+      return new TestImpactAnalysis(impactBase.trim(), layout.baseDirectory(), sourceRoots, classDirectories,
+            new File(buildDirectory(layout), "test-splitter/" + cacheName), impactCoverage);
+   }
+
+   /**
+    * Creates the cache skipping the test classes that passed with their current content.
+    *
+    * <p>Hashes cover the test output directory and the class directories of the test classpath, with their
+    * resources, and the libraries of the test classpath. The store is kept per module and test output
+    * directory in the configured directory; the dependency graph shares the cache of impact selection.
+    *
+    * @param layout The directories of the project whose tests are allocated.
+    * @return The result cache, or {@code null} if it is disabled.
+    */
+   private TestResultCache resolveResultCache(ProjectLayout layout) {
+      if (resultCache == null || "cucumber".equalsIgnoreCase(testEngine)) {
+         return null;
+      }
+      final List<File> classDirectories = new ArrayList<>();
+      classDirectories.add(layout.testOutputDirectory());
+      final List<File> libraries = new ArrayList<>();
+      for (File element : testClasspath(layout, "the result cache")) {
+         if (element.isDirectory()) {
+            if (!classDirectories.contains(element)) {
+               classDirectories.add(element);
+            }
+         } else if (element.isFile()) {
+            libraries.add(element);
+         }
+      }
+      final String storeName = (layout.project() != null ? layout.project().getArtifactId() + "-" : "")
+            + layout.testOutputDirectory().getName();
+      return new TestResultCache(new File(resultCache, "test-results-" + storeName + ".json"),
+            layout.reportsDirectory(), classDirectories, libraries,
+            new File(buildDirectory(layout), "test-splitter/" + classDependenciesCacheName(layout)));
+   }
+
+   private static String classDependenciesCacheName(ProjectLayout layout) {
+      return "class-dependencies-" + layout.testOutputDirectory().getName() + ".json";
+   }
+
+   private static List<File> testClasspath(ProjectLayout layout, String purpose) {
+      if (layout.project() == null) {
+         return List.of();
+      }
+      try {
+         return layout.project().getTestClasspathElements().stream().map(File::new).toList();
+      } catch (DependencyResolutionRequiredException e) {
+         throw new IllegalStateException("Cannot resolve the test classpath for " + purpose + ".", e);
+      }
+   }
+
+   void logConfiguration(TestSplitterConfiguration config) {
       getLog().info("[TestSplitter] Starting test splitting...");
       getLog().info(String.format("[TestSplitter] testOutputDir = %s", config.getTestOutputDirectory()));
       getLog().info(String.format("[TestSplitter] testEngine = %s", testEngine));
 
-      if (config instanceof TestSplitterConfigurationJunit junitConfig) {
-         getLog().info(String.format("[TestSplitter] tagsInclude = %s", junitConfig.getIncludeTags()));
-         getLog().info(String.format("[TestSplitter] tagsExclude = %s", junitConfig.getExcludeTags()));
+      if (config instanceof TestSplitterConfigurationMixed mixedConfig) {
+         logJunitConfiguration(mixedConfig.getJunit());
+         logTestNgConfiguration(mixedConfig.getTestng());
+      } else if (config instanceof TestSplitterConfigurationJunit junitConfig) {
+         logJunitConfiguration(junitConfig);
       } else if (config instanceof TestSplitterConfigurationTestng testngConfig) {
-         getLog().info(String.format("[TestSplitter] suites = %s", testngConfig.getSuites()));
+         logTestNgConfiguration(testngConfig);
+      } else if (config instanceof TestSplitterConfigurationCucumber cucumberConfig) {
+         getLog().info(String.format("[TestSplitter] featuresDirectory = %s", cucumberConfig.getFeaturesDirectory()));
+         getLog().info(String.format("[TestSplitter] tagExpression = %s", cucumberConfig.getTagExpression()));
       }
 
-      getLog().info(String.format("[TestSplitter] maxMethods = %d", config.getMaxMethodsPerBucket()));
+      getLog().info(String.format("[TestSplitter] maxMethods = %d method-time units per bucket",
+            config.getMaxMethodsPerBucket()));
       getLog().info(String.format("[TestSplitter] outputJsonFile = %s", config.getJsonOutputFile()));
+      if (config.getTimeBudget() > 0) {
+         getLog().info(String.format("[TestSplitter] timeBudget = %ds, priorityTags = %s",
+               config.getTimeBudget(), config.getPriorityTags()));
+      }
+   }
+
+   private void logJunitConfiguration(TestSplitterConfigurationJunit junitConfig) {
+      getLog().info(String.format("[TestSplitter] tagsInclude = %s", junitConfig.getIncludeTags()));
+      getLog().info(String.format("[TestSplitter] tagsExclude = %s", junitConfig.getExcludeTags()));
+      getLog().info(String.format("[TestSplitter] launcherDiscovery = %s", junitConfig.isLauncherDiscovery()));
+      getLog().info(String.format("[TestSplitter] inventoryCache = %s", junitConfig.isInventoryCache()));
+      if (!junitConfig.getTagProfiles().isEmpty()) {
+         getLog().info(String.format("[TestSplitter] tagProfiles = %s", junitConfig.getTagProfiles().stream()
+               .map(TagProfile::getName)
+               .toList()));
+      }
+   }
+
+   private void logTestNgConfiguration(TestSplitterConfigurationTestng testngConfig) {
+      getLog().info(String.format("[TestSplitter] suites = %s", testngConfig.getSuites()));
+      getLog().info(String.format("[TestSplitter] groupsInclude = %s", testngConfig.getIncludeGroups()));
+      getLog().info(String.format("[TestSplitter] groupsExclude = %s", testngConfig.getExcludeGroups()));
+      getLog().info(String.format("[TestSplitter] suiteOutputDirectory = %s",
+            testngConfig.getSuiteOutputDirectory()));
    }
 
 
@@ -204,7 +964,29 @@ public class TestAllocatorMojo extends AbstractMojo {
    }
 
 
-   private static class Pair<L, R> {
+   /**
+    * The directories of a project that tests are discovered in and results are read from.
+    *
+    * @param project              The Maven project.
+    * @param testOutputDirectory  Directory containing the compiled test classes.
+    * @param baseDirectory        Root directory of the project.
+    * @param reportsDirectory     Directory containing the JUnit XML reports of a previous run.
+    * @param featuresDirectory    Directory searched for Cucumber feature files.
+    * @param suiteOutputDirectory Directory receiving the trimmed TestNG suite of each bucket.
+    * @param precedingTestRoots   Test roots allocated before this one, whose classes are skipped.
+    * @param runner               Plugin running the tests: {@code surefire} or {@code failsafe}.
+    */
+   record ProjectLayout(MavenProject project,
+                        File testOutputDirectory,
+                        File baseDirectory,
+                        File reportsDirectory,
+                        File featuresDirectory,
+                        File suiteOutputDirectory,
+                        List<File> precedingTestRoots,
+                        String runner) {
+   }
+
+   static class Pair<L, R> {
 
       private final L left;
       private final R right;
@@ -0,0 +1,291 @@
+package io.cyborgcode.roa.maven.plugins.allocator.bytecode;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal reader for the Java class file format.
+ *
+ * <p>Only the parts needed for static analysis are kept: the constant pool entries for UTF-8 strings,
+ * integers, strings and classes, plus the name, descriptor and bytecode of every method. Fields and
+ * attributes other than {@code Code} are skipped. Parsing does not load or link the class, so it is
+ * safe for classes whose dependencies are not on the classpath.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class ClassFile {
+
+   private static final int MAGIC = 0xCAFEBABE;
+
+   private static final int CONSTANT_UTF8 = 1;
+   private static final int CONSTANT_INTEGER = 3;
+   private static final int CONSTANT_FLOAT = 4;
+   private static final int CONSTANT_LONG = 5;
+   private static final int CONSTANT_DOUBLE = 6;
+   private static final int CONSTANT_CLASS = 7;
+   private static final int CONSTANT_STRING = 8;
+   private static final int CONSTANT_FIELDREF = 9;
+   private static final int CONSTANT_METHODREF = 10;
+   private static final int CONSTANT_INTERFACE_METHODREF = 11;
+   private static final int CONSTANT_NAME_AND_TYPE = 12;
+   private static final int CONSTANT_METHOD_HANDLE = 15;
+   private static final int CONSTANT_METHOD_TYPE = 16;
+   private static final int CONSTANT_DYNAMIC = 17;
+   private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+   private static final int CONSTANT_MODULE = 19;
+   private static final int CONSTANT_PACKAGE = 20;
+
+   private static final Pattern DESCRIPTOR_CLASS = Pattern.compile("L([\\w/$]+)[;<]");
+
+   private final int[] tags;
+   private final String[] utf8;
+   private final int[] values;
+   private final String className;
+   private final List<MethodInfo> methods;
+
+   private ClassFile(int[] tags, String[] utf8, int[] values, String className, List<MethodInfo> methods) {
+      this.tags = tags;
+      this.utf8 = utf8;
+      this.values = values;
+      this.className = className;
+      this.methods = Collections.unmodifiableList(methods);
+   }
+
+   /**
+    * Parses a class file.
+    *
+    * @param bytes the content of a {@code .class} file
+    * @return the parsed class file
+    * @throws IOException if the content is not a valid class file
+    */
+   public static ClassFile parse(byte[] bytes) throws IOException {
+      final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+      if (in.readInt() != MAGIC) {
+         throw new IOException("Not a class file");
+      }
+      in.readUnsignedShort();
+      in.readUnsignedShort();
+
+      final int count = in.readUnsignedShort();
+      final int[] tags = new int[count];
+      final String[] utf8 = new String[count];
+      final int[] values = new int[count];
+      for (int i = 1; i < count; i++) {
+         int tag = in.readUnsignedByte();
+         tags[i] = tag;
+         switch (tag) {
+            case CONSTANT_UTF8 -> utf8[i] = in.readUTF();
+            case CONSTANT_INTEGER -> values[i] = in.readInt();
+            case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE ->
+                  values[i] = in.readUnsignedShort();
+            case CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF, CONSTANT_INTERFACE_METHODREF,
+                  CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC, CONSTANT_INVOKE_DYNAMIC -> in.skipNBytes(4);
+            case CONSTANT_METHOD_HANDLE -> in.skipNBytes(3);
+            case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+               in.skipNBytes(8);
+               i++;
+            }
+            default -> throw new IOException("Unknown constant pool tag " + tag);
+         }
+      }
+
+      in.readUnsignedShort();
+      final int thisClass = in.readUnsignedShort();
+      in.readUnsignedShort();
+      in.skipNBytes(2L * in.readUnsignedShort());
+
+      final int fieldCount = in.readUnsignedShort();
+      for (int i = 0; i < fieldCount; i++) {
+         in.skipNBytes(6);
+         skipAttributes(in);
+      }
+
+      final int methodCount = in.readUnsignedShort();
+      final List<MethodInfo> methods = new ArrayList<>(methodCount);
+      for (int i = 0; i < methodCount; i++) {
+         in.readUnsignedShort();
+         String name = utf8[in.readUnsignedShort()];
+         String descriptor = utf8[in.readUnsignedShort()];
+         byte[] code = null;
+         int attributeCount = in.readUnsignedShort();
+         for (int a = 0; a < attributeCount; a++) {
+            String attributeName = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            if ("Code".equals(attributeName)) {
+               in.skipNBytes(4);
+               code = new byte[in.readInt()];
+               in.readFully(code);
+               in.skipNBytes(length - 8L - code.length);
+            } else {
+               in.skipNBytes(length);
+            }
+         }
+         methods.add(new MethodInfo(name, descriptor, code));
+      }
+
+      final String internalName = utf8[values[thisClass]];
+      return new ClassFile(tags, utf8, values, internalName.replace('/', '.'), methods);
+   }
+
+   /**
+    * Returns the fully qualified name of the class.
+    *
+    * @return the binary class name, using {@code .} as package separator
+    */
+   public String getClassName() {
+      return className;
+   }
+
+   /**
+    * Returns the methods declared by the class.
+    *
+    * @return the declared methods, including constructors and static initializers
+    */
+   public List<MethodInfo> getMethods() {
+      return methods;
+   }
+
+   /**
+    * Finds a declared method by name and descriptor.
+    *
+    * @param name       the method name
+    * @param descriptor the JVM method descriptor, or {@code null} to match any overload
+    * @return the first matching method
+    */
+   public Optional<MethodInfo> findMethod(String name, String descriptor) {
+      return methods.stream()
+            .filter(m -> m.getName().equals(name) && (descriptor == null || m.getDescriptor().equals(descriptor)))
+            .findFirst();
+   }
+
+   /**
+    * Returns the value of an {@code Integer} constant.
+    *
+    * @param index constant pool index
+    * @return the integer value, or {@code null} if the entry is not an integer
+    */
+   public Integer integerConstant(int index) {
+      return isTag(index, CONSTANT_INTEGER) ? values[index] : null;
+   }
+
+   /**
+    * Returns the value of a {@code String} constant.
+    *
+    * @param index constant pool index
+    * @return the string value, or {@code null} if the entry is not a string
+    */
+   public String stringConstant(int index) {
+      return isTag(index, CONSTANT_STRING) ? utf8[values[index]] : null;
+   }
+
+   /**
+    * Returns the internal name of a {@code Class} constant, e.g. {@code java/lang/String} or
+    * {@code [Ljava/lang/Object;}.
+    *
+    * @param index constant pool index
+    * @return the internal class name, or {@code null} if the entry is not a class
+    */
+   public String classConstant(int index) {
+      return isTag(index, CONSTANT_CLASS) ? utf8[values[index]] : null;
+   }
+
+   /**
+    * Returns the internal names of all classes referenced from the constant pool.
+    *
+    * @return referenced class names, including array descriptors
+    */
+   public List<String> getReferencedClasses() {
+      final List<String> result = new ArrayList<>();
+      for (int i = 1; i < tags.length; i++) {
+         if (tags[i] == CONSTANT_CLASS) {
+            result.add(utf8[values[i]]);
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Returns the internal names of the classes named in type descriptors and signatures of the constant pool,
+    * such as member types, generic type arguments and annotation types, which need no {@code Class} constant.
+    *
+    * @return class names of object types in descriptors, possibly repeated
+    */
+   public List<String> getDescriptorClasses() {
+      final List<String> result = new ArrayList<>();
+      for (int i = 1; i < tags.length; i++) {
+         String value = tags[i] == CONSTANT_UTF8 ? utf8[i] : null;
+         if (value == null || value.isEmpty() || "(L[<".indexOf(value.charAt(0)) < 0) {
+            continue;
+         }
+         Matcher matcher = DESCRIPTOR_CLASS.matcher(value);
+         while (matcher.find()) {
+            result.add(matcher.group(1));
+         }
+      }
+      return result;
+   }
+
+   private boolean isTag(int index, int tag) {
+      return index > 0 && index < tags.length && tags[index] == tag;
+   }
+
+   private static void skipAttributes(DataInputStream in) throws IOException {
+      final int count = in.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+         in.readUnsignedShort();
+         in.skipNBytes(Integer.toUnsignedLong(in.readInt()));
+      }
+   }
+
+   /**
+    * Name, descriptor and bytecode of a declared method.
+    */
+   public static final class MethodInfo {
+
+      private final String name;
+      private final String descriptor;
+      private final byte[] code;
+
+      private MethodInfo(String name, String descriptor, byte[] code) {
+         this.name = name;
+         this.descriptor = descriptor;
+         this.code = code;
+      }
+
+      /**
+       * Returns the method name.
+       *
+       * @return the method name
+       */
+      public String getName() {
+         return name;
+      }
+
+      /**
+       * Returns the JVM method descriptor.
+       *
+       * @return the descriptor, e.g. {@code ()[[Ljava/lang/Object;}
+       */
+      public String getDescriptor() {
+         return descriptor;
+      }
+
+      /**
+       * Returns a copy of the method's bytecode.
+       *
+       * @return the bytecode, empty for abstract and native methods
+       */
+      public byte[] getCode() {
+         return code == null ? new byte[0] : code.clone();
+      }
+
+   }
+
+}
@@ -0,0 +1,161 @@
+package io.cyborgcode.roa.maven.plugins.allocator.bytecode;
+
+/**
+ * Walks JVM bytecode one instruction at a time.
+ *
+ * <p>Only instruction boundaries are decoded; interpreting operands is left to the {@link Visitor},
+ * which can read them with {@link #u1(byte[], int)}, {@link #u2(byte[], int)}, {@link #s1(byte[], int)}
+ * and {@link #s2(byte[], int)}.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class Instructions {
+
+   public static final int ICONST_M1 = 0x02;
+   public static final int ICONST_5 = 0x08;
+   public static final int BIPUSH = 0x10;
+   public static final int SIPUSH = 0x11;
+   public static final int LDC = 0x12;
+   public static final int LDC_W = 0x13;
+   public static final int ANEWARRAY = 0xbd;
+   public static final int MULTIANEWARRAY = 0xc5;
+
+   private static final int TABLESWITCH = 0xaa;
+   private static final int LOOKUPSWITCH = 0xab;
+   private static final int WIDE = 0xc4;
+   private static final int IINC = 0x84;
+
+   /**
+    * Private constructor to prevent instantiation of utility class.
+    */
+   private Instructions() {
+   }
+
+   /**
+    * Callback invoked for every instruction.
+    */
+   @FunctionalInterface
+   public interface Visitor {
+
+      /**
+       * Visits one instruction.
+       *
+       * @param opcode the instruction opcode
+       * @param code   the complete bytecode of the method
+       * @param offset the offset of the opcode within {@code code}
+       */
+      void visit(int opcode, byte[] code, int offset);
+
+   }
+
+   /**
+    * Visits every instruction of a method body in order.
+    *
+    * @param code    the bytecode of a method
+    * @param visitor the callback invoked for each instruction
+    */
+   public static void forEach(byte[] code, Visitor visitor) {
+      int offset = 0;
+      while (offset < code.length) {
+         int opcode = u1(code, offset);
+         visitor.visit(opcode, code, offset);
+         offset += length(code, offset);
+      }
+   }
+
+   /**
+    * Returns the length in bytes of the instruction at the given offset, including its operands.
+    *
+    * @param code   the bytecode of a method
+    * @param offset the offset of an opcode
+    * @return the instruction length
+    */
+   public static int length(byte[] code, int offset) {
+      final int opcode = u1(code, offset);
+      switch (opcode) {
+         case BIPUSH, LDC, 0xbc, 0xa9:
+            return 2;
+         case SIPUSH, LDC_W, 0x14, IINC, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8,
+               0xbb, ANEWARRAY, 0xc0, 0xc1, 0xc6, 0xc7:
+            return 3;
+         case MULTIANEWARRAY:
+            return 4;
+         case 0xb9, 0xba, 0xc8, 0xc9:
+            return 5;
+         case WIDE:
+            return u1(code, offset + 1) == IINC ? 6 : 4;
+         case TABLESWITCH: {
+            int base = padded(offset);
+            int low = s4(code, base + 4);
+            int high = s4(code, base + 8);
+            return base - offset + 12 + 4 * (high - low + 1);
+         }
+         case LOOKUPSWITCH: {
+            int base = padded(offset);
+            int pairs = s4(code, base + 4);
+            return base - offset + 8 + 8 * pairs;
+         }
+         default:
+            if ((opcode >= 0x15 && opcode <= 0x19) || (opcode >= 0x36 && opcode <= 0x3a)) {
+               return 2;
+            }
+            if (opcode >= 0x99 && opcode <= 0xa8) {
+               return 3;
+            }
+            return 1;
+      }
+   }
+
+   /**
+    * Reads an unsigned byte.
+    *
+    * @param code   the bytecode
+    * @param offset the offset to read at
+    * @return the value
+    */
+   public static int u1(byte[] code, int offset) {
+      return code[offset] & 0xff;
+   }
+
+   /**
+    * Reads an unsigned big-endian short.
+    *
+    * @param code   the bytecode
+    * @param offset the offset to read at
+    * @return the value
+    */
+   public static int u2(byte[] code, int offset) {
+      return (u1(code, offset) << 8) | u1(code, offset + 1);
+   }
+
+   /**
+    * Reads a signed byte.
+    *
+    * @param code   the bytecode
+    * @param offset the offset to read at
+    * @return the value
+    */
+   public static int s1(byte[] code, int offset) {
+      return code[offset];
+   }
+
+   /**
+    * Reads a signed big-endian short.
+    *
+    * @param code   the bytecode
+    * @param offset the offset to read at
+    * @return the value
+    */
+   public static int s2(byte[] code, int offset) {
+      return (short) u2(code, offset);
+   }
+
+   private static int s4(byte[] code, int offset) {
+      return (u2(code, offset) << 16) | u2(code, offset + 2);
+   }
+
+   private static int padded(int offset) {
+      return (offset + 4) & ~3;
+   }
+
+}
@@ -0,0 +1,93 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cache;
+
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.io.File;
+import java.util.function.Function;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.SessionData;
+import org.testng.xml.XmlSuite;
+
+/**
+ * Caches shared by all allocations of one Maven session.
+ *
+ * <p>Modules built concurrently with {@code mvn -T} each run their own mojo execution, but reuse the work of
+ * the others through the caches held here:
+ * <ul>
+ *   <li>Parsed TestNG suites, keyed by the path and the hash of the content of the suite file. Cached
+ *       suites are shared and must not be changed; callers copy them before use.</li>
+ *   <li>Test histories, keyed by reports directory and the latest modification time of its entries, so
+ *       reports written by a test run later in the session are read again.</li>
+ * </ul>
+ * All caches are striped {@link StripedCache}s, so executions do not contend on a global lock.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class AllocatorCaches {
+
+   private static final int STRIPES = 16;
+   private static final int SUITES_PER_STRIPE = 64;
+   private static final int HISTORIES_PER_STRIPE = 8;
+
+   private final StripedCache<String, XmlSuite> suites = new StripedCache<>(STRIPES, SUITES_PER_STRIPE);
+   private final StripedCache<String, TestHistory> histories = new StripedCache<>(STRIPES, HISTORIES_PER_STRIPE);
+
+   /**
+    * Returns the caches of a Maven session, creating them for its first allocation.
+    *
+    * <p>The caches are stored in the session data of the repository session, which lives exactly as long as
+    * the build. Without a session, fresh caches are returned.
+    *
+    * @param session the current Maven session; may be {@code null}
+    * @return the caches shared by the session
+    */
+   public static AllocatorCaches forSession(MavenSession session) {
+      if (session == null || session.getRepositorySession() == null) {
+         return new AllocatorCaches();
+      }
+      // The class itself is the key, so plugin versions loaded in different realms never share caches.
+      final SessionData data = session.getRepositorySession().getData();
+      while (true) {
+         Object existing = data.get(AllocatorCaches.class);
+         if (existing instanceof AllocatorCaches caches) {
+            return caches;
+         }
+         AllocatorCaches created = new AllocatorCaches();
+         if (data.set(AllocatorCaches.class, existing, created)) {
+            return created;
+         }
+      }
+   }
+
+   /**
+    * Returns the parsed suite with the given key, parsing it when absent.
+    *
+    * @param key    path and hash of the content of the suite file
+    * @param parser parses the suite file
+    * @return the parsed suite
+    */
+   public XmlSuite suite(String key, Function<String, XmlSuite> parser) {
+      return suites.get(key, parser);
+   }
+
+   /**
+    * Returns the history recorded in a reports directory, reading it when absent or modified.
+    *
+    * @param reportsDirectory directory containing the reports; may be {@code null}
+    * @return the recorded history
+    */
+   public TestHistory history(File reportsDirectory) {
+      if (reportsDirectory == null || !reportsDirectory.isDirectory()) {
+         return TestHistory.empty();
+      }
+      final File directory = reportsDirectory.getAbsoluteFile();
+      // Reports rewritten in place do not touch the directory, so the entries are stamped as well.
+      final File[] entries = directory.listFiles();
+      long stamp = directory.lastModified();
+      for (File entry : entries == null ? new File[0] : entries) {
+         stamp = Math.max(stamp, entry.lastModified());
+      }
+      return histories.get(directory.getPath() + "@" + stamp,
+            key -> TestHistory.load(directory));
+   }
+
+}
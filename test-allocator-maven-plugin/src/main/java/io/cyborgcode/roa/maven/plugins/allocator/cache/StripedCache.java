@@ -0,0 +1,105 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded cache split into independently locked stripes.
+ *
+ * <p>Each key maps to one stripe by its hash, and every stripe is a small least-recently-used map guarded by
+ * its own lock. Threads working on different keys therefore rarely contend, and no lock is held while a
+ * value is loaded: two threads missing the same key may both load it, and the first value stored wins.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class StripedCache<K, V> {
+
+   private final List<Stripe<K, V>> stripes;
+   private final int mask;
+
+   /**
+    * Creates a cache.
+    *
+    * @param stripeCount         number of stripes, rounded up to a power of two
+    * @param maxEntriesPerStripe number of entries each stripe keeps before evicting its least recently used one
+    */
+   public StripedCache(int stripeCount, int maxEntriesPerStripe) {
+      int count = 1;
+      while (count < stripeCount) {
+         count <<= 1;
+      }
+      this.stripes = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+         stripes.add(new Stripe<>(Math.max(1, maxEntriesPerStripe)));
+      }
+      this.mask = count - 1;
+   }
+
+   /**
+    * Returns the cached value of a key, loading and caching it when absent.
+    *
+    * @param key    the key
+    * @param loader computes the value of a missing key; {@code null} values are returned but not cached
+    * @return the cached or loaded value
+    */
+   public V get(K key, Function<? super K, ? extends V> loader) {
+      final Stripe<K, V> stripe = stripeFor(key);
+      final V cached = stripe.get(key);
+      if (cached != null) {
+         return cached;
+      }
+      final V loaded = loader.apply(key);
+      return loaded == null ? null : stripe.putIfAbsent(key, loaded);
+   }
+
+   /**
+    * Returns the number of cached entries.
+    *
+    * @return the number of entries across all stripes
+    */
+   public int size() {
+      return stripes.stream().mapToInt(Stripe::size).sum();
+   }
+
+   private Stripe<K, V> stripeFor(K key) {
+      final int hash = key.hashCode();
+      return stripes.get((hash ^ (hash >>> 16)) & mask);
+   }
+
+   /**
+    * A least-recently-used map guarded by its own monitor.
+    */
+   private static final class Stripe<K, V> {
+
+      private final Map<K, V> entries;
+
+      private Stripe(int maxEntries) {
+         this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+               return size() > maxEntries;
+            }
+         };
+      }
+
+      private synchronized V get(K key) {
+         return entries.get(key);
+      }
+
+      private synchronized V putIfAbsent(K key, V value) {
+         final V existing = entries.putIfAbsent(key, value);
+         return existing == null ? value : existing;
+      }
+
+      private synchronized int size() {
+         return entries.size();
+      }
+
+   }
+
+}
@@ -0,0 +1,310 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cache;
+
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.ClassFileDiscovery;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestMethodFilter;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestTagInventory;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Test inventories of compiled test classes, kept alive between builds of a long-lived JVM.
+ *
+ * <p>A Maven daemon such as {@code mvnd} keeps the plugin loaded between builds, so the inventory held by
+ * {@link #daemon()} survives from one {@code split} to the next. Each project keeps the tests and tags of its
+ * classes, validated on every lookup:
+ * <ul>
+ *   <li>A class file whose size and modification time are unchanged reuses its recorded tests, without
+ *       loading the class, as long as the class files of its supertypes in the test output are unchanged
+ *       too. Inherited test methods and {@code @Inherited} tags come from those supertypes.</li>
+ *   <li>Changed and new class files, and the subclasses of changed or deleted ones, are loaded and reflected
+ *       again; deleted ones are dropped.</li>
+ *   <li>A changed annotation type, whose meta-tags may apply to any class, or a changed dependency
+ *       classpath discards the recorded tests of the project.</li>
+ * </ul>
+ * Only class names, method names and tags are kept, so the class loaders of finished builds can be
+ * collected. Projects are evicted least recently used first.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestInventoryCache {
+
+   private static final int STRIPES = 4;
+   private static final int PROJECTS_PER_STRIPE = 8;
+
+   /**
+    * The inventories of the running JVM, shared by all builds it executes.
+    */
+   private static final TestInventoryCache DAEMON = new TestInventoryCache(STRIPES, PROJECTS_PER_STRIPE);
+
+   private final StripedCache<String, ProjectEntries> projects;
+
+   /**
+    * Creates an empty cache.
+    *
+    * @param stripes            number of independently locked stripes
+    * @param projectsPerStripe  number of projects each stripe keeps before evicting its least recently used one
+    */
+   public TestInventoryCache(int stripes, int projectsPerStripe) {
+      this.projects = new StripedCache<>(stripes, projectsPerStripe);
+   }
+
+   /**
+    * Returns the cache living as long as the JVM, such as a Maven daemon.
+    *
+    * @return the JVM-wide cache
+    */
+   public static TestInventoryCache daemon() {
+      return DAEMON;
+   }
+
+   /**
+    * Returns the inventory of a project, reflecting only the classes changed since its previous lookup.
+    *
+    * @param projectKey          identifies the project and its test output directory
+    * @param classFiles          the current class files of the test output directory
+    * @param testOutputDirectory the directory the class files are located in
+    * @param testClassLoader     loads changed classes
+    * @return the inventory with the number of classes whose recorded tests were reused
+    */
+   public Lookup inventory(String projectKey, List<File> classFiles, File testOutputDirectory,
+                           TestClassLoader testClassLoader) {
+      final String classpath = classpathFingerprint(testClassLoader.getUrls(), testOutputDirectory);
+      return projects.get(projectKey, key -> new ProjectEntries())
+            .refresh(classpath, classFiles, testOutputDirectory, testClassLoader);
+   }
+
+   /**
+    * Builds the inventory of the given classes by reflection, without any caching.
+    *
+    * @param classFiles          the class files to inspect
+    * @param testOutputDirectory the directory the class files are located in
+    * @param testClassLoader     loads the classes
+    * @return the tests and tags of all loadable classes
+    */
+   public static TestTagInventory scan(List<File> classFiles, File testOutputDirectory,
+                                       TestClassLoader testClassLoader) {
+      final TestTagInventory inventory = new TestTagInventory();
+      for (File classFile : classFiles) {
+         String className = ClassFileDiscovery.fileToClassName(classFile, testOutputDirectory);
+         reflect(className, null, null, testClassLoader).addTo(className, inventory);
+      }
+      return inventory;
+   }
+
+   private static ClassEntry reflect(String className, Fingerprint fingerprint, File testOutputDirectory,
+                                     TestClassLoader testClassLoader) {
+      final Class<?> clazz = testClassLoader.loadClass(className);
+      if (clazz == null) {
+         return new ClassEntry(fingerprint, Map.of(), List.of(), false, false);
+      }
+      final List<Map.Entry<String, Set<String>>> tests = new ArrayList<>();
+      TestMethodFilter.extractTestMethodTags(clazz).forEach((method, tags) ->
+            tests.add(Map.entry(method.getName(), Set.copyOf(tags))));
+      return new ClassEntry(fingerprint, supertypes(clazz, testOutputDirectory), List.copyOf(tests),
+            TestMethodFilter.isSequentialClassTheRingFramework(clazz), clazz.isAnnotation());
+   }
+
+   /**
+    * Collects the fingerprints of the superclasses and interfaces of a class, transitively, whose class files
+    * live in the test output directory, such as abstract base classes left out by the include patterns.
+    */
+   private static Map<String, Fingerprint> supertypes(Class<?> clazz, File testOutputDirectory) {
+      if (testOutputDirectory == null) {
+         return Map.of();
+      }
+      final Map<String, Fingerprint> result = new HashMap<>();
+      final Deque<Class<?>> pending = new ArrayDeque<>();
+      final Set<Class<?>> visited = new HashSet<>();
+      pending.push(clazz);
+      while (!pending.isEmpty()) {
+         final Class<?> type = pending.pop();
+         final List<Class<?>> parents = new ArrayList<>(List.of(type.getInterfaces()));
+         if (type.getSuperclass() != null) {
+            parents.add(type.getSuperclass());
+         }
+         for (Class<?> parent : parents) {
+            if (visited.add(parent)) {
+               Fingerprint fingerprint = Fingerprint.of(classFile(testOutputDirectory, parent.getName()));
+               if (fingerprint != null) {
+                  result.put(parent.getName(), fingerprint);
+               }
+               pending.push(parent);
+            }
+         }
+      }
+      return Map.copyOf(result);
+   }
+
+   private static File classFile(File testOutputDirectory, String className) {
+      return new File(testOutputDirectory, className.replace('.', File.separatorChar) + ".class");
+   }
+
+   /**
+    * Describes the dependency classpath: archives by size and modification time, directories by the number
+    * and latest modification time of their class files. The test output directory is validated per class.
+    */
+   private static String classpathFingerprint(URL[] urls, File testOutputDirectory) {
+      final StringBuilder fingerprint = new StringBuilder();
+      final File testOutput = testOutputDirectory.getAbsoluteFile();
+      for (URL url : urls == null ? new URL[0] : urls) {
+         File element;
+         try {
+            element = new File(url.toURI()).getAbsoluteFile();
+         } catch (URISyntaxException | IllegalArgumentException e) {
+            fingerprint.append(url).append(';');
+            continue;
+         }
+         if (element.equals(testOutput)) {
+            continue;
+         }
+         fingerprint.append(element.getPath()).append('@');
+         if (element.isDirectory()) {
+            List<File> classFiles = ClassFileDiscovery.findClassFiles(element);
+            fingerprint.append(classFiles.size()).append(':')
+                  .append(classFiles.stream().mapToLong(File::lastModified).max().orElse(0));
+         } else {
+            fingerprint.append(element.length()).append(':').append(element.lastModified());
+         }
+         fingerprint.append(';');
+      }
+      return fingerprint.toString();
+   }
+
+   /**
+    * The inventory returned by a lookup.
+    */
+   @Getter
+   @AllArgsConstructor
+   public static final class Lookup {
+
+      /**
+       * The tests and tags of all loadable classes.
+       */
+      private final TestTagInventory inventory;
+
+      /**
+       * The number of classes whose recorded tests were reused without loading them.
+       */
+      private final int reusedClasses;
+
+   }
+
+   /**
+    * The recorded classes of one project.
+    */
+   private static final class ProjectEntries {
+
+      private String classpath;
+      private Map<String, ClassEntry> entries = new HashMap<>();
+
+      private synchronized Lookup refresh(String currentClasspath, List<File> classFiles,
+                                          File testOutputDirectory, TestClassLoader testClassLoader) {
+         if (!currentClasspath.equals(classpath)) {
+            entries = new HashMap<>();
+            classpath = currentClasspath;
+         }
+
+         // Entries keep the order of the class files; stale classes hold no entry until reflected.
+         final Map<String, ClassEntry> current = new LinkedHashMap<>();
+         final Map<String, Fingerprint> stale = new HashMap<>();
+         final Map<String, Fingerprint> supertypes = new HashMap<>();
+         for (File classFile : classFiles) {
+            String className = ClassFileDiscovery.fileToClassName(classFile, testOutputDirectory);
+            Fingerprint fingerprint = Fingerprint.of(classFile);
+            ClassEntry entry = entries.get(className);
+            boolean unchanged = fingerprint != null && entry != null && fingerprint.equals(entry.fingerprint)
+                  && entry.supertypes.entrySet().stream().allMatch(supertype -> supertype.getValue().equals(
+                        supertypes.computeIfAbsent(supertype.getKey(),
+                              name -> Fingerprint.of(classFile(testOutputDirectory, name)))));
+            current.put(className, unchanged ? entry : null);
+            if (!unchanged) {
+               stale.put(className, fingerprint);
+            }
+         }
+
+         boolean annotationChanged = false;
+         for (Map.Entry<String, Fingerprint> changed : stale.entrySet()) {
+            ClassEntry entry = reflect(changed.getKey(), changed.getValue(), testOutputDirectory, testClassLoader);
+            annotationChanged |= entry.annotation;
+            current.put(changed.getKey(), entry);
+         }
+         int reused = current.size() - stale.size();
+         if (annotationChanged && reused > 0) {
+            current.replaceAll((className, entry) -> stale.containsKey(className)
+                  ? entry
+                  : reflect(className, entry.fingerprint, testOutputDirectory, testClassLoader));
+            reused = 0;
+         }
+
+         final TestTagInventory inventory = new TestTagInventory();
+         current.forEach((className, entry) -> entry.addTo(className, inventory));
+         // Classes without a fingerprint, such as files deleted while scanning, are never reused.
+         current.values().removeIf(entry -> entry.fingerprint == null);
+         entries = current;
+         return new Lookup(inventory, reused);
+      }
+
+   }
+
+   /**
+    * The recorded tests of one class file, with the fingerprints of the test classes it inherits from.
+    */
+   private static final class ClassEntry {
+
+      private final Fingerprint fingerprint;
+      private final Map<String, Fingerprint> supertypes;
+      private final List<Map.Entry<String, Set<String>>> tests;
+      private final boolean sequential;
+      private final boolean annotation;
+
+      private ClassEntry(Fingerprint fingerprint, Map<String, Fingerprint> supertypes,
+                         List<Map.Entry<String, Set<String>>> tests, boolean sequential, boolean annotation) {
+         this.fingerprint = fingerprint;
+         this.supertypes = supertypes;
+         this.tests = tests;
+         this.sequential = sequential;
+         this.annotation = annotation;
+      }
+
+      private void addTo(String className, TestTagInventory inventory) {
+         for (Map.Entry<String, Set<String>> test : tests) {
+            inventory.add(className, test.getKey(), test.getValue());
+         }
+         if (sequential) {
+            inventory.markSequential(className);
+         }
+      }
+
+   }
+
+   /**
+    * Size and modification time of a class file.
+    */
+   private record Fingerprint(long length, long lastModified) {
+
+      /**
+       * Reads the fingerprint of a file.
+       *
+       * @return the fingerprint, or {@code null} if the file does not exist
+       */
+      private static Fingerprint of(File file) {
+         final long lastModified = file.lastModified();
+         return lastModified == 0L ? null : new Fingerprint(file.length(), lastModified);
+      }
+
+   }
+
+}
@@ -0,0 +1,91 @@
+package io.cyborgcode.roa.maven.plugins.allocator.config;
+
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TagExpression;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import lombok.Getter;
+
+/**
+ * A named JUnit tag filter, allocated into its own manifest.
+ *
+ * <p>Profiles are declared in the plugin configuration:
+ * <pre>{@code
+ * <tagProfiles>
+ *   <tagProfile>
+ *     <name>smoke</name>
+ *     <include>smoke & !slow,fast</include>
+ *     <exclude>flaky</exclude>
+ *   </tagProfile>
+ * </tagProfiles>
+ * }</pre>
+ * Includes and excludes are comma-separated JUnit Platform tag expressions, as accepted by the {@code groups}
+ * and {@code excludedGroups} of Surefire, such as {@code smoke & !slow} or {@code none()}.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public class TagProfile {
+
+   /**
+    * Name of the profile, appended to the manifest file name.
+    */
+   private String name;
+
+   /**
+    * Comma-separated tag expressions to include; empty includes every test.
+    */
+   private String include;
+
+   /**
+    * Comma-separated tag expressions to exclude.
+    */
+   private String exclude;
+
+   /**
+    * Creates an empty profile, populated by Maven from the plugin configuration.
+    */
+   public TagProfile() {
+   }
+
+   /**
+    * Creates a profile.
+    *
+    * @param name    name of the profile
+    * @param include comma-separated tag expressions to include
+    * @param exclude comma-separated tag expressions to exclude
+    */
+   public TagProfile(String name, String include, String exclude) {
+      this.name = name;
+      this.include = include;
+      this.exclude = exclude;
+   }
+
+   /**
+    * Compiles the include and exclude expressions into a filter over the tags of a test.
+    *
+    * <p>A test is selected when it matches none of the exclude expressions and, if include expressions are
+    * given, any of them.
+    *
+    * @return the filter selecting the tests of the profile
+    * @throws IllegalArgumentException if an expression is malformed
+    */
+   public Predicate<Collection<String>> tagFilter() {
+      final List<TagExpression> includes = parse(include);
+      final List<TagExpression> excludes = parse(exclude);
+      return tags -> (includes.isEmpty() || includes.stream().anyMatch(expression -> expression.matches(tags)))
+            && excludes.stream().noneMatch(expression -> expression.matches(tags));
+   }
+
+   private static List<TagExpression> parse(String expressions) {
+      if (expressions == null) {
+         return List.of();
+      }
+      return Arrays.stream(expressions.split(","))
+            .filter(expression -> !expression.isBlank())
+            .map(TagExpression::parseJunit)
+            .toList();
+   }
+
+}
@@ -0,0 +1,90 @@
+package io.cyborgcode.roa.maven.plugins.allocator.config;
+
+import java.io.File;
+import java.util.Locale;
+import lombok.Getter;
+
+/**
+ * A directory of compiled test classes, executed by the Surefire or Failsafe plugin.
+ *
+ * <p>Roots are declared in the plugin configuration, in order of precedence:
+ * <pre>{@code
+ * <testRoots>
+ *   <testRoot>
+ *     <directory>${project.build.testOutputDirectory}</directory>
+ *   </testRoot>
+ *   <testRoot>
+ *     <directory>${project.build.directory}/it-classes</directory>
+ *     <runner>failsafe</runner>
+ *   </testRoot>
+ * </testRoots>
+ * }</pre>
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public class TestRoot {
+
+   /**
+    * Runner of roots that do not declare one.
+    */
+   public static final String SUREFIRE = "surefire";
+
+   /**
+    * Runner of integration test roots.
+    */
+   public static final String FAILSAFE = "failsafe";
+
+   /**
+    * Directory containing the compiled test classes.
+    */
+   private File directory;
+
+   /**
+    * Plugin running the tests of the root: {@code surefire} or {@code failsafe}.
+    */
+   private String runner;
+
+   /**
+    * Directory containing the JUnit XML reports of the root's previous run; defaults to the reports
+    * directory of its runner.
+    */
+   private File reportsDirectory;
+
+   /**
+    * Creates an empty root, populated by Maven from the plugin configuration.
+    */
+   public TestRoot() {
+   }
+
+   /**
+    * Creates a root.
+    *
+    * @param directory directory containing the compiled test classes
+    * @param runner    {@code surefire} or {@code failsafe}; {@code null} means {@code surefire}
+    */
+   public TestRoot(File directory, String runner) {
+      this.directory = directory;
+      this.runner = runner;
+   }
+
+   /**
+    * Returns the plugin running the tests of the root.
+    *
+    * @return {@code surefire} or {@code failsafe}
+    * @throws IllegalArgumentException if another runner is configured
+    */
+   public String getRunner() {
+      if (runner == null || runner.isBlank()) {
+         return SUREFIRE;
+      }
+      final String normalized = runner.trim().toLowerCase(Locale.ROOT);
+      if (!SUREFIRE.equals(normalized) && !FAILSAFE.equals(normalized)) {
+         throw new IllegalArgumentException(
+               "Invalid test root runner: " + runner + ". Supported: surefire, failsafe."
+         );
+      }
+      return normalized;
+   }
+
+}
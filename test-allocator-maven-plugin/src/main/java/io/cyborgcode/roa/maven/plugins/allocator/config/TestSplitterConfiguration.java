@@ -1,6 +1,12 @@
 package io.cyborgcode.roa.maven.plugins.allocator.config;
 
+import io.cyborgcode.roa.maven.plugins.allocator.cache.AllocatorCaches;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestClassPatterns;
+import io.cyborgcode.roa.maven.plugins.allocator.impact.TestImpactAnalysis;
+import io.cyborgcode.roa.maven.plugins.allocator.impact.TestResultCache;
 import java.io.File;
+import java.util.List;
+import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
@@ -19,6 +25,14 @@ import org.apache.maven.project.MavenProject;
  *   <li>Indicating the root directory of the project.</li>
  *   <li>Determining if tests should be executed in parallel.</li>
  *   <li>Setting the maximum number of parallel test runners.</li>
+ *   <li>Defining the number of cores a runner offers for concurrent test execution.</li>
+ *   <li>Locating the test reports of a previous run, used as execution history.</li>
+ *   <li>Listing dependency JARs whose test classes are allocated along with the compiled ones.</li>
+ *   <li>Listing the test roots allocated before this one, whose classes are skipped.</li>
+ *   <li>Keeping classes in the jobs of the previous manifest, within a tolerated imbalance.</li>
+ *   <li>Ordering the classes of each job so that recently failing ones run first.</li>
+ *   <li>Selecting the most valuable tests that fit a time budget per runner.</li>
+ *   <li>Sharing caches with the other allocations of the Maven session.</li>
  * </ul>
  *
  * @author Cyborg Code Syndicate 💍👨💻
@@ -33,7 +47,7 @@ public class TestSplitterConfiguration {
    private final boolean enabled;
 
    /**
-    * Maximum number of test methods allowed per test bucket.
+    * Maximum estimated cost allowed per test bucket, in method-time units.
     */
    private final int maxMethodsPerBucket;
 
@@ -68,4 +82,81 @@ public class TestSplitterConfiguration {
    @Setter
    private int maxNumberOfParallelRunners;
 
+   /**
+    * Number of cores available on a runner, used to model concurrent test execution.
+    * Values {@code <= 0} fall back to the cores of the machine running the allocation.
+    */
+   private final int runnerCores;
+
+   /**
+    * Directory containing the JUnit XML reports ({@code TEST-*.xml}) of a previous run.
+    * Missing reports simply mean that no history is available.
+    */
+   private final File reportsDirectory;
+
+   /**
+    * Dependency JARs, such as {@code test-jar} artifacts, whose classes are allocated along with the classes
+    * of the test output directory. May be {@code null} or empty.
+    */
+   private final List<File> dependenciesToScan;
+
+   /**
+    * Test output directories of the test roots allocated before this one. Classes also compiled into one of
+    * them are allocated with that root and skipped here. May be {@code null} or empty.
+    */
+   private final List<File> precedingTestRoots;
+
+   /**
+    * Include and exclude patterns of the plugin running the tests. Class files they reject are skipped before
+    * they are read. May be {@code null}, in which case every class file is counted.
+    */
+   private final TestClassPatterns testClassPatterns;
+
+   /**
+    * Selects the tests affected by the changes of the git working tree. May be {@code null}, in which case
+    * all tests are allocated.
+    */
+   private final TestImpactAnalysis impactAnalysis;
+
+   /**
+    * Skips the test classes that passed with their current content. May be {@code null}, in which case no
+    * test class is skipped.
+    */
+   private final TestResultCache resultCache;
+
+   /**
+    * Indicates whether classes are kept in the jobs of the previous manifest, read from the JSON output file
+    * before it is overwritten.
+    */
+   private final boolean sticky;
+
+   /**
+    * Tolerated increase of the longest job over a fresh allocation when classes are kept in their previous
+    * jobs, as a fraction, such as {@code 0.1} for 10%.
+    */
+   private final double stickyTolerance;
+
+   /**
+    * Indicates whether the classes of each job are ordered by their failure rate in the execution history,
+    * highest first, and then by estimated duration, shortest first.
+    */
+   private final boolean failuresFirst;
+
+   /**
+    * Wall-clock time each runner may take, in seconds. When positive, only the most valuable tests fitting
+    * the budget of all runners are allocated and the others are deferred.
+    */
+   private final int timeBudget;
+
+   /**
+    * Tags, or TestNG groups, of the tests valued higher by a time-budgeted selection. May be {@code null}.
+    */
+   private final Set<String> priorityTags;
+
+   /**
+    * Caches shared with the other allocations of the Maven session.
+    * May be {@code null}, in which case the allocation uses caches of its own.
+    */
+   private final AllocatorCaches caches;
+
 }
@@ -0,0 +1,35 @@
+package io.cyborgcode.roa.maven.plugins.allocator.config;
+
+import java.io.File;
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Configuration class for splitting Cucumber scenarios in a Maven project.
+ *
+ * <p>Extends {@link TestSplitterConfiguration} to include specific settings
+ * for selecting Cucumber scenarios.
+ *
+ * <p>This configuration allows the user to specify:
+ * <ul>
+ *   <li>The directory searched for {@code .feature} files.</li>
+ *   <li>A Cucumber tag expression selecting the scenarios to allocate.</li>
+ * </ul>
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+@SuperBuilder
+public class TestSplitterConfigurationCucumber extends TestSplitterConfiguration {
+
+   /**
+    * Directory searched recursively for {@code .feature} files.
+    */
+   private final File featuresDirectory;
+
+   /**
+    * Cucumber tag expression, such as {@code @smoke and not @wip}; blank selects every scenario.
+    */
+   private final String tagExpression;
+
+}
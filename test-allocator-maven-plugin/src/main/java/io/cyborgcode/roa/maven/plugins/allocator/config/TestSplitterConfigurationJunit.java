@@ -1,5 +1,6 @@
 package io.cyborgcode.roa.maven.plugins.allocator.config;
 
+import java.util.List;
 import java.util.Set;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
@@ -14,6 +15,9 @@ import lombok.experimental.SuperBuilder;
  * <ul>
  *   <li>Tags to include in test execution.</li>
  *   <li>Tags to exclude from test execution.</li>
+ *   <li>Whether tests are discovered by the project's JUnit Platform launcher instead of reflection.</li>
+ *   <li>Whether tests found by reflection are kept in memory for later builds in the same JVM.</li>
+ *   <li>Named tag profiles, each allocated into its own manifest from a single discovery pass.</li>
  * </ul>
  *
  * @author Cyborg Code Syndicate 💍👨💻
@@ -32,5 +36,22 @@ public class TestSplitterConfigurationJunit extends TestSplitterConfiguration {
     */
    private final Set<String> excludeTags;
 
+   /**
+    * Indicates whether tests are discovered by the JUnit Platform launcher of the project, covering every
+    * engine on the test classpath, instead of counting annotated methods by reflection.
+    */
+   private final boolean launcherDiscovery;
+
+   /**
+    * Indicates whether the tests found by reflection are kept in the JVM-wide inventory cache, so later
+    * builds in the same JVM, such as a Maven daemon, only load changed test classes.
+    */
+   private final boolean inventoryCache;
+
+   /**
+    * Named tag filters allocated from the same discovery pass, one manifest each. When empty, the include
+    * and exclude tags above produce a single manifest.
+    */
+   private final List<TagProfile> tagProfiles;
 
 }
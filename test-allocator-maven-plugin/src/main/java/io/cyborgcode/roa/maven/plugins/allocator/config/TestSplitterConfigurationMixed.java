@@ -0,0 +1,32 @@
+package io.cyborgcode.roa.maven.plugins.allocator.config;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Configuration class for splitting projects that run JUnit Jupiter, JUnit 4 and TestNG tests together.
+ *
+ * <p>Extends {@link TestSplitterConfiguration} with the engine-specific settings applied to the classes
+ * of each engine:
+ * <ul>
+ *   <li>The JUnit configuration (tags) for JUnit Jupiter and JUnit 4 classes.</li>
+ *   <li>The TestNG configuration (suites and groups) for TestNG classes.</li>
+ * </ul>
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+@SuperBuilder
+public class TestSplitterConfigurationMixed extends TestSplitterConfiguration {
+
+   /**
+    * Settings applied to JUnit Jupiter and JUnit 4 classes.
+    */
+   private final TestSplitterConfigurationJunit junit;
+
+   /**
+    * Settings applied to TestNG classes.
+    */
+   private final TestSplitterConfigurationTestng testng;
+
+}
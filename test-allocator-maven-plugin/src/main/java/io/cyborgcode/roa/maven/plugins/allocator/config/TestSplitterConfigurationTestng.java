@@ -1,5 +1,6 @@
 package io.cyborgcode.roa.maven.plugins.allocator.config;
 
+import java.io.File;
 import java.util.Set;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
@@ -13,6 +14,9 @@ import lombok.experimental.SuperBuilder;
  * <p>This configuration allows the user to specify:
  * <ul>
  *   <li>A set of TestNG suite names to be executed.</li>
+ *   <li>Glob patterns limiting where suite XML files are searched for.</li>
+ *   <li>TestNG groups to include or exclude, applied on top of the groups selected by the suites.</li>
+ *   <li>The directory receiving the generated per-bucket suite files.</li>
  * </ul>
  *
  * @author Cyborg Code Syndicate 💍👨💻
@@ -26,5 +30,30 @@ public class TestSplitterConfigurationTestng extends TestSplitterConfiguration {
     */
    private final Set<String> suites;
 
+   /**
+    * Glob patterns, relative to the project root, of files considered as TestNG suites.
+    * Empty or {@code null} means every {@code .xml} file.
+    */
+   private final Set<String> suiteFileIncludes;
+
+   /**
+    * Additional glob patterns, relative to the project root, excluded from suite discovery.
+    */
+   private final Set<String> suiteFileExcludes;
+
+   /**
+    * TestNG groups to include. Empty or {@code null} means the groups selected by the suites.
+    */
+   private final Set<String> includeGroups;
+
+   /**
+    * TestNG groups to exclude.
+    */
+   private final Set<String> excludeGroups;
+
+   /**
+    * Directory the trimmed suite file of each bucket is written to; {@code null} disables suite generation.
+    */
+   private final File suiteOutputDirectory;
 
 }
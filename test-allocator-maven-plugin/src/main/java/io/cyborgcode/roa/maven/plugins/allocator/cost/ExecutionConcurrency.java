@@ -0,0 +1,76 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cost;
+
+import lombok.Getter;
+
+/**
+ * Effective concurrency a test class runs with on a single runner.
+ *
+ * <p>Two independent factors are tracked:
+ * <ul>
+ *   <li>{@code methods} - how many test methods of the same class execute at the same time.</li>
+ *   <li>{@code classes} - how many test classes of the same bucket execute at the same time.</li>
+ * </ul>
+ *
+ * <p>Both factors are always at least {@code 1}, which represents strictly sequential execution.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public final class ExecutionConcurrency {
+
+   private static final ExecutionConcurrency SEQUENTIAL = new ExecutionConcurrency(1, 1);
+
+   /**
+    * Number of methods of one class executed concurrently.
+    */
+   private final int methods;
+
+   /**
+    * Number of classes of one bucket executed concurrently.
+    */
+   private final int classes;
+
+   private ExecutionConcurrency(int methods, int classes) {
+      this.methods = methods;
+      this.classes = classes;
+   }
+
+   /**
+    * Creates a concurrency descriptor, clamping both factors to at least {@code 1}.
+    *
+    * @param methods number of methods executed concurrently within a class
+    * @param classes number of classes executed concurrently within a bucket
+    * @return the concurrency descriptor
+    */
+   public static ExecutionConcurrency of(int methods, int classes) {
+      if (methods <= 1 && classes <= 1) {
+         return SEQUENTIAL;
+      }
+      return new ExecutionConcurrency(Math.max(1, methods), Math.max(1, classes));
+   }
+
+   /**
+    * Returns the descriptor for strictly sequential execution.
+    *
+    * @return sequential concurrency
+    */
+   public static ExecutionConcurrency sequential() {
+      return SEQUENTIAL;
+   }
+
+   /**
+    * Resolves the number of cores a runner offers.
+    *
+    * @param configuredCores cores configured by the user; values {@code <= 0} fall back to the local machine
+    * @return the number of cores to model concurrency with
+    */
+   public static int resolveCores(int configuredCores) {
+      return configuredCores > 0 ? configuredCores : Runtime.getRuntime().availableProcessors();
+   }
+
+   @Override
+   public String toString() {
+      return "methods=" + methods + ", classes=" + classes;
+   }
+
+}
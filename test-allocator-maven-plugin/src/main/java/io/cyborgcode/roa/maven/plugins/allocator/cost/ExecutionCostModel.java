@@ -0,0 +1,144 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cost;
+
+import java.util.Map;
+
+/**
+ * Estimates how long test classes and buckets take to execute on a runner.
+ *
+ * <p>Cost is expressed in method-time units: one test method executed alone costs {@code 1}.
+ * The model divides that work by the effective concurrency a class runs with, so a class with
+ * 40 methods executed four at a time costs {@code 10}. A bucket additionally benefits from classes
+ * being executed side by side, but never finishes before its most expensive class.
+ *
+ * <p>Instances are immutable and safe to share.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class ExecutionCostModel {
+
+   private static final ExecutionCostModel SEQUENTIAL =
+         new ExecutionCostModel(Map.of(), ExecutionConcurrency.sequential());
+
+   /**
+    * Concurrency resolved for individual classes.
+    */
+   private final Map<String, ExecutionConcurrency> concurrencyByClass;
+
+   /**
+    * Concurrency used for classes without a resolved entry.
+    */
+   private final ExecutionConcurrency defaultConcurrency;
+
+   /**
+    * Creates a cost model.
+    *
+    * @param concurrencyByClass concurrency resolved per fully qualified class name
+    * @param defaultConcurrency concurrency used for classes that have no entry
+    */
+   public ExecutionCostModel(Map<String, ExecutionConcurrency> concurrencyByClass,
+                             ExecutionConcurrency defaultConcurrency) {
+      this.concurrencyByClass = Map.copyOf(concurrencyByClass);
+      this.defaultConcurrency = defaultConcurrency;
+   }
+
+   /**
+    * Returns a model where every method costs one unit, matching plain method counting.
+    *
+    * @return the sequential cost model
+    */
+   public static ExecutionCostModel sequential() {
+      return SEQUENTIAL;
+   }
+
+   /**
+    * Returns the concurrency the given class executes with.
+    *
+    * @param className fully qualified class name
+    * @return the resolved concurrency, or the default one
+    */
+   public ExecutionConcurrency concurrencyOf(String className) {
+      return concurrencyByClass.getOrDefault(className, defaultConcurrency);
+   }
+
+   /**
+    * Estimates the cost of executing a single class.
+    *
+    * <p>Concurrency never exceeds the number of methods, so a non-empty class costs at least {@code 1}.
+    *
+    * @param className fully qualified class name
+    * @param methods   number of test methods the class contributes
+    * @return the estimated cost in method-time units
+    */
+   public double classCost(String className, int methods) {
+      if (methods <= 0) {
+         return 0;
+      }
+      int lanes = Math.min(concurrencyOf(className).getMethods(), methods);
+      return (double) methods / lanes;
+   }
+
+   /**
+    * Starts an empty bucket estimate bound to this model.
+    *
+    * @return an estimate containing no classes
+    */
+   public BucketEstimate emptyBucket() {
+      return new BucketEstimate(this, 0, 0, 0, Integer.MAX_VALUE);
+   }
+
+   /**
+    * Immutable running estimate of a bucket's cost, extended one class at a time.
+    *
+    * <p>The estimate is {@code max(largestClassCost, sumOfClassCosts / classLanes)}, where the class
+    * lanes are the smallest class concurrency of all members, limited by the member count.
+    */
+   public static final class BucketEstimate {
+
+      private final ExecutionCostModel model;
+      private final double sum;
+      private final double largest;
+      private final int classCount;
+      private final int classLanes;
+
+      private BucketEstimate(ExecutionCostModel model, double sum, double largest, int classCount, int classLanes) {
+         this.model = model;
+         this.sum = sum;
+         this.largest = largest;
+         this.classCount = classCount;
+         this.classLanes = classLanes;
+      }
+
+      /**
+       * Returns a new estimate that additionally contains the given class.
+       *
+       * @param className fully qualified class name
+       * @param methods   number of test methods the class contributes
+       * @return the extended estimate
+       */
+      public BucketEstimate with(String className, int methods) {
+         double cost = model.classCost(className, methods);
+         return new BucketEstimate(
+               model,
+               sum + cost,
+               Math.max(largest, cost),
+               classCount + 1,
+               Math.min(classLanes, model.concurrencyOf(className).getClasses())
+         );
+      }
+
+      /**
+       * Returns the estimated cost of the bucket.
+       *
+       * @return the estimated cost in method-time units
+       */
+      public double getCost() {
+         if (classCount == 0) {
+            return 0;
+         }
+         int lanes = Math.min(classLanes, classCount);
+         return Math.max(largest, sum / lanes);
+      }
+
+   }
+
+}
@@ -0,0 +1,170 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cost;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.Properties;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+/**
+ * Resolves the concurrency JUnit Jupiter tests run with from {@code junit-platform.properties}.
+ *
+ * <p>The following configuration parameters are honoured:
+ * <ul>
+ *   <li>{@code junit.jupiter.execution.parallel.enabled}</li>
+ *   <li>{@code junit.jupiter.execution.parallel.mode.default}</li>
+ *   <li>{@code junit.jupiter.execution.parallel.mode.classes.default}</li>
+ *   <li>{@code junit.jupiter.execution.parallel.config.strategy} with its {@code dynamic.factor}
+ *       and {@code fixed.parallelism} settings</li>
+ * </ul>
+ *
+ * <p>A class-level {@link Execution} annotation overrides the default mode for the methods of that class.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class JunitPlatformConcurrency {
+
+   /**
+    * Name of the JUnit Platform configuration file on the test classpath.
+    */
+   public static final String PROPERTIES_FILE = "junit-platform.properties";
+
+   private static final String PREFIX = "junit.jupiter.execution.parallel.";
+   private static final String CONCURRENT = "concurrent";
+
+   private static final JunitPlatformConcurrency DISABLED = new JunitPlatformConcurrency(false, false, false, 1);
+
+   /**
+    * Whether parallel execution is enabled at all.
+    */
+   private final boolean enabled;
+
+   /**
+    * Whether methods run concurrently unless a class says otherwise.
+    */
+   private final boolean methodsConcurrent;
+
+   /**
+    * Whether top-level classes run concurrently.
+    */
+   private final boolean classesConcurrent;
+
+   /**
+    * Number of worker threads the platform uses.
+    */
+   private final int parallelism;
+
+   private JunitPlatformConcurrency(boolean enabled, boolean methodsConcurrent, boolean classesConcurrent,
+                                    int parallelism) {
+      this.enabled = enabled;
+      this.methodsConcurrent = methodsConcurrent;
+      this.classesConcurrent = classesConcurrent;
+      this.parallelism = parallelism;
+   }
+
+   /**
+    * Loads the configuration from {@code junit-platform.properties} inside the given test output directory.
+    *
+    * <p>A missing directory or file means parallel execution is disabled, which is the JUnit default.
+    *
+    * @param testOutputDirectory compiled test output directory containing copied test resources
+    * @param cores               number of cores available on a runner
+    * @return the resolved platform concurrency
+    */
+   public static JunitPlatformConcurrency load(File testOutputDirectory, int cores) {
+      if (testOutputDirectory == null) {
+         return DISABLED;
+      }
+      File propertiesFile = new File(testOutputDirectory, PROPERTIES_FILE);
+      if (!propertiesFile.isFile()) {
+         return DISABLED;
+      }
+
+      Properties properties = new Properties();
+      try (InputStream in = Files.newInputStream(propertiesFile.toPath())) {
+         properties.load(in);
+      } catch (IOException e) {
+         throw new UncheckedIOException("Failed to read " + propertiesFile.getAbsolutePath(), e);
+      }
+      return fromProperties(properties, cores);
+   }
+
+   /**
+    * Resolves the configuration from already loaded JUnit Platform configuration parameters.
+    *
+    * @param properties JUnit Platform configuration parameters
+    * @param cores      number of cores available on a runner
+    * @return the resolved platform concurrency
+    */
+   public static JunitPlatformConcurrency fromProperties(Properties properties, int cores) {
+      if (!Boolean.parseBoolean(properties.getProperty(PREFIX + "enabled", "false").trim())) {
+         return DISABLED;
+      }
+
+      String defaultMode = lower(properties.getProperty(PREFIX + "mode.default", "same_thread"));
+      String classesMode = lower(properties.getProperty(PREFIX + "mode.classes.default", defaultMode));
+
+      return new JunitPlatformConcurrency(
+            true,
+            CONCURRENT.equals(defaultMode),
+            CONCURRENT.equals(classesMode),
+            resolveParallelism(properties, cores)
+      );
+   }
+
+   /**
+    * Resolves the concurrency a given test class executes with.
+    *
+    * @param clazz the loaded test class
+    * @return the effective concurrency of the class
+    */
+   public ExecutionConcurrency resolve(Class<?> clazz) {
+      if (!enabled) {
+         return ExecutionConcurrency.sequential();
+      }
+
+      boolean methods = methodsConcurrent;
+      Execution execution = clazz.getAnnotation(Execution.class);
+      if (execution != null) {
+         methods = execution.value() == ExecutionMode.CONCURRENT;
+      }
+
+      return ExecutionConcurrency.of(
+            methods ? parallelism : 1,
+            classesConcurrent ? parallelism : 1
+      );
+   }
+
+   /**
+    * Indicates whether parallel execution is enabled.
+    *
+    * @return {@code true} when the platform executes tests in parallel
+    */
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   private static int resolveParallelism(Properties properties, int cores) {
+      String strategy = lower(properties.getProperty(PREFIX + "config.strategy", "dynamic"));
+      try {
+         return switch (strategy) {
+            case "fixed" -> Math.max(1, Integer.parseInt(
+                  properties.getProperty(PREFIX + "config.fixed.parallelism", String.valueOf(cores)).trim()));
+            case "dynamic" -> Math.max(1, (int) (Double.parseDouble(
+                  properties.getProperty(PREFIX + "config.dynamic.factor", "1").trim()) * cores));
+            default -> cores;
+         };
+      } catch (NumberFormatException e) {
+         return cores;
+      }
+   }
+
+   private static String lower(String value) {
+      return value.trim().toLowerCase(Locale.ROOT);
+   }
+
+}
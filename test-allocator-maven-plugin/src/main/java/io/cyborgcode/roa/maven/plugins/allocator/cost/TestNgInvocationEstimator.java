@@ -0,0 +1,255 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cost;
+
+import io.cyborgcode.roa.maven.plugins.allocator.bytecode.ClassFile;
+import io.cyborgcode.roa.maven.plugins.allocator.bytecode.Instructions;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Estimates how many times TestNG executes a test method, expressed as sequential invocation slots.
+ *
+ * <p>The weight of a method is {@code ceil(invocationCount / threadPoolSize) * rows}, where {@code rows}
+ * is the number of rows of its data provider:
+ * <ul>
+ *   <li>Rows are read statically from the provider's bytecode when it returns an array literal such as
+ *       {@code new Object[][] {{...}, {...}}}.</li>
+ *   <li>When the provider references a {@code .csv} resource (on the test classpath or relative to the
+ *       project root), rows are the non-blank lines of that file that do not start with {@code #}.</li>
+ *   <li>Otherwise the invocations recorded in the {@link TestHistory} are used, and without history a
+ *       single row is assumed.</li>
+ * </ul>
+ *
+ * <p>Row counts are cached per provider method, so providers shared by many tests are analysed once.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestNgInvocationEstimator {
+
+   private static final String CSV_EXTENSION = ".csv";
+   private static final String COMMENT_PREFIX = "#";
+
+   private final TestHistory history;
+   private final Path projectRoot;
+   private final Map<Method, OptionalInt> providerRows = new ConcurrentHashMap<>();
+
+   /**
+    * Creates an estimator.
+    *
+    * @param history     results of a previous run, used when rows cannot be determined statically
+    * @param projectRoot directory used to resolve CSV files referenced by relative file path; may be {@code null}
+    */
+   public TestNgInvocationEstimator(TestHistory history, Path projectRoot) {
+      this.history = history == null ? TestHistory.empty() : history;
+      this.projectRoot = projectRoot;
+   }
+
+   /**
+    * Returns the number of sequential invocation slots a test method occupies.
+    *
+    * @param testClass the class the method is executed on
+    * @param method    the test method
+    * @return the weight, at least {@code 1}
+    */
+   public int weight(Class<?> testClass, Method method) {
+      Test test = method.getAnnotation(Test.class);
+      if (test == null) {
+         test = testClass.getAnnotation(Test.class);
+      }
+      if (test == null) {
+         return 1;
+      }
+
+      final int invocations = Math.max(1, test.invocationCount());
+      final int pool = Math.max(1, test.threadPoolSize());
+      final int slots = (invocations + pool - 1) / pool;
+
+      int rows = 1;
+      if (!test.dataProvider().isEmpty()) {
+         rows = staticRows(testClass, test).orElseGet(() -> recordedRows(testClass, method, invocations));
+      }
+      return Math.max(1, slots * rows);
+   }
+
+   private int recordedRows(Class<?> testClass, Method method, int invocations) {
+      final int recorded = history.method(testClass.getName(), method.getName()).getInvocations();
+      return Math.max(1, Math.round((float) recorded / invocations));
+   }
+
+   private OptionalInt staticRows(Class<?> testClass, Test test) {
+      final Class<?> providerClass = test.dataProviderClass() == Object.class ? testClass : test.dataProviderClass();
+      final Method provider = findProvider(providerClass, test.dataProvider());
+      if (provider == null) {
+         return OptionalInt.empty();
+      }
+      return providerRows.computeIfAbsent(provider, this::analyse);
+   }
+
+   private static Method findProvider(Class<?> providerClass, String name) {
+      for (Class<?> current = providerClass; current != null && current != Object.class; current = current.getSuperclass()) {
+         for (Method candidate : current.getDeclaredMethods()) {
+            DataProvider provider = candidate.getAnnotation(DataProvider.class);
+            if (provider != null && name.equals(provider.name().isEmpty() ? candidate.getName() : provider.name())) {
+               return candidate;
+            }
+         }
+      }
+      return null;
+   }
+
+   private OptionalInt analyse(Method provider) {
+      final Class<?> declaringClass = provider.getDeclaringClass();
+      final ClassLoader loader = declaringClass.getClassLoader();
+      if (loader == null) {
+         return OptionalInt.empty();
+      }
+
+      try (InputStream in = loader.getResourceAsStream(declaringClass.getName().replace('.', '/') + ".class")) {
+         if (in == null) {
+            return OptionalInt.empty();
+         }
+         ClassFile classFile = ClassFile.parse(in.readAllBytes());
+         return classFile.findMethod(provider.getName(), descriptor(provider))
+               .map(info -> analyse(classFile, info.getCode(), loader))
+               .orElse(OptionalInt.empty());
+      } catch (IOException e) {
+         return OptionalInt.empty();
+      }
+   }
+
+   private OptionalInt analyse(ClassFile classFile, byte[] code, ClassLoader loader) {
+      final int[] rows = {-1};
+      final String[] csv = {null};
+      final Deque<Integer> pushedInts = new ArrayDeque<>();
+
+      Instructions.forEach(code, (opcode, bytes, offset) -> {
+         if (rows[0] >= 0) {
+            return;
+         }
+         Integer pushed = intConstant(classFile, opcode, bytes, offset);
+         if (pushed != null) {
+            pushedInts.push(pushed);
+            return;
+         }
+         if (opcode == Instructions.ANEWARRAY) {
+            String type = classFile.classConstant(Instructions.u2(bytes, offset + 1));
+            if (type != null && type.startsWith("[") && !pushedInts.isEmpty()) {
+               rows[0] = pushedInts.peek();
+            }
+         } else if (opcode == Instructions.MULTIANEWARRAY) {
+            int dimensions = Instructions.u1(bytes, offset + 3);
+            if (pushedInts.size() >= dimensions) {
+               rows[0] = pushedInts.stream().skip(dimensions - 1L).findFirst().orElse(-1);
+            }
+         } else if (opcode == Instructions.LDC || opcode == Instructions.LDC_W) {
+            String value = classFile.stringConstant(opcode == Instructions.LDC
+                  ? Instructions.u1(bytes, offset + 1)
+                  : Instructions.u2(bytes, offset + 1));
+            if (value != null && value.toLowerCase(Locale.ROOT).endsWith(CSV_EXTENSION)) {
+               csv[0] = value;
+            }
+         }
+         pushedInts.clear();
+      });
+
+      if (rows[0] >= 0) {
+         return OptionalInt.of(rows[0]);
+      }
+      if (csv[0] != null) {
+         return csvRows(csv[0], loader);
+      }
+      return OptionalInt.empty();
+   }
+
+   private OptionalInt csvRows(String resource, ClassLoader loader) {
+      final String name = resource.startsWith("/") ? resource.substring(1) : resource;
+      try (InputStream classpathResource = loader.getResourceAsStream(name)) {
+         if (classpathResource != null) {
+            return OptionalInt.of(countRows(classpathResource));
+         }
+      } catch (IOException e) {
+         return OptionalInt.empty();
+      }
+
+      if (projectRoot != null) {
+         Path file = projectRoot.resolve(name);
+         if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+               return OptionalInt.of(countRows(in));
+            } catch (IOException e) {
+               return OptionalInt.empty();
+            }
+         }
+      }
+      return OptionalInt.empty();
+   }
+
+   private static int countRows(InputStream in) throws IOException {
+      final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      int rows = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+         String trimmed = line.trim();
+         if (!trimmed.isEmpty() && !trimmed.startsWith(COMMENT_PREFIX)) {
+            rows++;
+         }
+      }
+      return rows;
+   }
+
+   private static Integer intConstant(ClassFile classFile, int opcode, byte[] code, int offset) {
+      if (opcode >= Instructions.ICONST_M1 && opcode <= Instructions.ICONST_5) {
+         return opcode - Instructions.ICONST_M1 - 1;
+      }
+      return switch (opcode) {
+         case Instructions.BIPUSH -> Instructions.s1(code, offset + 1);
+         case Instructions.SIPUSH -> Instructions.s2(code, offset + 1);
+         case Instructions.LDC -> classFile.integerConstant(Instructions.u1(code, offset + 1));
+         case Instructions.LDC_W -> classFile.integerConstant(Instructions.u2(code, offset + 1));
+         default -> null;
+      };
+   }
+
+   private static String descriptor(Method method) {
+      final StringBuilder descriptor = new StringBuilder("(");
+      for (Class<?> parameter : method.getParameterTypes()) {
+         descriptor.append(descriptor(parameter));
+      }
+      return descriptor.append(')').append(descriptor(method.getReturnType())).toString();
+   }
+
+   private static String descriptor(Class<?> type) {
+      if (type.isArray()) {
+         return type.getName().replace('.', '/');
+      }
+      if (type.isPrimitive()) {
+         return switch (type.getName()) {
+            case "int" -> "I";
+            case "long" -> "J";
+            case "boolean" -> "Z";
+            case "byte" -> "B";
+            case "char" -> "C";
+            case "short" -> "S";
+            case "float" -> "F";
+            case "double" -> "D";
+            default -> "V";
+         };
+      }
+      return "L" + type.getName().replace('.', '/') + ";";
+   }
+
+}
@@ -0,0 +1,45 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * A test found by the JUnit Platform launcher, identified by its unique ID.
+ *
+ * <p>Tests are allocated per unit: the class declaring them for class-based engines such as Jupiter,
+ * Vintage, Spock or jqwik, otherwise the top-level container of their engine, such as a Cucumber feature.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public final class DiscoveredTest {
+
+   /**
+    * Unique ID of the test, usable as a {@code --select-unique-id} selector.
+    */
+   private final String uniqueId;
+
+   /**
+    * Fully qualified class name, or the unique ID of the top-level container, the test is allocated with.
+    */
+   private final String unit;
+
+   /**
+    * Tags of the test, including the tags inherited from its containers.
+    */
+   private final Set<String> tags;
+
+   /**
+    * Creates a discovered test.
+    *
+    * @param uniqueId unique ID of the test
+    * @param unit     class name or container unique ID the test is allocated with
+    * @param tags     tags of the test
+    */
+   public DiscoveredTest(String uniqueId, String unit, Set<String> tags) {
+      this.uniqueId = uniqueId;
+      this.unit = unit;
+      this.tags = Set.copyOf(tags);
+   }
+
+}
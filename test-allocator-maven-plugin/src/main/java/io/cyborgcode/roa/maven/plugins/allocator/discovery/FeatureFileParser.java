@@ -0,0 +1,242 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Reads the scenarios declared in Cucumber {@code .feature} files without running Cucumber.
+ *
+ * <p>The parser understands the structure of Gherkin that matters for allocation:
+ * <ul>
+ *   <li>{@code Scenario:} and {@code Example:} declare one scenario each, unless followed by {@code Examples:}
+ *       tables: since Gherkin 6 they are then outlines, like {@code Scenario Outline:} and
+ *       {@code Scenario Template:}.</li>
+ *   <li>Outlines declare one scenario per row of their {@code Examples:} tables, excluding the header row; each
+ *       row is selected by its own line.</li>
+ *   <li>Tags are inherited from the feature, the {@code Rule:} and, for outlines, the examples block.</li>
+ *   <li>Comments, doc strings and step data tables are skipped.</li>
+ * </ul>
+ * Only the English Gherkin keywords are recognised.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class FeatureFileParser {
+
+   private static final String FEATURE_EXTENSION = ".feature";
+   private static final String COMMENT_PREFIX = "#";
+   private static final String TAG_PREFIX = "@";
+   private static final String TABLE_PREFIX = "|";
+   private static final String DOC_STRING = "\"\"\"";
+   private static final String DOC_STRING_BACKTICKS = "```";
+
+   /**
+    * Private constructor to prevent instantiation of this utility class.
+    */
+   private FeatureFileParser() {
+   }
+
+   /**
+    * Recursively finds all {@code .feature} files in a directory.
+    *
+    * @param directory the directory to search
+    * @return the feature files in path order, empty if the directory does not exist
+    */
+   public static List<Path> findFeatureFiles(File directory) {
+      if (directory == null || !directory.isDirectory()) {
+         return List.of();
+      }
+      try (Stream<Path> paths = Files.walk(directory.toPath())) {
+         return paths.filter(Files::isRegularFile)
+               .filter(path -> path.getFileName().toString().endsWith(FEATURE_EXTENSION))
+               .sorted()
+               .toList();
+      } catch (IOException e) {
+         throw new IllegalStateException("Failed to search feature files in " + directory, e);
+      }
+   }
+
+   /**
+    * Parses feature files in parallel.
+    *
+    * @param files the feature files
+    * @return the scenarios of all files, in file and declaration order
+    * @throws IllegalStateException if a file cannot be read
+    */
+   public static List<FeatureScenario> parseAll(Collection<Path> files) {
+      try {
+         return files.parallelStream()
+               .map(file -> {
+                  try {
+                     return parse(file);
+                  } catch (IOException e) {
+                     throw new UncheckedIOException(e);
+                  }
+               })
+               .flatMap(List::stream)
+               .toList();
+      } catch (UncheckedIOException e) {
+         throw new IllegalStateException("Failed to read feature file", e.getCause());
+      }
+   }
+
+   /**
+    * Parses the scenarios of one feature file.
+    *
+    * @param file the feature file
+    * @return the scenarios and expanded outline rows, in declaration order
+    * @throws IOException if the file cannot be read
+    */
+   public static List<FeatureScenario> parse(Path file) throws IOException {
+      return new State(file).read(Files.readAllLines(file, StandardCharsets.UTF_8));
+   }
+
+   private static void addTags(String line, Set<String> tags) {
+      for (String token : line.split("\\s+")) {
+         if (token.startsWith(COMMENT_PREFIX)) {
+            return;
+         }
+         if (token.startsWith(TAG_PREFIX)) {
+            tags.add(token);
+         }
+      }
+   }
+
+   /**
+    * Parsing state of a single feature file.
+    */
+   private static final class State {
+
+      private final Path file;
+      private final List<FeatureScenario> scenarios = new ArrayList<>();
+      private final Set<String> pendingTags = new LinkedHashSet<>();
+      private Set<String> featureTags = Set.of();
+      private Set<String> ruleTags = Set.of();
+      private Set<String> outlineTags;
+      private Set<String> examplesTags = Set.of();
+      private String featureName = "";
+      private String outlineName;
+      private int provisionalScenario = -1;
+      private String docString;
+      private boolean inExamples;
+      private boolean headerSeen;
+
+      private State(Path file) {
+         this.file = file;
+      }
+
+      private List<FeatureScenario> read(List<String> lines) {
+         for (int i = 0; i < lines.size(); i++) {
+            readLine(lines.get(i).strip(), i + 1);
+         }
+         return scenarios;
+      }
+
+      private void readLine(String line, int number) {
+         if (docString != null) {
+            if (line.startsWith(docString)) {
+               docString = null;
+            }
+            return;
+         }
+         if (line.startsWith(DOC_STRING) || line.startsWith(DOC_STRING_BACKTICKS)) {
+            docString = line.substring(0, 3);
+            return;
+         }
+         if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+            return;
+         }
+         if (line.startsWith(TAG_PREFIX)) {
+            addTags(line, pendingTags);
+            return;
+         }
+         if (line.startsWith(TABLE_PREFIX)) {
+            readTableRow(number);
+            return;
+         }
+
+         final int colon = line.indexOf(':');
+         final String keyword = colon < 0 ? "" : line.substring(0, colon).strip();
+         final String name = colon < 0 ? "" : line.substring(colon + 1).strip();
+         switch (keyword) {
+            case "Feature" -> {
+               featureName = name;
+               featureTags = Set.copyOf(pendingTags);
+               ruleTags = Set.of();
+               endOutline();
+            }
+            case "Rule" -> {
+               ruleTags = Set.copyOf(pendingTags);
+               endOutline();
+            }
+            case "Background" -> endOutline();
+            case "Scenario", "Example" -> {
+               // Replaced by the rows of its examples tables if it turns out to be an outline.
+               outlineName = name;
+               outlineTags = inherited(pendingTags);
+               provisionalScenario = scenarios.size();
+               scenarios.add(new FeatureScenario(file, number, featureName, name, outlineTags));
+            }
+            case "Scenario Outline", "Scenario Template" -> {
+               outlineName = name;
+               outlineTags = inherited(pendingTags);
+               provisionalScenario = -1;
+            }
+            case "Examples", "Scenarios" -> {
+               if (outlineName != null) {
+                  if (provisionalScenario >= 0) {
+                     scenarios.remove(provisionalScenario);
+                     provisionalScenario = -1;
+                  }
+                  examplesTags = Set.copyOf(pendingTags);
+                  inExamples = true;
+                  headerSeen = false;
+                  pendingTags.clear();
+                  return;
+               }
+            }
+            default -> {
+               // Steps end an examples table; their own data tables are not scenarios.
+            }
+         }
+         inExamples = false;
+         pendingTags.clear();
+      }
+
+      private void readTableRow(int number) {
+         if (!inExamples) {
+            return;
+         }
+         if (!headerSeen) {
+            headerSeen = true;
+            return;
+         }
+         final Set<String> tags = new LinkedHashSet<>(outlineTags);
+         tags.addAll(examplesTags);
+         scenarios.add(new FeatureScenario(file, number, featureName, outlineName, tags));
+      }
+
+      private void endOutline() {
+         outlineName = null;
+         provisionalScenario = -1;
+      }
+
+      private Set<String> inherited(Set<String> own) {
+         final Set<String> tags = new LinkedHashSet<>(featureTags);
+         tags.addAll(ruleTags);
+         tags.addAll(own);
+         return tags;
+      }
+
+   }
+
+}
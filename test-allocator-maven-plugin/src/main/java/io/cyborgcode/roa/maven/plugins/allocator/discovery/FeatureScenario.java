@@ -0,0 +1,68 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.nio.file.Path;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * A Cucumber scenario, or one example row of a Scenario Outline, declared in a {@code .feature} file.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public final class FeatureScenario {
+
+   /**
+    * The feature file declaring the scenario.
+    */
+   private final Path file;
+
+   /**
+    * Line of the {@code Scenario:} keyword, or of the example row for outlines; Cucumber selects it by this line.
+    */
+   private final int line;
+
+   /**
+    * Name of the feature.
+    */
+   private final String featureName;
+
+   /**
+    * Name of the scenario or outline.
+    */
+   private final String name;
+
+   /**
+    * Tags of the scenario, including the tags of its feature, rule and examples block.
+    */
+   private final Set<String> tags;
+
+   /**
+    * Creates a scenario.
+    *
+    * @param file        the feature file
+    * @param line        the line selecting the scenario
+    * @param featureName name of the feature
+    * @param name        name of the scenario
+    * @param tags        effective tags of the scenario
+    */
+   public FeatureScenario(Path file, int line, String featureName, String name, Set<String> tags) {
+      this.file = file;
+      this.line = line;
+      this.featureName = featureName;
+      this.name = name;
+      this.tags = Set.copyOf(tags);
+   }
+
+   /**
+    * Returns the {@code path:line} selector of the scenario, with the path relative to the given root.
+    *
+    * @param root the directory Cucumber resolves feature paths against, usually the project root
+    * @return the selector, such as {@code src/test/resources/features/login.feature:12}
+    */
+   public String selector(Path root) {
+      final Path path = root == null ? file : root.toAbsolutePath().relativize(file.toAbsolutePath());
+      return path.toString().replace('\\', '/') + ":" + line;
+   }
+
+}
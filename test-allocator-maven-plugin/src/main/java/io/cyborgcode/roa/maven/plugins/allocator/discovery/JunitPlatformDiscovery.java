@@ -0,0 +1,198 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Discovers tests with the JUnit Platform launcher of the project under test.
+ *
+ * <p>{@code LauncherFactory.create().discover(...)} runs once, inside an isolated class loader built from the
+ * project's test classpath whose parent is the platform class loader. Every engine on that classpath takes
+ * part, such as Jupiter, Vintage, Cucumber, Spock or jqwik, with the project's own launcher version and
+ * {@code junit-platform.properties}. The launcher is not a dependency of the plugin, so it is called
+ * reflectively.
+ *
+ * <p>The test output directories are selected as classpath roots and the configured tags are applied as
+ * tag filters. The leaves of the resulting test plan are returned as {@link DiscoveredTest}s, each attributed
+ * to the top-level container of its engine: the class for class-based engines, otherwise the container itself.
+ * Containers without children at discovery time, such as parameterized or dynamic test methods, are leaves.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class JunitPlatformDiscovery {
+
+   private static final String LAUNCHER_FACTORY = "org.junit.platform.launcher.core.LauncherFactory";
+   private static final String LAUNCHER = "org.junit.platform.launcher.Launcher";
+   private static final String DISCOVERY_REQUEST = "org.junit.platform.launcher.LauncherDiscoveryRequest";
+   private static final String REQUEST_BUILDER = "org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder";
+   private static final String TAG_FILTER = "org.junit.platform.launcher.TagFilter";
+   private static final String TEST_PLAN = "org.junit.platform.launcher.TestPlan";
+   private static final String TEST_IDENTIFIER = "org.junit.platform.launcher.TestIdentifier";
+   private static final String DISCOVERY_SELECTORS = "org.junit.platform.engine.discovery.DiscoverySelectors";
+   private static final String FILTER = "org.junit.platform.engine.Filter";
+   private static final String TEST_TAG = "org.junit.platform.engine.TestTag";
+   private static final String CLASS_SOURCE = "org.junit.platform.engine.support.descriptor.ClassSource";
+
+   /**
+    * Private constructor to prevent instantiation of this utility class.
+    */
+   private JunitPlatformDiscovery() {
+   }
+
+   /**
+    * Discovers the tests below the given classpath roots.
+    *
+    * @param classpath   the project's test classpath, including the launcher and the engines
+    * @param roots       the test output directories to select
+    * @param includeTags tag expressions a test must match; empty includes all tests
+    * @param excludeTags tag expressions excluding tests
+    * @return the leaves of the test plan, in discovery order
+    * @throws IllegalStateException if the launcher is not on the classpath or discovery fails
+    */
+   public static List<DiscoveredTest> discover(URL[] classpath,
+                                               Collection<File> roots,
+                                               Set<String> includeTags,
+                                               Set<String> excludeTags) {
+      final Thread thread = Thread.currentThread();
+      final ClassLoader previous = thread.getContextClassLoader();
+      try (URLClassLoader loader = new URLClassLoader(
+            classpath == null ? new URL[0] : classpath, ClassLoader.getPlatformClassLoader())) {
+         thread.setContextClassLoader(loader);
+         final Object testPlan = discoverTestPlan(loader, roots, includeTags, excludeTags);
+         return new TestPlanReader(loader, testPlan).read();
+      } catch (ClassNotFoundException | NoClassDefFoundError e) {
+         throw new IllegalStateException("junit-platform-launcher is not on the test classpath", e);
+      } catch (InvocationTargetException e) {
+         throw new IllegalStateException("JUnit Platform discovery failed: " + e.getCause(), e.getCause());
+      } catch (ReflectiveOperationException | IOException | LinkageError e) {
+         throw new IllegalStateException("JUnit Platform discovery failed: " + e, e);
+      } finally {
+         thread.setContextClassLoader(previous);
+      }
+   }
+
+   private static Object discoverTestPlan(ClassLoader loader,
+                                          Collection<File> roots,
+                                          Set<String> includeTags,
+                                          Set<String> excludeTags) throws ReflectiveOperationException {
+      final Class<?> launcherFactory = loader.loadClass(LAUNCHER_FACTORY);
+      final Set<Path> paths = new LinkedHashSet<>();
+      for (File root : roots) {
+         if (root != null && root.isDirectory()) {
+            paths.add(root.toPath());
+         }
+      }
+
+      final Class<?> builderType = loader.loadClass(REQUEST_BUILDER);
+      final Object builder = builderType.getMethod("request").invoke(null);
+      final Object selectors = loader.loadClass(DISCOVERY_SELECTORS)
+            .getMethod("selectClasspathRoots", Set.class)
+            .invoke(null, paths);
+      builderType.getMethod("selectors", List.class).invoke(builder, selectors);
+
+      final List<Object> filters = new ArrayList<>();
+      final Class<?> tagFilter = loader.loadClass(TAG_FILTER);
+      if (includeTags != null && !includeTags.isEmpty()) {
+         filters.add(tagFilter.getMethod("includeTags", List.class).invoke(null, new ArrayList<>(includeTags)));
+      }
+      if (excludeTags != null && !excludeTags.isEmpty()) {
+         filters.add(tagFilter.getMethod("excludeTags", List.class).invoke(null, new ArrayList<>(excludeTags)));
+      }
+      if (!filters.isEmpty()) {
+         final Object filterArray = Array.newInstance(loader.loadClass(FILTER), filters.size());
+         for (int i = 0; i < filters.size(); i++) {
+            Array.set(filterArray, i, filters.get(i));
+         }
+         builderType.getMethod("filters", filterArray.getClass()).invoke(builder, filterArray);
+      }
+
+      final Object request = builderType.getMethod("build").invoke(builder);
+      final Object launcher = launcherFactory.getMethod("create").invoke(null);
+      return loader.loadClass(LAUNCHER)
+            .getMethod("discover", loader.loadClass(DISCOVERY_REQUEST))
+            .invoke(launcher, request);
+   }
+
+   /**
+    * Walks a {@code TestPlan} through the launcher API of the isolated class loader.
+    */
+   private static final class TestPlanReader {
+
+      private final Object testPlan;
+      private final Method getRoots;
+      private final Method getChildren;
+      private final Method getUniqueId;
+      private final Method getTags;
+      private final Method getSource;
+      private final Method getTagName;
+      private final Class<?> classSource;
+      private final Method getClassName;
+      private final List<DiscoveredTest> tests = new ArrayList<>();
+
+      private TestPlanReader(ClassLoader loader, Object testPlan) throws ReflectiveOperationException {
+         final Class<?> planType = loader.loadClass(TEST_PLAN);
+         final Class<?> identifierType = loader.loadClass(TEST_IDENTIFIER);
+         this.testPlan = testPlan;
+         this.getRoots = planType.getMethod("getRoots");
+         this.getChildren = planType.getMethod("getChildren", identifierType);
+         this.getUniqueId = identifierType.getMethod("getUniqueId");
+         this.getTags = identifierType.getMethod("getTags");
+         this.getSource = identifierType.getMethod("getSource");
+         this.getTagName = loader.loadClass(TEST_TAG).getMethod("getName");
+         this.classSource = loader.loadClass(CLASS_SOURCE);
+         this.getClassName = classSource.getMethod("getClassName");
+      }
+
+      private List<DiscoveredTest> read() throws ReflectiveOperationException {
+         for (Object engine : (Set<?>) getRoots.invoke(testPlan)) {
+            for (Object container : children(engine)) {
+               collect(container, unitOf(container), Set.of());
+            }
+         }
+         return tests;
+      }
+
+      private void collect(Object identifier, String unit, Set<String> inheritedTags)
+            throws ReflectiveOperationException {
+         final Set<String> tags = new LinkedHashSet<>(inheritedTags);
+         for (Object tag : (Set<?>) getTags.invoke(identifier)) {
+            tags.add((String) getTagName.invoke(tag));
+         }
+
+         final Set<?> children = children(identifier);
+         if (children.isEmpty()) {
+            tests.add(new DiscoveredTest(String.valueOf(getUniqueId.invoke(identifier)), unit, tags));
+            return;
+         }
+         for (Object child : children) {
+            collect(child, unit, tags);
+         }
+      }
+
+      private String unitOf(Object container) throws ReflectiveOperationException {
+         final Optional<?> source = (Optional<?>) getSource.invoke(container);
+         if (source.isPresent() && classSource.isInstance(source.get())) {
+            return (String) getClassName.invoke(source.get());
+         }
+         return String.valueOf(getUniqueId.invoke(container));
+      }
+
+      private Set<?> children(Object identifier) throws ReflectiveOperationException {
+         return (Set<?>) getChildren.invoke(testPlan, identifier);
+      }
+
+   }
+
+}
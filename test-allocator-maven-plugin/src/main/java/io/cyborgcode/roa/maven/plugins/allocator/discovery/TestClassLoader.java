@@ -102,6 +102,15 @@ public final class TestClassLoader {
       }
    }
 
+   /**
+    * Returns the classpath entries of the project, test output first.
+    *
+    * @return the URLs the test classes and their dependencies are loaded from
+    */
+   public URL[] getUrls() {
+      return classLoader.getURLs();
+   }
+
    /**
     * Attempts to load a class by its fully qualified name.
     *
@@ -0,0 +1,131 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Test engines a compiled test class can be executed by.
+ *
+ * <p>Classes are classified by the annotations they carry, compared by name so that detection works
+ * whether or not the engine's API is on the plugin's own classpath:
+ * <ul>
+ *   <li>{@link #JUNIT_JUPITER}: a declared method annotated with {@code @org.junit.jupiter.api.Test} or
+ *       another annotation meta-annotated, at any depth, with {@code @Testable}, such as
+ *       {@code @ParameterizedTest} and {@code @RepeatedTest} through {@code @TestTemplate}, or a composed
+ *       annotation of them.</li>
+ *   <li>{@link #JUNIT_VINTAGE}: a public method annotated with JUnit 4's {@code @org.junit.Test}.</li>
+ *   <li>{@link #TESTNG}: {@code @org.testng.annotations.Test} on a public method or on the class hierarchy.</li>
+ * </ul>
+ * A class matching several engines is assigned the first one in this order. {@link #JUNIT_PLATFORM} is never
+ * detected; it stands for tests of other JUnit Platform engines, found by launcher discovery.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public enum TestEngine {
+
+   JUNIT_JUPITER("junit-jupiter"),
+   JUNIT_VINTAGE("junit-vintage"),
+   TESTNG("testng"),
+   JUNIT_PLATFORM("junit-platform");
+
+   private static final String JUPITER_TEST = "org.junit.jupiter.api.Test";
+   private static final String TESTABLE = "org.junit.platform.commons.annotation.Testable";
+   private static final String JUNIT4_TEST = "org.junit.Test";
+   private static final String TESTNG_TEST = "org.testng.annotations.Test";
+
+   /**
+    * Identifier of the engine, matching the JUnit Platform engine id where one exists.
+    */
+   private final String id;
+
+   TestEngine(String id) {
+      this.id = id;
+   }
+
+   /**
+    * Determines the engine that executes the given class.
+    *
+    * @param clazz the loaded test class
+    * @return the engine, or {@code null} if the class contains no tests
+    */
+   public static TestEngine detect(Class<?> clazz) {
+      try {
+         for (Method method : clazz.getDeclaredMethods()) {
+            if (isJupiterTest(method)) {
+               return JUNIT_JUPITER;
+            }
+         }
+         for (Method method : clazz.getMethods()) {
+            if (hasAnnotation(method, JUNIT4_TEST)) {
+               return JUNIT_VINTAGE;
+            }
+         }
+         for (Class<?> current = clazz; current != null && current != Object.class;
+               current = current.getSuperclass()) {
+            if (hasAnnotation(current, TESTNG_TEST)) {
+               return TESTNG;
+            }
+         }
+         for (Method method : clazz.getMethods()) {
+            if (hasAnnotation(method, TESTNG_TEST)) {
+               return TESTNG;
+            }
+         }
+      } catch (LinkageError e) {
+         return null;
+      }
+      return null;
+   }
+
+   /**
+    * Indicates whether a method is annotated with JUnit 4's {@code @org.junit.Test}.
+    *
+    * @param method the method to inspect
+    * @return {@code true} for JUnit 4 test methods
+    */
+   public static boolean isJunit4Test(Method method) {
+      return hasAnnotation(method, JUNIT4_TEST);
+   }
+
+   private static boolean isJupiterTest(Method method) {
+      final Set<Class<? extends Annotation>> visited = new HashSet<>();
+      for (Annotation annotation : method.getAnnotations()) {
+         if (isTestable(annotation.annotationType(), visited)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static boolean isTestable(Class<? extends Annotation> type, Set<Class<? extends Annotation>> visited) {
+      final String name = type.getName();
+      if (name.equals(JUPITER_TEST) || name.equals(TESTABLE)) {
+         return true;
+      }
+      // Meta-annotations such as @Documented annotate themselves.
+      if (name.startsWith("java.lang.annotation.") || !visited.add(type)) {
+         return false;
+      }
+      for (Annotation metaAnnotation : type.getAnnotations()) {
+         if (isTestable(metaAnnotation.annotationType(), visited)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static boolean hasAnnotation(AnnotatedElement element, String annotationName) {
+      for (Annotation annotation : element.getAnnotations()) {
+         if (annotation.annotationType().getName().equals(annotationName)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+}
@@ -0,0 +1,146 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cache.StripedCache;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Utility class for discovering test classes packaged in dependency JARs, such as {@code test-jar} artifacts
+ * that Surefire runs through {@code dependenciesToScan}.
+ *
+ * <p>This class provides methods to:
+ * <ul>
+ *   <li>Select the dependency artifacts matching Surefire-style {@code groupId:artifactId[:type[:classifier]]}
+ *       patterns, where each segment may use {@code *} wildcards.</li>
+ *   <li>List the classes of each JAR from its central directory, in place and without extracting or
+ *       decompressing any entry. JARs are listed concurrently.</li>
+ * </ul>
+ *
+ * <p>Listed classes are cached for the lifetime of the JVM, keyed by the path, size and modification time of
+ * the JAR, so unchanged artifacts are listed only once by a Maven daemon. Classes are returned at the
+ * location they would have in the test output directory, so they resolve to their class names like compiled
+ * test classes; their content is read from the JAR through the test class loader.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestJarDiscovery {
+
+   private static final String CLASS_SUFFIX = ".class";
+
+   /**
+    * Class entry names per JAR fingerprint, shared across executions in the same JVM.
+    */
+   private static final StripedCache<String, List<String>> ENTRIES = new StripedCache<>(8, 32);
+
+   /**
+    * Private constructor to prevent instantiation.
+    */
+   private TestJarDiscovery() {
+   }
+
+   /**
+    * Selects the files of the artifacts matching any of the given patterns.
+    *
+    * @param artifacts the resolved dependencies of the project
+    * @param patterns  {@code groupId:artifactId[:type[:classifier]]} patterns; {@code *} matches any characters
+    * @return the files of the matching artifacts, in dependency order
+    */
+   public static List<File> resolve(Collection<Artifact> artifacts, Collection<String> patterns) {
+      final List<File> files = new ArrayList<>();
+      if (artifacts == null || patterns == null || patterns.isEmpty()) {
+         return files;
+      }
+      for (Artifact artifact : artifacts) {
+         File file = artifact.getFile();
+         if (file != null && file.isFile() && patterns.stream().anyMatch(pattern -> matches(artifact, pattern))) {
+            files.add(file);
+         }
+      }
+      return files;
+   }
+
+   /**
+    * Lists the classes of the given JARs as class files below the test output directory.
+    *
+    * @param jars                the JARs to scan
+    * @param testOutputDirectory the directory the returned class files are located in
+    * @return one class file per class of the JARs, in JAR order
+    */
+   public static List<File> findClassFiles(Collection<File> jars, File testOutputDirectory) {
+      final List<File> classFiles = new ArrayList<>();
+      jars.parallelStream()
+            .map(TestJarDiscovery::classEntries)
+            .toList()
+            .forEach(entries -> entries.forEach(entry -> classFiles.add(new File(testOutputDirectory, entry))));
+      return classFiles;
+   }
+
+   /**
+    * Lists the class entries of a JAR, reading only its central directory.
+    *
+    * @param jar the JAR to list
+    * @return the entry names of its classes, with {@code /} separators
+    */
+   static List<String> classEntries(File jar) {
+      final File file = jar.getAbsoluteFile();
+      return ENTRIES.get(file.getPath() + "@" + file.length() + ":" + file.lastModified(), key -> {
+         final List<String> entries = new ArrayList<>();
+         try (ZipFile zip = new ZipFile(file)) {
+            Enumeration<? extends ZipEntry> zipEntries = zip.entries();
+            while (zipEntries.hasMoreElements()) {
+               String name = zipEntries.nextElement().getName();
+               if (isTestClassCandidate(name)) {
+                  entries.add(name);
+               }
+            }
+         } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read dependency JAR: " + file, e);
+         }
+         return List.copyOf(entries);
+      });
+   }
+
+   private static boolean isTestClassCandidate(String entryName) {
+      return entryName.endsWith(CLASS_SUFFIX)
+            && !entryName.startsWith("META-INF/")
+            && !entryName.endsWith("module-info" + CLASS_SUFFIX)
+            && !entryName.endsWith("package-info" + CLASS_SUFFIX);
+   }
+
+   private static boolean matches(Artifact artifact, String pattern) {
+      final String[] segments = pattern.trim().split(":");
+      final String[] coordinates = {
+            artifact.getGroupId(), artifact.getArtifactId(), artifact.getType(), artifact.getClassifier()
+      };
+      if (segments.length < 2 || segments.length > coordinates.length) {
+         return false;
+      }
+      for (int i = 0; i < segments.length; i++) {
+         if (!glob(segments[i]).matcher(coordinates[i] == null ? "" : coordinates[i]).matches()) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static Pattern glob(String segment) {
+      final StringBuilder regex = new StringBuilder();
+      for (String part : segment.split("\\*", -1)) {
+         if (!regex.isEmpty()) {
+            regex.append(".*");
+         }
+         regex.append(Pattern.quote(part));
+      }
+      return Pattern.compile(regex.toString());
+   }
+
+}
@@ -0,0 +1,95 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Copies of TestNG suites, tests and classes, shared by suite discovery and the bucket suites built from them.
+ *
+ * <p>A copy keeps every attribute that changes how TestNG runs the copied element: parameters, listeners,
+ * parallel and thread settings, {@code preserve-order}, the configuration failure policy, {@code verbose},
+ * {@code time-out}, groups, group dependencies and method selectors. It does not keep what the element
+ * contains, the {@code <test>} blocks of a suite, the {@code <packages>} and {@code <class>} entries of a
+ * test or the {@code <suite-files>} of a suite, so callers decide which of them to copy.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestNgSuiteCopies {
+
+   private TestNgSuiteCopies() {
+   }
+
+   /**
+    * Copies the attributes of a suite, without its tests, packages or nested suite files.
+    *
+    * @param original the suite to copy
+    * @return the copy, with its own parameters and listeners
+    */
+   public static XmlSuite copySuite(XmlSuite original) {
+      final XmlSuite copy = new XmlSuite();
+      copy.setName(original.getName());
+      copy.setParameters(new LinkedHashMap<>(original.getParameters()));
+      copy.setListeners(new ArrayList<>(original.getListeners()));
+      copy.setParallel(original.getParallel());
+      copy.setThreadCount(original.getThreadCount());
+      copy.setDataProviderThreadCount(original.getDataProviderThreadCount());
+      copy.setPreserveOrder(original.getPreserveOrder());
+      copy.setConfigFailurePolicy(original.getConfigFailurePolicy());
+      copy.setVerbose(original.getVerbose());
+      copy.setTimeOut(original.getTimeOut());
+      copy.setGroupByInstances(original.getGroupByInstances());
+      copy.setSkipFailedInvocationCounts(original.skipFailedInvocationCounts());
+      copy.setMethodSelectors(new ArrayList<>(original.getMethodSelectors()));
+      copy.setGroups(original.getGroups());
+      return copy;
+   }
+
+   /**
+    * Copies the attributes of a {@code <test>} into a suite, without its packages or classes.
+    *
+    * @param suite    the suite receiving the copy
+    * @param original the test to copy
+    * @return the copy, added to {@code suite}
+    */
+   public static XmlTest copyTest(XmlSuite suite, XmlTest original) {
+      final XmlTest copy = new XmlTest(suite);
+      copy.setName(original.getName());
+      copy.setParameters(new LinkedHashMap<>(original.getLocalParameters()));
+      copy.setParallel(original.getParallel());
+      copy.setThreadCount(original.getThreadCount());
+      copy.setPreserveOrder(original.getPreserveOrder());
+      copy.setVerbose(original.getVerbose());
+      if (original.getTimeOut() != null) {
+         copy.setTimeOut(Long.parseLong(original.getTimeOut()));
+      }
+      copy.setGroupByInstances(original.getGroupByInstances());
+      copy.setSkipFailedInvocationCounts(original.skipFailedInvocationCounts());
+      copy.setIncludedGroups(new ArrayList<>(original.getIncludedGroups()));
+      copy.setExcludedGroups(new ArrayList<>(original.getExcludedGroups()));
+      original.getMetaGroups().forEach(copy::addMetaGroup);
+      original.getXmlDependencyGroups().forEach(copy::addXmlDependencyGroup);
+      copy.setMethodSelectors(new ArrayList<>(original.getMethodSelectors()));
+      return copy;
+   }
+
+   /**
+    * Copies a {@code <class>} entry into a test.
+    *
+    * @param test     the test receiving the copy
+    * @param original the class entry to copy
+    * @param index    the position of the copy within the test
+    * @return the copy, with its parameters and method includes and excludes
+    */
+   public static XmlClass copyClass(XmlTest test, XmlClass original, int index) {
+      final XmlClass copy = new XmlClass(original.getName(), index, false);
+      copy.setXmlTest(test);
+      copy.setParameters(new LinkedHashMap<>(original.getLocalParameters()));
+      copy.setIncludedMethods(new ArrayList<>(original.getIncludedMethods()));
+      copy.setExcludedMethods(new ArrayList<>(original.getExcludedMethods()));
+      return copy;
+   }
+
+}
@@ -0,0 +1,340 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cache.AllocatorCaches;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.testng.xml.SuiteXmlParser;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Locates and parses TestNG suite XML files below a project root.
+ *
+ * <p>Discovery is kept cheap in large repositories:
+ * <ul>
+ *   <li>Only files matching the include globs are considered; excluded directories such as
+ *       {@code target/}, {@code .git/} and {@code node_modules/} are pruned without being traversed.</li>
+ *   <li>Each candidate is sniffed with a streaming reader that stops at the root element, so
+ *       only documents whose root is {@code <suite>} are handed to the TestNG parser.</li>
+ *   <li>Candidates are parsed in parallel, and parsed suites are cached by path and content hash in the
+ *       {@link AllocatorCaches} of the session, so repeated and concurrent executions (reactor modules,
+ *       {@code mvn -T} builds) parse unchanged files only once. Every discovery gets its own copies of
+ *       the cached suites.</li>
+ *   <li>{@code <suite-files>} of selected suites are followed, including files outside the include globs.
+ *       As in TestNG's own parser, each nested suite is linked to the suite referencing it, so it inherits
+ *       the parameters and listeners of its parents.</li>
+ * </ul>
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestNgSuiteDiscovery {
+
+   /**
+    * Globs, relative to the project root, used when no include patterns are configured.
+    */
+   public static final List<String> DEFAULT_INCLUDES = List.of("**/*.xml");
+
+   /**
+    * Globs, relative to the project root, that are always excluded from suite discovery.
+    */
+   public static final List<String> DEFAULT_EXCLUDES = List.of(
+         "**/target/**",
+         "**/.git/**",
+         "**/node_modules/**",
+         "**/.idea/**",
+         "**/.mvn/**",
+         "**/pom.xml",
+         "**/logback*.xml",
+         "**/log4j*.xml"
+   );
+
+   private static final String SUITE_ELEMENT = "suite";
+   private static final String ANY_DIRECTORY_PREFIX = "**/";
+   private static final String ANY_CONTENT_SUFFIX = "/**";
+
+   private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(() -> {
+      XMLInputFactory factory = XMLInputFactory.newFactory();
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      return factory;
+   });
+
+   private final List<PathMatcher> includes;
+   private final List<PathMatcher> excludes;
+   private final List<PathMatcher> excludedDirectories;
+
+   /**
+    * Caches holding the parsed suites, keyed by the file path and the SHA-256 hash of its content.
+    */
+   private final AllocatorCaches caches;
+
+   /**
+    * Creates a discovery with the given glob patterns and caches of its own.
+    *
+    * @param includePatterns include globs; {@code null} or empty uses {@link #DEFAULT_INCLUDES}
+    * @param excludePatterns additional exclude globs; may be {@code null}
+    */
+   public TestNgSuiteDiscovery(Collection<String> includePatterns, Collection<String> excludePatterns) {
+      this(includePatterns, excludePatterns, new AllocatorCaches());
+   }
+
+   /**
+    * Creates a discovery with the given glob patterns.
+    *
+    * <p>Patterns are matched against paths relative to the project root. A leading {@code **}{@code /}
+    * also matches files directly in the root. The {@link #DEFAULT_EXCLUDES} are always applied.
+    *
+    * @param includePatterns include globs; {@code null} or empty uses {@link #DEFAULT_INCLUDES}
+    * @param excludePatterns additional exclude globs; may be {@code null}
+    * @param caches          caches the parsed suites are shared through
+    */
+   public TestNgSuiteDiscovery(Collection<String> includePatterns, Collection<String> excludePatterns,
+                               AllocatorCaches caches) {
+      this.caches = caches;
+      FileSystem fileSystem = FileSystems.getDefault();
+      List<String> includeGlobs = includePatterns == null || includePatterns.isEmpty()
+            ? DEFAULT_INCLUDES
+            : new ArrayList<>(includePatterns);
+      List<String> excludeGlobs = new ArrayList<>(DEFAULT_EXCLUDES);
+      if (excludePatterns != null) {
+         excludeGlobs.addAll(excludePatterns);
+      }
+
+      this.includes = compile(fileSystem, includeGlobs);
+      this.excludes = compile(fileSystem, excludeGlobs);
+      this.excludedDirectories = compile(fileSystem, excludeGlobs.stream()
+            .filter(glob -> glob.endsWith(ANY_CONTENT_SUFFIX))
+            .map(glob -> glob.substring(0, glob.length() - ANY_CONTENT_SUFFIX.length()))
+            .toList());
+   }
+
+   /**
+    * Discovers the suites with the given names together with all suites they reference through
+    * {@code <suite-files>}.
+    *
+    * <p>Every suite file is returned at most once, in discovery order followed by its nested suites. A nested
+    * suite is linked to the first suite referencing it through {@link XmlSuite#setParentSuite(XmlSuite)}
+    * and {@link XmlSuite#getChildSuites()}.
+    *
+    * @param projectRoot root directory to search
+    * @param suiteNames  names of the suites to select
+    * @return selected suites and their nested suites
+    * @throws IllegalStateException if a candidate suite file cannot be parsed
+    */
+   public List<XmlSuite> discover(Path projectRoot, Set<String> suiteNames) {
+      if (suiteNames == null || suiteNames.isEmpty()) {
+         return List.of();
+      }
+
+      final List<Path> candidates = findCandidates(projectRoot);
+      final Map<Path, XmlSuite> parsed = new ConcurrentHashMap<>();
+      candidates.parallelStream()
+            .filter(TestNgSuiteDiscovery::hasSuiteRoot)
+            .forEach(path -> parsed.put(path, parse(path)));
+
+      final List<XmlSuite> selected = new ArrayList<>();
+      final Set<Path> visited = new HashSet<>();
+      for (Path candidate : candidates) {
+         XmlSuite suite = parsed.get(candidate);
+         if (suite != null && suiteNames.contains(suite.getName())) {
+            collect(candidate, suite, parsed, selected, visited);
+         }
+      }
+      return selected;
+   }
+
+   /**
+    * Lists the files below the project root that match the include globs and none of the exclude globs.
+    *
+    * <p>Excluded directories are pruned, so their content is never listed.
+    *
+    * @param projectRoot root directory to search
+    * @return absolute, normalized candidate paths in sorted order
+    */
+   public List<Path> findCandidates(Path projectRoot) {
+      final Path root = projectRoot.toAbsolutePath().normalize();
+      final List<Path> result = new ArrayList<>();
+      if (!Files.isDirectory(root)) {
+         return result;
+      }
+
+      try {
+         Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+               if (!dir.equals(root) && matchesAny(excludedDirectories, root.relativize(dir))) {
+                  return FileVisitResult.SKIP_SUBTREE;
+               }
+               return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+               Path relative = root.relativize(file);
+               if (attrs.isRegularFile() && matchesAny(includes, relative) && !matchesAny(excludes, relative)) {
+                  result.add(file);
+               }
+               return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+               return FileVisitResult.CONTINUE;
+            }
+         });
+      } catch (IOException e) {
+         throw new UncheckedIOException("Failed to traverse project root: " + root, e);
+      }
+      Collections.sort(result);
+      return result;
+   }
+
+   /**
+    * Checks with a streaming reader whether the root element of the given file is {@code <suite>}.
+    *
+    * <p>Reading stops at the first element, DTDs and external entities are never resolved.
+    * Unreadable or malformed prologs are reported as "not a suite".
+    *
+    * @param file the XML file to inspect
+    * @return {@code true} if the document root is {@code <suite>}
+    */
+   static boolean hasSuiteRoot(Path file) {
+      try (InputStream in = Files.newInputStream(file)) {
+         XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(in);
+         try {
+            while (reader.hasNext()) {
+               if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                  return SUITE_ELEMENT.equals(reader.getLocalName());
+               }
+            }
+            return false;
+         } finally {
+            reader.close();
+         }
+      } catch (IOException | XMLStreamException e) {
+         return false;
+      }
+   }
+
+   private void collect(Path file, XmlSuite suite, Map<Path, XmlSuite> parsed,
+                        List<XmlSuite> selected, Set<Path> visited) {
+      if (!visited.add(file)) {
+         return;
+      }
+      selected.add(suite);
+
+      for (String suiteFile : suite.getSuiteFiles()) {
+         Path parent = file.getParent();
+         Path child = (parent == null ? Path.of(suiteFile) : parent.resolve(suiteFile)).toAbsolutePath().normalize();
+         if (!Files.isRegularFile(child)) {
+            throw new IllegalStateException(
+                  "Suite file " + suiteFile + " referenced from " + file + " does not exist");
+         }
+         XmlSuite childSuite = parsed.computeIfAbsent(child, this::parse);
+         if (!visited.contains(child)) {
+            childSuite.setParentSuite(suite);
+            suite.getChildSuites().add(childSuite);
+         }
+         collect(child, childSuite, parsed, selected, visited);
+      }
+   }
+
+   /**
+    * Parses a suite file through the session cache and returns a copy of the cached suite.
+    *
+    * <p>The cache key includes the path, so an identical file elsewhere keeps its own file name, against
+    * which its relative {@code <suite-files>} are resolved.
+    */
+   private XmlSuite parse(Path file) {
+      try {
+         byte[] content = Files.readAllBytes(file);
+         return copy(caches.suite(file + "@" + sha256(content), key -> parse(file, content)));
+      } catch (IOException | NoSuchAlgorithmException e) {
+         throw new IllegalStateException("Failed to parse TestNG suite file: " + file, e);
+      }
+   }
+
+   private static XmlSuite parse(Path file, byte[] content) {
+      try {
+         return new SuiteXmlParser().parse(file.toString(), new ByteArrayInputStream(content), false);
+      } catch (Exception e) {
+         throw new IllegalStateException("Failed to parse TestNG suite file: " + file, e);
+      }
+   }
+
+   /**
+    * Copies a parsed suite with its tests and classes, so that linking nested suites and allocating them
+    * never changes the cached suite shared with other executions.
+    */
+   private static XmlSuite copy(XmlSuite original) {
+      final XmlSuite copy = TestNgSuiteCopies.copySuite(original);
+      copy.setFileName(original.getFileName());
+      copy.setXmlPackages(new ArrayList<>(original.getXmlPackages()));
+      copy.setSuiteFiles(new ArrayList<>(original.getSuiteFiles()));
+      for (XmlTest test : original.getTests()) {
+         final XmlTest testCopy = TestNgSuiteCopies.copyTest(copy, test);
+         testCopy.setXmlPackages(new ArrayList<>(test.getXmlPackages()));
+         final List<XmlClass> classes = new ArrayList<>();
+         for (XmlClass xmlClass : test.getXmlClasses()) {
+            classes.add(TestNgSuiteCopies.copyClass(testCopy, xmlClass, xmlClass.getIndex()));
+         }
+         testCopy.setXmlClasses(classes);
+      }
+      return copy;
+   }
+
+   private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+   }
+
+   private static List<PathMatcher> compile(FileSystem fileSystem, Collection<String> globs) {
+      List<PathMatcher> matchers = new ArrayList<>();
+      for (String glob : globs) {
+         String trimmed = glob.trim();
+         if (trimmed.isEmpty()) {
+            continue;
+         }
+         matchers.add(fileSystem.getPathMatcher("glob:" + trimmed));
+         if (trimmed.startsWith(ANY_DIRECTORY_PREFIX)) {
+            matchers.add(fileSystem.getPathMatcher("glob:" + trimmed.substring(ANY_DIRECTORY_PREFIX.length())));
+         }
+      }
+      return matchers;
+   }
+
+   private static boolean matchesAny(List<PathMatcher> matchers, Path relativePath) {
+      for (PathMatcher matcher : matchers) {
+         if (matcher.matches(relativePath)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+}
@@ -0,0 +1,193 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A tag expression, such as the Cucumber expression {@code @smoke and not (@slow or @wip)} or the JUnit Platform
+ * expression {@code smoke & !(slow | wip)}.
+ *
+ * <p>Cucumber expressions combine tags with {@code and}, {@code or}, {@code not} and parentheses. JUnit Platform
+ * expressions use {@code &}, {@code |} and {@code !} instead, and {@code any()} and {@code none()} match tests
+ * with any tag and without tags. In both, not binds tighter than and, and and binds tighter than or. A blank
+ * expression matches every set of tags. Tags are compared as written, including the leading {@code @} of
+ * Cucumber tags.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TagExpression {
+
+   private static final TagExpression ANY = new TagExpression("", tags -> true);
+
+   private static final Syntax CUCUMBER = new Syntax("and", "or", "not", "()", false);
+   private static final Syntax JUNIT = new Syntax("&", "|", "!", "()&|!", true);
+
+   private static final String OPEN = "(";
+   private static final String CLOSE = ")";
+   private static final String ANY_TAG = "any";
+   private static final String NO_TAG = "none";
+
+   private final String expression;
+   private final Predicate<Collection<String>> predicate;
+
+   private TagExpression(String expression, Predicate<Collection<String>> predicate) {
+      this.expression = expression;
+      this.predicate = predicate;
+   }
+
+   /**
+    * Parses a Cucumber tag expression.
+    *
+    * @param expression the expression; {@code null} or blank matches everything
+    * @return the parsed expression
+    * @throws IllegalArgumentException if the expression is malformed
+    */
+   public static TagExpression parse(String expression) {
+      return parse(expression, CUCUMBER);
+   }
+
+   /**
+    * Parses a JUnit Platform tag expression, as accepted by the {@code groups} of Surefire.
+    *
+    * @param expression the expression; {@code null} or blank matches everything
+    * @return the parsed expression
+    * @throws IllegalArgumentException if the expression is malformed
+    */
+   public static TagExpression parseJunit(String expression) {
+      return parse(expression, JUNIT);
+   }
+
+   private static TagExpression parse(String expression, Syntax syntax) {
+      if (expression == null || expression.isBlank()) {
+         return ANY;
+      }
+      final Parser parser = new Parser(expression, tokenize(expression, syntax.delimiters), syntax);
+      final Predicate<Collection<String>> predicate = parser.parseOr();
+      if (parser.position < parser.tokens.size()) {
+         throw parser.error("unexpected '" + parser.tokens.get(parser.position) + "'");
+      }
+      return new TagExpression(expression.trim(), predicate);
+   }
+
+   /**
+    * Evaluates the expression against the tags of a scenario or test.
+    *
+    * @param tags the tags, including the leading {@code @} of Cucumber tags
+    * @return {@code true} if the tags match the expression
+    */
+   public boolean matches(Collection<String> tags) {
+      return predicate.test(tags);
+   }
+
+   @Override
+   public String toString() {
+      return expression;
+   }
+
+   private static List<String> tokenize(String expression, String delimiters) {
+      final List<String> tokens = new ArrayList<>();
+      final StringBuilder current = new StringBuilder();
+      for (int i = 0; i < expression.length(); i++) {
+         char c = expression.charAt(i);
+         if (c == '\\' && i + 1 < expression.length()) {
+            current.append(expression.charAt(++i));
+         } else if (Character.isWhitespace(c) || delimiters.indexOf(c) >= 0) {
+            if (current.length() > 0) {
+               tokens.add(current.toString());
+               current.setLength(0);
+            }
+            if (delimiters.indexOf(c) >= 0) {
+               tokens.add(String.valueOf(c));
+            }
+         } else {
+            current.append(c);
+         }
+      }
+      if (current.length() > 0) {
+         tokens.add(current.toString());
+      }
+      return tokens;
+   }
+
+   /**
+    * Operators and delimiters of an expression language.
+    */
+   private record Syntax(String and, String or, String not, String delimiters, boolean tagFunctions) {
+   }
+
+   /**
+    * Recursive descent parser over the tokens of an expression.
+    */
+   private static final class Parser {
+
+      private final String expression;
+      private final List<String> tokens;
+      private final Syntax syntax;
+      private int position;
+
+      private Parser(String expression, List<String> tokens, Syntax syntax) {
+         this.expression = expression;
+         this.tokens = tokens;
+         this.syntax = syntax;
+      }
+
+      private Predicate<Collection<String>> parseOr() {
+         Predicate<Collection<String>> left = parseAnd();
+         while (accept(syntax.or())) {
+            left = left.or(parseAnd());
+         }
+         return left;
+      }
+
+      private Predicate<Collection<String>> parseAnd() {
+         Predicate<Collection<String>> left = parseNot();
+         while (accept(syntax.and())) {
+            left = left.and(parseNot());
+         }
+         return left;
+      }
+
+      private Predicate<Collection<String>> parseNot() {
+         if (accept(syntax.not())) {
+            return parseNot().negate();
+         }
+         if (accept(OPEN)) {
+            Predicate<Collection<String>> inner = parseOr();
+            if (!accept(CLOSE)) {
+               throw error("missing ')'");
+            }
+            return inner;
+         }
+         if (position >= tokens.size()) {
+            throw error("missing tag");
+         }
+         final String tag = tokens.get(position++);
+         if (tag.equals(syntax.and()) || tag.equals(syntax.or()) || tag.equals(CLOSE)) {
+            throw error("unexpected '" + tag + "'");
+         }
+         if (syntax.tagFunctions() && (tag.equals(ANY_TAG) || tag.equals(NO_TAG)) && accept(OPEN)) {
+            if (!accept(CLOSE)) {
+               throw error("missing ')'");
+            }
+            return tag.equals(ANY_TAG) ? tags -> !tags.isEmpty() : Collection::isEmpty;
+         }
+         return tags -> tags.contains(tag);
+      }
+
+      private boolean accept(String token) {
+         if (position < tokens.size() && tokens.get(position).equals(token)) {
+            position++;
+            return true;
+         }
+         return false;
+      }
+
+      private IllegalArgumentException error(String reason) {
+         return new IllegalArgumentException("Invalid tag expression '" + expression + "': " + reason);
+      }
+
+   }
+
+}
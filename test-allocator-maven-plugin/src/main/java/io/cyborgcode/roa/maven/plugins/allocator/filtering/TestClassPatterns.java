@@ -0,0 +1,131 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Include and exclude patterns selecting the test classes a runner plugin executes, compiled once.
+ *
+ * <p>The patterns follow the {@code <includes>}/{@code <excludes>} of Surefire and Failsafe:
+ * <ul>
+ *   <li>Ant-style globs such as {@code **}{@code /*Test.java}, where {@code **} spans directories and
+ *       {@code *} stays within one. The {@code .java} or {@code .class} extension is optional.</li>
+ *   <li>{@code %regex[...]} regular expressions, matched against the class file path such as
+ *       {@code com/acme/CheckoutTest.class}.</li>
+ *   <li>Method filters after {@code #} are ignored, as classes are selected as a whole.</li>
+ * </ul>
+ * A class is selected when it matches any include and no exclude. Only the path is inspected, so class files
+ * can be rejected right after the directory listing.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestClassPatterns {
+
+   /**
+    * Default includes of the Surefire plugin.
+    */
+   public static final List<String> SUREFIRE_INCLUDES =
+         List.of("**/Test*.java", "**/*Test.java", "**/*Tests.java", "**/*TestCase.java");
+
+   /**
+    * Default includes of the Failsafe plugin.
+    */
+   public static final List<String> FAILSAFE_INCLUDES = List.of("**/IT*.java", "**/*IT.java", "**/*ITCase.java");
+
+   /**
+    * Default excludes of both plugins, skipping nested classes.
+    */
+   public static final List<String> DEFAULT_EXCLUDES = List.of("**/*$*");
+
+   private static final String REGEX_PREFIX = "%regex[";
+   private static final String CLASS_SUFFIX = ".class";
+
+   private final List<Pattern> includes;
+   private final List<Pattern> excludes;
+
+   private TestClassPatterns(List<Pattern> includes, List<Pattern> excludes) {
+      this.includes = includes;
+      this.excludes = excludes;
+   }
+
+   /**
+    * Compiles include and exclude patterns.
+    *
+    * @param includes patterns of the classes to select; comma-separated globs are split
+    * @param excludes patterns of the classes to skip; may be {@code null}
+    * @return the compiled patterns
+    */
+   public static TestClassPatterns compile(Collection<String> includes, Collection<String> excludes) {
+      return new TestClassPatterns(compileAll(includes), compileAll(excludes));
+   }
+
+   /**
+    * Determines whether a class file is selected.
+    *
+    * @param classFilePath path of the class file relative to its root, with {@code /} separators
+    * @return {@code true} if the class matches an include and no exclude
+    */
+   public boolean matches(String classFilePath) {
+      return includes.stream().anyMatch(pattern -> pattern.matcher(classFilePath).matches())
+            && excludes.stream().noneMatch(pattern -> pattern.matcher(classFilePath).matches());
+   }
+
+   private static List<Pattern> compileAll(Collection<String> patterns) {
+      final List<Pattern> compiled = new ArrayList<>();
+      if (patterns == null) {
+         return compiled;
+      }
+      for (String entry : patterns) {
+         String[] split = entry.trim().startsWith(REGEX_PREFIX) ? new String[] {entry} : entry.split(",");
+         for (String pattern : split) {
+            String trimmed = pattern.trim();
+            if (!trimmed.isEmpty()) {
+               compiled.add(compile(trimmed));
+            }
+         }
+      }
+      return compiled;
+   }
+
+   private static Pattern compile(String pattern) {
+      if (pattern.startsWith(REGEX_PREFIX) && pattern.endsWith("]")) {
+         return Pattern.compile(pattern.substring(REGEX_PREFIX.length(), pattern.length() - 1));
+      }
+
+      String glob = pattern.replace('\\', '/');
+      final int methodFilter = glob.indexOf('#');
+      if (methodFilter >= 0) {
+         glob = glob.substring(0, methodFilter);
+      }
+      if (glob.endsWith(".java")) {
+         glob = glob.substring(0, glob.length() - ".java".length());
+      } else if (glob.endsWith(CLASS_SUFFIX)) {
+         glob = glob.substring(0, glob.length() - CLASS_SUFFIX.length());
+      }
+      return Pattern.compile(globToRegex(glob) + Pattern.quote(CLASS_SUFFIX));
+   }
+
+   private static String globToRegex(String glob) {
+      final StringBuilder regex = new StringBuilder();
+      for (int i = 0; i < glob.length(); i++) {
+         char c = glob.charAt(i);
+         if (glob.startsWith("**/", i)) {
+            regex.append("(?:.*/)?");
+            i += 2;
+         } else if (glob.startsWith("**", i)) {
+            regex.append(".*");
+            i++;
+         } else if (c == '*') {
+            regex.append("[^/]*");
+         } else if (c == '?') {
+            regex.append("[^/]");
+         } else {
+            regex.append(Pattern.quote(String.valueOf(c)));
+         }
+      }
+      return regex.toString();
+   }
+
+}
@@ -1,6 +1,11 @@
 package io.cyborgcode.roa.maven.plugins.allocator.filtering;
 
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestEngine;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 
@@ -15,6 +20,8 @@ import org.junit.jupiter.api.Test;
  */
 public final class TestMethodFilter {
 
+   private static final String JUNIT4_IGNORE = "org.junit.Ignore";
+
    /**
     * Private constructor to prevent instantiation of this utility class.
     */
@@ -26,7 +33,8 @@ public final class TestMethodFilter {
     *
     * <p>The method filters test methods based on the following criteria:
     * <ul>
-    *     <li>Methods must be annotated with {@link Test}.</li>
+    *     <li>Methods must be annotated with {@link Test}, or with JUnit 4's {@code @org.junit.Test}
+    *         (executed through the Vintage engine) and not be {@code @Ignore}d.</li>
     *     <li>Methods with excluded tags are ignored.</li>
     *     <li>If include tags are provided, at least one tag must match.</li>
     * </ul>
@@ -48,13 +56,7 @@ public final class TestMethodFilter {
    ) {
       int count = 0;
 
-      for (Method method : clazz.getDeclaredMethods()) {
-         if (!method.isAnnotationPresent(Test.class)) {
-            continue;
-         }
-
-         Set<String> methodTags = TestTagExtractor.extractTags(method);
-
+      for (Set<String> methodTags : extractTestMethodTags(clazz).values()) {
          if (isMethodIncluded(methodTags, includeTags, excludeTags)) {
             count++;
          }
@@ -63,6 +65,71 @@ public final class TestMethodFilter {
       return (!parallelMethods || isSequentialClassTheRingFramework(clazz)) && count > 0 ? 1 : count;
    }
 
+   /**
+    * Extracts the tags of every test method of the given class.
+    *
+    * <p>JUnit Jupiter test methods are those declared by the class. JUnit 4 runs every public test method,
+    * including inherited ones, so its test methods are taken from the public methods of the class, the same
+    * methods {@link TestEngine#detect(Class)} classifies JUnit 4 classes by.
+    *
+    * @param clazz The class containing test methods.
+    * @return The tags of each test method, in declaration order as reported by reflection.
+    */
+   public static Map<Method, Set<String>> extractTestMethodTags(Class<?> clazz) {
+      final Map<Method, Set<String>> tagsByMethod = new LinkedHashMap<>();
+      for (Method method : clazz.getDeclaredMethods()) {
+         if (method.isAnnotationPresent(Test.class)) {
+            tagsByMethod.put(method, TestTagExtractor.extractTags(method));
+         }
+      }
+      if (hasAnnotation(clazz, JUNIT4_IGNORE)) {
+         return tagsByMethod;
+      }
+      for (Method method : clazz.getMethods()) {
+         if (isJunit4TestMethod(method)) {
+            tagsByMethod.putIfAbsent(method, TestTagExtractor.extractTags(method));
+         }
+      }
+      return tagsByMethod;
+   }
+
+   /**
+    * Determines whether a test with the given tags matches the include/exclude rules.
+    *
+    * @param tags        The tags of the test.
+    * @param includeTags A set of tags to include (empty or {@code null} allows all).
+    * @param excludeTags A set of tags to exclude; may be {@code null}.
+    * @return {@code true} if the test is selected; {@code false} otherwise.
+    */
+   public static boolean matchesTags(Set<String> tags, Set<String> includeTags, Set<String> excludeTags) {
+      return isMethodIncluded(tags,
+            includeTags == null ? Set.of() : includeTags,
+            excludeTags == null ? Set.of() : excludeTags);
+   }
+
+   /**
+    * Determines whether a method is an enabled JUnit 4 test method.
+    *
+    * <p>JUnit 4 annotations are matched by name, as JUnit 4 is not a dependency of the plugin.
+    *
+    * @param method The method to check.
+    * @return {@code true} if the method is executed as a test; {@code false} otherwise.
+    */
+   private static boolean isJunit4TestMethod(Method method) {
+      return TestEngine.isJunit4Test(method)
+            && !hasAnnotation(method, JUNIT4_IGNORE)
+            && !hasAnnotation(method.getDeclaringClass(), JUNIT4_IGNORE);
+   }
+
+   private static boolean hasAnnotation(AnnotatedElement element, String annotationName) {
+      for (Annotation annotation : element.getAnnotations()) {
+         if (annotation.annotationType().getName().equals(annotationName)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
    /**
     * Determines if a method should be included based on its tags.
     *
@@ -113,7 +180,7 @@ public final class TestMethodFilter {
     * @param clazz The class to check.
     * @return {@code true} if the class requires sequential execution; {@code false} otherwise.
     */
-   private static boolean isSequentialClassTheRingFramework(Class<?> clazz) {
+   public static boolean isSequentialClassTheRingFramework(Class<?> clazz) {
       return clazz.getSuperclass() != null && clazz.getSuperclass().getSimpleName().contains("BaseTestSequential");
    }
 
@@ -0,0 +1,117 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides whether a TestNG test method runs, based on its groups.
+ *
+ * <p>Filtering follows TestNG's rules:
+ * <ul>
+ *   <li>Without included groups every method is a candidate; otherwise a method needs at least one
+ *       group matching an included group.</li>
+ *   <li>A method with a group matching an excluded group never runs, even if it is included.</li>
+ *   <li>Group names may be regular expressions.</li>
+ *   <li>Meta-groups declared with {@code <define>} are expanded recursively before matching.</li>
+ * </ul>
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestNgGroupFilter {
+
+   private static final TestNgGroupFilter NONE = new TestNgGroupFilter(Set.of(), Set.of());
+
+   private final TestNgNameMatcher includes;
+   private final TestNgNameMatcher excludes;
+
+   private TestNgGroupFilter(Set<String> includes, Set<String> excludes) {
+      this.includes = TestNgNameMatcher.of(includes);
+      this.excludes = TestNgNameMatcher.of(excludes);
+   }
+
+   /**
+    * Returns a filter that accepts every method.
+    *
+    * @return the accept-all filter
+    */
+   public static TestNgGroupFilter none() {
+      return NONE;
+   }
+
+   /**
+    * Creates a filter from included and excluded groups.
+    *
+    * @param includes   included groups or meta-groups; may be {@code null}
+    * @param excludes   excluded groups or meta-groups; may be {@code null}
+    * @param metaGroups meta-group name to member groups, as declared with {@code <define>}; may be {@code null}
+    * @return the group filter
+    */
+   public static TestNgGroupFilter of(Collection<String> includes,
+                                      Collection<String> excludes,
+                                      Map<String, List<String>> metaGroups) {
+      final Map<String, List<String>> defines = metaGroups == null ? Map.of() : metaGroups;
+      final Set<String> expandedIncludes = expand(includes, defines);
+      final Set<String> expandedExcludes = expand(excludes, defines);
+      if (expandedIncludes.isEmpty() && expandedExcludes.isEmpty()) {
+         return NONE;
+      }
+      return new TestNgGroupFilter(expandedIncludes, expandedExcludes);
+   }
+
+   /**
+    * Indicates whether this filter restricts anything.
+    *
+    * @return {@code true} if included or excluded groups are configured
+    */
+   public boolean isActive() {
+      return this != NONE;
+   }
+
+   /**
+    * Checks whether a method with the given groups runs under this filter.
+    *
+    * @param groups the groups of the method, including groups inherited from class-level {@code @Test}
+    * @return {@code true} if the method runs
+    */
+   public boolean accepts(Collection<String> groups) {
+      if (!isActive()) {
+         return true;
+      }
+      boolean included = includes.isEmpty();
+      for (String group : groups) {
+         if (excludes.matches(group)) {
+            return false;
+         }
+         included = included || includes.matches(group);
+      }
+      return included;
+   }
+
+   private static Set<String> expand(Collection<String> groups, Map<String, List<String>> metaGroups) {
+      final Set<String> result = new HashSet<>();
+      if (groups == null) {
+         return result;
+      }
+      final Set<String> visited = new HashSet<>();
+      final Deque<String> pending = new ArrayDeque<>(groups);
+      while (!pending.isEmpty()) {
+         String group = pending.pop();
+         if (!visited.add(group)) {
+            continue;
+         }
+         List<String> members = metaGroups.get(group);
+         if (members == null) {
+            result.add(group);
+         } else {
+            pending.addAll(members);
+         }
+      }
+      return result;
+   }
+
+}
@@ -0,0 +1,295 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterGroups;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
+import org.testng.annotations.AfterTest;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeGroups;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+/**
+ * Index of the TestNG test methods of a single class, built once and queried many times.
+ *
+ * <p>A method is a test method when:
+ * <ul>
+ *   <li>it is declared on the class or inherited from a superclass, and annotated with an enabled
+ *       {@link Test @Test} where it is declared last, as TestNG runs inherited test methods, or</li>
+ *   <li>the class (or a superclass) is annotated with {@link Test @Test} and the method is a public,
+ *       non-static method that is not a configuration, data provider or factory method.</li>
+ * </ul>
+ *
+ * <p>Test methods are indexed by name, so {@code <include>} entries with a plain method name are resolved
+ * in constant time. Entries containing regular expression characters are matched against the distinct
+ * method names, following TestNG's regex semantics for {@code <include>} and {@code <exclude>}. Callers
+ * selecting repeatedly with the same entries compile them once into a {@link TestNgNameMatcher}.
+ *
+ * <p>The index also records the groups and dependencies ({@code dependsOnMethods}, {@code dependsOnGroups})
+ * of each test method: those of its own {@code @Test} plus those of class-level {@code @Test} annotations
+ * on the class and its superclasses.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestNgMethodIndex {
+
+   private static final Set<Class<? extends Annotation>> NON_TEST_ANNOTATIONS = Set.of(
+         BeforeSuite.class, AfterSuite.class,
+         BeforeTest.class, AfterTest.class,
+         BeforeGroups.class, AfterGroups.class,
+         BeforeClass.class, AfterClass.class,
+         BeforeMethod.class, AfterMethod.class,
+         DataProvider.class, Factory.class
+   );
+
+   /**
+    * Test methods in declaration order.
+    */
+   private final List<Method> testMethods;
+
+   /**
+    * Test methods grouped by name; overloads share one entry.
+    */
+   private final Map<String, List<Method>> testMethodsByName;
+
+   /**
+    * Groups of each test method, including groups inherited from class-level {@code @Test}.
+    */
+   private final Map<Method, Set<String>> groups;
+
+   /**
+    * Methods each test method depends on, as declared (names, qualified names or regular expressions).
+    */
+   private final Map<Method, Set<String>> dependsOnMethods;
+
+   /**
+    * Groups each test method depends on, as declared (names or regular expressions).
+    */
+   private final Map<Method, Set<String>> dependsOnGroups;
+
+   private TestNgMethodIndex(List<Method> testMethods,
+                             Map<Method, Set<String>> groups,
+                             Map<Method, Set<String>> dependsOnMethods,
+                             Map<Method, Set<String>> dependsOnGroups) {
+      this.testMethods = List.copyOf(testMethods);
+      this.groups = groups;
+      this.dependsOnMethods = dependsOnMethods;
+      this.dependsOnGroups = dependsOnGroups;
+      Map<String, List<Method>> byName = new LinkedHashMap<>();
+      for (Method method : testMethods) {
+         byName.computeIfAbsent(method.getName(), name -> new ArrayList<>()).add(method);
+      }
+      this.testMethodsByName = byName;
+   }
+
+   /**
+    * Builds the index for the given class.
+    *
+    * @param clazz the loaded test class
+    * @return the method index
+    */
+   public static TestNgMethodIndex of(Class<?> clazz) {
+      Set<Method> methods = new LinkedHashSet<>();
+      Set<String> signatures = new HashSet<>();
+      for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+         for (Method method : current.getDeclaredMethods()) {
+            // A method overridden in a subclass is a test only if declared as one there.
+            if (method.isSynthetic() || method.isBridge() || !signatures.add(signature(method))) {
+               continue;
+            }
+            Test test = method.getAnnotation(Test.class);
+            if (test != null && test.enabled()) {
+               methods.add(method);
+            }
+         }
+      }
+
+      if (hasClassLevelTest(clazz)) {
+         for (Method method : clazz.getMethods()) {
+            if (isImplicitTestMethod(method)) {
+               methods.add(method);
+            }
+         }
+      }
+
+      final List<Test> classTests = classLevelTests(clazz);
+      final Map<Method, Set<String>> groups = new HashMap<>();
+      final Map<Method, Set<String>> dependsOnMethods = new HashMap<>();
+      final Map<Method, Set<String>> dependsOnGroups = new HashMap<>();
+      for (Method method : methods) {
+         List<Test> tests = new ArrayList<>(classTests);
+         Test test = method.getAnnotation(Test.class);
+         if (test != null) {
+            tests.add(test);
+         }
+         groups.put(method, collect(tests, Test::groups));
+         dependsOnMethods.put(method, collect(tests, Test::dependsOnMethods));
+         dependsOnGroups.put(method, collect(tests, Test::dependsOnGroups));
+      }
+
+      return new TestNgMethodIndex(new ArrayList<>(methods), groups, dependsOnMethods, dependsOnGroups);
+   }
+
+   /**
+    * Returns all test methods of the class.
+    *
+    * @return the test methods
+    */
+   public List<Method> getTestMethods() {
+      return testMethods;
+   }
+
+   /**
+    * Returns the groups of a test method of this class.
+    *
+    * @param method a test method returned by this index
+    * @return the method's groups, empty if it belongs to none
+    */
+   public Set<String> getGroups(Method method) {
+      return groups.getOrDefault(method, Set.of());
+   }
+
+   /**
+    * Returns the {@code dependsOnMethods} entries of a test method of this class.
+    *
+    * @param method a test method returned by this index
+    * @return the declared method dependencies, empty if there are none
+    */
+   public Set<String> getDependsOnMethods(Method method) {
+      return dependsOnMethods.getOrDefault(method, Set.of());
+   }
+
+   /**
+    * Returns the {@code dependsOnGroups} entries of a test method of this class.
+    *
+    * @param method a test method returned by this index
+    * @return the declared group dependencies, empty if there are none
+    */
+   public Set<String> getDependsOnGroups(Method method) {
+      return dependsOnGroups.getOrDefault(method, Set.of());
+   }
+
+   /**
+    * Selects the test methods that match the given include and exclude entries.
+    *
+    * <p>Without includes every test method is a candidate. A method is dropped when its name matches
+    * any exclude. Each method is returned at most once even if several includes match it.
+    *
+    * @param includes method names or regular expressions from {@code <include>}; may be empty
+    * @param excludes method names or regular expressions from {@code <exclude>}; may be empty
+    * @return the selected test methods
+    */
+   public List<Method> select(Collection<String> includes, Collection<String> excludes) {
+      return select(TestNgNameMatcher.of(includes), TestNgNameMatcher.of(excludes));
+   }
+
+   /**
+    * Selects the test methods that match compiled include and exclude entries.
+    *
+    * <p>Works like {@link #select(Collection, Collection)}, for entries compiled once by the caller.
+    *
+    * @param includes the compiled {@code <include>} entries; empty to include every test method
+    * @param excludes the compiled {@code <exclude>} entries; empty to exclude none
+    * @return the selected test methods
+    */
+   public List<Method> select(TestNgNameMatcher includes, TestNgNameMatcher excludes) {
+      Collection<Method> candidates;
+      if (includes.isEmpty()) {
+         candidates = testMethods;
+      } else if (!includes.hasPatterns()) {
+         Set<Method> included = new LinkedHashSet<>();
+         for (String include : includes.getLiterals()) {
+            included.addAll(testMethodsByName.getOrDefault(include, List.of()));
+         }
+         candidates = included;
+      } else {
+         Set<Method> included = new LinkedHashSet<>();
+         testMethodsByName.forEach((name, overloads) -> {
+            if (includes.matches(name)) {
+               included.addAll(overloads);
+            }
+         });
+         candidates = included;
+      }
+
+      if (excludes.isEmpty()) {
+         return List.copyOf(candidates);
+      }
+
+      List<Method> selected = new ArrayList<>();
+      for (Method method : candidates) {
+         if (!excludes.matches(method.getName())) {
+            selected.add(method);
+         }
+      }
+      return selected;
+   }
+
+   private static List<Test> classLevelTests(Class<?> clazz) {
+      final List<Test> result = new ArrayList<>();
+      for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+         Test test = current.getAnnotation(Test.class);
+         if (test != null) {
+            result.add(test);
+         }
+      }
+      return result;
+   }
+
+   private static Set<String> collect(List<Test> tests, Function<Test, String[]> attribute) {
+      final Set<String> result = new HashSet<>();
+      for (Test test : tests) {
+         result.addAll(Arrays.asList(attribute.apply(test)));
+      }
+      return result;
+   }
+
+   private static boolean hasClassLevelTest(Class<?> clazz) {
+      for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+         if (current.isAnnotationPresent(Test.class)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static boolean isImplicitTestMethod(Method method) {
+      if (method.getDeclaringClass() == Object.class
+            || Modifier.isStatic(method.getModifiers())
+            || method.isSynthetic()
+            || method.isBridge()) {
+         return false;
+      }
+      for (Annotation annotation : method.getAnnotations()) {
+         if (NON_TEST_ANNOTATIONS.contains(annotation.annotationType())) {
+            return false;
+         }
+      }
+      Test test = method.getAnnotation(Test.class);
+      return test == null || test.enabled();
+   }
+
+   private static String signature(Method method) {
+      return method.getName() + Arrays.toString(method.getParameterTypes());
+   }
+
+}
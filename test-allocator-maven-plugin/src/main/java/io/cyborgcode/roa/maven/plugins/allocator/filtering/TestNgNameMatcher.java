@@ -0,0 +1,116 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Matches method or group names against TestNG name entries, compiled once and matched many times.
+ *
+ * <p>TestNG treats {@code <include>} and {@code <exclude>} entries, group names and {@code dependsOnGroups}
+ * as regular expressions. Entries without regular expression characters match literally, in constant time;
+ * the others are compiled once and must match the whole name.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestNgNameMatcher {
+
+   private static final TestNgNameMatcher NONE = new TestNgNameMatcher(Set.of(), List.of());
+
+   private static final String REGEX_CHARACTERS = ".*+?[](){}|^$\\";
+
+   private final Set<String> literals;
+   private final List<Pattern> patterns;
+
+   private TestNgNameMatcher(Set<String> literals, List<Pattern> patterns) {
+      this.literals = literals;
+      this.patterns = patterns;
+   }
+
+   /**
+    * Compiles name entries.
+    *
+    * @param entries literal names or regular expressions; may be {@code null}
+    * @return the matcher, matching nothing without entries
+    * @throws java.util.regex.PatternSyntaxException if an entry is not a valid regular expression
+    */
+   public static TestNgNameMatcher of(Collection<String> entries) {
+      if (entries == null || entries.isEmpty()) {
+         return NONE;
+      }
+      final Set<String> literals = new HashSet<>();
+      final List<Pattern> patterns = new ArrayList<>();
+      for (String entry : entries) {
+         if (isLiteral(entry)) {
+            literals.add(entry);
+         } else {
+            patterns.add(Pattern.compile(entry));
+         }
+      }
+      return new TestNgNameMatcher(literals, patterns);
+   }
+
+   /**
+    * Indicates whether the matcher has no entries.
+    *
+    * @return {@code true} if no name matches
+    */
+   public boolean isEmpty() {
+      return literals.isEmpty() && patterns.isEmpty();
+   }
+
+   /**
+    * Checks whether a name matches any entry.
+    *
+    * @param name the method or group name
+    * @return {@code true} if the name equals a literal entry or matches a regular expression entry
+    */
+   public boolean matches(String name) {
+      if (literals.contains(name)) {
+         return true;
+      }
+      for (Pattern pattern : patterns) {
+         if (pattern.matcher(name).matches()) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * Returns the literal entries.
+    *
+    * @return the entries without regular expression characters
+    */
+   Set<String> getLiterals() {
+      return literals;
+   }
+
+   /**
+    * Indicates whether any entry is a regular expression.
+    *
+    * @return {@code true} if names must be matched against compiled patterns
+    */
+   boolean hasPatterns() {
+      return !patterns.isEmpty();
+   }
+
+   /**
+    * Checks whether a name entry contains no regular expression characters.
+    *
+    * @param name the entry
+    * @return {@code true} if the entry only matches itself
+    */
+   static boolean isLiteral(String name) {
+      for (int i = 0; i < name.length(); i++) {
+         if (REGEX_CHARACTERS.indexOf(name.charAt(i)) >= 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+}
@@ -1,6 +1,7 @@
 package io.cyborgcode.roa.maven.plugins.allocator.filtering;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashSet;
 import java.util.Set;
@@ -13,10 +14,34 @@ import org.junit.jupiter.api.Tags;
  * <p>This class retrieves tags applied directly to test methods using {@link Tag} or {@link Tags} annotations.
  * It also supports extracting meta-annotations (annotations that themselves contain {@link Tag}).
  *
+ * <p>JUnit 4 categories are reported as tags named after the fully qualified category class, as the
+ * JUnit Vintage engine does.
+ *
  * @author Cyborg Code Syndicate 💍👨💻
  */
 public final class TestTagExtractor {
 
+   private static final String JUNIT4_CATEGORY = "org.junit.experimental.categories.Category";
+
+   /**
+    * Tags contributed by each annotation type as meta-annotations, resolved once per type.
+    *
+    * <p>Values are bound to the annotation type itself, so test class loaders of finished executions can be
+    * collected, while concurrent executions of a parallel build share the resolutions.
+    */
+   private static final ClassValue<Set<String>> META_TAGS = new ClassValue<>() {
+      @Override
+      protected Set<String> computeValue(Class<?> annotationType) {
+         Set<String> tags = new HashSet<>();
+         for (Annotation metaAnnotation : annotationType.getAnnotations()) {
+            if (metaAnnotation instanceof Tag tag) {
+               tags.add(tag.value());
+            }
+         }
+         return Set.copyOf(tags);
+      }
+   };
+
    private TestTagExtractor() {
    }
 
@@ -28,6 +53,7 @@ public final class TestTagExtractor {
     *     <li>{@link Tag} - Extracts a single tag value.</li>
     *     <li>{@link Tags} - Extracts multiple tag values.</li>
     *     <li>Meta-annotations - Extracts tags from annotations that contain {@link Tag} annotations.</li>
+    *     <li>JUnit 4 {@code @Category} - on the method or its declaring class.</li>
     * </ul>
     *
     * @param method The test method to analyze.
@@ -43,14 +69,43 @@ public final class TestTagExtractor {
             for (Tag tag : (tags).value()) {
                methodTags.add(tag.value());
             }
+         } else if (annotation.annotationType().getName().equals(JUNIT4_CATEGORY)) {
+            extractCategories(annotation, methodTags);
          } else {
             extractMetaTags(annotation.annotationType(), methodTags);
          }
       }
 
+      for (Annotation annotation : method.getDeclaringClass().getAnnotations()) {
+         if (annotation.annotationType().getName().equals(JUNIT4_CATEGORY)) {
+            extractCategories(annotation, methodTags);
+         }
+      }
+
       return methodTags;
    }
 
+   /**
+    * Extracts the category classes of a JUnit 4 {@code @Category} annotation as tags.
+    *
+    * <p>The annotation is read reflectively, as JUnit 4 is not a dependency of the plugin.
+    *
+    * @param category   The {@code @Category} annotation.
+    * @param methodTags The set of extracted tags.
+    */
+   private static void extractCategories(Annotation category, Set<String> methodTags) {
+      try {
+         Object value = category.annotationType().getMethod("value").invoke(category);
+         if (value instanceof Class<?>[] categories) {
+            for (Class<?> categoryClass : categories) {
+               methodTags.add(categoryClass.getName());
+            }
+         }
+      } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+         // A malformed category simply contributes no tags.
+      }
+   }
+
    /**
     * Extracts tags from meta-annotations (annotations that themselves contain {@link Tag}).
     *
@@ -58,11 +113,7 @@ public final class TestTagExtractor {
     * @param methodTags     The set of extracted tags.
     */
    private static void extractMetaTags(Class<?> annotationType, Set<String> methodTags) {
-      for (Annotation metaAnnotation : annotationType.getAnnotations()) {
-         if (metaAnnotation instanceof Tag tag) {
-            methodTags.add(tag.value());
-         }
-      }
+      methodTags.addAll(META_TAGS.get(annotationType));
    }
 
 }
@@ -0,0 +1,163 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * The tests of a project with their tags, discovered once and filtered many times.
+ *
+ * <p>Each test belongs to a unit, the class or container it is allocated with. Evaluating a tag filter
+ * against the inventory yields the same counts as discovering the tests again with that filter:
+ * <ul>
+ *   <li>A test is selected when it has no excluded tag and, if include tags are given, at least one of them,
+ *       or when its tags pass the given filter, such as the tag expressions of a profile.</li>
+ *   <li>Units of sequential classes, or all units when methods do not run in parallel, count as one.</li>
+ * </ul>
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestTagInventory {
+
+   /**
+    * Tests per unit, in discovery order.
+    */
+   private final Map<String, List<Entry>> testsByUnit = new LinkedHashMap<>();
+
+   /**
+    * Units whose tests always run one after another.
+    */
+   private final Set<String> sequentialUnits = new HashSet<>();
+
+   /**
+    * Records a test.
+    *
+    * @param unit the class or container the test is allocated with
+    * @param id   identifier of the test, such as a method name or unique ID
+    * @param tags tags of the test
+    */
+   public void add(String unit, String id, Set<String> tags) {
+      testsByUnit.computeIfAbsent(unit, u -> new ArrayList<>()).add(new Entry(id, Set.copyOf(tags)));
+   }
+
+   /**
+    * Marks a unit as sequential, so it counts as a single test whenever any of its tests is selected.
+    *
+    * @param unit the class or container
+    */
+   public void markSequential(String unit) {
+      sequentialUnits.add(unit);
+   }
+
+   /**
+    * Counts the selected tests per unit.
+    *
+    * @param includeTags     tags to include; empty or {@code null} includes every test
+    * @param excludeTags     tags to exclude; may be {@code null}
+    * @param parallelMethods whether the tests of a unit run in parallel
+    * @return the number of selected tests per unit, omitting units without selected tests
+    */
+   public Map<String, Integer> countsFor(Set<String> includeTags, Set<String> excludeTags, boolean parallelMethods) {
+      return countsFor(tags -> TestMethodFilter.matchesTags(tags, includeTags, excludeTags), parallelMethods);
+   }
+
+   /**
+    * Counts the tests per unit whose tags pass a filter, such as the tag expressions of a profile.
+    *
+    * @param tagFilter       selects tests by their tags
+    * @param parallelMethods whether the tests of a unit run in parallel
+    * @return the number of selected tests per unit, omitting units without selected tests
+    */
+   public Map<String, Integer> countsFor(Predicate<? super Set<String>> tagFilter, boolean parallelMethods) {
+      final Map<String, Integer> counts = new HashMap<>();
+      testsByUnit.forEach((unit, tests) -> {
+         int count = 0;
+         for (Entry test : tests) {
+            if (tagFilter.test(test.tags)) {
+               count++;
+            }
+         }
+         if (count > 0) {
+            counts.put(unit, !parallelMethods || sequentialUnits.contains(unit) ? 1 : count);
+         }
+      });
+      return counts;
+   }
+
+   /**
+    * Returns the identifiers of the selected tests of a unit.
+    *
+    * @param unit        the class or container
+    * @param includeTags tags to include; empty or {@code null} includes every test
+    * @param excludeTags tags to exclude; may be {@code null}
+    * @return the identifiers in discovery order
+    */
+   public List<String> idsFor(String unit, Set<String> includeTags, Set<String> excludeTags) {
+      return idsFor(unit, tags -> TestMethodFilter.matchesTags(tags, includeTags, excludeTags));
+   }
+
+   /**
+    * Returns the identifiers of the tests of a unit whose tags pass a filter.
+    *
+    * @param unit      the class or container
+    * @param tagFilter selects tests by their tags
+    * @return the identifiers in discovery order
+    */
+   public List<String> idsFor(String unit, Predicate<? super Set<String>> tagFilter) {
+      final List<String> ids = new ArrayList<>();
+      for (Entry test : testsByUnit.getOrDefault(unit, List.of())) {
+         if (tagFilter.test(test.tags)) {
+            ids.add(test.id);
+         }
+      }
+      return ids;
+   }
+
+   /**
+    * Counts the tests carrying each tag, so jobs can be sized without allocating again.
+    *
+    * @return the number of tests per tag, sorted by tag
+    */
+   public Map<String, Integer> tagIndex() {
+      final Map<String, Integer> index = new TreeMap<>();
+      for (List<Entry> tests : testsByUnit.values()) {
+         for (Entry test : tests) {
+            for (String tag : test.tags) {
+               index.merge(tag, 1, Integer::sum);
+            }
+         }
+      }
+      return index;
+   }
+
+   /**
+    * Returns the number of recorded tests.
+    *
+    * @return the number of tests across all units
+    */
+   public int size() {
+      return testsByUnit.values().stream().mapToInt(List::size).sum();
+   }
+
+   /**
+    * A recorded test.
+    */
+   private static final class Entry {
+
+      private final String id;
+      private final Set<String> tags;
+
+      private Entry(String id, Set<String> tags) {
+         this.id = id;
+         this.tags = tags;
+      }
+
+   }
+
+}
@@ -0,0 +1,90 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Utility class ordering the classes within each bucket so that failures surface early.
+ *
+ * <p>The units of a bucket are sorted by their failure rate in the execution history, the share of their
+ * recorded invocations that failed or errored, highest first. Units with equal rates, such as units without
+ * history, are sorted by estimated cost, shortest first, and then keep their order in the bucket. The classes
+ * of a unit stay together and keep their order.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class BucketOrder {
+
+   /**
+    * Private constructor to prevent instantiation of utility class.
+    */
+   private BucketOrder() {
+   }
+
+   /**
+    * Orders the classes of every bucket by failure rate, then by estimated cost.
+    *
+    * @param buckets   The allocated buckets, in job order.
+    * @param units     The packing units the buckets were allocated from.
+    * @param history   The execution history providing the failure rates.
+    * @param costModel The model used to estimate unit costs.
+    * @return The buckets, in the same job order, with their classes reordered.
+    */
+   public static List<TestBucket> failuresFirst(List<TestBucket> buckets,
+                                                List<PackingUnit> units,
+                                                TestHistory history,
+                                                ExecutionCostModel costModel) {
+      final Map<String, PackingUnit> unitByClass = new HashMap<>();
+      units.forEach(unit -> unit.getClassNames().forEach(className -> unitByClass.put(className, unit)));
+
+      final Map<PackingUnit, Double> rates = new HashMap<>();
+      final Map<PackingUnit, Double> costs = new HashMap<>();
+      final Comparator<PackingUnit> order = Comparator
+            .comparingDouble((PackingUnit unit) -> rates.computeIfAbsent(unit, u -> failureRate(u, history)))
+            .reversed()
+            .thenComparingDouble(unit -> costs.computeIfAbsent(unit, u -> u.cost(costModel)));
+
+      final List<TestBucket> ordered = new ArrayList<>(buckets.size());
+      for (TestBucket bucket : buckets) {
+         final Set<PackingUnit> bucketUnits = new LinkedHashSet<>();
+         final List<String> unitless = new ArrayList<>();
+         for (String className : bucket.getClassNames()) {
+            PackingUnit unit = unitByClass.get(className);
+            if (unit == null) {
+               unitless.add(className);
+            } else {
+               bucketUnits.add(unit);
+            }
+         }
+
+         final List<String> classNames = new ArrayList<>(bucket.getClassNames().size());
+         bucketUnits.stream().sorted(order).forEach(unit -> classNames.addAll(unit.getClassNames()));
+         classNames.addAll(unitless);
+         ordered.add(new TestBucket(classNames, bucket.getTotalMethods(), bucket.getEstimatedCost()));
+      }
+      return ordered;
+   }
+
+   /**
+    * Computes the share of the recorded invocations of a unit that failed or errored.
+    *
+    * @param unit    The packing unit.
+    * @param history The execution history.
+    * @return The failure rate, from {@code 0} to {@code 1}; {@code 0} without recorded invocations.
+    */
+   static double failureRate(PackingUnit unit, TestHistory history) {
+      TestHistory.MethodResult result = TestHistory.MethodResult.NONE;
+      for (String className : unit.getClassNames()) {
+         result = result.plus(history.testClass(className));
+      }
+      return result.getInvocations() == 0 ? 0 : (double) result.getFailures() / result.getInvocations();
+   }
+
+}
@@ -0,0 +1,290 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Utility class selecting the tests worth running within a time budget when not all of them fit.
+ *
+ * <p>Every unit is worth its number of test methods, weighed up by the signals that make running it
+ * valuable: its failure rate in the execution history, whether it is impacted by the changes of the working
+ * tree, and whether it carries a priority tag. The units of the highest total value whose estimated cost fits
+ * the combined budget of all runners are selected as a 0/1 knapsack, solved by dynamic programming over the
+ * budget divided into {@value #RESOLUTION} steps. The selected units are then packed, most expensive first,
+ * onto the least loaded runner. While a runner exceeds its budget, the unit worth least per cost on it is
+ * deferred and the rest packed again. Deferred units that still fit onto the least loaded runner are then
+ * added back, most valuable first. Units exceeding the budget of a single runner are always deferred.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class BudgetSelection {
+
+   /**
+    * Weight added per unit of failure rate, so a unit that always failed is worth five times its methods.
+    */
+   static final double FAILURE_WEIGHT = 4;
+
+   /**
+    * Weight added to units impacted by the changes of the working tree.
+    */
+   static final double IMPACT_WEIGHT = 2;
+
+   /**
+    * Weight added to units carrying a priority tag.
+    */
+   static final double PRIORITY_WEIGHT = 2;
+
+   /**
+    * Number of steps the combined budget is divided into for the knapsack.
+    */
+   private static final int RESOLUTION = 10_000;
+
+   /**
+    * Private constructor to prevent instantiation of utility class.
+    */
+   private BudgetSelection() {
+   }
+
+   /**
+    * Creates the valuation of units from their failure rate, change impact and priority tags.
+    *
+    * @param history     The execution history providing the failure rates.
+    * @param impacted    The classes impacted by the changes of the working tree.
+    * @param prioritized The classes carrying a priority tag.
+    * @return The value of a unit: its test methods, weighed up by each signal it shows.
+    */
+   public static ToDoubleFunction<PackingUnit> valuation(TestHistory history,
+                                                         Set<String> impacted,
+                                                         Set<String> prioritized) {
+      return unit -> {
+         double weight = 1 + FAILURE_WEIGHT * BucketOrder.failureRate(unit, history);
+         if (unit.getClassNames().stream().anyMatch(impacted::contains)) {
+            weight += IMPACT_WEIGHT;
+         }
+         if (unit.getClassNames().stream().anyMatch(prioritized::contains)) {
+            weight += PRIORITY_WEIGHT;
+         }
+         return Math.max(1, unit.getTotalMethods()) * weight;
+      };
+   }
+
+   /**
+    * Computes the mean recorded duration of a test method invocation, relating estimated costs to seconds.
+    *
+    * @param history The execution history.
+    * @return The mean duration in seconds, or {@code 0} without recorded durations.
+    */
+   public static double secondsPerMethod(TestHistory history) {
+      int invocations = 0;
+      double duration = 0;
+      for (TestHistory.MethodResult result : history.getMethods().values()) {
+         invocations += result.getInvocations();
+         duration += result.getDuration();
+      }
+      return invocations == 0 ? 0 : duration / invocations;
+   }
+
+   /**
+    * Selects the most valuable units fitting the budget and packs them onto the runners.
+    *
+    * @param units     The packing units to choose from.
+    * @param valuation The value of each unit.
+    * @param runners   The number of runners.
+    * @param budget    The estimated cost each runner may take, in method-time units.
+    * @param costModel The model used to estimate unit and bucket costs.
+    * @return The buckets of the selected units, at most one per runner, and the deferred units.
+    */
+   public static Result select(List<PackingUnit> units,
+                               ToDoubleFunction<PackingUnit> valuation,
+                               int runners,
+                               double budget,
+                               ExecutionCostModel costModel) {
+      final Map<PackingUnit, Double> values = new HashMap<>();
+      units.forEach(unit -> values.put(unit, valuation.applyAsDouble(unit)));
+
+      final List<PackingUnit> candidates = new ArrayList<>();
+      final List<PackingUnit> deferred = new ArrayList<>();
+      for (PackingUnit unit : units) {
+         (unit.cost(costModel) <= budget ? candidates : deferred).add(unit);
+      }
+      final List<PackingUnit> selected = knapsack(candidates, values, Math.max(1, runners) * budget, costModel);
+      final Set<PackingUnit> chosen = new HashSet<>(selected);
+      candidates.stream().filter(unit -> !chosen.contains(unit)).forEach(deferred::add);
+
+      List<Runner> packed = pack(selected, runners, costModel);
+      Runner longest = longest(packed);
+      while (longest.estimate.getCost() > budget) {
+         final PackingUnit leastWorth = longest.units.stream()
+               .min(Comparator.comparingDouble(unit -> values.get(unit) / Math.max(unit.cost(costModel), 1e-9)))
+               .orElseThrow();
+         selected.remove(leastWorth);
+         deferred.add(leastWorth);
+         packed = pack(selected, runners, costModel);
+         longest = longest(packed);
+      }
+
+      deferred.sort(Comparator.comparingDouble((PackingUnit unit) -> values.get(unit)).reversed()
+            .thenComparing(unit -> Collections.min(unit.getClassNames())));
+      for (Iterator<PackingUnit> iterator = deferred.iterator(); iterator.hasNext(); ) {
+         final PackingUnit unit = iterator.next();
+         final Runner leastLoaded = leastLoaded(packed);
+         if (unit.addTo(leastLoaded.estimate).getCost() <= budget) {
+            leastLoaded.add(unit);
+            selected.add(unit);
+            iterator.remove();
+         }
+      }
+
+      final List<TestBucket> buckets = new ArrayList<>();
+      for (Runner runner : packed) {
+         if (!runner.units.isEmpty()) {
+            buckets.add(runner.toBucket());
+         }
+      }
+      final double selectedValue = selected.stream().mapToDouble(values::get).sum();
+      return new Result(buckets, deferred, selectedValue, selectedValue + deferred.stream()
+            .mapToDouble(values::get).sum());
+   }
+
+   /**
+    * Selects the units of the highest total value whose summed cost fits the capacity.
+    *
+    * <p>Costs are rounded to steps of the capacity, so the summed cost may slightly exceed it; packing
+    * enforces the budget of each runner afterwards.
+    *
+    * @return The selected units, in the order given.
+    */
+   private static List<PackingUnit> knapsack(List<PackingUnit> units, Map<PackingUnit, Double> values,
+                                             double capacity, ExecutionCostModel costModel) {
+      if (units.stream().mapToDouble(unit -> unit.cost(costModel)).sum() <= capacity) {
+         return new ArrayList<>(units);
+      }
+      final double step = capacity / RESOLUTION;
+      final int[] weights = new int[units.size()];
+      final double[] best = new double[RESOLUTION + 1];
+      final BitSet[] taken = new BitSet[units.size()];
+      for (int i = 0; i < units.size(); i++) {
+         final PackingUnit unit = units.get(i);
+         weights[i] = (int) Math.min(RESOLUTION, Math.round(unit.cost(costModel) / step));
+         taken[i] = new BitSet(RESOLUTION + 1);
+         for (int w = RESOLUTION; w >= weights[i]; w--) {
+            final double value = best[w - weights[i]] + values.get(unit);
+            if (value > best[w]) {
+               best[w] = value;
+               taken[i].set(w);
+            }
+         }
+      }
+
+      final List<PackingUnit> selected = new ArrayList<>();
+      int w = RESOLUTION;
+      for (int i = units.size() - 1; i >= 0; i--) {
+         if (taken[i].get(w)) {
+            selected.add(units.get(i));
+            w -= weights[i];
+         }
+      }
+      Collections.reverse(selected);
+      return selected;
+   }
+
+   /**
+    * Packs units onto the runners, most expensive first onto the least loaded, the lowest of equally
+    * loaded runners.
+    */
+   private static List<Runner> pack(List<PackingUnit> units, int runners, ExecutionCostModel costModel) {
+      final List<Runner> packed = new ArrayList<>();
+      for (int i = 0; i < Math.max(1, runners); i++) {
+         packed.add(new Runner(costModel.emptyBucket()));
+      }
+      units.stream()
+            .sorted(Comparator.comparingDouble((PackingUnit unit) -> unit.cost(costModel)).reversed()
+                  .thenComparing(unit -> Collections.min(unit.getClassNames())))
+            .forEach(unit -> leastLoaded(packed).add(unit));
+      return packed;
+   }
+
+   private static Runner leastLoaded(List<Runner> packed) {
+      Runner leastLoaded = packed.get(0);
+      for (Runner runner : packed) {
+         if (runner.estimate.getCost() < leastLoaded.estimate.getCost()) {
+            leastLoaded = runner;
+         }
+      }
+      return leastLoaded;
+   }
+
+   private static Runner longest(List<Runner> packed) {
+      return packed.stream().max(Comparator.comparingDouble(runner -> runner.estimate.getCost())).orElseThrow();
+   }
+
+   /**
+    * Units packed onto one runner.
+    */
+   private static final class Runner {
+
+      private final List<PackingUnit> units = new ArrayList<>();
+      private ExecutionCostModel.BucketEstimate estimate;
+
+      private Runner(ExecutionCostModel.BucketEstimate estimate) {
+         this.estimate = estimate;
+      }
+
+      private void add(PackingUnit unit) {
+         units.add(unit);
+         estimate = unit.addTo(estimate);
+      }
+
+      private TestBucket toBucket() {
+         final List<String> classNames = new ArrayList<>();
+         int totalMethods = 0;
+         for (PackingUnit unit : units) {
+            classNames.addAll(unit.getClassNames());
+            totalMethods += unit.getTotalMethods();
+         }
+         return new TestBucket(classNames, totalMethods, estimate.getCost());
+      }
+   }
+
+   /**
+    * Buckets of a time-budgeted selection, with the deferred units to report.
+    */
+   @AllArgsConstructor
+   @Getter
+   public static final class Result {
+
+      /**
+       * The buckets of the selected units, at most one per runner.
+       */
+      private final List<TestBucket> buckets;
+
+      /**
+       * The units left out, most valuable first.
+       */
+      private final List<PackingUnit> deferred;
+
+      /**
+       * Total value of the selected units.
+       */
+      private final double selectedValue;
+
+      /**
+       * Total value of all units.
+       */
+      private final double totalValue;
+   }
+
+}
@@ -0,0 +1,121 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Indivisible group of test classes that must be placed in the same bucket.
+ *
+ * <p>Most units hold a single class. Classes whose tests depend on each other (for example through
+ * TestNG {@code dependsOnMethods} or {@code dependsOnGroups}) form one unit, so splitting never
+ * separates a test from the tests it depends on.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public final class PackingUnit {
+
+   /**
+    * Member classes with their method counts, in insertion order.
+    */
+   private final Map<String, Integer> classMethodCounts;
+
+   /**
+    * Total number of test methods across all member classes.
+    */
+   private final int totalMethods;
+
+   private PackingUnit(Map<String, Integer> classMethodCounts) {
+      this.classMethodCounts = Collections.unmodifiableMap(classMethodCounts);
+      this.totalMethods = classMethodCounts.values().stream().mapToInt(Integer::intValue).sum();
+   }
+
+   /**
+    * Creates one unit per class, preserving the iteration order of the given map.
+    *
+    * @param classMethodCounts class names and their method counts
+    * @return single-class units
+    */
+   public static List<PackingUnit> singletons(Map<String, Integer> classMethodCounts) {
+      return of(classMethodCounts, List.of());
+   }
+
+   /**
+    * Creates units from class method counts, merging the classes of each inseparable set into one unit.
+    *
+    * <p>Classes that are not part of any set become single-class units. Set members that have no
+    * method count are ignored. Overlapping sets are not expected and are merged into the first unit.
+    *
+    * @param classMethodCounts class names and their method counts
+    * @param inseparable       sets of classes that must share a bucket
+    * @return the packing units, in the iteration order of {@code classMethodCounts}
+    */
+   public static List<PackingUnit> of(Map<String, Integer> classMethodCounts, Collection<Set<String>> inseparable) {
+      final Map<String, Set<String>> setByClass = new LinkedHashMap<>();
+      for (Set<String> classes : inseparable) {
+         for (String className : classes) {
+            setByClass.putIfAbsent(className, classes);
+         }
+      }
+
+      final List<PackingUnit> units = new ArrayList<>();
+      final Set<String> assigned = new HashSet<>();
+      for (Map.Entry<String, Integer> entry : classMethodCounts.entrySet()) {
+         if (!assigned.add(entry.getKey())) {
+            continue;
+         }
+         final Map<String, Integer> members = new LinkedHashMap<>();
+         members.put(entry.getKey(), entry.getValue());
+         for (String other : setByClass.getOrDefault(entry.getKey(), Set.of())) {
+            Integer methods = classMethodCounts.get(other);
+            if (methods != null && assigned.add(other)) {
+               members.put(other, methods);
+            }
+         }
+         units.add(new PackingUnit(members));
+      }
+      return units;
+   }
+
+   /**
+    * Returns the member class names.
+    *
+    * @return the class names of this unit
+    */
+   public List<String> getClassNames() {
+      return new ArrayList<>(classMethodCounts.keySet());
+   }
+
+   /**
+    * Extends a bucket estimate with all classes of this unit.
+    *
+    * @param estimate the estimate to extend
+    * @return the extended estimate
+    */
+   public ExecutionCostModel.BucketEstimate addTo(ExecutionCostModel.BucketEstimate estimate) {
+      ExecutionCostModel.BucketEstimate result = estimate;
+      for (Map.Entry<String, Integer> entry : classMethodCounts.entrySet()) {
+         result = result.with(entry.getKey(), entry.getValue());
+      }
+      return result;
+   }
+
+   /**
+    * Estimates the cost of executing this unit alone.
+    *
+    * @param costModel the model used to estimate costs
+    * @return the estimated cost in method-time units
+    */
+   public double cost(ExecutionCostModel costModel) {
+      return addTo(costModel.emptyBucket()).getCost();
+   }
+
+}
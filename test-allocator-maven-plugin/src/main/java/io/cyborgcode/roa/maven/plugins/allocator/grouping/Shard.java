@@ -0,0 +1,188 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * One of a fixed number of shards of the test units, selected by a runner without coordinating with the others.
+ *
+ * <p>Every runner discovers the same units and keeps only those of its own shard, either by hashing or by
+ * packing:
+ * <ul>
+ *   <li>{@link #hashed(List, ExecutionCostModel) Hashing} assigns each unit by rendezvous hashing of its
+ *   smallest class name. The assignment of a unit depends on nothing but its name and the number of shards,
+ *   so runners agree even if their histories differ, and changing the number of shards moves only the units
+ *   of the added or removed shards.</li>
+ *   <li>{@link #packed(List, ExecutionCostModel) Packing} distributes the units, most expensive first, onto the
+ *   least loaded shard, balancing estimated durations. Runners agree only if they estimate the same costs,
+ *   that is if they read the same execution history.</li>
+ * </ul>
+ *
+ * <p>Only the classes of the selected shard are kept; the other shards are tracked by their estimates alone.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public final class Shard {
+
+   private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+   private static final long FNV_PRIME = 0x100000001b3L;
+   private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+   /**
+    * Number of the shard, from {@code 1} to {@link #total}.
+    */
+   private final int index;
+
+   /**
+    * Number of shards.
+    */
+   private final int total;
+
+   private Shard(int index, int total) {
+      this.index = index;
+      this.total = total;
+   }
+
+   /**
+    * Parses a shard given as {@code <index>/<total>}, such as {@code 3/16}.
+    *
+    * @param value the shard, numbered from {@code 1}
+    * @return the parsed shard
+    * @throws IllegalArgumentException if the value is malformed or the index is out of range
+    */
+   public static Shard parse(String value) {
+      final String[] parts = value == null ? new String[0] : value.trim().split("/", -1);
+      if (parts.length == 2) {
+         try {
+            int index = Integer.parseInt(parts[0].trim());
+            int total = Integer.parseInt(parts[1].trim());
+            if (index >= 1 && index <= total) {
+               return new Shard(index, total);
+            }
+         } catch (NumberFormatException e) {
+            // reported below
+         }
+      }
+      throw new IllegalArgumentException(
+            "Invalid shard: " + value + ". Supported: <index>/<total>, with 1 <= index <= total."
+      );
+   }
+
+   /**
+    * Keeps the units assigned to this shard by rendezvous hashing.
+    *
+    * @param units     the units of all shards
+    * @param costModel the model used to estimate the cost of the shard
+    * @return the bucket of this shard, its classes ordered by name
+    */
+   public TestBucket hashed(List<PackingUnit> units, ExecutionCostModel costModel) {
+      final List<PackingUnit> selected = new ArrayList<>();
+      for (PackingUnit unit : units) {
+         if (owner(key(unit), total) == index - 1) {
+            selected.add(unit);
+         }
+      }
+      selected.sort(Comparator.comparing(Shard::key));
+      return toBucket(selected, costModel);
+   }
+
+   /**
+    * Keeps the units assigned to this shard by packing all units, most expensive first, onto the least loaded
+    * shard. Units of equal cost are placed in order of name and equally loaded shards in order of number, so
+    * the packing does not depend on the order the units were discovered in.
+    *
+    * @param units     the units of all shards
+    * @param costModel the model used to estimate unit and shard costs
+    * @return the bucket of this shard, its classes in packing order
+    */
+   public TestBucket packed(List<PackingUnit> units, ExecutionCostModel costModel) {
+      final List<PackingUnit> sorted = units.stream()
+            .sorted(Comparator.comparingDouble((PackingUnit unit) -> unit.cost(costModel)).reversed()
+                  .thenComparing(Shard::key))
+            .toList();
+      final List<ExecutionCostModel.BucketEstimate> estimates =
+            new ArrayList<>(Collections.nCopies(total, costModel.emptyBucket()));
+      final List<PackingUnit> selected = new ArrayList<>();
+      for (PackingUnit unit : sorted) {
+         int leastLoaded = 0;
+         for (int i = 1; i < total; i++) {
+            if (estimates.get(i).getCost() < estimates.get(leastLoaded).getCost()) {
+               leastLoaded = i;
+            }
+         }
+         estimates.set(leastLoaded, unit.addTo(estimates.get(leastLoaded)));
+         if (leastLoaded == index - 1) {
+            selected.add(unit);
+         }
+      }
+      return toBucket(selected, costModel);
+   }
+
+   /**
+    * Finds the shard a key is assigned to by rendezvous hashing: the shard with the highest hash of the key
+    * combined with the shard number.
+    *
+    * @param key   the name of the unit
+    * @param total the number of shards
+    * @return the shard of the key, numbered from {@code 0}
+    */
+   static int owner(String key, int total) {
+      final long keyHash = fnv1a(key);
+      int owner = 0;
+      long highest = 0;
+      for (int shard = 0; shard < total; shard++) {
+         long score = mix(keyHash + (shard + 1) * GOLDEN_GAMMA);
+         if (shard == 0 || Long.compareUnsigned(score, highest) > 0) {
+            owner = shard;
+            highest = score;
+         }
+      }
+      return owner;
+   }
+
+   @Override
+   public String toString() {
+      return index + "/" + total;
+   }
+
+   private static String key(PackingUnit unit) {
+      return Collections.min(unit.getClassNames());
+   }
+
+   private static TestBucket toBucket(List<PackingUnit> units, ExecutionCostModel costModel) {
+      final List<String> classNames = new ArrayList<>();
+      int totalMethods = 0;
+      ExecutionCostModel.BucketEstimate estimate = costModel.emptyBucket();
+      for (PackingUnit unit : units) {
+         classNames.addAll(unit.getClassNames());
+         totalMethods += unit.getTotalMethods();
+         estimate = unit.addTo(estimate);
+      }
+      return new TestBucket(classNames, totalMethods, estimate.getCost());
+   }
+
+   private static long fnv1a(String value) {
+      long hash = FNV_OFFSET_BASIS;
+      for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+         hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+      }
+      return hash;
+   }
+
+   /**
+    * Finalizes a hash with the SplitMix64 mixing function, so nearby inputs get unrelated outputs.
+    */
+   private static long mix(long value) {
+      long z = value;
+      z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+      z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+      return z ^ (z >>> 31);
+   }
+
+}
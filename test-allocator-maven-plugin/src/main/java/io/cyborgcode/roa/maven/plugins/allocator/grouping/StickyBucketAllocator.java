@@ -0,0 +1,192 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Utility class keeping test classes in the buckets of a previous allocation, so runners keep their warm caches.
+ *
+ * <p>The buckets of a fresh allocation set the number of buckets and the balance to stay close to. Units
+ * allocated before return to their previous bucket, most expensive first, as long as the bucket stays within
+ * the tolerated cost: the longest fresh bucket increased by the tolerance. Units that are new, whose bucket
+ * no longer exists, or that no longer fit are then placed, most expensive first, onto the least loaded
+ * bucket. If the result exceeds the tolerated cost anyway, the fresh allocation is used. Every bucket keeps its
+ * position, even when no class ends up in it, so that job indexes stay comparable between allocations.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class StickyBucketAllocator {
+
+   /**
+    * Private constructor to prevent instantiation of utility class.
+    */
+   private StickyBucketAllocator() {
+   }
+
+   /**
+    * Allocates units to the buckets of a previous allocation where balance allows.
+    *
+    * @param units     The packing units to distribute.
+    * @param previous  The job index of every class in the previous allocation.
+    * @param fresh     The buckets of an allocation ignoring the previous one.
+    * @param tolerance The tolerated increase of the longest bucket over the longest fresh bucket, as a
+    *                  fraction, such as {@code 0.1} for 10%.
+    * @param costModel The model used to estimate unit and bucket costs.
+    * @return As many buckets as the fresh allocation, indexed like the previous jobs, some possibly empty.
+    */
+   public static Result allocate(List<PackingUnit> units,
+                                 Map<String, Integer> previous,
+                                 List<TestBucket> fresh,
+                                 double tolerance,
+                                 ExecutionCostModel costModel) {
+      final int bucketCount = fresh.size();
+      final double freshCost = longest(fresh);
+      final double limit = freshCost * (1 + Math.max(0, tolerance));
+
+      final List<List<String>> classes = new ArrayList<>();
+      final List<Integer> methods = new ArrayList<>();
+      final List<ExecutionCostModel.BucketEstimate> estimates = new ArrayList<>();
+      for (int i = 0; i < bucketCount; i++) {
+         classes.add(new ArrayList<>());
+         methods.add(0);
+         estimates.add(costModel.emptyBucket());
+      }
+
+      final List<PackingUnit> sorted = units.stream()
+            .sorted(Comparator.comparingDouble((PackingUnit unit) -> unit.cost(costModel)).reversed()
+                  .thenComparing(unit -> Collections.min(unit.getClassNames())))
+            .toList();
+      final List<PackingUnit> unplaced = new ArrayList<>();
+      for (PackingUnit unit : sorted) {
+         Integer bucket = previousBucket(unit, previous);
+         if (bucket != null && bucket < bucketCount && unit.addTo(estimates.get(bucket)).getCost() <= limit) {
+            place(unit, bucket, classes, methods, estimates);
+         } else {
+            unplaced.add(unit);
+         }
+      }
+      for (PackingUnit unit : unplaced) {
+         int leastLoaded = 0;
+         for (int i = 1; i < bucketCount; i++) {
+            if (estimates.get(i).getCost() < estimates.get(leastLoaded).getCost()) {
+               leastLoaded = i;
+            }
+         }
+         place(unit, leastLoaded, classes, methods, estimates);
+      }
+
+      // Buckets left empty are kept, so every later bucket keeps the job index its classes had before.
+      List<TestBucket> buckets = new ArrayList<>();
+      for (int i = 0; i < bucketCount; i++) {
+         buckets.add(new TestBucket(classes.get(i), methods.get(i), estimates.get(i).getCost()));
+      }
+      if (longest(buckets) > limit) {
+         buckets = fresh;
+      }
+      return new Result(buckets, freshCost, churn(buckets, previous));
+   }
+
+   /**
+    * Finds the bucket most classes of a unit were allocated to before, the lowest of equally voted buckets.
+    *
+    * @return The previous job index, or {@code null} if no class of the unit was allocated before.
+    */
+   private static Integer previousBucket(PackingUnit unit, Map<String, Integer> previous) {
+      final Map<Integer, Integer> votes = new TreeMap<>();
+      unit.getClassNames().stream()
+            .map(previous::get)
+            .filter(Objects::nonNull)
+            .forEach(bucket -> votes.merge(bucket, 1, Integer::sum));
+      Integer bucket = null;
+      for (Map.Entry<Integer, Integer> vote : votes.entrySet()) {
+         if (bucket == null || vote.getValue() > votes.get(bucket)) {
+            bucket = vote.getKey();
+         }
+      }
+      return bucket;
+   }
+
+   private static void place(PackingUnit unit, int bucket, List<List<String>> classes, List<Integer> methods,
+                             List<ExecutionCostModel.BucketEstimate> estimates) {
+      classes.get(bucket).addAll(unit.getClassNames());
+      methods.set(bucket, methods.get(bucket) + unit.getTotalMethods());
+      estimates.set(bucket, unit.addTo(estimates.get(bucket)));
+   }
+
+   private static double longest(List<TestBucket> buckets) {
+      return buckets.stream().mapToDouble(TestBucket::getEstimatedCost).max().orElse(0);
+   }
+
+   private static Churn churn(List<TestBucket> buckets, Map<String, Integer> previous) {
+      int moved = 0;
+      int added = 0;
+      int allocated = 0;
+      for (int i = 0; i < buckets.size(); i++) {
+         for (String className : buckets.get(i).getClassNames()) {
+            Integer bucket = previous.get(className);
+            allocated++;
+            if (bucket == null) {
+               added++;
+            } else if (bucket != i) {
+               moved++;
+            }
+         }
+      }
+      return new Churn(moved, added, previous.size() - (allocated - added));
+   }
+
+   /**
+    * Buckets of a sticky allocation, with the balance and churn to report.
+    */
+   @AllArgsConstructor
+   @Getter
+   public static final class Result {
+
+      /**
+       * The allocated buckets, in job order.
+       */
+      private final List<TestBucket> buckets;
+
+      /**
+       * Estimated cost of the longest bucket of the fresh allocation.
+       */
+      private final double freshCost;
+
+      /**
+       * Classes moved, added and removed since the previous allocation.
+       */
+      private final Churn churn;
+   }
+
+   /**
+    * Changes of the class assignments since the previous allocation.
+    */
+   @AllArgsConstructor
+   @Getter
+   public static final class Churn {
+
+      /**
+       * Classes allocated before and now to another job.
+       */
+      private final int moved;
+
+      /**
+       * Classes not allocated before.
+       */
+      private final int added;
+
+      /**
+       * Classes allocated before and no longer.
+       */
+      private final int removed;
+   }
+
+}
@@ -7,9 +7,10 @@ import lombok.Getter;
 /**
  * Represents a bucket of test classes grouped together for parallel execution.
  *
- * <p>This class stores a list of test class names and the total number of test methods
- * contained within those classes. It is primarily used by the {@code TestBucketAllocator}
- * to efficiently distribute tests across parallel execution threads.
+ * <p>This class stores a list of test class names, the total number of test methods
+ * contained within those classes and the estimated cost of executing them. It is primarily
+ * used by the {@code TestBucketAllocator} to efficiently distribute tests across parallel
+ * execution threads.
  *
  * @author Cyborg Code Syndicate 💍👨💻
  */
@@ -27,4 +28,19 @@ public class TestBucket {
     */
    private final int totalMethods;
 
+   /**
+    * Estimated execution cost of the bucket in method-time units, taking concurrency into account.
+    */
+   private final double estimatedCost;
+
+   /**
+    * Creates a bucket whose estimated cost equals its method count (sequential execution).
+    *
+    * @param classNames   fully qualified class names contained in this bucket
+    * @param totalMethods total number of test methods across all classes
+    */
+   public TestBucket(List<String> classNames, int totalMethods) {
+      this(classNames, totalMethods, totalMethods);
+   }
+
 }
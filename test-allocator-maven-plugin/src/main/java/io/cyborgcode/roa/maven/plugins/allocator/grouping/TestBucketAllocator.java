@@ -1,21 +1,20 @@
 package io.cyborgcode.roa.maven.plugins.allocator.grouping;
 
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
- * Utility class for grouping test classes into execution buckets based on method count.
+ * Utility class for grouping test classes into execution buckets based on their estimated cost.
  *
- * <p>This class sorts test classes by the number of test methods and then distributes them
- * into buckets while ensuring that each bucket does not exceed the configured limit
- * for maximum methods per bucket.
+ * <p>This class sorts test classes by estimated cost and then distributes them into buckets
+ * while ensuring that each bucket does not exceed the configured limit. The limit is expressed
+ * in method-time units, so it equals a method count only for tests executed sequentially; a
+ * bucket of concurrently executed methods holds more methods than the limit.
  *
- * <p>Classes with a high number of test methods that exceed the bucket limit are placed
- * in their own separate buckets.
+ * <p>Classes whose cost exceeds the bucket limit are placed in their own separate buckets.
  *
  * @author Cyborg Code Syndicate 💍👨💻
  */
@@ -42,62 +41,129 @@ public final class TestBucketAllocator {
          Map<String, Integer> classMethodCounts,
          int maxMethodsPerBucket
    ) {
-      List<Map.Entry<String, Integer>> sortedClasses = sortClassesByMethodCount(classMethodCounts);
+      return groupClasses(classMethodCounts, maxMethodsPerBucket, ExecutionCostModel.sequential());
+   }
+
+   /**
+    * Groups test classes into buckets based on their estimated execution cost.
+    *
+    * <p>The algorithm sorts test classes by estimated cost in descending order and then
+    * distributes them into buckets, ensuring that the estimated cost of each bucket does not
+    * exceed {@code maxBucketCost} method-time units. With a sequential cost model this is
+    * identical to grouping by method count.
+    *
+    * @param classMethodCounts   A map containing test class names and their corresponding method counts.
+    * @param maxBucketCost       The maximum estimated cost allowed per bucket, in method-time units.
+    * @param costModel           The model used to estimate class and bucket costs.
+    * @return A list of {@link TestBucket} objects representing grouped test classes.
+    */
+   public static List<TestBucket> groupClasses(
+         Map<String, Integer> classMethodCounts,
+         int maxBucketCost,
+         ExecutionCostModel costModel
+   ) {
+      return groupUnits(PackingUnit.singletons(classMethodCounts), maxBucketCost, costModel);
+   }
+
+   /**
+    * Groups packing units into buckets based on their estimated execution cost.
+    *
+    * <p>Works like {@link #groupClasses(Map, int, ExecutionCostModel)}, but never separates the classes
+    * of a unit: a unit is placed into a bucket as a whole, and a unit exceeding the limit gets a
+    * bucket of its own.
+    *
+    * @param units               The packing units to distribute.
+    * @param maxBucketCost       The maximum estimated cost allowed per bucket, in method-time units.
+    * @param costModel           The model used to estimate unit and bucket costs.
+    * @return A list of {@link TestBucket} objects representing grouped test classes.
+    */
+   public static List<TestBucket> groupUnits(
+         List<PackingUnit> units,
+         int maxBucketCost,
+         ExecutionCostModel costModel
+   ) {
+      List<PackingUnit> sortedUnits = sortUnitsByCost(units, costModel);
 
       List<TestBucket> buckets = new ArrayList<>();
       List<String> currentBucketClasses = new ArrayList<>();
       int currentBucketMethodCount = 0;
+      ExecutionCostModel.BucketEstimate currentEstimate = costModel.emptyBucket();
 
-      for (Map.Entry<String, Integer> entry : sortedClasses) {
-         int methods = entry.getValue();
-         String className = entry.getKey();
-
-         if (methods > maxMethodsPerBucket) {
-            buckets.add(createSingleClassBucket(className, methods));
+      for (PackingUnit unit : sortedUnits) {
+         if (unit.cost(costModel) > maxBucketCost) {
+            buckets.add(createSingleUnitBucket(unit, costModel));
             continue;
          }
 
-         if (currentBucketMethodCount + methods <= maxMethodsPerBucket) {
-            currentBucketClasses.add(className);
-            currentBucketMethodCount += methods;
+         ExecutionCostModel.BucketEstimate candidate = unit.addTo(currentEstimate);
+         if (candidate.getCost() <= maxBucketCost) {
+            currentBucketClasses.addAll(unit.getClassNames());
+            currentBucketMethodCount += unit.getTotalMethods();
+            currentEstimate = candidate;
          } else {
-            buckets.add(createBucket(currentBucketClasses, currentBucketMethodCount));
+            buckets.add(createBucket(currentBucketClasses, currentBucketMethodCount, currentEstimate));
 
-            currentBucketClasses = new ArrayList<>(List.of(className));
-            currentBucketMethodCount = methods;
+            currentBucketClasses = new ArrayList<>(unit.getClassNames());
+            currentBucketMethodCount = unit.getTotalMethods();
+            currentEstimate = unit.addTo(costModel.emptyBucket());
          }
       }
 
       if (!currentBucketClasses.isEmpty()) {
-         buckets.add(createBucket(currentBucketClasses, currentBucketMethodCount));
+         buckets.add(createBucket(currentBucketClasses, currentBucketMethodCount, currentEstimate));
       }
 
       return buckets;
    }
 
    /**
-    * Sorts test classes by the number of test methods in descending order.
+    * Distributes packing units over the available runners.
+    *
+    * <p>When there are no more units than runners, every unit gets a bucket of its own. Otherwise the
+    * units are grouped with {@link #groupUnits(List, int, ExecutionCostModel)}.
     *
-    * @param classMethodCounts A map containing test class names and their respective test method counts.
-    * @return A sorted list of map entries, ordered by test method count in descending order.
+    * @param units               The packing units to distribute.
+    * @param maxRunners          The maximum number of parallel runners.
+    * @param maxBucketCost       The maximum estimated cost allowed per bucket, in method-time units.
+    * @param costModel           The model used to estimate unit and bucket costs.
+    * @return A list of {@link TestBucket} objects representing grouped test classes.
     */
-   private static List<Map.Entry<String, Integer>> sortClassesByMethodCount(
-         Map<String, Integer> classMethodCounts
+   public static List<TestBucket> allocate(
+         List<PackingUnit> units,
+         int maxRunners,
+         int maxBucketCost,
+         ExecutionCostModel costModel
    ) {
-      return classMethodCounts.entrySet().stream()
-            .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+      if (units.size() > maxRunners) {
+         return groupUnits(units, maxBucketCost, costModel);
+      }
+      final List<TestBucket> buckets = new ArrayList<>();
+      units.forEach(unit -> buckets.add(createSingleUnitBucket(unit, costModel)));
+      return buckets;
+   }
+
+   /**
+    * Sorts packing units by their estimated cost in descending order.
+    *
+    * @param units     The packing units to sort.
+    * @param costModel The model used to estimate unit costs.
+    * @return A sorted list of units, ordered by estimated cost in descending order.
+    */
+   private static List<PackingUnit> sortUnitsByCost(List<PackingUnit> units, ExecutionCostModel costModel) {
+      return units.stream()
+            .sorted(Comparator.comparingDouble((PackingUnit unit) -> unit.cost(costModel)).reversed())
             .toList();
    }
 
    /**
-    * Creates a test bucket for a single class that has more test methods than the allowed per bucket.
+    * Creates a test bucket for a single unit whose cost exceeds the allowed cost per bucket.
     *
-    * @param className The name of the test class.
-    * @param methods   The number of test methods in the class.
-    * @return A {@link TestBucket} containing only the specified class.
+    * @param unit      The packing unit.
+    * @param costModel The model used to estimate the unit cost.
+    * @return A {@link TestBucket} containing only the classes of the specified unit.
     */
-   private static TestBucket createSingleClassBucket(String className, int methods) {
-      return new TestBucket(List.of(className), methods);
+   private static TestBucket createSingleUnitBucket(PackingUnit unit, ExecutionCostModel costModel) {
+      return new TestBucket(unit.getClassNames(), unit.getTotalMethods(), unit.cost(costModel));
    }
 
    /**
@@ -105,10 +171,12 @@ public final class TestBucketAllocator {
     *
     * @param classes      The list of test class names to include in the bucket.
     * @param totalMethods The total number of test methods within the bucket.
+    * @param estimate     The estimated cost of the bucket.
     * @return A {@link TestBucket} containing the specified test classes.
     */
-   private static TestBucket createBucket(List<String> classes, int totalMethods) {
-      return new TestBucket(classes, totalMethods);
+   private static TestBucket createBucket(List<String> classes, int totalMethods,
+                                          ExecutionCostModel.BucketEstimate estimate) {
+      return new TestBucket(classes, totalMethods, estimate.getCost());
    }
 
 }
@@ -0,0 +1,208 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestNgMethodIndex;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestNgNameMatcher;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Dependency graph over TestNG test methods and groups, reduced to inseparable sets of classes.
+ *
+ * <p>Nodes are test methods and the groups other methods depend on. Edges are:
+ * <ul>
+ *   <li>{@code dependsOnMethods}: to the named methods of the same class, or of another class when the
+ *       entry is qualified with a class name. Entries may be regular expressions.</li>
+ *   <li>{@code dependsOnGroups}: to the group, which is in turn connected to every method in that group.</li>
+ * </ul>
+ * Only groups that are depended upon are connected to their members, so merely sharing a group such as
+ * {@code smoke} does not tie classes together. {@code priority} only orders execution and never causes
+ * tests to be skipped, so it does not add edges. Each distinct dependency entry is compiled into a
+ * {@link TestNgNameMatcher} once per build and resolved once.
+ *
+ * <p>Each connected component is an indivisible packing unit: a test placed in a different bucket than
+ * one of its dependencies would be skipped by TestNG. The largest component therefore bounds the
+ * achievable makespan.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public final class TestNgDependencyGraph {
+
+   private static final String GROUP_PREFIX = "@";
+   private static final String METHOD_SEPARATOR = "#";
+
+   /**
+    * Number of test method nodes.
+    */
+   private final int methodCount;
+
+   /**
+    * Number of resolved dependency edges.
+    */
+   private final int edgeCount;
+
+   /**
+    * Connected components spanning more than one class, as sets of class names.
+    */
+   private final List<Set<String>> inseparableClasses;
+
+   /**
+    * Number of classes in the largest component.
+    */
+   private final int largestComponentClasses;
+
+   /**
+    * Number of test methods in the largest component.
+    */
+   private final int largestComponentMethods;
+
+   /**
+    * Union-find parent of each node; roots are absent or map to themselves.
+    */
+   @Getter(AccessLevel.NONE)
+   private final Map<String, String> parent = new HashMap<>();
+
+   private TestNgDependencyGraph(Map<String, TestNgMethodIndex> indexes) {
+      final Map<String, List<String>> groupMembers = new HashMap<>();
+      final Set<String> dependedGroups = new HashSet<>();
+      int methods = 0;
+      for (Map.Entry<String, TestNgMethodIndex> entry : indexes.entrySet()) {
+         TestNgMethodIndex index = entry.getValue();
+         for (Method method : index.getTestMethods()) {
+            methods++;
+            String node = methodNode(entry.getKey(), method);
+            union(node, entry.getKey());
+            for (String group : index.getGroups(method)) {
+               groupMembers.computeIfAbsent(group, g -> new ArrayList<>()).add(node);
+            }
+            dependedGroups.addAll(index.getDependsOnGroups(method));
+         }
+      }
+
+      final Map<String, TestNgNameMatcher> methodMatchers = new HashMap<>();
+      final Map<String, List<String>> resolvedGroups = new HashMap<>();
+      int edges = 0;
+      for (Map.Entry<String, TestNgMethodIndex> entry : indexes.entrySet()) {
+         String className = entry.getKey();
+         TestNgMethodIndex index = entry.getValue();
+         for (Method method : index.getTestMethods()) {
+            String node = methodNode(className, method);
+            for (String dependency : index.getDependsOnMethods(method)) {
+               for (String target : resolveMethods(className, dependency, indexes, methodMatchers)) {
+                  union(node, target);
+                  edges++;
+               }
+            }
+            for (String dependency : index.getDependsOnGroups(method)) {
+               List<String> groups = resolvedGroups.computeIfAbsent(dependency,
+                     d -> resolveGroups(d, groupMembers.keySet()));
+               for (String group : groups) {
+                  union(node, GROUP_PREFIX + group);
+                  edges++;
+               }
+            }
+         }
+      }
+
+      final TestNgNameMatcher dependedGroupMatcher = TestNgNameMatcher.of(dependedGroups);
+      for (Map.Entry<String, List<String>> entry : groupMembers.entrySet()) {
+         if (dependedGroupMatcher.matches(entry.getKey())) {
+            for (String member : entry.getValue()) {
+               union(GROUP_PREFIX + entry.getKey(), member);
+            }
+         }
+      }
+
+      final Map<String, Set<String>> classesByRoot = new LinkedHashMap<>();
+      final Map<String, Integer> methodsByRoot = new HashMap<>();
+      for (Map.Entry<String, TestNgMethodIndex> entry : indexes.entrySet()) {
+         String root = find(entry.getKey());
+         classesByRoot.computeIfAbsent(root, r -> new LinkedHashSet<>()).add(entry.getKey());
+         methodsByRoot.merge(root, entry.getValue().getTestMethods().size(), Integer::sum);
+      }
+
+      this.methodCount = methods;
+      this.edgeCount = edges;
+      this.inseparableClasses = classesByRoot.values().stream().filter(classes -> classes.size() > 1).toList();
+      this.largestComponentClasses = classesByRoot.values().stream().mapToInt(Set::size).max().orElse(0);
+      this.largestComponentMethods = methodsByRoot.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+   }
+
+   /**
+    * Builds the dependency graph of the given classes.
+    *
+    * @param indexes method index of each allocated class, keyed by fully qualified class name
+    * @return the dependency graph
+    */
+   public static TestNgDependencyGraph build(Map<String, TestNgMethodIndex> indexes) {
+      return new TestNgDependencyGraph(indexes);
+   }
+
+   private static List<String> resolveMethods(String className, String dependency,
+                                              Map<String, TestNgMethodIndex> indexes,
+                                              Map<String, TestNgNameMatcher> methodMatchers) {
+      String targetClass = className;
+      String targetMethod = dependency;
+      int lastDot = dependency.lastIndexOf('.');
+      if (lastDot > 0 && indexes.containsKey(dependency.substring(0, lastDot))) {
+         targetClass = dependency.substring(0, lastDot);
+         targetMethod = dependency.substring(lastDot + 1);
+      }
+
+      final List<String> result = new ArrayList<>();
+      final TestNgNameMatcher matcher = methodMatchers.computeIfAbsent(targetMethod,
+            m -> TestNgNameMatcher.of(List.of(m)));
+      for (Method method : indexes.get(targetClass).select(matcher, TestNgNameMatcher.of(List.of()))) {
+         result.add(methodNode(targetClass, method));
+      }
+      return result;
+   }
+
+   private static List<String> resolveGroups(String dependency, Set<String> knownGroups) {
+      if (knownGroups.contains(dependency)) {
+         return List.of(dependency);
+      }
+      final TestNgNameMatcher matcher = TestNgNameMatcher.of(List.of(dependency));
+      return knownGroups.stream().filter(matcher::matches).toList();
+   }
+
+   private static String methodNode(String className, Method method) {
+      return className + METHOD_SEPARATOR + method.getName();
+   }
+
+   private String find(String node) {
+      String root = node;
+      while (true) {
+         String next = parent.getOrDefault(root, root);
+         if (next.equals(root)) {
+            break;
+         }
+         root = next;
+      }
+      String current = node;
+      while (!current.equals(root)) {
+         String next = parent.get(current);
+         parent.put(current, root);
+         current = next;
+      }
+      return root;
+   }
+
+   private void union(String first, String second) {
+      String firstRoot = find(first);
+      String secondRoot = find(second);
+      if (!firstRoot.equals(secondRoot)) {
+         parent.put(firstRoot, secondRoot);
+      }
+   }
+
+}
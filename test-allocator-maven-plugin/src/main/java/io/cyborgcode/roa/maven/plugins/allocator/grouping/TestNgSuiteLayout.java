@@ -0,0 +1,256 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestNgSuiteCopies;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Structure of the allocated TestNG classes within their suites, used to turn buckets back into suites.
+ *
+ * <p>Every declaration of a class is recorded with the {@code <test>} block and the {@code <class>} entry,
+ * including its method includes and excludes, it was declared in. TestNG runs a class once per declaration,
+ * so declarations with other parameters, groups or method includes and excludes are all kept. Only a
+ * declaration identical to an earlier one of the same class is a duplicate and is not recorded.
+ *
+ * <p>{@link #suitesFor(Collection)} rebuilds trimmed suites containing only the given classes:
+ * <ul>
+ *   <li>Each suite, {@code <test>} and {@code <class>} is copied with {@link TestNgSuiteCopies}, keeping the
+ *       attributes of the original, such as parameters, listeners, parallel settings, {@code time-out},
+ *       groups and method selectors. Suites also keep the parameters and listeners of their parent suites.</li>
+ *   <li>{@code <packages>} are not copied: their classes are listed as {@code <class>} entries.</li>
+ * </ul>
+ * Suites, tests and classes keep the order they were declared in, or, when the order of the given classes is
+ * kept, the order their classes are given in, with {@code preserve-order} set on every {@code <test>}.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestNgSuiteLayout {
+
+   /**
+    * Distinct declarations of each class, in declaration order.
+    */
+   private final Map<String, List<Declaration>> declarations = new LinkedHashMap<>();
+
+   /**
+    * Distinct declarations of all classes, in declaration order.
+    */
+   private final List<Declaration> declarationOrder = new ArrayList<>();
+
+   /**
+    * Number of declarations dropped because an identical declaration of the class was recorded.
+    */
+   private int duplicates;
+
+   /**
+    * Indicates whether a class has already been declared.
+    *
+    * @param className fully qualified class name
+    * @return {@code true} if the class was declared before
+    */
+   public boolean isDeclared(String className) {
+      return declarations.containsKey(className);
+   }
+
+   /**
+    * Indicates whether a class has already been declared with the same effective parameters, groups and
+    * method includes and excludes, so that the given declaration would only run it again the same way.
+    *
+    * @param xmlTest  the {@code <test>} block declaring the class
+    * @param xmlClass the {@code <class>} entry, including method includes and excludes
+    * @return {@code true} if an identical declaration of the class was recorded before
+    */
+   public boolean isDeclared(XmlTest xmlTest, XmlClass xmlClass) {
+      final List<Object> signature = signature(xmlTest, xmlClass);
+      return declarations.getOrDefault(xmlClass.getName(), List.of()).stream()
+            .anyMatch(declaration -> declaration.signature.equals(signature));
+   }
+
+   /**
+    * Records the declaration of a class, unless an identical declaration of the class was recorded.
+    *
+    * @param xmlTest  the {@code <test>} block declaring the class
+    * @param xmlClass the {@code <class>} entry, including method includes and excludes
+    */
+   public void declare(XmlTest xmlTest, XmlClass xmlClass) {
+      if (isDeclared(xmlTest, xmlClass)) {
+         return;
+      }
+      final Declaration declaration = new Declaration(xmlTest, xmlClass, signature(xmlTest, xmlClass));
+      declarations.computeIfAbsent(xmlClass.getName(), name -> new ArrayList<>()).add(declaration);
+      declarationOrder.add(declaration);
+   }
+
+   /**
+    * Records a declaration that was dropped because an identical declaration of its class was recorded.
+    */
+   public void markDuplicate() {
+      duplicates++;
+   }
+
+   /**
+    * Returns the number of declarations dropped because an identical declaration of their class was recorded.
+    *
+    * @return the number of duplicate declarations
+    */
+   public int getDuplicates() {
+      return duplicates;
+   }
+
+   /**
+    * Forgets all declarations.
+    */
+   public void clear() {
+      declarations.clear();
+      declarationOrder.clear();
+      duplicates = 0;
+   }
+
+   /**
+    * Rebuilds the suites needed to run exactly the given classes.
+    *
+    * @param classNames fully qualified names of declared classes; undeclared names are ignored
+    * @return one trimmed suite per original suite declaring any of the classes
+    */
+   public List<XmlSuite> suitesFor(Collection<String> classNames) {
+      return suitesFor(classNames, false);
+   }
+
+   /**
+    * Rebuilds the suites needed to run exactly the given classes, optionally in the order they are given.
+    *
+    * @param classNames fully qualified names of declared classes; undeclared names are ignored
+    * @param givenOrder {@code true} to order suites, tests and classes by the first given class they contain
+    *                   and to preserve that order, {@code false} to keep the declaration order
+    * @return one trimmed suite per original suite declaring any of the classes
+    */
+   public List<XmlSuite> suitesFor(Collection<String> classNames, boolean givenOrder) {
+      final Map<XmlSuite, XmlSuite> suites = new IdentityHashMap<>();
+      final Map<XmlTest, List<XmlClass>> tests = new IdentityHashMap<>();
+      final List<XmlSuite> suiteOrder = new ArrayList<>();
+      final List<XmlTest> testOrder = new ArrayList<>();
+
+      for (Declaration declaration : selectDeclarations(classNames, givenOrder)) {
+         final XmlTest test = declaration.xmlTest;
+         final XmlSuite suite = test.getSuite();
+         suites.computeIfAbsent(suite, s -> {
+            suiteOrder.add(s);
+            return copySuite(s);
+         });
+         tests.computeIfAbsent(test, t -> {
+            testOrder.add(t);
+            return new ArrayList<>();
+         }).add(declaration.xmlClass);
+      }
+
+      for (XmlTest test : testOrder) {
+         final XmlTest copy = TestNgSuiteCopies.copyTest(suites.get(test.getSuite()), test);
+         if (givenOrder) {
+            copy.setPreserveOrder(true);
+         }
+         final List<XmlClass> classes = tests.get(test);
+         final List<XmlClass> copies = new ArrayList<>(classes.size());
+         for (int i = 0; i < classes.size(); i++) {
+            copies.add(TestNgSuiteCopies.copyClass(copy, classes.get(i), i));
+         }
+         copy.setXmlClasses(copies);
+      }
+
+      final List<XmlSuite> result = new ArrayList<>(suiteOrder.size());
+      for (XmlSuite suite : suiteOrder) {
+         result.add(suites.get(suite));
+      }
+      return result;
+   }
+
+   private Collection<Declaration> selectDeclarations(Collection<String> classNames, boolean givenOrder) {
+      final Set<Declaration> selected = new LinkedHashSet<>();
+      if (givenOrder) {
+         for (String className : classNames) {
+            selected.addAll(declarations.getOrDefault(className, List.of()));
+         }
+         return selected;
+      }
+      final Set<String> names = new HashSet<>(classNames);
+      for (Declaration declaration : declarationOrder) {
+         if (names.contains(declaration.xmlClass.getName())) {
+            selected.add(declaration);
+         }
+      }
+      return selected;
+   }
+
+   /**
+    * Describes what a declaration runs: the effective parameters of the class, including those inherited from
+    * parent suites, the groups and group dependencies of its {@code <test>}, and its method includes and
+    * excludes.
+    */
+   private static List<Object> signature(XmlTest xmlTest, XmlClass xmlClass) {
+      final Map<String, String> parameters = new HashMap<>();
+      for (XmlSuite suite = xmlTest.getSuite().getParentSuite(); suite != null; suite = suite.getParentSuite()) {
+         suite.getParameters().forEach(parameters::putIfAbsent);
+      }
+      parameters.putAll(xmlTest.getAllParameters());
+      parameters.putAll(xmlClass.getLocalParameters());
+      final List<Object> includes = new ArrayList<>();
+      for (XmlInclude include : xmlClass.getIncludedMethods()) {
+         includes.add(List.of(include.getName(), include.getLocalParameters(), include.getInvocationNumbers()));
+      }
+      return List.of(
+            parameters,
+            includes,
+            new ArrayList<>(xmlClass.getExcludedMethods()),
+            new HashSet<>(xmlTest.getIncludedGroups()),
+            new HashSet<>(xmlTest.getExcludedGroups()),
+            new HashMap<>(xmlTest.getMetaGroups()),
+            new HashMap<>(xmlTest.getXmlDependencyGroups())
+      );
+   }
+
+   /**
+    * Copies a suite for a bucket, with the parameters and listeners it inherits from its parent suites, since the
+    * bucket suite is written without them.
+    */
+   private static XmlSuite copySuite(XmlSuite original) {
+      final Map<String, String> parameters = new LinkedHashMap<>();
+      final Set<String> listeners = new LinkedHashSet<>();
+      for (XmlSuite suite = original; suite != null; suite = suite.getParentSuite()) {
+         suite.getParameters().forEach(parameters::putIfAbsent);
+         listeners.addAll(suite.getListeners());
+      }
+
+      final XmlSuite copy = TestNgSuiteCopies.copySuite(original);
+      copy.setParameters(parameters);
+      copy.setListeners(new ArrayList<>(listeners));
+      return copy;
+   }
+
+   /**
+    * A {@code <test>} block and {@code <class>} entry a class was declared in.
+    */
+   private static final class Declaration {
+
+      private final XmlTest xmlTest;
+      private final XmlClass xmlClass;
+      private final List<Object> signature;
+
+      private Declaration(XmlTest xmlTest, XmlClass xmlClass, List<Object> signature) {
+         this.xmlTest = xmlTest;
+         this.xmlClass = xmlClass;
+         this.signature = signature;
+      }
+
+   }
+
+}
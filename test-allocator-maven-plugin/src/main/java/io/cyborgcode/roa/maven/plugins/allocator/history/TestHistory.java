@@ -0,0 +1,269 @@
+package io.cyborgcode.roa.maven.plugins.allocator.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.Getter;
+
+/**
+ * Test results recorded by a previous run, read from JUnit XML reports.
+ *
+ * <p>Surefire and Failsafe write {@code TEST-*.xml} reports, one per test class for JUnit and, depending on the
+ * provider and its reporters, one per suite for TestNG, such as {@code TEST-TestSuite.xml}. Results are keyed
+ * by the {@code classname} attribute of each {@code <testcase>}, whatever report it is found in.
+ * Every {@code <testcase>} element is one invocation of a test method; data-driven and repeated methods
+ * therefore appear several times. Invocation names are normalised by dropping parameter suffixes such as
+ * {@code [1]} or {@code (String)}, so all invocations of a method are aggregated.
+ *
+ * <p>Missing or unreadable reports simply yield an empty history.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestHistory {
+
+   private static final TestHistory EMPTY = new TestHistory(Map.of());
+
+   private static final String REPORT_PREFIX = "TEST-";
+   private static final String REPORT_SUFFIX = ".xml";
+   private static final String CLASS_METHOD_SEPARATOR = "#";
+
+   private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(() -> {
+      XMLInputFactory factory = XMLInputFactory.newFactory();
+      factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      return factory;
+   });
+
+   /**
+    * Aggregated results keyed by {@code className#methodName}.
+    */
+   private final Map<String, MethodResult> methods;
+
+   /**
+    * Aggregated results keyed by class name.
+    */
+   private final Map<String, MethodResult> classes;
+
+   private TestHistory(Map<String, MethodResult> methods) {
+      this.methods = Collections.unmodifiableMap(methods);
+      final Map<String, MethodResult> byClass = new HashMap<>();
+      methods.forEach((key, result) -> byClass.merge(
+            key.substring(0, key.indexOf(CLASS_METHOD_SEPARATOR)), result, MethodResult::plus));
+      this.classes = Collections.unmodifiableMap(byClass);
+   }
+
+   /**
+    * Returns a history without any recorded results.
+    *
+    * @return the empty history
+    */
+   public static TestHistory empty() {
+      return EMPTY;
+   }
+
+   /**
+    * Reads all {@code TEST-*.xml} reports in the given directory.
+    *
+    * @param reportsDirectory directory containing the reports; may be {@code null}
+    * @return the recorded history, empty if the directory does not exist
+    */
+   public static TestHistory load(File reportsDirectory) {
+      return load(reportsDirectory, 0L);
+   }
+
+   /**
+    * Reads the {@code TEST-*.xml} reports in the given directory written at or after the given time.
+    *
+    * @param reportsDirectory directory containing the reports; may be {@code null}
+    * @param modifiedSince    earliest modification time of the reports read, in epoch milliseconds
+    * @return the recorded history, empty if the directory does not exist
+    */
+   public static TestHistory load(File reportsDirectory, long modifiedSince) {
+      if (reportsDirectory == null || !reportsDirectory.isDirectory()) {
+         return EMPTY;
+      }
+      final File[] reports = reportsDirectory.listFiles((dir, name) ->
+            name.startsWith(REPORT_PREFIX) && name.endsWith(REPORT_SUFFIX)
+                  && new File(dir, name).lastModified() >= modifiedSince);
+      if (reports == null || reports.length == 0) {
+         return EMPTY;
+      }
+
+      final Map<String, MethodResult> methods = new ConcurrentHashMap<>();
+      Arrays.stream(reports).parallel().forEach(report -> read(report, methods));
+      return new TestHistory(methods);
+   }
+
+   /**
+    * Returns the recorded results of a test method.
+    *
+    * @param className  fully qualified class name
+    * @param methodName method name
+    * @return the recorded results, or {@link MethodResult#NONE} if the method was not recorded
+    */
+   public MethodResult method(String className, String methodName) {
+      return methods.getOrDefault(className + CLASS_METHOD_SEPARATOR + methodName, MethodResult.NONE);
+   }
+
+   /**
+    * Returns the recorded results of all methods of a test class.
+    *
+    * @param className fully qualified class name
+    * @return the aggregated results, or {@link MethodResult#NONE} if the class was not recorded
+    */
+   public MethodResult testClass(String className) {
+      return classes.getOrDefault(className, MethodResult.NONE);
+   }
+
+   /**
+    * Indicates whether no results were recorded.
+    *
+    * @return {@code true} if the history is empty
+    */
+   public boolean isEmpty() {
+      return methods.isEmpty();
+   }
+
+   /**
+    * Returns the recorded results of every test method.
+    *
+    * @return results keyed by {@code className#methodName}
+    */
+   public Map<String, MethodResult> getMethods() {
+      return methods;
+   }
+
+   private static void read(File report, Map<String, MethodResult> methods) {
+      try (InputStream in = Files.newInputStream(report.toPath())) {
+         XMLStreamReader reader = XML_INPUT_FACTORY.get().createXMLStreamReader(in);
+         try {
+            String className = null;
+            String methodName = null;
+            double time = 0;
+            boolean failed = false;
+            while (reader.hasNext()) {
+               int event = reader.next();
+               if (event == XMLStreamConstants.START_ELEMENT) {
+                  switch (reader.getLocalName()) {
+                     case "testcase" -> {
+                        className = reader.getAttributeValue(null, "classname");
+                        methodName = normalise(reader.getAttributeValue(null, "name"));
+                        time = parseTime(reader.getAttributeValue(null, "time"));
+                        failed = false;
+                     }
+                     case "failure", "error" -> failed = true;
+                     default -> {
+                     }
+                  }
+               } else if (event == XMLStreamConstants.END_ELEMENT
+                     && "testcase".equals(reader.getLocalName())
+                     && className != null && methodName != null) {
+                  methods.merge(className + CLASS_METHOD_SEPARATOR + methodName,
+                        new MethodResult(1, time, failed ? 1 : 0), MethodResult::plus);
+                  className = null;
+               }
+            }
+         } finally {
+            reader.close();
+         }
+      } catch (IOException | XMLStreamException e) {
+         // An unreadable report only reduces the available history.
+      }
+   }
+
+   /**
+    * Normalises a reported invocation name to the name of its test method.
+    *
+    * @param name the {@code name} of a {@code <testcase>}, such as {@code totals(int)[2]} or {@code [2] 42}
+    * @return the name up to the first parameter or invocation suffix, empty if the name is only a suffix, or
+    *       {@code null} for a {@code null} name
+    */
+   public static String normalise(String name) {
+      if (name == null) {
+         return null;
+      }
+      int end = name.length();
+      for (int i = 0; i < name.length(); i++) {
+         char c = name.charAt(i);
+         if (c == '[' || c == '(' || c == ' ') {
+            end = i;
+            break;
+         }
+      }
+      return name.substring(0, end);
+   }
+
+   private static double parseTime(String value) {
+      if (value == null || value.isBlank()) {
+         return 0;
+      }
+      try {
+         return Double.parseDouble(value.replace(",", ""));
+      } catch (NumberFormatException e) {
+         return 0;
+      }
+   }
+
+   /**
+    * Aggregated results of the recorded invocations of a test method or class.
+    */
+   @Getter
+   public static final class MethodResult {
+
+      /**
+       * Result for methods without recorded invocations.
+       */
+      public static final MethodResult NONE = new MethodResult(0, 0, 0);
+
+      /**
+       * Number of recorded invocations.
+       */
+      private final int invocations;
+
+      /**
+       * Total recorded duration of all invocations, in seconds.
+       */
+      private final double duration;
+
+      /**
+       * Number of invocations that failed or errored.
+       */
+      private final int failures;
+
+      /**
+       * Creates an aggregated result.
+       *
+       * @param invocations number of recorded invocations
+       * @param duration    total duration in seconds
+       * @param failures    number of failed or errored invocations
+       */
+      public MethodResult(int invocations, double duration, int failures) {
+         this.invocations = invocations;
+         this.duration = duration;
+         this.failures = failures;
+      }
+
+      /**
+       * Combines two results.
+       *
+       * @param other the result to add
+       * @return the combined result
+       */
+      public MethodResult plus(MethodResult other) {
+         return new MethodResult(invocations + other.invocations, duration + other.duration,
+               failures + other.failures);
+      }
+
+   }
+
+}
@@ -0,0 +1,258 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.cyborgcode.roa.maven.plugins.allocator.bytecode.ClassFile;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.ClassFileDiscovery;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class-level dependency graph of compiled classes, built from the class references of their constant pools.
+ *
+ * <p>A class depends on every class named by a {@code Class} constant or a type descriptor of its constant
+ * pool: supertypes, member types, instantiated and invoked classes, annotations and nested classes. Constants
+ * inlined by the compiler leave no reference and are not tracked. References of a class to its own nested
+ * classes are ignored: every enclosing class lists them, and they change along with it anyway, as they are
+ * compiled from the same source file.
+ *
+ * <p>The references of every class file are cached on disk, keyed by the path, size and modification time of
+ * the file, so only recompiled classes are parsed again by the next build.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class ClassDependencyGraph {
+
+   private static final int CACHE_VERSION = 1;
+
+   private final Map<String, File> classes;
+   private final Map<String, List<String>> dependencies;
+   private final Map<String, List<String>> dependents;
+
+   private ClassDependencyGraph(Map<String, File> classes, Map<String, List<String>> dependencies,
+                                Map<String, List<String>> dependents) {
+      this.classes = classes;
+      this.dependencies = dependencies;
+      this.dependents = dependents;
+   }
+
+   /**
+    * Builds the graph of the classes compiled into the given directories.
+    *
+    * @param classDirectories directories of compiled classes, such as the main and test output directories
+    * @param cacheFile        file caching the references of each class file; may be {@code null}
+    * @return the dependency graph
+    */
+   public static ClassDependencyGraph build(Collection<File> classDirectories, File cacheFile) {
+      final Map<String, CachedClass> cached = readCache(cacheFile);
+      final Map<String, CachedClass> current = new HashMap<>();
+      for (File directory : classDirectories) {
+         ClassFileDiscovery.findClassFiles(directory).parallelStream()
+               .map(classFile -> references(classFile, cached))
+               .toList()
+               .forEach(entry -> current.put(entry.path, entry));
+      }
+      if (!current.equals(cached)) {
+         writeCache(cacheFile, current);
+      }
+
+      final Map<String, File> classes = new HashMap<>();
+      final Map<String, List<String>> dependencies = new HashMap<>();
+      final Map<String, List<String>> dependents = new HashMap<>();
+      for (CachedClass entry : current.values()) {
+         classes.putIfAbsent(entry.name, new File(entry.path));
+         for (String referenced : entry.references) {
+            if (!referenced.equals(entry.name) && !referenced.startsWith(entry.name + "$")) {
+               dependencies.computeIfAbsent(entry.name, key -> new ArrayList<>()).add(referenced);
+               dependents.computeIfAbsent(referenced, key -> new ArrayList<>()).add(entry.name);
+            }
+         }
+      }
+      return new ClassDependencyGraph(classes, dependencies, dependents);
+   }
+
+   /**
+    * Determines whether a class is compiled into one of the directories of the graph.
+    *
+    * @param className binary class name, e.g. {@code com.acme.Checkout$Item}
+    * @return {@code true} if the class is part of the graph
+    */
+   public boolean contains(String className) {
+      return classes.containsKey(className);
+   }
+
+   /**
+    * Returns the class file a class was read from.
+    *
+    * @param className binary class name
+    * @return the class file, or {@code null} if the class is not part of the graph
+    */
+   public File classFile(String className) {
+      return classes.get(className);
+   }
+
+   /**
+    * Finds the classes of the graph a class depends on, directly or transitively.
+    *
+    * <p>The nested classes of the class are included, as they are compiled from the same source file.
+    * Referenced classes outside the directories of the graph, such as library classes, are not included.
+    *
+    * @param className binary name of a top-level class
+    * @return the class, its nested classes and every class of the graph they depend on
+    */
+   public Set<String> dependenciesOf(String className) {
+      final Set<String> reached = traverse(List.of(className), dependencies);
+      reached.removeIf(name -> !classes.containsKey(name));
+      return reached;
+   }
+
+   /**
+    * Finds the classes that depend on the given classes, directly or transitively.
+    *
+    * <p>The nested classes of a given class are affected along with it, as they are compiled from the same
+    * source file.
+    *
+    * @param changedClasses binary names of the changed top-level classes
+    * @return the changed classes, their nested classes and every class depending on them
+    */
+   public Set<String> dependentsOf(Collection<String> changedClasses) {
+      return traverse(changedClasses, dependents);
+   }
+
+   private Set<String> traverse(Collection<String> roots, Map<String, List<String>> edges) {
+      final Set<String> reached = new LinkedHashSet<>();
+      final Deque<String> queue = new ArrayDeque<>();
+      for (String root : roots) {
+         queue.add(root);
+         classes.keySet().stream()
+               .filter(name -> name.startsWith(root + "$"))
+               .forEach(queue::add);
+      }
+      while (!queue.isEmpty()) {
+         String name = queue.poll();
+         if (reached.add(name)) {
+            queue.addAll(edges.getOrDefault(name, List.of()));
+         }
+      }
+      return reached;
+   }
+
+   private static CachedClass references(File classFile, Map<String, CachedClass> cached) {
+      final String path = classFile.getAbsolutePath();
+      final String fingerprint = classFile.length() + ":" + classFile.lastModified();
+      final CachedClass previous = cached.get(path);
+      if (previous != null && fingerprint.equals(previous.fingerprint)) {
+         return previous;
+      }
+      try {
+         ClassFile parsed = ClassFile.parse(Files.readAllBytes(classFile.toPath()));
+         Set<String> references = new LinkedHashSet<>();
+         parsed.getReferencedClasses().forEach(name -> addReference(references, name));
+         parsed.getDescriptorClasses().forEach(name -> addReference(references, name));
+         return new CachedClass(path, fingerprint, parsed.getClassName(), List.copyOf(references));
+      } catch (IOException e) {
+         throw new UncheckedIOException("Failed to read class file: " + classFile, e);
+      }
+   }
+
+   private static void addReference(Set<String> references, String internalName) {
+      final String name = internalName.startsWith("[")
+            ? internalName.replaceFirst("^\\[+L?", "").replaceFirst(";$", "")
+            : internalName;
+      if (!name.isEmpty() && !name.startsWith("java/")) {
+         references.add(name.replace('/', '.'));
+      }
+   }
+
+   private static Map<String, CachedClass> readCache(File cacheFile) {
+      final Map<String, CachedClass> cached = new HashMap<>();
+      if (cacheFile == null || !cacheFile.isFile()) {
+         return cached;
+      }
+      try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+         CacheContent content = new Gson().fromJson(reader, CacheContent.class);
+         if (content != null && content.version == CACHE_VERSION && content.classes != null) {
+            content.classes.forEach(entry -> cached.put(entry.path, entry));
+         }
+      } catch (IOException | JsonParseException e) {
+         cached.clear();
+      }
+      return cached;
+   }
+
+   private static void writeCache(File cacheFile, Map<String, CachedClass> classes) {
+      if (cacheFile == null) {
+         return;
+      }
+      try {
+         File parent = cacheFile.getAbsoluteFile().getParentFile();
+         if (parent != null) {
+            Files.createDirectories(parent.toPath());
+         }
+         try (Writer writer = Files.newBufferedWriter(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+            new Gson().toJson(new CacheContent(CACHE_VERSION, List.copyOf(classes.values())), writer);
+         }
+      } catch (IOException e) {
+         throw new UncheckedIOException("Failed to write class dependency cache: " + cacheFile, e);
+      }
+   }
+
+   /**
+    * Content of the cache file.
+    */
+   private static final class CacheContent {
+
+      private final int version;
+      private final List<CachedClass> classes;
+
+      private CacheContent(int version, List<CachedClass> classes) {
+         this.version = version;
+         this.classes = classes;
+      }
+   }
+
+   /**
+    * References of a class file, with the fingerprint of the file they were read from.
+    */
+   private static final class CachedClass {
+
+      private final String path;
+      private final String fingerprint;
+      private final String name;
+      private final List<String> references;
+
+      private CachedClass(String path, String fingerprint, String name, List<String> references) {
+         this.path = path;
+         this.fingerprint = fingerprint;
+         this.name = name;
+         this.references = references;
+      }
+
+      @Override
+      public boolean equals(Object other) {
+         return other instanceof CachedClass that
+               && path.equals(that.path)
+               && fingerprint.equals(that.fingerprint);
+      }
+
+      @Override
+      public int hashCode() {
+         return path.hashCode() * 31 + fingerprint.hashCode();
+      }
+   }
+
+}
@@ -0,0 +1,210 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from production classes to the test classes covering them, built from per-test JaCoCo
+ * execution data.
+ *
+ * <p>The coverage directory holds one {@code .exec} file per test class, named after it, e.g.
+ * {@code com.acme.CartTest.exec}, as dumped after each test class of a previous full run. Each class
+ * executed by a test class maps to a {@link TestBitmap} of the identifiers of the covering tests.
+ *
+ * <p>The index is stored on disk and rebuilt only when an execution data file is added, removed or
+ * rewritten. Unlike a dependency graph, coverage also captures classes reached through reflection and
+ * dependency injection.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class CoverageIndex {
+
+   private static final int MAGIC = 0x524F4149;
+   private static final int FORMAT_VERSION = 1;
+   private static final String EXEC_SUFFIX = ".exec";
+
+   private final List<String> tests;
+   private final Set<String> testNames;
+   private final Map<String, TestBitmap> testsByClass;
+
+   private CoverageIndex(List<String> tests, Map<String, TestBitmap> testsByClass) {
+      this.tests = tests;
+      this.testNames = new HashSet<>(tests);
+      this.testsByClass = testsByClass;
+   }
+
+   /**
+    * Loads the index of a coverage directory, rebuilding it if the execution data changed.
+    *
+    * @param coverageDirectory directory of per-test-class {@code .exec} files
+    * @param indexFile         file storing the index; may be {@code null}
+    * @return the index
+    */
+   public static CoverageIndex load(File coverageDirectory, File indexFile) {
+      final File[] execFiles = execFiles(coverageDirectory);
+      final long fingerprint = fingerprint(execFiles);
+      if (indexFile != null && indexFile.isFile()) {
+         try (DataInputStream in = new DataInputStream(
+               new BufferedInputStream(Files.newInputStream(indexFile.toPath())))) {
+            if (in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION && in.readLong() == fingerprint) {
+               return read(in);
+            }
+         } catch (IOException e) {
+            // An unreadable index is rebuilt
+         }
+      }
+
+      final CoverageIndex index = build(execFiles);
+      if (indexFile != null) {
+         index.write(indexFile, fingerprint);
+      }
+      return index;
+   }
+
+   /**
+    * Determines whether the coverage of a test class was recorded.
+    *
+    * @param testClass binary name of the test class
+    * @return {@code true} if the index holds execution data of the test class
+    */
+   public boolean containsTest(String testClass) {
+      return testNames.contains(testClass);
+   }
+
+   /**
+    * Finds the test classes covering any of the given classes or their nested classes.
+    *
+    * @param changedClasses binary names of the changed top-level classes
+    * @return the covering test classes
+    */
+   public Set<String> testsCovering(Collection<String> changedClasses) {
+      final BitSet covering = new BitSet(tests.size());
+      testsByClass.forEach((className, bitmap) -> {
+         if (changedClasses.stream().anyMatch(changed -> isSameOrNested(className, changed))) {
+            bitmap.orInto(covering);
+         }
+      });
+      final Set<String> result = new LinkedHashSet<>();
+      covering.stream().forEach(id -> result.add(tests.get(id)));
+      return result;
+   }
+
+   /**
+    * Returns the number of test classes with recorded coverage.
+    *
+    * @return the number of indexed test classes
+    */
+   public int testCount() {
+      return tests.size();
+   }
+
+   static boolean isSameOrNested(String className, String topLevelClass) {
+      return className.equals(topLevelClass) || className.startsWith(topLevelClass + "$");
+   }
+
+   private static CoverageIndex build(File[] execFiles) {
+      final List<Set<String>> covered = Arrays.stream(execFiles).parallel()
+            .map(execFile -> {
+               try {
+                  return JacocoExecReader.coveredClasses(execFile);
+               } catch (IOException e) {
+                  throw new UncheckedIOException("Failed to read JaCoCo execution data: " + execFile, e);
+               }
+            })
+            .toList();
+
+      final List<String> tests = new ArrayList<>(execFiles.length);
+      final Map<String, TestBitmap> testsByClass = new HashMap<>();
+      for (int id = 0; id < execFiles.length; id++) {
+         String name = execFiles[id].getName();
+         tests.add(name.substring(0, name.length() - EXEC_SUFFIX.length()));
+         for (String className : covered.get(id)) {
+            testsByClass.computeIfAbsent(className, key -> new TestBitmap()).add(id);
+         }
+      }
+      return new CoverageIndex(tests, testsByClass);
+   }
+
+   private static CoverageIndex read(DataInputStream in) throws IOException {
+      final int testCount = in.readInt();
+      final List<String> tests = new ArrayList<>(testCount);
+      for (int i = 0; i < testCount; i++) {
+         tests.add(in.readUTF());
+      }
+      final int classCount = in.readInt();
+      final Map<String, TestBitmap> testsByClass = new HashMap<>(classCount * 2);
+      for (int i = 0; i < classCount; i++) {
+         testsByClass.put(in.readUTF(), TestBitmap.read(in));
+      }
+      return new CoverageIndex(tests, testsByClass);
+   }
+
+   private void write(File indexFile, long fingerprint) {
+      try {
+         File parent = indexFile.getAbsoluteFile().getParentFile();
+         if (parent != null) {
+            Files.createDirectories(parent.toPath());
+         }
+         try (DataOutputStream out = new DataOutputStream(
+               new BufferedOutputStream(Files.newOutputStream(indexFile.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(tests.size());
+            for (String test : tests) {
+               out.writeUTF(test);
+            }
+            out.writeInt(testsByClass.size());
+            for (Map.Entry<String, TestBitmap> entry : testsByClass.entrySet()) {
+               out.writeUTF(entry.getKey());
+               entry.getValue().write(out);
+            }
+         }
+      } catch (IOException e) {
+         throw new UncheckedIOException("Failed to write coverage index: " + indexFile, e);
+      }
+   }
+
+   private static File[] execFiles(File coverageDirectory) {
+      final File[] files = coverageDirectory == null ? null
+            : coverageDirectory.listFiles(file -> file.isFile() && file.getName().endsWith(EXEC_SUFFIX));
+      if (files == null) {
+         return new File[0];
+      }
+      Arrays.sort(files, Comparator.comparing(File::getName));
+      return files;
+   }
+
+   /**
+    * Fingerprints the names, sizes and modification times of the execution data files with 64-bit FNV-1a.
+    */
+   private static long fingerprint(File[] execFiles) {
+      long hash = 0xcbf29ce484222325L;
+      for (File execFile : execFiles) {
+         String entry = execFile.getName() + ":" + execFile.length() + ":" + execFile.lastModified() + "\n";
+         for (int i = 0; i < entry.length(); i++) {
+            hash ^= entry.charAt(i);
+            hash *= 0x100000001b3L;
+         }
+      }
+      return hash;
+   }
+
+}
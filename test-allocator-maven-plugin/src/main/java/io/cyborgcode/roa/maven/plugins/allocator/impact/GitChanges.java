@@ -0,0 +1,78 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Utility class listing the files of a git working tree that differ from a base revision.
+ *
+ * <p>The working tree, including uncommitted and untracked files, is compared with the merge base of the
+ * base revision and {@code HEAD}, so a pull request branch only reports its own changes. Renamed files are
+ * reported under their old and new paths.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class GitChanges {
+
+   /**
+    * Private constructor to prevent instantiation.
+    */
+   private GitChanges() {
+   }
+
+   /**
+    * Lists the changed files of the repository containing a directory.
+    *
+    * @param workingDirectory a directory inside the git working tree
+    * @param baseRef          the base revision, e.g. {@code origin/main}
+    * @return the changed files, with absolute paths
+    * @throws IOException if git is unavailable or the base revision cannot be resolved
+    */
+   public static List<File> changedFiles(File workingDirectory, String baseRef) throws IOException {
+      final File root = new File(run(workingDirectory, "git", "rev-parse", "--show-toplevel").get(0));
+      final String mergeBase = run(workingDirectory, "git", "merge-base", baseRef, "HEAD").get(0);
+
+      final Set<String> paths = new LinkedHashSet<>(
+            run(root, "git", "diff", "--name-only", "--no-renames", mergeBase));
+      paths.addAll(run(root, "git", "ls-files", "--others", "--exclude-standard"));
+
+      final List<File> files = new ArrayList<>();
+      paths.forEach(path -> files.add(new File(root, path)));
+      return files;
+   }
+
+   private static List<String> run(File directory, String... command) throws IOException {
+      final Process process = new ProcessBuilder(command)
+            .directory(directory)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+      final List<String> lines = new ArrayList<>();
+      try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+         String line;
+         while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+               lines.add(line.trim());
+            }
+         }
+      }
+      try {
+         int exitCode = process.waitFor();
+         if (exitCode != 0) {
+            throw new IOException(String.join(" ", command) + " exited with " + exitCode);
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new IOException("Interrupted while running " + String.join(" ", command), e);
+      }
+      return lines;
+   }
+
+}
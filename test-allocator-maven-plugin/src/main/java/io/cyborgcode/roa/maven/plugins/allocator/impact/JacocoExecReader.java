@@ -0,0 +1,114 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Minimal reader for JaCoCo execution data ({@code .exec}) files.
+ *
+ * <p>Only the names of the classes with at least one executed probe are kept; session information and the
+ * probes themselves are skipped. Reading does not require JaCoCo on the classpath. Files of the format
+ * written by JaCoCo 0.7.5 and later are supported.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class JacocoExecReader {
+
+   private static final int BLOCK_HEADER = 0x01;
+   private static final int BLOCK_SESSION_INFO = 0x10;
+   private static final int BLOCK_EXECUTION_DATA = 0x11;
+   private static final int MAGIC = 0xC0C0;
+   private static final int FORMAT_VERSION = 0x1007;
+
+   /**
+    * Private constructor to prevent instantiation.
+    */
+   private JacocoExecReader() {
+   }
+
+   /**
+    * Reads the classes covered by an execution data file.
+    *
+    * @param execFile the {@code .exec} file
+    * @return binary names of the classes with at least one executed probe, in file order
+    * @throws IOException if the file cannot be read or is not in a supported format
+    */
+   public static Set<String> coveredClasses(File execFile) throws IOException {
+      try (InputStream stream = new BufferedInputStream(Files.newInputStream(execFile.toPath()))) {
+         return coveredClasses(stream);
+      }
+   }
+
+   /**
+    * Reads the classes covered by execution data.
+    *
+    * @param stream the execution data
+    * @return binary names of the classes with at least one executed probe, in stream order
+    * @throws IOException if the data cannot be read or is not in a supported format
+    */
+   public static Set<String> coveredClasses(InputStream stream) throws IOException {
+      final DataInputStream in = new DataInputStream(stream);
+      final Set<String> covered = new LinkedHashSet<>();
+      int block;
+      while ((block = in.read()) != -1) {
+         switch (block) {
+            case BLOCK_HEADER -> {
+               if (in.readChar() != MAGIC) {
+                  throw new IOException("Not a JaCoCo execution data file");
+               }
+               final int version = in.readChar();
+               if (version != FORMAT_VERSION) {
+                  throw new IOException(
+                        "Unsupported JaCoCo execution data version 0x" + Integer.toHexString(version));
+               }
+            }
+            case BLOCK_SESSION_INFO -> {
+               in.readUTF();
+               in.skipNBytes(16);
+            }
+            case BLOCK_EXECUTION_DATA -> {
+               in.skipNBytes(8);
+               String name = in.readUTF();
+               if (readProbes(in)) {
+                  covered.add(name.replace('/', '.'));
+               }
+            }
+            default -> throw new IOException("Unknown JaCoCo block type 0x" + Integer.toHexString(block));
+         }
+      }
+      return covered;
+   }
+
+   /**
+    * Reads a probe array, packed eight probes per byte after its variable-length size.
+    *
+    * @return {@code true} if any probe was executed
+    */
+   private static boolean readProbes(DataInputStream in) throws IOException {
+      final int length = readVarInt(in);
+      boolean executed = false;
+      for (int i = 0; i < (length + 7) / 8; i++) {
+         executed |= in.readUnsignedByte() != 0;
+      }
+      return executed;
+   }
+
+   private static int readVarInt(DataInputStream in) throws IOException {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7) {
+         int b = in.readUnsignedByte();
+         value |= (b & 0x7F) << shift;
+         if ((b & 0x80) == 0) {
+            return value;
+         }
+      }
+      throw new IOException("Malformed probe array length");
+   }
+
+}
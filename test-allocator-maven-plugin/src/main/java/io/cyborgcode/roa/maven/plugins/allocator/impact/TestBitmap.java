@@ -0,0 +1,202 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Compressed set of non-negative test identifiers, organized like a roaring bitmap.
+ *
+ * <p>Identifiers are partitioned by their high 16 bits into containers. A container holding up to 4096
+ * identifiers stores their low 16 bits as a sorted array; a denser container switches to a bitmap of 65536
+ * bits. Sparse sets, such as the few tests covering a class, take two bytes per test, while dense sets never
+ * exceed 8 KB per container.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public final class TestBitmap {
+
+   private static final int MAX_ARRAY_CARDINALITY = 4096;
+   private static final int BITMAP_WORDS = 1024;
+
+   private char[] keys = new char[0];
+   private Object[] containers = new Object[0];
+   private int[] cardinalities = new int[0];
+   private int size;
+
+   /**
+    * Adds an identifier.
+    *
+    * @param value the non-negative identifier
+    */
+   public void add(int value) {
+      final char key = (char) (value >>> 16);
+      final char low = (char) value;
+      int index = Arrays.binarySearch(keys, 0, size, key);
+      if (index < 0) {
+         index = -index - 1;
+         insertContainer(index, key);
+      }
+
+      if (containers[index] instanceof long[] bits) {
+         if ((bits[low >>> 6] & (1L << low)) == 0) {
+            bits[low >>> 6] |= 1L << low;
+            cardinalities[index]++;
+         }
+         return;
+      }
+
+      char[] values = (char[]) containers[index];
+      final int cardinality = cardinalities[index];
+      final int position = Arrays.binarySearch(values, 0, cardinality, low);
+      if (position >= 0) {
+         return;
+      }
+      if (cardinality == MAX_ARRAY_CARDINALITY) {
+         long[] bits = new long[BITMAP_WORDS];
+         for (int i = 0; i < cardinality; i++) {
+            bits[values[i] >>> 6] |= 1L << values[i];
+         }
+         bits[low >>> 6] |= 1L << low;
+         containers[index] = bits;
+         cardinalities[index]++;
+         return;
+      }
+      if (cardinality == values.length) {
+         values = Arrays.copyOf(values, Math.min(MAX_ARRAY_CARDINALITY, Math.max(4, cardinality * 2)));
+         containers[index] = values;
+      }
+      final int insertion = -position - 1;
+      System.arraycopy(values, insertion, values, insertion + 1, cardinality - insertion);
+      values[insertion] = low;
+      cardinalities[index]++;
+   }
+
+   /**
+    * Determines whether an identifier is part of the set.
+    *
+    * @param value the identifier
+    * @return {@code true} if the identifier was added
+    */
+   public boolean contains(int value) {
+      final int index = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+      if (index < 0 || value < 0) {
+         return false;
+      }
+      final char low = (char) value;
+      if (containers[index] instanceof long[] bits) {
+         return (bits[low >>> 6] & (1L << low)) != 0;
+      }
+      return Arrays.binarySearch((char[]) containers[index], 0, cardinalities[index], low) >= 0;
+   }
+
+   /**
+    * Returns the number of identifiers in the set.
+    *
+    * @return the cardinality
+    */
+   public int cardinality() {
+      int cardinality = 0;
+      for (int i = 0; i < size; i++) {
+         cardinality += cardinalities[i];
+      }
+      return cardinality;
+   }
+
+   /**
+    * Adds the identifiers of this set to a bit set.
+    *
+    * @param target the bit set receiving the union
+    */
+   public void orInto(BitSet target) {
+      for (int i = 0; i < size; i++) {
+         final int base = keys[i] << 16;
+         if (containers[i] instanceof long[] bits) {
+            BitSet.valueOf(bits).stream().forEach(low -> target.set(base | low));
+         } else {
+            char[] values = (char[]) containers[i];
+            for (int j = 0; j < cardinalities[i]; j++) {
+               target.set(base | values[j]);
+            }
+         }
+      }
+   }
+
+   /**
+    * Writes the set in its compressed form.
+    *
+    * @param out the output
+    * @throws IOException if the set cannot be written
+    */
+   public void write(DataOutput out) throws IOException {
+      out.writeInt(size);
+      for (int i = 0; i < size; i++) {
+         out.writeChar(keys[i]);
+         out.writeInt(cardinalities[i]);
+         if (containers[i] instanceof long[] bits) {
+            for (long word : bits) {
+               out.writeLong(word);
+            }
+         } else {
+            char[] values = (char[]) containers[i];
+            for (int j = 0; j < cardinalities[i]; j++) {
+               out.writeChar(values[j]);
+            }
+         }
+      }
+   }
+
+   /**
+    * Reads a set written by {@link #write(DataOutput)}.
+    *
+    * @param in the input
+    * @return the set
+    * @throws IOException if the set cannot be read
+    */
+   public static TestBitmap read(DataInput in) throws IOException {
+      final TestBitmap bitmap = new TestBitmap();
+      final int size = in.readInt();
+      bitmap.keys = new char[size];
+      bitmap.containers = new Object[size];
+      bitmap.cardinalities = new int[size];
+      for (int i = 0; i < size; i++) {
+         bitmap.keys[i] = in.readChar();
+         int cardinality = in.readInt();
+         bitmap.cardinalities[i] = cardinality;
+         if (cardinality > MAX_ARRAY_CARDINALITY) {
+            long[] bits = new long[BITMAP_WORDS];
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+               bits[w] = in.readLong();
+            }
+            bitmap.containers[i] = bits;
+         } else {
+            char[] values = new char[cardinality];
+            for (int j = 0; j < cardinality; j++) {
+               values[j] = in.readChar();
+            }
+            bitmap.containers[i] = values;
+         }
+      }
+      bitmap.size = size;
+      return bitmap;
+   }
+
+   private void insertContainer(int index, char key) {
+      if (size == keys.length) {
+         final int capacity = Math.max(4, size * 2);
+         keys = Arrays.copyOf(keys, capacity);
+         containers = Arrays.copyOf(containers, capacity);
+         cardinalities = Arrays.copyOf(cardinalities, capacity);
+      }
+      System.arraycopy(keys, index, keys, index + 1, size - index);
+      System.arraycopy(containers, index, containers, index + 1, size - index);
+      System.arraycopy(cardinalities, index, cardinalities, index + 1, size - index);
+      keys[index] = key;
+      containers[index] = new char[4];
+      cardinalities[index] = 0;
+      size++;
+   }
+
+}
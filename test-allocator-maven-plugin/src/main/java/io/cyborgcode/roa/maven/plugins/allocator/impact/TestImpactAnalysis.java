@@ -0,0 +1,243 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Selects the test classes affected by the changes of a git working tree.
+ *
+ * <p>Changed Java sources are mapped to their classes. The tests affected by them are found either in the
+ * {@link ClassDependencyGraph} of the compiled classes, as the tests depending on them directly or
+ * transitively, or, with a coverage directory, in the {@link CoverageIndex} of a previous run, as the tests
+ * that executed them, which also captures classes wired by reflection or dependency injection.
+ *
+ * <p>Any other change, such as a resource, a build file or a source outside a known source root, can affect
+ * every test, so all tests are selected. Tests unknown to the graph or index, such as classes of dependency
+ * JARs or tests added since the coverage was recorded, are always selected, as are changed tests.
+ *
+ * <p>The changes and the graph are resolved once, on the first selection.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public class TestImpactAnalysis {
+
+   private static final Pattern CONVENTIONAL_SOURCE = Pattern.compile(".*/src/[^/]+/java/(.+)\\.java");
+
+   /**
+    * Base revision the working tree is compared with, e.g. {@code origin/main}.
+    */
+   private final String baseRef;
+
+   /**
+    * Directory inside the git working tree.
+    */
+   private final File workingDirectory;
+
+   /**
+    * Java source roots of the project, mapping changed sources to class names.
+    */
+   private final List<File> sourceRoots;
+
+   /**
+    * Directories of compiled classes the dependency graph is built from.
+    */
+   private final List<File> classDirectories;
+
+   /**
+    * File caching the dependency graph or coverage index; may be {@code null}.
+    */
+   private final File cacheFile;
+
+   /**
+    * Directory of per-test-class JaCoCo execution data selecting tests by coverage; {@code null} selects
+    * tests by the dependency graph.
+    */
+   private final File coverageDirectory;
+
+   @Getter(AccessLevel.NONE)
+   private Impact impact;
+
+   /**
+    * Creates an analysis selecting tests by the dependency graph.
+    *
+    * @param baseRef          base revision the working tree is compared with
+    * @param workingDirectory directory inside the git working tree
+    * @param sourceRoots      Java source roots of the project
+    * @param classDirectories directories of compiled classes
+    * @param cacheFile        file caching the class references; may be {@code null}
+    */
+   public TestImpactAnalysis(String baseRef, File workingDirectory, List<File> sourceRoots,
+                             List<File> classDirectories, File cacheFile) {
+      this(baseRef, workingDirectory, sourceRoots, classDirectories, cacheFile, null);
+   }
+
+   /**
+    * Creates an analysis.
+    *
+    * @param baseRef           base revision the working tree is compared with
+    * @param workingDirectory  directory inside the git working tree
+    * @param sourceRoots       Java source roots of the project
+    * @param classDirectories  directories of compiled classes
+    * @param cacheFile         file caching the class references or coverage index; may be {@code null}
+    * @param coverageDirectory directory of per-test-class {@code .exec} files, or {@code null} to select tests
+    *                          by the dependency graph
+    */
+   public TestImpactAnalysis(String baseRef, File workingDirectory, List<File> sourceRoots,
+                             List<File> classDirectories, File cacheFile, File coverageDirectory) {
+      this.baseRef = baseRef;
+      this.workingDirectory = workingDirectory;
+      this.sourceRoots = List.copyOf(sourceRoots);
+      this.classDirectories = List.copyOf(classDirectories);
+      this.cacheFile = cacheFile;
+      this.coverageDirectory = coverageDirectory;
+   }
+
+   /**
+    * Selects the affected tests among the given test classes.
+    *
+    * @param testClasses binary names of the test classes
+    * @return the selected tests, or a selection of all tests with the reason
+    */
+   public Selection select(Collection<String> testClasses) {
+      final Impact resolved = resolve();
+      if (resolved.fallbackReason != null) {
+         return new Selection(null, resolved.changedClasses, resolved.fallbackReason);
+      }
+      final Set<String> selected = new LinkedHashSet<>();
+      for (String testClass : testClasses) {
+         if (resolved.affected.contains(testClass) || !resolved.known.test(testClass)
+               || resolved.changed.stream().anyMatch(changed -> CoverageIndex.isSameOrNested(testClass, changed))) {
+            selected.add(testClass);
+         }
+      }
+      return new Selection(selected, resolved.changedClasses, null);
+   }
+
+   /**
+    * Maps a changed Java source to the binary name of its top-level class.
+    *
+    * @param file the changed file
+    * @return the class name, or empty if the file is not a Java source of a known or conventional source root
+    */
+   Optional<String> toClassName(File file) {
+      final Path path = file.toPath().toAbsolutePath().normalize();
+      if (!path.toString().endsWith(".java")) {
+         return Optional.empty();
+      }
+      for (File sourceRoot : sourceRoots) {
+         Path root = sourceRoot.toPath().toAbsolutePath().normalize();
+         if (path.startsWith(root)) {
+            return Optional.of(className(root.relativize(path).toString().replace(File.separatorChar, '/')));
+         }
+      }
+      final Matcher conventional = CONVENTIONAL_SOURCE.matcher(path.toString().replace(File.separatorChar, '/'));
+      return conventional.matches() ? Optional.of(className(conventional.group(1) + ".java")) : Optional.empty();
+   }
+
+   /**
+    * Lists the changed files of the working tree.
+    *
+    * @return the changed files, with absolute paths
+    * @throws IOException if the changes cannot be listed
+    */
+   protected List<File> changedFiles() throws IOException {
+      return GitChanges.changedFiles(workingDirectory, baseRef);
+   }
+
+   private static String className(String relativeSource) {
+      return relativeSource.substring(0, relativeSource.length() - ".java".length()).replace('/', '.');
+   }
+
+   private synchronized Impact resolve() {
+      if (impact != null) {
+         return impact;
+      }
+      final List<File> changedFiles;
+      try {
+         changedFiles = changedFiles();
+      } catch (IOException e) {
+         impact = new Impact(null, null, null, 0, "cannot diff against " + baseRef + ": " + e.getMessage());
+         return impact;
+      }
+
+      final Set<String> changedClasses = new LinkedHashSet<>();
+      for (File changedFile : changedFiles) {
+         Optional<String> className = toClassName(changedFile);
+         if (className.isEmpty()) {
+            impact = new Impact(null, null, null, changedClasses.size(), "changed non-Java file " + changedFile);
+            return impact;
+         }
+         changedClasses.add(className.get());
+      }
+
+      if (coverageDirectory != null) {
+         final CoverageIndex index = CoverageIndex.load(coverageDirectory, cacheFile);
+         impact = new Impact(changedClasses, index.testsCovering(changedClasses), index::containsTest,
+               changedClasses.size(), null);
+      } else {
+         final ClassDependencyGraph graph = ClassDependencyGraph.build(classDirectories, cacheFile);
+         impact = new Impact(changedClasses, graph.dependentsOf(changedClasses), graph::contains,
+               changedClasses.size(), null);
+      }
+      return impact;
+   }
+
+   /**
+    * Tests selected by the analysis.
+    */
+   @Getter
+   @AllArgsConstructor
+   public static class Selection {
+
+      /**
+       * The selected test classes, or {@code null} if all tests are selected.
+       */
+      private final Set<String> tests;
+
+      /**
+       * Number of changed classes found in the working tree.
+       */
+      private final int changedClasses;
+
+      /**
+       * Why all tests are selected, or {@code null} if the tests were selected by impact.
+       */
+      private final String fallbackReason;
+
+      /**
+       * Indicates whether all tests are selected.
+       *
+       * @return {@code true} if the changes could not be mapped to classes
+       */
+      public boolean isAll() {
+         return tests == null;
+      }
+   }
+
+   /**
+    * Changes of the working tree, resolved once.
+    */
+   @AllArgsConstructor
+   private static final class Impact {
+
+      private final Set<String> changed;
+      private final Set<String> affected;
+      private final Predicate<String> known;
+      private final int changedClasses;
+      private final String fallbackReason;
+   }
+
+}
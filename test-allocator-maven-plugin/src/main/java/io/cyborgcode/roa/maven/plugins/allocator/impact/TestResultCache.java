@@ -0,0 +1,285 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Content-addressed store of passed test classes, used to skip test classes whose outcome cannot have changed.
+ *
+ * <p>The content hash of a test class covers its bytecode, the bytecode of every class of the
+ * {@link ClassDependencyGraph} it depends on, directly or transitively, the resources of the class directories
+ * and the names and sizes of the libraries of the test classpath. A test class whose current hash is the hash
+ * it last passed with is a cache hit. Test classes outside the graph, such as classes of dependency JARs, are
+ * never hits.
+ *
+ * <p>Outcomes are learned from the reports of the run following an allocation: the hash of every test class
+ * that is not a hit is kept as pending, and the next lookup records it as passed once the {@code TEST-*.xml}
+ * reports written after the allocation show the class ran without failures or errors. Reports are matched by
+ * the {@code classname} of their test cases rather than by file name, as TestNG reports a whole suite in one
+ * file such as {@code TEST-TestSuite.xml}.
+ *
+ * <p>The graph and the hashes of the classes are resolved once, on the first lookup.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@Getter
+public class TestResultCache {
+
+   private static final int STORE_VERSION = 1;
+
+   /**
+    * File storing the passed and pending hashes.
+    */
+   private final File storeFile;
+
+   /**
+    * Directory containing the JUnit XML reports of the run following the previous allocation.
+    */
+   private final File reportsDirectory;
+
+   /**
+    * Directories of compiled classes and resources the hashes cover.
+    */
+   private final List<File> classDirectories;
+
+   /**
+    * Libraries of the test classpath, covered by their names and sizes.
+    */
+   private final List<File> libraries;
+
+   /**
+    * File caching the class references of the dependency graph; may be {@code null}.
+    */
+   private final File graphCacheFile;
+
+   @Getter(AccessLevel.NONE)
+   private Hashes hashes;
+
+   /**
+    * Creates a result cache.
+    *
+    * @param storeFile        file storing the passed and pending hashes
+    * @param reportsDirectory directory containing the reports of the run following the previous allocation
+    * @param classDirectories directories of compiled classes and resources, such as the test and main output
+    *                         directories
+    * @param libraries        libraries of the test classpath
+    * @param graphCacheFile   file caching the class references; may be {@code null}
+    */
+   public TestResultCache(File storeFile, File reportsDirectory, List<File> classDirectories, List<File> libraries,
+                          File graphCacheFile) {
+      this.storeFile = storeFile;
+      this.reportsDirectory = reportsDirectory;
+      this.classDirectories = List.copyOf(classDirectories);
+      this.libraries = List.copyOf(libraries);
+      this.graphCacheFile = graphCacheFile;
+   }
+
+   /**
+    * Finds the test classes that passed with their current content, and records the others as pending.
+    *
+    * @param testClasses binary names of the test classes
+    * @return the content hashes of the cache hits, keyed by test class and sorted by name
+    */
+   public synchronized Map<String, String> lookup(Collection<String> testClasses) {
+      final Store store = readStore();
+      recordOutcomes(store);
+
+      final Hashes resolved = resolve();
+      final Map<String, String> hits = new TreeMap<>();
+      final long allocated = System.currentTimeMillis();
+      for (String testClass : testClasses) {
+         String hash = resolved.hashOf(testClass);
+         if (hash == null) {
+            continue;
+         }
+         if (hash.equals(store.passed.get(testClass))) {
+            hits.put(testClass, hash);
+         } else {
+            store.pending.put(testClass, new Pending(hash, allocated));
+         }
+      }
+      writeStore(store);
+      return hits;
+   }
+
+   /**
+    * Records the pending hashes whose classes were reported since they were allocated.
+    */
+   private void recordOutcomes(Store store) {
+      if (store.pending.isEmpty()) {
+         return;
+      }
+      // Pending classes allocated together share the reports written since their allocation.
+      final Map<Long, TestHistory> histories = new HashMap<>();
+      store.pending.entrySet().removeIf(entry -> {
+         TestHistory.MethodResult result = histories
+               .computeIfAbsent(entry.getValue().allocated, since -> TestHistory.load(reportsDirectory, since))
+               .testClass(entry.getKey());
+         if (result.getInvocations() == 0) {
+            return false;
+         }
+         if (result.getFailures() == 0) {
+            store.passed.put(entry.getKey(), entry.getValue().hash);
+         } else {
+            store.passed.remove(entry.getKey());
+         }
+         return true;
+      });
+   }
+
+   private Hashes resolve() {
+      if (hashes == null) {
+         final ClassDependencyGraph graph = ClassDependencyGraph.build(classDirectories, graphCacheFile);
+         final MessageDigest environment = sha256();
+         classDirectories.forEach(directory -> digestResources(environment, directory.toPath()));
+         libraries.forEach(library ->
+               update(environment, library.getName() + ":" + library.length() + "\n"));
+         hashes = new Hashes(graph, HexFormat.of().formatHex(environment.digest()));
+      }
+      return hashes;
+   }
+
+   private static void digestResources(MessageDigest digest, Path directory) {
+      if (!Files.isDirectory(directory)) {
+         return;
+      }
+      try (Stream<Path> files = Files.walk(directory)) {
+         for (Path file : files.filter(Files::isRegularFile)
+               .filter(path -> !path.toString().endsWith(".class"))
+               .sorted()
+               .toList()) {
+            update(digest, directory.relativize(file).toString().replace(File.separatorChar, '/') + "\n");
+            digest.update(Files.readAllBytes(file));
+         }
+      } catch (IOException e) {
+         throw new UncheckedIOException("Failed to read resources of " + directory, e);
+      }
+   }
+
+   private Store readStore() {
+      if (!storeFile.isFile()) {
+         return new Store();
+      }
+      try (Reader reader = Files.newBufferedReader(storeFile.toPath(), StandardCharsets.UTF_8)) {
+         Store store = new Gson().fromJson(reader, Store.class);
+         return store != null && store.version == STORE_VERSION && store.passed != null && store.pending != null
+               ? store
+               : new Store();
+      } catch (IOException | JsonParseException e) {
+         return new Store();
+      }
+   }
+
+   private void writeStore(Store store) {
+      try {
+         File parent = storeFile.getAbsoluteFile().getParentFile();
+         if (parent != null) {
+            Files.createDirectories(parent.toPath());
+         }
+         try (Writer writer = Files.newBufferedWriter(storeFile.toPath(), StandardCharsets.UTF_8)) {
+            new Gson().toJson(store, writer);
+         }
+      } catch (IOException e) {
+         throw new UncheckedIOException("Failed to write test result cache: " + storeFile, e);
+      }
+   }
+
+   private static MessageDigest sha256() {
+      try {
+         return MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+         throw new IllegalStateException("SHA-256 is not available", e);
+      }
+   }
+
+   private static void update(MessageDigest digest, String text) {
+      digest.update(text.getBytes(StandardCharsets.UTF_8));
+   }
+
+   /**
+    * Content hashes of the classes of the graph, resolved once.
+    */
+   private static final class Hashes {
+
+      private final ClassDependencyGraph graph;
+      private final String environment;
+      private final Map<String, String> classHashes = new HashMap<>();
+
+      private Hashes(ClassDependencyGraph graph, String environment) {
+         this.graph = graph;
+         this.environment = environment;
+      }
+
+      /**
+       * Hashes a test class with the classes it depends on and the environment.
+       *
+       * @return the content hash, or {@code null} if the class is not part of the graph
+       */
+      private String hashOf(String testClass) {
+         if (!graph.contains(testClass)) {
+            return null;
+         }
+         final MessageDigest digest = sha256();
+         update(digest, STORE_VERSION + ":" + environment + "\n");
+         for (String name : new TreeSet<>(graph.dependenciesOf(testClass))) {
+            update(digest, name + ":" + classHashes.computeIfAbsent(name, this::hashClass) + "\n");
+         }
+         return HexFormat.of().formatHex(digest.digest());
+      }
+
+      private String hashClass(String className) {
+         final File classFile = graph.classFile(className);
+         try {
+            return HexFormat.of().formatHex(sha256().digest(Files.readAllBytes(classFile.toPath())));
+         } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read class file: " + classFile, e);
+         }
+      }
+   }
+
+   /**
+    * Content of the store file.
+    */
+   private static final class Store {
+
+      private int version = STORE_VERSION;
+      private final Map<String, String> passed = new TreeMap<>();
+      private final Map<String, Pending> pending = new TreeMap<>();
+   }
+
+   /**
+    * Hash of a test class allocated without a known outcome.
+    */
+   private static final class Pending {
+
+      private final String hash;
+      private final long allocated;
+
+      private Pending(String hash, long allocated) {
+         this.hash = hash;
+         this.allocated = allocated;
+      }
+   }
+
+}
@@ -0,0 +1,66 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The counted tests of a project, ready to be packed into buckets.
+ *
+ * <p>Holds everything bucketing needs besides the limits: the method counts per unit, how the units are
+ * executed, and which units must share a bucket.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+@AllArgsConstructor
+@Getter
+public class AllocationScan {
+
+   /**
+    * Test method counts per class or other allocated unit.
+    */
+   private final Map<String, Integer> classMethodCounts;
+
+   /**
+    * Model estimating the cost of the units.
+    */
+   private final ExecutionCostModel costModel;
+
+   /**
+    * Sets of units that must be executed in the same bucket.
+    */
+   private final List<Set<String>> inseparableClasses;
+
+   /**
+    * Combines this scan with the scan of other units, each unit keeping the cost of the model it was
+    * counted with.
+    *
+    * @param other The scan of units not counted by this scan.
+    * @return The scan of the units of both scans.
+    */
+   public AllocationScan merge(AllocationScan other) {
+      final Map<String, Integer> counts = new LinkedHashMap<>(classMethodCounts);
+      counts.putAll(other.classMethodCounts);
+
+      final Map<String, ExecutionConcurrency> concurrencyByUnit = new HashMap<>();
+      classMethodCounts.keySet().forEach(unit -> concurrencyByUnit.put(unit, costModel.concurrencyOf(unit)));
+      other.classMethodCounts.keySet().forEach(unit ->
+            concurrencyByUnit.put(unit, other.costModel.concurrencyOf(unit)));
+
+      final List<Set<String>> inseparable = new ArrayList<>(inseparableClasses);
+      inseparable.addAll(other.inseparableClasses);
+      return new AllocationScan(
+            counts,
+            new ExecutionCostModel(concurrencyByUnit, ExecutionConcurrency.sequential()),
+            inseparable
+      );
+   }
+
+}
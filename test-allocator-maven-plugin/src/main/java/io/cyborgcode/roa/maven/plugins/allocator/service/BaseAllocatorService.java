@@ -1,23 +1,44 @@
 package io.cyborgcode.roa.maven.plugins.allocator.service;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import io.cyborgcode.roa.maven.plugins.allocator.cache.AllocatorCaches;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
 import io.cyborgcode.roa.maven.plugins.allocator.discovery.ClassFileDiscovery;
 import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestJarDiscovery;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestClassPatterns;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestMethodFilter;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.BucketOrder;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.BudgetSelection;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.PackingUnit;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.Shard;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.StickyBucketAllocator;
 import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
 import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucketAllocator;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import io.cyborgcode.roa.maven.plugins.allocator.impact.TestImpactAnalysis;
+import io.cyborgcode.roa.maven.plugins.allocator.impact.TestResultCache;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.Writer;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 
@@ -49,6 +70,15 @@ public abstract class BaseAllocatorService implements TestAllocatorService {
       this.log = log;
    }
 
+   /**
+    * Returns the logger used to record allocation details.
+    *
+    * @return The Maven logger instance.
+    */
+   protected Log getLog() {
+      return log;
+   }
+
    /**
     * Allocates test classes into execution buckets based on the given configuration.
     *
@@ -56,8 +86,9 @@ public abstract class BaseAllocatorService implements TestAllocatorService {
     * <ul>
     *   <li>Loads test classes from the specified test output directory.</li>
     *   <li>Counts test methods per class.</li>
+    *   <li>Keeps classes that depend on each other together in one packing unit.</li>
     *   <li>Groups test classes into execution buckets based on the configuration.</li>
-    *   <li>Writes the allocated test groups to a JSON output file.</li>
+    *   <li>Writes the allocated test groups, with engine-specific attributes, to a JSON output file.</li>
     * </ul>
     *
     * @param configuration The test allocation configuration.
@@ -66,34 +97,377 @@ public abstract class BaseAllocatorService implements TestAllocatorService {
    @Override
    public void allocateTests(final TestSplitterConfiguration configuration) throws MojoExecutionException {
       TestClassLoader testClassLoader = TestClassLoader.from(configuration);
-      List<File> classFiles = ClassFileDiscovery.findClassFiles(configuration.getTestOutputDirectory());
+      List<File> classFiles = findClassFiles(configuration);
 
       log.info("[TestSplitter] Found " + classFiles.size() + " class files.");
 
-      Map<String, Integer> classMethodCounts = calculateClassMethodCounts(
+      Map<String, Integer> classMethodCounts = selectImpactedTests(calculateClassMethodCounts(
+            classFiles,
+            testClassLoader,
+            configuration
+      ), configuration);
+
+      allocate(classMethodCounts, testClassLoader, configuration, configuration.getJsonOutputFile());
+   }
+
+   /**
+    * Counts the tests of a project and resolves how they are executed, without allocating them.
+    *
+    * <p>Used when the units of several projects are packed together, such as across the modules of a
+    * reactor. Cached results, sticky jobs, the time budget and the failures order are not applied.
+    *
+    * @param configuration The test allocation configuration.
+    * @return The method counts, cost model and inseparable classes of the project.
+    */
+   public AllocationScan scan(final TestSplitterConfiguration configuration) {
+      TestClassLoader testClassLoader = TestClassLoader.from(configuration);
+      List<File> classFiles = findClassFiles(configuration);
+
+      Map<String, Integer> classMethodCounts = selectImpactedTests(calculateClassMethodCounts(
             classFiles,
             testClassLoader,
             configuration
+      ), configuration);
+
+      return new AllocationScan(
+            classMethodCounts,
+            createCostModel(classMethodCounts, testClassLoader, configuration),
+            findInseparableClasses(classMethodCounts, testClassLoader, configuration)
       );
+   }
+
+   /**
+    * Counts the tests of a project and keeps those of one shard, without writing a manifest.
+    *
+    * <p>Used by runners that select their own tests: every runner scans the same tests and keeps its shard, so
+    * no manifest needs to be passed between jobs.
+    *
+    * @param configuration The test allocation configuration.
+    * @param shard         The shard to keep.
+    * @param packed        {@code true} to pack the units by estimated cost, {@code false} to assign them by
+    *                      hashing their names.
+    * @return The bucket of the shard.
+    */
+   public TestBucket selectShard(final TestSplitterConfiguration configuration, final Shard shard,
+                                 final boolean packed) {
+      final AllocationScan allocationScan = scan(configuration);
+      final List<PackingUnit> units =
+            PackingUnit.of(allocationScan.getClassMethodCounts(), allocationScan.getInseparableClasses());
+      final TestBucket bucket = packed
+            ? shard.packed(units, allocationScan.getCostModel())
+            : shard.hashed(units, allocationScan.getCostModel());
+
+      log.info(String.format("[TestSplitter] Shard %s (%s): %d of %d test classes, estimated duration=%.2f",
+            shard, packed ? "packed" : "hashed", bucket.getClassNames().size(),
+            allocationScan.getClassMethodCounts().size(), bucket.getEstimatedCost()));
+      return bucket;
+   }
 
-      int classSize = classMethodCounts.size();
+   /**
+    * Finds the class files of the test output directory and the classes of the dependency JARs to scan.
+    *
+    * <p>Classes of dependency JARs are located at the path they would have in the test output directory, so
+    * engines resolve them like compiled test classes. A class compiled into the test output directory
+    * shadows a class of the same name in a JAR. Classes rejected by the include and exclude patterns of the
+    * runner plugin are dropped by path, before any of them is read. Classes also compiled into a preceding
+    * test root are skipped, as they are allocated with that root.
+    *
+    * @param configuration The test allocation configuration.
+    * @return The class files to count.
+    */
+   protected List<File> findClassFiles(TestSplitterConfiguration configuration) {
+      final File testOutputDirectory = configuration.getTestOutputDirectory();
+      final Set<File> classFiles = new LinkedHashSet<>(ClassFileDiscovery.findClassFiles(testOutputDirectory));
+      final List<File> jars = configuration.getDependenciesToScan();
+      if (jars != null && !jars.isEmpty()) {
+         final List<File> jarClassFiles = TestJarDiscovery.findClassFiles(jars, testOutputDirectory);
+         log.info(String.format("[TestSplitter] Scanned %d dependency JARs with %d classes",
+               jars.size(), jarClassFiles.size()));
+         classFiles.addAll(jarClassFiles);
+      }
+
+      final TestClassPatterns patterns = configuration.getTestClassPatterns();
+      if (patterns != null) {
+         final Path root = testOutputDirectory.toPath();
+         final int before = classFiles.size();
+         classFiles.removeIf(classFile -> !patterns.matches(
+               root.relativize(classFile.toPath()).toString().replace(File.separatorChar, '/')));
+         log.info(String.format("[TestSplitter] Selected %d of %d class files by the runner patterns",
+               classFiles.size(), before));
+      }
+
+      final List<File> precedingRoots = configuration.getPrecedingTestRoots();
+      if (precedingRoots != null && !precedingRoots.isEmpty()) {
+         final Path root = testOutputDirectory.toPath();
+         final int before = classFiles.size();
+         classFiles.removeIf(classFile -> {
+            Path relative = root.relativize(classFile.toPath());
+            return precedingRoots.stream()
+                  .anyMatch(preceding -> preceding.toPath().resolve(relative).toFile().isFile());
+         });
+         if (classFiles.size() < before) {
+            log.info(String.format("[TestSplitter] Skipped %d classes allocated with a preceding test root",
+                  before - classFiles.size()));
+         }
+      }
+      return new ArrayList<>(classFiles);
+   }
+
+   /**
+    * Keeps the counted classes affected by the changes of the git working tree, if impact selection is enabled.
+    *
+    * <p>With a time budget, all classes are kept, as the affected ones are valued higher instead.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param configuration     The test allocation configuration.
+    * @return The counts of the affected classes, or all counts if every test may be affected.
+    */
+   protected Map<String, Integer> selectImpactedTests(Map<String, Integer> classMethodCounts,
+                                                      TestSplitterConfiguration configuration) {
+      final TestImpactAnalysis impactAnalysis = configuration.getImpactAnalysis();
+      if (impactAnalysis == null || configuration.getTimeBudget() > 0) {
+         return classMethodCounts;
+      }
+      final TestImpactAnalysis.Selection selection = impactAnalysis.select(classMethodCounts.keySet());
+      if (selection.isAll()) {
+         log.info(String.format("[TestSplitter] Allocating all %d test classes, %s",
+               classMethodCounts.size(), selection.getFallbackReason()));
+         return classMethodCounts;
+      }
+      final Map<String, Integer> selected = new HashMap<>(classMethodCounts);
+      selected.keySet().retainAll(selection.getTests());
+      log.info(String.format("[TestSplitter] Impact of %d changed classes: allocating %d of %d test classes",
+            selection.getChangedClasses(), selected.size(), classMethodCounts.size()));
+      return selected;
+   }
+
+   /**
+    * Leaves out the counted classes that passed with their current content, if the result cache is enabled.
+    *
+    * <p>The skipped classes are written with their content hashes to {@code <jsonOutputFile>-cached.json}. A
+    * skipped class that must share a bucket with a class that runs is kept.
+    *
+    * @param classMethodCounts  The calculated method counts per class.
+    * @param inseparableClasses The sets of counted classes that must share a bucket.
+    * @param configuration      The test allocation configuration.
+    * @param jsonOutputFile     The manifest path stem of the allocation.
+    * @return The counts of the classes to run.
+    * @throws MojoExecutionException If the cached classes cannot be written.
+    */
+   protected Map<String, Integer> skipCachedTests(Map<String, Integer> classMethodCounts,
+                                                  List<Set<String>> inseparableClasses,
+                                                  TestSplitterConfiguration configuration,
+                                                  String jsonOutputFile) throws MojoExecutionException {
+      final TestResultCache resultCache = configuration.getResultCache();
+      if (resultCache == null) {
+         return classMethodCounts;
+      }
+      final Map<String, String> cached = new TreeMap<>(resultCache.lookup(classMethodCounts.keySet()));
+      for (Set<String> group : cached.isEmpty() ? List.<Set<String>>of() : inseparableClasses) {
+         if (!cached.keySet().containsAll(group)) {
+            cached.keySet().removeAll(group);
+         }
+      }
+      final Map<String, Integer> remaining = new HashMap<>(classMethodCounts);
+      remaining.keySet().removeAll(cached.keySet());
+      log.info(String.format("[TestSplitter] Result cache: skipping %d of %d test classes that passed unchanged",
+            cached.size(), classMethodCounts.size()));
+      writeJson(cached, jsonOutputFile + "-cached");
+      return remaining;
+   }
+
+   /**
+    * Groups counted classes into execution buckets and writes them to a manifest.
+    *
+    * <p>Classes that passed with their current content are left out first, if the result cache is enabled.
+    * With a time budget, only the most valuable classes fitting the budget of the runners are allocated.
+    * With sticky allocation, classes then stay in the jobs of the previous manifest where balance allows.
+    * Finally, the classes of each job may be ordered so that recently failing ones run first.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param testClassLoader   The test class loader for dynamically loading test classes.
+    * @param configuration     The test allocation configuration.
+    * @param jsonOutputFile    The manifest path stem; {@code .json} is appended.
+    * @throws MojoExecutionException If the manifest cannot be written.
+    */
+   protected void allocate(Map<String, Integer> classMethodCounts,
+                           TestClassLoader testClassLoader,
+                           TestSplitterConfiguration configuration,
+                           String jsonOutputFile) throws MojoExecutionException {
+      // Cached classes leave whole inseparable sets, so the sets of the remaining classes stay valid.
+      final List<Set<String>> inseparable =
+            findInseparableClasses(classMethodCounts, testClassLoader, configuration);
+      final Map<String, Integer> counts =
+            skipCachedTests(classMethodCounts, inseparable, configuration, jsonOutputFile);
+      int classSize = counts.size();
       log.info("[TestSplitter] classMethodCount size=" + classSize);
 
-      List<TestBucket> buckets;
+      ExecutionCostModel costModel = createCostModel(counts, testClassLoader, configuration);
+      List<PackingUnit> units = PackingUnit.of(
+            counts,
+            inseparable.stream().filter(group -> counts.keySet().containsAll(group)).toList()
+      );
+      List<TestBucket> buckets = configuration.getTimeBudget() > 0
+            ? selectWithinBudget(counts, units, testClassLoader, configuration, costModel, jsonOutputFile)
+            : TestBucketAllocator.allocate(
+                  units,
+                  configuration.getMaxNumberOfParallelRunners(),
+                  configuration.getMaxMethodsPerBucket(),
+                  costModel
+            );
+      if (configuration.isSticky()) {
+         buckets = keepPreviousJobs(units, buckets, configuration, costModel, jsonOutputFile);
+      }
+      if (configuration.isFailuresFirst()) {
+         buckets = BucketOrder.failuresFirst(buckets, units,
+               cachesOf(configuration).history(configuration.getReportsDirectory()), costModel);
+      }
+
+      log.info(String.format("[TestSplitter] Created %d buckets, longest estimated duration=%.2f",
+            buckets.size(), buckets.stream().mapToDouble(TestBucket::getEstimatedCost).max().orElse(0)));
+
+      writeGroupedTestsToFile(buckets, describeBuckets(buckets, configuration), jsonOutputFile);
+   }
 
-      if (classSize <= configuration.getMaxNumberOfParallelRunners()) {
-         buckets = new ArrayList<>();
-         classMethodCounts.forEach((key, value) ->
-               buckets.add(new TestBucket(List.of(key), value))
-         );
-      } else {
-         buckets = TestBucketAllocator.groupClasses(
-               classMethodCounts,
-               configuration.getMaxMethodsPerBucket()
-         );
+   /**
+    * Allocates the most valuable classes that fit the time budget of the runners and reports the others.
+    *
+    * <p>Classes are valued by their failure rate in the history reports, by the impact of the changes of the
+    * git working tree, if impact selection is enabled, and by their priority tags. The budget is converted
+    * from seconds into method-time units by the mean recorded duration of a test method, or one second per
+    * method without history. The deferred classes are written, most valuable first, to
+    * {@code <jsonOutputFile>-deferred.json}.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param units             The packing units of the allocation.
+    * @param testClassLoader   The test class loader for dynamically loading test classes.
+    * @param configuration     The test allocation configuration.
+    * @param costModel         The model used to estimate unit and bucket costs.
+    * @param jsonOutputFile    The manifest path stem of the allocation.
+    * @return The buckets of the selected classes, at most one per runner.
+    * @throws MojoExecutionException If the deferred classes cannot be written.
+    */
+   private List<TestBucket> selectWithinBudget(Map<String, Integer> classMethodCounts, List<PackingUnit> units,
+                                               TestClassLoader testClassLoader,
+                                               TestSplitterConfiguration configuration,
+                                               ExecutionCostModel costModel, String jsonOutputFile)
+         throws MojoExecutionException {
+      final TestHistory history = cachesOf(configuration).history(configuration.getReportsDirectory());
+      double secondsPerMethod = BudgetSelection.secondsPerMethod(history);
+      if (secondsPerMethod <= 0) {
+         log.info("[TestSplitter] Time budget: no recorded durations, assuming one second per test method");
+         secondsPerMethod = 1;
+      }
+      final Set<String> priorityTags = configuration.getPriorityTags();
+      final ToDoubleFunction<PackingUnit> valuation = BudgetSelection.valuation(history,
+            impactedTests(classMethodCounts, configuration),
+            priorityTags == null || priorityTags.isEmpty()
+                  ? Set.of()
+                  : findTaggedClasses(classMethodCounts, priorityTags, testClassLoader, configuration));
+      final BudgetSelection.Result result = BudgetSelection.select(units, valuation,
+            configuration.getMaxNumberOfParallelRunners(), configuration.getTimeBudget() / secondsPerMethod,
+            costModel);
+
+      final List<Map<String, Object>> deferred = new ArrayList<>();
+      int deferredClasses = 0;
+      for (PackingUnit unit : result.getDeferred()) {
+         final Map<String, Object> entry = new LinkedHashMap<>();
+         entry.put("classes", unit.getClassNames());
+         entry.put("value", Math.round(valuation.applyAsDouble(unit) * 100.0) / 100.0);
+         entry.put("estimatedSeconds", Math.round(unit.cost(costModel) * secondsPerMethod * 100.0) / 100.0);
+         deferred.add(entry);
+         deferredClasses += unit.getClassNames().size();
+      }
+      log.info(String.format("[TestSplitter] Time budget of %d runners x %ds: selected %d of %d test classes, "
+                  + "value %.1f of %.1f, deferred %d classes",
+            configuration.getMaxNumberOfParallelRunners(), configuration.getTimeBudget(),
+            classMethodCounts.size() - deferredClasses, classMethodCounts.size(),
+            result.getSelectedValue(), result.getTotalValue(), deferredClasses));
+      writeJson(deferred, jsonOutputFile + "-deferred");
+      return result.getBuckets();
+   }
+
+   /**
+    * Finds the counted classes affected by the changes of the git working tree, if impact selection is enabled.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param configuration     The test allocation configuration.
+    * @return The affected classes, or none if impact selection is disabled or every test may be affected.
+    */
+   private Set<String> impactedTests(Map<String, Integer> classMethodCounts,
+                                     TestSplitterConfiguration configuration) {
+      final TestImpactAnalysis impactAnalysis = configuration.getImpactAnalysis();
+      if (impactAnalysis == null) {
+         return Set.of();
       }
+      final TestImpactAnalysis.Selection selection = impactAnalysis.select(classMethodCounts.keySet());
+      if (selection.isAll()) {
+         log.info(String.format("[TestSplitter] Time budget: valuing no test class as impacted, %s",
+               selection.getFallbackReason()));
+         return Set.of();
+      }
+      log.info(String.format("[TestSplitter] Impact of %d changed classes: valuing %d of %d test classes higher",
+            selection.getChangedClasses(), selection.getTests().size(), classMethodCounts.size()));
+      return selection.getTests();
+   }
 
-      writeGroupedTestsToFile(buckets, configuration.getJsonOutputFile());
+   /**
+    * Moves as few classes as possible away from the jobs of the previous manifest.
+    *
+    * <p>The previous manifest is the one at the output path, about to be overwritten. Without it, the fresh
+    * buckets are kept.
+    *
+    * @param units          The packing units of the allocation.
+    * @param fresh          The buckets allocated without regard to the previous manifest.
+    * @param configuration  The test allocation configuration.
+    * @param costModel      The model used to estimate unit and bucket costs.
+    * @param jsonOutputFile The manifest path stem of the allocation.
+    * @return The buckets, in job order.
+    */
+   private List<TestBucket> keepPreviousJobs(List<PackingUnit> units, List<TestBucket> fresh,
+                                             TestSplitterConfiguration configuration,
+                                             ExecutionCostModel costModel, String jsonOutputFile) {
+      final Map<String, Integer> previous = readPreviousJobs(Path.of(jsonOutputFile + ".json"));
+      if (previous.isEmpty()) {
+         log.info("[TestSplitter] Sticky allocation: no previous manifest, allocating fresh");
+         return fresh;
+      }
+      final StickyBucketAllocator.Result result = StickyBucketAllocator.allocate(
+            units, previous, fresh, configuration.getStickyTolerance(), costModel);
+      final StickyBucketAllocator.Churn churn = result.getChurn();
+      log.info(String.format("[TestSplitter] Sticky allocation: moved %d of %d previous classes (%d added, "
+                  + "%d removed), longest estimated duration=%.2f vs %.2f fresh",
+            churn.getMoved(), previous.size(), churn.getAdded(), churn.getRemoved(),
+            result.getBuckets().stream().mapToDouble(TestBucket::getEstimatedCost).max().orElse(0),
+            result.getFreshCost()));
+      return result.getBuckets();
+   }
+
+   /**
+    * Reads the job index of every class of a manifest.
+    *
+    * @param manifest The manifest file.
+    * @return The job index per class, or an empty map if the manifest is missing or unreadable.
+    */
+   static Map<String, Integer> readPreviousJobs(Path manifest) {
+      if (!Files.isRegularFile(manifest)) {
+         return Map.of();
+      }
+      try (Reader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+         final List<PreviousJob> jobs = new Gson().fromJson(reader, new TypeToken<List<PreviousJob>>() {
+         }.getType());
+         final Map<String, Integer> previous = new HashMap<>();
+         if (jobs != null) {
+            for (PreviousJob job : jobs) {
+               if (job != null && job.classes != null) {
+                  job.classes.forEach(className -> previous.putIfAbsent(className, job.jobIndex));
+               }
+            }
+         }
+         return previous;
+      } catch (IOException | JsonParseException e) {
+         return Map.of();
+      }
    }
 
    /**
@@ -111,39 +485,146 @@ public abstract class BaseAllocatorService implements TestAllocatorService {
                                                                    TestClassLoader testClassLoader,
                                                                    TestSplitterConfiguration config);
 
+   /**
+    * Creates the model used to estimate how long classes and buckets take on a runner.
+    *
+    * <p>The default model is sequential: every test method costs one unit of time. Engines that know
+    * how their tests are executed concurrently override this to reflect the effective concurrency.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param testClassLoader   The test class loader for dynamically loading test classes.
+    * @param config            The test allocation configuration.
+    * @return The cost model used for bucketing.
+    */
+   protected ExecutionCostModel createCostModel(Map<String, Integer> classMethodCounts,
+                                                TestClassLoader testClassLoader,
+                                                TestSplitterConfiguration config) {
+      return ExecutionCostModel.sequential();
+   }
+
+   /**
+    * Finds sets of classes that must be executed in the same bucket.
+    *
+    * <p>The default implementation returns no sets, so every class can be placed independently.
+    * Engines whose tests can depend on tests of other classes override this to keep those classes together.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param testClassLoader   The test class loader for dynamically loading test classes.
+    * @param config            The test allocation configuration.
+    * @return Sets of class names that must share a bucket.
+    */
+   protected List<Set<String>> findInseparableClasses(Map<String, Integer> classMethodCounts,
+                                                      TestClassLoader testClassLoader,
+                                                      TestSplitterConfiguration config) {
+      return List.of();
+   }
+
+   /**
+    * Finds the classes whose tests carry any of the given tags.
+    *
+    * <p>The default implementation reads the JUnit tags and categories of the test methods of each class.
+    * Engines tagging tests otherwise override this.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param tags              The tags to look for.
+    * @param testClassLoader   The test class loader for dynamically loading test classes.
+    * @param config            The test allocation configuration.
+    * @return The names of the classes with a test carrying any of the tags.
+    */
+   protected Set<String> findTaggedClasses(Map<String, Integer> classMethodCounts,
+                                           Set<String> tags,
+                                           TestClassLoader testClassLoader,
+                                           TestSplitterConfiguration config) {
+      final Set<String> tagged = new HashSet<>();
+      for (String className : classMethodCounts.keySet()) {
+         final Class<?> clazz = testClassLoader.loadClass(className);
+         if (clazz != null && TestMethodFilter.extractTestMethodTags(clazz).values().stream()
+               .anyMatch(methodTags -> !Collections.disjoint(methodTags, tags))) {
+            tagged.add(className);
+         }
+      }
+      return tagged;
+   }
+
+   /**
+    * Produces engine-specific attributes for the manifest entries of the buckets.
+    *
+    * <p>The default implementation adds nothing. Engines that need more than class names to run a bucket
+    * override this, for example to write a suite file per bucket and reference it from the manifest.
+    *
+    * @param buckets The allocated buckets, in job order.
+    * @param config  The test allocation configuration.
+    * @return Additional attributes per job index; jobs beyond the end of the list get none.
+    * @throws MojoExecutionException If the attributes cannot be produced.
+    */
+   protected List<Map<String, Object>> describeBuckets(List<TestBucket> buckets,
+                                                       TestSplitterConfiguration config)
+         throws MojoExecutionException {
+      return List.of();
+   }
+
    /**
     * Writes the grouped test allocation results to a JSON file.
     *
+    * <p>Jobs without classes, which sticky allocation keeps so that later jobs keep their index, are marked
+    * {@code empty}: an empty class selector would make Surefire run every test.
+    *
     * @param buckets    List of test execution buckets.
+    * @param attributes Engine-specific attributes per job index.
     * @param outPutFile The output file path for storing test allocation details.
     * @throws MojoExecutionException If an error occurs while writing to the file.
     */
-   private void writeGroupedTestsToFile(List<TestBucket> buckets, String outPutFile) throws MojoExecutionException {
+   private void writeGroupedTestsToFile(List<TestBucket> buckets,
+                                        List<Map<String, Object>> attributes,
+                                        String outPutFile) throws MojoExecutionException {
       List<Map<String, Object>> output = new ArrayList<>();
       for (int i = 0; i < buckets.size(); i++) {
          TestBucket b = buckets.get(i);
          Map<String, Object> jobObj = new HashMap<>();
+         if (i < attributes.size()) {
+            jobObj.putAll(attributes.get(i));
+         }
          jobObj.put("jobIndex", i);
          jobObj.put("classes", b.getClassNames());
          jobObj.put("totalMethods", b.getTotalMethods());
+         jobObj.put("estimatedDuration", Math.round(b.getEstimatedCost() * 100.0) / 100.0);
+         if (b.getClassNames().isEmpty()) {
+            jobObj.put("empty", true);
+         }
          output.add(jobObj);
       }
 
-      Path outPath = Paths.get(outPutFile + ".json");
-      try {
-         Path parent = outPath.getParent();
-         if (parent != null) {
-            Files.createDirectories(parent);
-         }
+      writeJson(output, outPutFile);
+   }
 
-         try (Writer writer = Files.newBufferedWriter(outPath, StandardCharsets.UTF_8)) {
-            new Gson().toJson(output, writer);
-         }
-      } catch (IOException e) {
-         throw new MojoExecutionException("Failed to write grouped-tests.json", e);
-      }
+   /**
+    * Returns the caches of the session the allocation runs in.
+    *
+    * @param config The test allocation configuration.
+    * @return The configured caches, or caches of this allocation alone if none are configured.
+    */
+   protected static AllocatorCaches cachesOf(TestSplitterConfiguration config) {
+      return config.getCaches() == null ? new AllocatorCaches() : config.getCaches();
+   }
+
+   /**
+    * Writes content as JSON, creating parent directories as needed.
+    *
+    * @param content    The content to serialize.
+    * @param outPutFile The output path stem; {@code .json} is appended.
+    * @throws MojoExecutionException If an error occurs while writing to the file.
+    */
+   protected void writeJson(Object content, String outPutFile) throws MojoExecutionException {
+      ManifestWriter.write(content, outPutFile, log);
+   }
+
+   /**
+    * Job of a previous manifest, as far as sticky allocation reads it.
+    */
+   private static final class PreviousJob {
 
-      log.info("[TestSplitter] Wrote " + outPath.toAbsolutePath());
+      private int jobIndex;
+      private List<String> classes;
    }
 
 }
@@ -0,0 +1,145 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationCucumber;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.FeatureFileParser;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.FeatureScenario;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TagExpression;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Allocates Cucumber scenarios into execution groups.
+ *
+ * <p>Splitting by runner class is useless for Cucumber, where one class runs every feature. This service
+ * reads the {@code .feature} files instead, and allocates each scenario, and each example row of a
+ * Scenario Outline, as its own unit. Units are named by their {@code path:line} selector relative to the
+ * project root, so the {@code classes} of a job can be passed to Cucumber as {@code cucumber.features}.
+ *
+ * <p>Every scenario weighs one unit. When the reports of a previous run record a feature, its scenarios are
+ * weighed by the feature's mean scenario duration relative to the mean of all recorded scenarios.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public class CucumberAllocatorService extends BaseAllocatorService {
+
+   /**
+    * Tags of the selected scenarios, per selector.
+    */
+   private final Map<String, Set<String>> tagsBySelector = new HashMap<>();
+
+   /**
+    * Constructs a new {@code CucumberAllocatorService} instance.
+    *
+    * @param log The Maven logger instance for recording allocation details.
+    */
+   public CucumberAllocatorService(final Log log) {
+      super(log);
+   }
+
+   /**
+    * Calculates the weight of every Cucumber scenario matching the tag expression.
+    *
+    * <p>Compiled classes are not inspected; the feature files are parsed in parallel instead.
+    *
+    * @param classFiles      List of test class files, not used.
+    * @param testClassLoader The test class loader, not used.
+    * @param config          The Cucumber-specific test allocation configuration.
+    * @return A mapping of {@code path:line} selectors to the weight of their scenario.
+    */
+   @Override
+   @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST")
+   public Map<String, Integer> calculateClassMethodCounts(List<File> classFiles,
+                                                          TestClassLoader testClassLoader,
+                                                          TestSplitterConfiguration config) {
+      final TestSplitterConfigurationCucumber configCucumber = (TestSplitterConfigurationCucumber) config;
+      final TagExpression tagExpression = TagExpression.parse(configCucumber.getTagExpression());
+      final List<Path> featureFiles = FeatureFileParser.findFeatureFiles(configCucumber.getFeaturesDirectory());
+      final List<FeatureScenario> scenarios = FeatureFileParser.parseAll(featureFiles);
+
+      final Path projectRoot = configCucumber.getProjectRoot() == null
+            ? null
+            : Paths.get(configCucumber.getProjectRoot());
+      final DurationWeights weights = new DurationWeights(
+            cachesOf(configCucumber).history(configCucumber.getReportsDirectory()));
+      final Map<String, Integer> counts = new HashMap<>();
+      tagsBySelector.clear();
+      for (FeatureScenario scenario : scenarios) {
+         if (tagExpression.matches(scenario.getTags())) {
+            String selector = scenario.selector(projectRoot);
+            counts.put(selector, weights.of(scenario));
+            tagsBySelector.put(selector, scenario.getTags());
+         }
+      }
+
+      getLog().info(String.format("[TestSplitter] Selected %d of %d scenarios from %d feature files",
+            counts.size(), scenarios.size(), featureFiles.size()));
+      return counts;
+   }
+
+   /**
+    * Finds the scenarios carrying any of the given tags, with or without their leading {@code @}.
+    *
+    * @param classMethodCounts The calculated weights per scenario selector.
+    * @param tags              The tags to look for.
+    * @param testClassLoader   The test class loader, not used.
+    * @param config            The Cucumber-specific test allocation configuration.
+    * @return The selectors of the scenarios carrying any of the tags.
+    */
+   @Override
+   protected Set<String> findTaggedClasses(Map<String, Integer> classMethodCounts,
+                                           Set<String> tags,
+                                           TestClassLoader testClassLoader,
+                                           TestSplitterConfiguration config) {
+      final Set<String> scenarioTags = new HashSet<>();
+      tags.forEach(tag -> scenarioTags.add(tag.startsWith("@") ? tag : "@" + tag));
+      final Set<String> tagged = new HashSet<>();
+      for (String selector : classMethodCounts.keySet()) {
+         if (!Collections.disjoint(tagsBySelector.getOrDefault(selector, Set.of()), scenarioTags)) {
+            tagged.add(selector);
+         }
+      }
+      return tagged;
+   }
+
+   /**
+    * Weighs scenarios by the recorded durations of their feature.
+    */
+   private static final class DurationWeights {
+
+      private final TestHistory history;
+      private final double meanDuration;
+
+      private DurationWeights(TestHistory history) {
+         this.history = history;
+         int invocations = 0;
+         double duration = 0;
+         for (TestHistory.MethodResult result : history.getMethods().values()) {
+            invocations += result.getInvocations();
+            duration += result.getDuration();
+         }
+         this.meanDuration = invocations == 0 ? 0 : duration / invocations;
+      }
+
+      private int of(FeatureScenario scenario) {
+         final TestHistory.MethodResult feature = history.testClass(scenario.getFeatureName());
+         if (meanDuration <= 0 || feature.getInvocations() == 0) {
+            return 1;
+         }
+         return Math.max(1, (int) Math.round(feature.getDuration() / feature.getInvocations() / meanDuration));
+      }
+
+   }
+
+}
@@ -1,16 +1,29 @@
 package io.cyborgcode.roa.maven.plugins.allocator.service;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.cyborgcode.roa.maven.plugins.allocator.cache.TestInventoryCache;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TagProfile;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationJunit;
-import io.cyborgcode.roa.maven.plugins.allocator.discovery.ClassFileDiscovery;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.JunitPlatformConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.DiscoveredTest;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.JunitPlatformDiscovery;
 import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
-import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestMethodFilter;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestTagInventory;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 
 /**
@@ -19,11 +32,30 @@ import org.apache.maven.plugin.logging.Log;
  * <p>This service extends {@link BaseAllocatorService} and applies JUnit-specific filtering rules,
  * such as including/excluding test methods based on tags and handling parallel execution settings.
  *
+ * <p>With launcher discovery enabled, tests of every JUnit Platform engine are discovered once by
+ * {@link JunitPlatformDiscovery}. Each job of the manifest then lists the unique IDs of its tests under
+ * {@code uniqueIds}, so runners can select them directly instead of discovering again.
+ *
+ * <p>Tests found by reflection can be kept in the {@link TestInventoryCache} of the JVM, so repeated
+ * allocations in a Maven daemon only load the test classes changed since the previous build.
+ *
  * @author Cyborg Code Syndicate 💍👨💻
  */
 @SuppressWarnings("java:S1452")
 public class JunitAllocatorService extends BaseAllocatorService {
 
+   private static final String UNIQUE_IDS_ATTRIBUTE = "uniqueIds";
+
+   /**
+    * Unique IDs of the tests found by launcher discovery, per allocated class or container.
+    */
+   private final Map<String, List<String>> uniqueIdsByUnit = new LinkedHashMap<>();
+
+   /**
+    * Indicates whether the tag profile inventory holds launcher unique IDs rather than method names.
+    */
+   private boolean launcherInventory;
+
    /**
     * Constructs a new {@code JUnitAllocatorService} instance.
     *
@@ -33,17 +65,69 @@ public class JunitAllocatorService extends BaseAllocatorService {
       super(log);
    }
 
+   /**
+    * Allocates the tests once per tag profile when profiles are configured.
+    *
+    * <p>Test classes are discovered and their tags extracted once, into a {@link TestTagInventory}. Each
+    * profile's filter is then evaluated against the inventory and allocated into
+    * {@code <json.output>-<profile>.json}, and the number of tests per tag is written to
+    * {@code <json.output>-tags.json}. Without profiles, a single manifest is allocated from the include and
+    * exclude tags.
+    *
+    * @param configuration The JUnit-specific test allocation configuration.
+    * @throws MojoExecutionException If an error occurs during test allocation.
+    */
+   @Override
+   @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST")
+   public void allocateTests(final TestSplitterConfiguration configuration) throws MojoExecutionException {
+      final TestSplitterConfigurationJunit configJunit = (TestSplitterConfigurationJunit) configuration;
+      final List<TagProfile> profiles = configJunit.getTagProfiles();
+      if (profiles == null || profiles.isEmpty()) {
+         super.allocateTests(configuration);
+         return;
+      }
+
+      // Malformed expressions fail before any manifest is written.
+      final List<Predicate<Collection<String>>> tagFilters = profiles.stream().map(TagProfile::tagFilter).toList();
+      final TestClassLoader testClassLoader = TestClassLoader.from(configuration);
+      final List<File> classFiles = findClassFiles(configuration);
+      getLog().info("[TestSplitter] Found " + classFiles.size() + " class files.");
+
+      final TestTagInventory inventory = buildInventory(classFiles, testClassLoader, configJunit);
+      getLog().info(String.format("[TestSplitter] Inventory of %d tests shared by %d tag profiles",
+            inventory.size(), profiles.size()));
+
+      for (int i = 0; i < profiles.size(); i++) {
+         TagProfile profile = profiles.get(i);
+         Predicate<Collection<String>> tagFilter = tagFilters.get(i);
+         Map<String, Integer> counts = selectImpactedTests(
+               inventory.countsFor(tagFilter, configJunit.isParallelMethods()), configuration);
+         uniqueIdsByUnit.clear();
+         if (launcherInventory) {
+            counts.keySet().forEach(unit -> uniqueIdsByUnit.put(unit, inventory.idsFor(unit, tagFilter)));
+         }
+         getLog().info(String.format("[TestSplitter] Profile '%s': include=%s, exclude=%s",
+               profile.getName(), profile.getInclude(), profile.getExclude()));
+         allocate(counts, testClassLoader, configuration,
+               configuration.getJsonOutputFile() + "-" + profile.getName());
+      }
+
+      writeJson(inventory.tagIndex(), configuration.getJsonOutputFile() + "-tags");
+   }
+
    /**
     * Calculates the number of matching test methods per JUnit test class.
     *
     * <p>This method:
     * <ul>
     *   <li>Retrieves the test classes from the provided list of class files.</li>
-    *   <li>Loads each test class using the {@link TestClassLoader}.</li>
+    *   <li>Loads each test class using the {@link TestClassLoader}, unless its tests are cached.</li>
     *   <li>Filters test methods based on include/exclude tags.</li>
     *   <li>Determines if the test class should be treated as parallel or sequential.</li>
     *   <li>Returns a map of class names and their respective test method counts.</li>
     * </ul>
+    * With launcher discovery enabled, the tests found by the JUnit Platform launcher are counted instead,
+    * falling back to the steps above when the launcher is not on the test classpath.
     *
     * @param classFiles      List of test class files.
     * @param testClassLoader The test class loader used to dynamically load test classes.
@@ -58,26 +142,162 @@ public class JunitAllocatorService extends BaseAllocatorService {
          TestSplitterConfiguration config
    ) {
       TestSplitterConfigurationJunit configJunit = (TestSplitterConfigurationJunit) config;
+      uniqueIdsByUnit.clear();
+
+      if (configJunit.isLauncherDiscovery()) {
+         Optional<List<DiscoveredTest>> discovered = discoverWithLauncher(
+               testClassLoader, configJunit, configJunit.getIncludeTags(), configJunit.getExcludeTags());
+         if (discovered.isPresent()) {
+            return countDiscovered(discovered.get(), configJunit);
+         }
+      }
+
+      return reflectInventory(classFiles, testClassLoader, configJunit).countsFor(
+            configJunit.getIncludeTags(),
+            configJunit.getExcludeTags(),
+            configJunit.isParallelMethods()
+      );
+   }
+
+   /**
+    * Lists the unique IDs of the tests of each job when tests were found by launcher discovery.
+    *
+    * @param buckets The allocated buckets, in job order.
+    * @param config  The JUnit-specific test allocation configuration.
+    * @return The {@code uniqueIds} attribute per job, or no attributes after reflection-based counting.
+    */
+   @Override
+   protected List<Map<String, Object>> describeBuckets(List<TestBucket> buckets,
+                                                       TestSplitterConfiguration config) {
+      if (uniqueIdsByUnit.isEmpty()) {
+         return List.of();
+      }
+
+      final List<Map<String, Object>> attributes = new ArrayList<>(buckets.size());
+      for (TestBucket bucket : buckets) {
+         List<String> uniqueIds = new ArrayList<>();
+         for (String unit : bucket.getClassNames()) {
+            uniqueIds.addAll(uniqueIdsByUnit.getOrDefault(unit, List.of()));
+         }
+         attributes.add(uniqueIds.isEmpty() ? Map.of() : Map.of(UNIQUE_IDS_ATTRIBUTE, uniqueIds));
+      }
+      return attributes;
+   }
+
+   /**
+    * Creates a cost model from the JUnit Platform parallel execution settings.
+    *
+    * <p>The {@code junit-platform.properties} file copied into the test output directory defines whether
+    * methods and classes run concurrently and with how many threads. A class-level
+    * {@code @Execution} annotation overrides the default mode for its methods.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param testClassLoader   The test class loader used to inspect class-level annotations.
+    * @param config            The JUnit-specific test allocation configuration.
+    * @return The cost model reflecting the effective concurrency of each class.
+    */
+   @Override
+   protected ExecutionCostModel createCostModel(Map<String, Integer> classMethodCounts,
+                                                TestClassLoader testClassLoader,
+                                                TestSplitterConfiguration config) {
+      JunitPlatformConcurrency platform = JunitPlatformConcurrency.load(
+            config.getTestOutputDirectory(),
+            ExecutionConcurrency.resolveCores(config.getRunnerCores())
+      );
+      if (!platform.isEnabled()) {
+         return ExecutionCostModel.sequential();
+      }
+
+      Map<String, ExecutionConcurrency> concurrencyByClass = new HashMap<>();
+      for (String className : classMethodCounts.keySet()) {
+         Class<?> clazz = testClassLoader.loadClass(className);
+         if (clazz != null) {
+            concurrencyByClass.put(className, platform.resolve(clazz));
+         }
+      }
+      return new ExecutionCostModel(concurrencyByClass, ExecutionConcurrency.sequential());
+   }
+
+   private Optional<List<DiscoveredTest>> discoverWithLauncher(TestClassLoader testClassLoader,
+                                                               TestSplitterConfigurationJunit config,
+                                                               Set<String> includeTags,
+                                                               Set<String> excludeTags) {
+      try {
+         final List<DiscoveredTest> tests = JunitPlatformDiscovery.discover(
+               testClassLoader.getUrls(),
+               classpathRoots(config),
+               includeTags,
+               excludeTags
+         );
+         getLog().info(String.format("[TestSplitter] Launcher discovered %d tests", tests.size()));
+         return Optional.of(tests);
+      } catch (IllegalStateException e) {
+         getLog().warn("[TestSplitter] Launcher discovery unavailable, counting test methods by reflection: "
+               + e.getMessage());
+         return Optional.empty();
+      }
+   }
 
-      return classFiles.stream()
-            .map(cf -> ClassFileDiscovery.fileToClassName(cf, configJunit.getTestOutputDirectory()))
-            .map(className -> {
-               Class<?> clazz = testClassLoader.loadClass(className);
-               if (clazz == null) {
-                  return null;
-               }
-
-               int matchingCount = TestMethodFilter.countMatchingTestMethods(
-                     clazz,
-                     configJunit.getIncludeTags(),
-                     configJunit.getExcludeTags(),
-                     configJunit.isParallelMethods()
-               );
-
-               return matchingCount > 0 ? Map.entry(className, matchingCount) : null;
-            })
-            .filter(Objects::nonNull)
-            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+   /**
+    * Returns the test output directory followed by the dependency JARs to scan.
+    */
+   private static List<File> classpathRoots(TestSplitterConfigurationJunit config) {
+      final List<File> roots = new ArrayList<>();
+      roots.add(config.getTestOutputDirectory());
+      if (config.getDependenciesToScan() != null) {
+         roots.addAll(config.getDependenciesToScan());
+      }
+      return roots;
+   }
+
+   private Map<String, Integer> countDiscovered(List<DiscoveredTest> tests, TestSplitterConfigurationJunit config) {
+      for (DiscoveredTest test : tests) {
+         uniqueIdsByUnit.computeIfAbsent(test.getUnit(), unit -> new ArrayList<>()).add(test.getUniqueId());
+      }
+      final Map<String, Integer> counts = new HashMap<>();
+      uniqueIdsByUnit.forEach((unit, uniqueIds) ->
+            counts.put(unit, config.isParallelMethods() ? uniqueIds.size() : 1));
+      return counts;
+   }
+
+   /**
+    * Discovers the tests once, with their tags and without filtering.
+    */
+   private TestTagInventory buildInventory(List<File> classFiles,
+                                           TestClassLoader testClassLoader,
+                                           TestSplitterConfigurationJunit config) {
+      launcherInventory = false;
+      if (config.isLauncherDiscovery()) {
+         Optional<List<DiscoveredTest>> discovered =
+               discoverWithLauncher(testClassLoader, config, Set.of(), Set.of());
+         if (discovered.isPresent()) {
+            final TestTagInventory inventory = new TestTagInventory();
+            discovered.get().forEach(test -> inventory.add(test.getUnit(), test.getUniqueId(), test.getTags()));
+            launcherInventory = true;
+            return inventory;
+         }
+      }
+
+      return reflectInventory(classFiles, testClassLoader, config);
+   }
+
+   /**
+    * Reads the tests and tags of the test classes by reflection, reusing the cached tests of unchanged
+    * classes when the inventory cache is enabled.
+    */
+   private TestTagInventory reflectInventory(List<File> classFiles,
+                                             TestClassLoader testClassLoader,
+                                             TestSplitterConfigurationJunit config) {
+      if (!config.isInventoryCache()) {
+         return TestInventoryCache.scan(classFiles, config.getTestOutputDirectory(), testClassLoader);
+      }
+      final String projectKey = (config.getMavenProject() == null ? "" : config.getMavenProject().getId())
+            + "@" + config.getTestOutputDirectory().getAbsolutePath();
+      final TestInventoryCache.Lookup lookup = TestInventoryCache.daemon()
+            .inventory(projectKey, classFiles, config.getTestOutputDirectory(), testClassLoader);
+      getLog().info(String.format("[TestSplitter] Reused the cached tests of %d of %d classes",
+            lookup.getReusedClasses(), classFiles.size()));
+      return lookup.getInventory();
    }
 
 }
@@ -0,0 +1,52 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Utility class writing allocation manifests and indexes as JSON.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+final class ManifestWriter {
+
+   /**
+    * Private constructor to prevent instantiation of utility class.
+    */
+   private ManifestWriter() {
+   }
+
+   /**
+    * Writes content as JSON, creating parent directories as needed.
+    *
+    * @param content    The content to serialize.
+    * @param outPutFile The output path stem; {@code .json} is appended.
+    * @param log        The Maven logger recording the written file.
+    * @throws MojoExecutionException If an error occurs while writing to the file.
+    */
+   static void write(Object content, String outPutFile, Log log) throws MojoExecutionException {
+      Path outPath = Paths.get(outPutFile + ".json");
+      try {
+         Path parent = outPath.getParent();
+         if (parent != null) {
+            Files.createDirectories(parent);
+         }
+
+         try (Writer writer = Files.newBufferedWriter(outPath, StandardCharsets.UTF_8)) {
+            new Gson().toJson(content, writer);
+         }
+      } catch (IOException e) {
+         throw new MojoExecutionException("Failed to write " + outPath.getFileName(), e);
+      }
+
+      log.info("[TestSplitter] Wrote " + outPath.toAbsolutePath());
+   }
+
+}
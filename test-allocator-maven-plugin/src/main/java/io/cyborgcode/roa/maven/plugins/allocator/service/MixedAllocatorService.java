@@ -0,0 +1,278 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationMixed;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationTestng;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.ClassFileDiscovery;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestEngine;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Allocates the test classes of all engines of a project into one set of execution groups.
+ *
+ * <p>A single pass over the compiled test classes classifies each class by its {@link TestEngine}.
+ * Each class is then counted with the rules of its engine:
+ * <ul>
+ *   <li>JUnit Jupiter and JUnit 4 classes by {@link JunitAllocatorService}, filtered by tags. With launcher
+ *       discovery, the tests of other JUnit Platform engines are included as well.</li>
+ *   <li>TestNG classes by {@link TestNgAllocatorService}, from the configured suites or, when none are
+ *       configured, from a generated suite declaring every TestNG class.</li>
+ * </ul>
+ * All classes are packed together, so runners are balanced across the whole test estate. The manifest
+ * records the classes of each engine per job under {@code engines}.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public class MixedAllocatorService extends BaseAllocatorService {
+
+   private static final String ENGINES_ATTRIBUTE = "engines";
+
+   /**
+    * Counts JUnit Jupiter and JUnit 4 classes.
+    */
+   private final JunitAllocatorService junitService;
+
+   /**
+    * Counts TestNG classes and writes their bucket suites.
+    */
+   private final TestNgAllocatorService testNgService;
+
+   /**
+    * Engine of each allocated class.
+    */
+   private final Map<String, TestEngine> engineByClass = new HashMap<>();
+
+   /**
+    * Constructs a new {@code MixedAllocatorService} instance.
+    *
+    * @param log The Maven logger instance for recording allocation details.
+    */
+   public MixedAllocatorService(final Log log) {
+      this(log, new JunitAllocatorService(log), new TestNgAllocatorService(log));
+   }
+
+   /**
+    * Constructs a new {@code MixedAllocatorService} with the given engine services.
+    *
+    * @param log           The Maven logger instance for recording allocation details.
+    * @param junitService  The service counting JUnit Jupiter and JUnit 4 classes.
+    * @param testNgService The service counting TestNG classes.
+    */
+   MixedAllocatorService(final Log log,
+                         final JunitAllocatorService junitService,
+                         final TestNgAllocatorService testNgService) {
+      super(log);
+      this.junitService = junitService;
+      this.testNgService = testNgService;
+   }
+
+   /**
+    * Classifies the test classes by engine and counts each with the rules of its engine.
+    *
+    * @param classFiles      List of test class files.
+    * @param testClassLoader The test class loader used to dynamically load test classes.
+    * @param config          The mixed-engine test allocation configuration.
+    * @return A mapping of test class names of all engines to their number of executable test methods.
+    */
+   @Override
+   @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST")
+   public Map<String, Integer> calculateClassMethodCounts(final List<File> classFiles,
+                                                          final TestClassLoader testClassLoader,
+                                                          final TestSplitterConfiguration config) {
+      final TestSplitterConfigurationMixed configMixed = (TestSplitterConfigurationMixed) config;
+      final Map<TestEngine, List<File>> filesByEngine = new EnumMap<>(TestEngine.class);
+      final Map<String, TestEngine> detected = new HashMap<>();
+      final List<String> testNgClasses = new ArrayList<>();
+      engineByClass.clear();
+
+      for (File classFile : classFiles) {
+         String className = ClassFileDiscovery.fileToClassName(classFile, config.getTestOutputDirectory());
+         Class<?> clazz = testClassLoader.loadClass(className);
+         TestEngine engine = clazz == null ? null : TestEngine.detect(clazz);
+         if (engine == null) {
+            continue;
+         }
+         filesByEngine.computeIfAbsent(engine, e -> new ArrayList<>()).add(classFile);
+         detected.put(className, engine);
+         if (engine == TestEngine.TESTNG) {
+            testNgClasses.add(className);
+         }
+      }
+
+      final List<File> junitFiles = new ArrayList<>(filesByEngine.getOrDefault(TestEngine.JUNIT_JUPITER, List.of()));
+      junitFiles.addAll(filesByEngine.getOrDefault(TestEngine.JUNIT_VINTAGE, List.of()));
+      final List<File> testNgFiles = filesByEngine.getOrDefault(TestEngine.TESTNG, List.of());
+
+      getLog().info(String.format("[TestSplitter] Classified %d JUnit Jupiter, %d JUnit 4 and %d TestNG classes",
+            filesByEngine.getOrDefault(TestEngine.JUNIT_JUPITER, List.of()).size(),
+            filesByEngine.getOrDefault(TestEngine.JUNIT_VINTAGE, List.of()).size(),
+            testNgFiles.size()));
+
+      final Map<String, Integer> counts = new HashMap<>();
+      junitService.calculateClassMethodCounts(junitFiles, testClassLoader, configMixed.getJunit())
+            .forEach((className, count) -> {
+               TestEngine engine = detected.getOrDefault(className, TestEngine.JUNIT_PLATFORM);
+               if (engine != TestEngine.TESTNG) {
+                  counts.put(className, count);
+                  engineByClass.put(className, engine);
+               }
+            });
+
+      final TestSplitterConfigurationTestng configTestNg = configMixed.getTestng();
+      final Map<String, Integer> testNgCounts;
+      if (configTestNg.getSuites() == null || configTestNg.getSuites().isEmpty()) {
+         testNgCounts = testNgService.calculateClassMethodCounts(
+               List.of(TestNgAllocatorService.classSuite(testNgClasses)), testNgFiles, testClassLoader, configTestNg);
+      } else {
+         testNgCounts = testNgService.calculateClassMethodCounts(testNgFiles, testClassLoader, configTestNg);
+      }
+      testNgCounts.forEach((className, count) -> {
+         counts.put(className, count);
+         engineByClass.put(className, TestEngine.TESTNG);
+      });
+      return counts;
+   }
+
+   /**
+    * Combines the cost models of the engines, each applied to the classes of its engine.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param testClassLoader   The test class loader for dynamically loading test classes.
+    * @param config            The mixed-engine test allocation configuration.
+    * @return The cost model reflecting the effective concurrency of each class under its engine.
+    */
+   @Override
+   @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST")
+   protected ExecutionCostModel createCostModel(Map<String, Integer> classMethodCounts,
+                                                TestClassLoader testClassLoader,
+                                                TestSplitterConfiguration config) {
+      final TestSplitterConfigurationMixed configMixed = (TestSplitterConfigurationMixed) config;
+      final ExecutionCostModel junitModel = junitService.createCostModel(
+            countsOf(classMethodCounts, false), testClassLoader, configMixed.getJunit());
+      final ExecutionCostModel testNgModel = testNgService.createCostModel(
+            countsOf(classMethodCounts, true), testClassLoader, configMixed.getTestng());
+
+      final Map<String, ExecutionConcurrency> concurrencyByClass = new HashMap<>();
+      for (String className : classMethodCounts.keySet()) {
+         ExecutionCostModel model = isTestNg(className) ? testNgModel : junitModel;
+         concurrencyByClass.put(className, model.concurrencyOf(className));
+      }
+      return new ExecutionCostModel(concurrencyByClass, ExecutionConcurrency.sequential());
+   }
+
+   /**
+    * Keeps TestNG classes that depend on each other in one packing unit.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param testClassLoader   The test class loader used to resolve the allocated classes.
+    * @param config            The mixed-engine test allocation configuration.
+    * @return Sets of TestNG class names that must share a bucket.
+    */
+   @Override
+   @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST")
+   protected List<Set<String>> findInseparableClasses(Map<String, Integer> classMethodCounts,
+                                                      TestClassLoader testClassLoader,
+                                                      TestSplitterConfiguration config) {
+      return testNgService.findInseparableClasses(
+            countsOf(classMethodCounts, true),
+            testClassLoader,
+            ((TestSplitterConfigurationMixed) config).getTestng()
+      );
+   }
+
+   /**
+    * Finds the JUnit classes with a test carrying any of the given tags and the TestNG classes with a test
+    * method in any of them as a group.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param tags              The tags and groups to look for.
+    * @param testClassLoader   The test class loader used to resolve the allocated classes.
+    * @param config            The mixed-engine test allocation configuration.
+    * @return The names of the classes with a test carrying any of the tags.
+    */
+   @Override
+   @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST")
+   protected Set<String> findTaggedClasses(Map<String, Integer> classMethodCounts,
+                                           Set<String> tags,
+                                           TestClassLoader testClassLoader,
+                                           TestSplitterConfiguration config) {
+      final Set<String> tagged = new HashSet<>(super.findTaggedClasses(
+            countsOf(classMethodCounts, false), tags, testClassLoader, config));
+      tagged.addAll(testNgService.findTaggedClasses(
+            countsOf(classMethodCounts, true), tags, testClassLoader,
+            ((TestSplitterConfigurationMixed) config).getTestng()));
+      return tagged;
+   }
+
+   /**
+    * Records the classes of each engine per job, plus the TestNG bucket suite where one is written and
+    * the unique IDs of tests found by launcher discovery.
+    *
+    * @param buckets The allocated buckets, in job order.
+    * @param config  The mixed-engine test allocation configuration.
+    * @return The {@code engines} and, where applicable, {@code suiteFile} and {@code uniqueIds} attributes.
+    * @throws MojoExecutionException If a TestNG suite file cannot be written.
+    */
+   @Override
+   @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST")
+   protected List<Map<String, Object>> describeBuckets(List<TestBucket> buckets,
+                                                       TestSplitterConfiguration config)
+         throws MojoExecutionException {
+      final TestSplitterConfigurationMixed configMixed = (TestSplitterConfigurationMixed) config;
+      final List<Map<String, Object>> junitAttributes =
+            junitService.describeBuckets(buckets, configMixed.getJunit());
+      final List<Map<String, Object>> testNgAttributes =
+            testNgService.describeBuckets(buckets, configMixed.getTestng());
+
+      final List<Map<String, Object>> attributes = new ArrayList<>(buckets.size());
+      for (int i = 0; i < buckets.size(); i++) {
+         Map<String, List<String>> classesByEngine = new TreeMap<>();
+         for (String className : buckets.get(i).getClassNames()) {
+            TestEngine engine = engineByClass.getOrDefault(className, TestEngine.JUNIT_JUPITER);
+            classesByEngine.computeIfAbsent(engine.getId(), id -> new ArrayList<>()).add(className);
+         }
+
+         Map<String, Object> job = new LinkedHashMap<>();
+         if (i < junitAttributes.size()) {
+            job.putAll(junitAttributes.get(i));
+         }
+         if (i < testNgAttributes.size()) {
+            job.putAll(testNgAttributes.get(i));
+         }
+         job.put(ENGINES_ATTRIBUTE, classesByEngine);
+         attributes.add(job);
+      }
+      return attributes;
+   }
+
+   private boolean isTestNg(String className) {
+      return engineByClass.get(className) == TestEngine.TESTNG;
+   }
+
+   private Map<String, Integer> countsOf(Map<String, Integer> classMethodCounts, boolean testNg) {
+      final Map<String, Integer> result = new HashMap<>();
+      classMethodCounts.forEach((className, count) -> {
+         if (isTestNg(className) == testNg) {
+            result.put(className, count);
+         }
+      });
+      return result;
+   }
+
+}
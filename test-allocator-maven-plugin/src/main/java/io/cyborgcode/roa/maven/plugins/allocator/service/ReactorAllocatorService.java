@@ -0,0 +1,182 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.PackingUnit;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucketAllocator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Allocates the tests of several groups, such as all modules of a reactor, into one global set of
+ * execution groups.
+ *
+ * <p>Every group is counted by the allocator service of its engine, see
+ * {@link BaseAllocatorService#scan(TestSplitterConfiguration)}. Its units are then qualified with the
+ * group name, such as the module coordinates ({@code groupId:artifactId}), and packed together with the
+ * units of all other groups, so small modules share runners instead of each getting a runner pool of
+ * their own.
+ *
+ * <p>Each job of the manifest lists, with the attribute names of modules:
+ * <ul>
+ *   <li>{@code modules}: the coordinates to pass to {@code -pl}.</li>
+ *   <li>{@code classes}: the classes of all those modules, to pass as the test filter.</li>
+ *   <li>{@code classesByModule}: the classes of each module.</li>
+ * </ul>
+ * Test roots of one project are grouped by runner instead, listed under {@code runners} and
+ * {@code classesByRunner}.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public class ReactorAllocatorService {
+
+   /**
+    * Separates the module coordinates from the unit in qualified unit names.
+    */
+   static final char MODULE_SEPARATOR = '/';
+
+   /**
+    * Logger instance for recording allocation process details.
+    */
+   private final Log log;
+
+   /**
+    * Manifest attribute listing the groups of a job.
+    */
+   private final String groupsAttribute;
+
+   /**
+    * Manifest attribute listing the classes of each group of a job.
+    */
+   private final String classesByGroupAttribute;
+
+   /**
+    * Constructs a new {@code ReactorAllocatorService} instance grouping units by module.
+    *
+    * @param log The Maven logger instance for recording events.
+    */
+   public ReactorAllocatorService(final Log log) {
+      this(log, "modules", "classesByModule");
+   }
+
+   /**
+    * Constructs a new {@code ReactorAllocatorService} instance with the given manifest attributes.
+    *
+    * @param log                     The Maven logger instance for recording events.
+    * @param groupsAttribute         The attribute listing the groups of a job, also naming them in logs.
+    * @param classesByGroupAttribute The attribute listing the classes of each group of a job.
+    */
+   public ReactorAllocatorService(final Log log, final String groupsAttribute, final String classesByGroupAttribute) {
+      this.log = log;
+      this.groupsAttribute = groupsAttribute;
+      this.classesByGroupAttribute = classesByGroupAttribute;
+   }
+
+   /**
+    * Packs the counted tests of all modules into buckets and writes them to the manifest.
+    *
+    * <p>Units keep the concurrency resolved for them in their module, and units that must share a bucket
+    * in their module still do.
+    *
+    * @param scansByModule The counted tests per module coordinates, in reactor order.
+    * @param configuration The allocation limits and output file.
+    * @throws MojoExecutionException If the manifest cannot be written.
+    */
+   public void allocateTests(Map<String, AllocationScan> scansByModule,
+                             TestSplitterConfiguration configuration) throws MojoExecutionException {
+      allocateTests(scansByModule, configuration, configuration.getJsonOutputFile());
+   }
+
+   /**
+    * Packs the counted tests of all groups into buckets and writes them to the given manifest.
+    *
+    * @param scansByModule  The counted tests per group name, in group order.
+    * @param configuration  The allocation limits.
+    * @param jsonOutputFile The manifest path stem; {@code .json} is appended.
+    * @throws MojoExecutionException If the manifest cannot be written.
+    */
+   public void allocateTests(Map<String, AllocationScan> scansByModule,
+                             TestSplitterConfiguration configuration,
+                             String jsonOutputFile) throws MojoExecutionException {
+      final Map<String, Integer> counts = new LinkedHashMap<>();
+      final Map<String, ExecutionConcurrency> concurrencyByUnit = new HashMap<>();
+      final List<Set<String>> inseparable = new ArrayList<>();
+
+      scansByModule.forEach((module, scan) -> {
+         scan.getClassMethodCounts().forEach((unit, methods) -> {
+            String qualified = qualify(module, unit);
+            counts.put(qualified, methods);
+            concurrencyByUnit.put(qualified, scan.getCostModel().concurrencyOf(unit));
+         });
+         for (Set<String> units : scan.getInseparableClasses()) {
+            inseparable.add(units.stream()
+                  .map(unit -> qualify(module, unit))
+                  .collect(Collectors.toCollection(LinkedHashSet::new)));
+         }
+      });
+
+      final ExecutionCostModel costModel =
+            new ExecutionCostModel(concurrencyByUnit, ExecutionConcurrency.sequential());
+      final List<TestBucket> buckets = TestBucketAllocator.allocate(
+            PackingUnit.of(counts, inseparable),
+            configuration.getMaxNumberOfParallelRunners(),
+            configuration.getMaxMethodsPerBucket(),
+            costModel
+      );
+
+      log.info(String.format("[TestSplitter] Packed %d units of %d %s into %d buckets, "
+                  + "longest estimated duration=%.2f",
+            counts.size(), scansByModule.size(), groupsAttribute, buckets.size(),
+            buckets.stream().mapToDouble(TestBucket::getEstimatedCost).max().orElse(0)));
+
+      ManifestWriter.write(describe(buckets), jsonOutputFile, log);
+   }
+
+   /**
+    * Qualifies a unit with the coordinates of its module.
+    *
+    * @param module the module coordinates
+    * @param unit   the class or other unit of the module
+    * @return the qualified unit name
+    */
+   static String qualify(String module, String unit) {
+      return module + MODULE_SEPARATOR + unit;
+   }
+
+   private List<Map<String, Object>> describe(List<TestBucket> buckets) {
+      final List<Map<String, Object>> output = new ArrayList<>();
+      for (int i = 0; i < buckets.size(); i++) {
+         TestBucket bucket = buckets.get(i);
+         Map<String, List<String>> classesByModule = new LinkedHashMap<>();
+         Set<String> classes = new LinkedHashSet<>();
+         for (String qualified : bucket.getClassNames()) {
+            // Group names never contain the separator, while units such as feature paths can.
+            int separator = qualified.indexOf(MODULE_SEPARATOR);
+            String unit = qualified.substring(separator + 1);
+            classesByModule.computeIfAbsent(qualified.substring(0, separator), m -> new ArrayList<>()).add(unit);
+            classes.add(unit);
+         }
+
+         Map<String, Object> jobObj = new HashMap<>();
+         jobObj.put("jobIndex", i);
+         jobObj.put(groupsAttribute, new ArrayList<>(classesByModule.keySet()));
+         jobObj.put("classes", new ArrayList<>(classes));
+         jobObj.put(classesByGroupAttribute, classesByModule);
+         jobObj.put("totalMethods", bucket.getTotalMethods());
+         jobObj.put("estimatedDuration", Math.round(bucket.getEstimatedCost() * 100.0) / 100.0);
+         output.add(jobObj);
+      }
+      return output;
+   }
+
+}
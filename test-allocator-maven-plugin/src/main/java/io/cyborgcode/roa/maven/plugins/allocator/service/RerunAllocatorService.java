@@ -0,0 +1,184 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Allocates only the tests that failed in a previous attempt, for retry jobs.
+ *
+ * <p>The {@code TEST-*.xml} reports of the attempt, written by Surefire or Failsafe for JUnit and TestNG
+ * alike, are read as a {@link TestHistory}. Every method with a failed or errored invocation is a unit,
+ * weighed by its recorded duration; methods without a recorded duration weigh the mean duration of the
+ * failed methods. Invocations of the same method, such as those of a parameterized method, are one unit
+ * weighing their summed durations, so a method is never split across jobs. Units are packed longest first
+ * onto the least loaded of the requested runners.
+ *
+ * <p>Each job of the manifest lists, besides its {@code classes}, the {@code tests} to pass as
+ * {@code -Dtest=...}: one {@code Class#method1+method2} selector per class, or the class alone when the
+ * class failed outside of its test methods, for example in a {@code @BeforeAll} method. Invocations of
+ * parameterized methods, reported as {@code totals(int)[2]} or {@code [2] 42}, select their method by the bare
+ * name {@link TestHistory#normalise(String)} gives them; an invocation reported without a method name selects
+ * its class.
+ *
+ * @author Cyborg Code Syndicate 💍👨💻
+ */
+public class RerunAllocatorService implements TestAllocatorService {
+
+   private static final String CLASS_METHOD_SEPARATOR = "#";
+   private static final String METHOD_SEPARATOR = "+";
+
+   /**
+    * Logger instance for recording allocation process details.
+    */
+   private final Log log;
+
+   /**
+    * Constructs a new {@code RerunAllocatorService} instance.
+    *
+    * @param log The Maven logger instance for recording events.
+    */
+   public RerunAllocatorService(final Log log) {
+      this.log = log;
+   }
+
+   /**
+    * Packs the failed tests recorded in the reports directory of the configuration and writes the manifest.
+    *
+    * @param configuration The reports directory, runner limit and output file.
+    * @throws MojoExecutionException If the manifest cannot be written.
+    */
+   @Override
+   public void allocateTests(TestSplitterConfiguration configuration) throws MojoExecutionException {
+      final Map<String, Double> failed = failedMethods(TestHistory.load(configuration.getReportsDirectory()));
+      final int runners = Math.max(1, Math.min(configuration.getMaxNumberOfParallelRunners(), failed.size()));
+      final List<Job> jobs = pack(failed, runners);
+
+      log.info(String.format("[TestSplitter] Rerunning %d failed tests of %d classes on %d runners",
+            failed.size(), failed.keySet().stream().map(RerunAllocatorService::classOf).distinct().count(),
+            jobs.size()));
+
+      final List<Map<String, Object>> output = new ArrayList<>();
+      for (int i = 0; i < jobs.size(); i++) {
+         output.add(jobs.get(i).describe(i));
+      }
+      ManifestWriter.write(output, configuration.getJsonOutputFile(), log);
+   }
+
+   /**
+    * Finds the methods with a failed or errored invocation.
+    *
+    * @param history The results of the previous attempt.
+    * @return The recorded duration of every failed method, keyed by {@code className#methodName}.
+    */
+   static Map<String, Double> failedMethods(TestHistory history) {
+      final Map<String, Double> failed = new LinkedHashMap<>();
+      history.getMethods().entrySet().stream()
+            .filter(entry -> entry.getValue().getFailures() > 0)
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> failed.put(entry.getKey(), entry.getValue().getDuration()));
+      return failed;
+   }
+
+   /**
+    * Packs the failed methods, longest first, onto the least loaded runner, each with all its invocations.
+    *
+    * @param failed  The recorded duration of every failed method or invocation.
+    * @param runners The number of runners, at least one.
+    * @return The non-empty jobs, in runner order.
+    */
+   static List<Job> pack(Map<String, Double> failed, int runners) {
+      final double mean = failed.values().stream().filter(duration -> duration > 0)
+            .mapToDouble(Double::doubleValue).average().orElse(1);
+      final Map<String, Double> weights = new LinkedHashMap<>();
+      failed.forEach((invocation, duration) -> weights.merge(methodOf(invocation), duration > 0 ? duration : mean,
+            Double::sum));
+
+      final List<Job> jobs = new ArrayList<>();
+      final PriorityQueue<Job> leastLoaded = new PriorityQueue<>(
+            Comparator.comparingDouble(Job::getDuration).thenComparingInt(jobs::indexOf));
+      for (int i = 0; i < runners; i++) {
+         Job job = new Job();
+         jobs.add(job);
+         leastLoaded.add(job);
+      }
+      weights.entrySet().stream()
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .forEach(entry -> {
+               Job job = leastLoaded.poll();
+               job.add(entry.getKey(), entry.getValue());
+               leastLoaded.add(job);
+            });
+      jobs.removeIf(job -> job.methods.isEmpty());
+      return jobs;
+   }
+
+   private static String classOf(String method) {
+      return method.substring(0, method.indexOf(CLASS_METHOD_SEPARATOR));
+   }
+
+   private static String methodOf(String invocation) {
+      final int separator = invocation.indexOf(CLASS_METHOD_SEPARATOR);
+      return invocation.substring(0, separator + 1)
+            + TestHistory.normalise(invocation.substring(separator + 1));
+   }
+
+   /**
+    * Failed methods allocated to one runner.
+    */
+   static final class Job {
+
+      private final Map<String, Set<String>> methods = new LinkedHashMap<>();
+      private int methodCount;
+      private double duration;
+
+      private void add(String method, double weight) {
+         methods.computeIfAbsent(classOf(method), key -> new LinkedHashSet<>())
+               .add(method.substring(method.indexOf(CLASS_METHOD_SEPARATOR) + 1));
+         methodCount++;
+         duration += weight;
+      }
+
+      /**
+       * Returns the estimated duration of the job.
+       *
+       * @return the summed weights of its methods, in seconds
+       */
+      double getDuration() {
+         return duration;
+      }
+
+      /**
+       * Returns the selectors of the job, one per class.
+       *
+       * @return {@code Class#method1+method2} selectors, or class names of classes that failed as a whole
+       */
+      List<String> selectors() {
+         final List<String> selectors = new ArrayList<>();
+         methods.forEach((className, names) -> selectors.add(names.contains("")
+               ? className
+               : className + CLASS_METHOD_SEPARATOR + String.join(METHOD_SEPARATOR, names)));
+         return selectors;
+      }
+
+      private Map<String, Object> describe(int jobIndex) {
+         final Map<String, Object> job = new LinkedHashMap<>();
+         job.put("jobIndex", jobIndex);
+         job.put("classes", new ArrayList<>(methods.keySet()));
+         job.put("tests", selectors());
+         job.put("totalMethods", methodCount);
+         job.put("estimatedDuration", Math.round(duration * 100.0) / 100.0);
+         return job;
+      }
+   }
+
+}
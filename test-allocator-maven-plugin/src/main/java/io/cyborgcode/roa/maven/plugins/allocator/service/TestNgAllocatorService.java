@@ -3,39 +3,91 @@ package io.cyborgcode.roa.maven.plugins.allocator.service;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationTestng;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.TestNgInvocationEstimator;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.ClassFileDiscovery;
 import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestEngine;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestNgSuiteDiscovery;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestNgGroupFilter;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestNgMethodIndex;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestNgDependencyGraph;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestNgSuiteLayout;
 import java.io.File;
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
-import org.testng.annotations.Test;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlPackage;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlTest;
-import org.testng.xml.internal.Parser;
 
 /**
  * Allocates TestNG test classes into execution groups based on suite configurations and method count.
  *
  * <p>This service extends {@link BaseAllocatorService} and applies TestNG-specific logic for allocating test classes.
  * It parses TestNG XML suite files to determine which test methods belong to which suites and organizes them
- * accordingly into execution groups.
+ * accordingly into execution groups. Without configured suites, every TestNG class is allocated from a generated
+ * suite declaring all of them.
  *
  * @author Cyborg Code Syndicate 💍👨💻
  */
 public class TestNgAllocatorService extends BaseAllocatorService {
 
+   private static final String SUITE_FILE_ATTRIBUTE = "suiteFile";
+   private static final String SUITE_FILE_PREFIX = "bucket-";
+   private static final String SUITE_FILE_SUFFIX = ".xml";
+   private static final String CLASS_SUITE_NAME = "TestSplitter";
+
+   /**
+    * Concurrency of each class, derived from the parallel mode of the {@code <test>} block it was allocated from.
+    */
+   private final Map<String, ExecutionConcurrency> suiteConcurrency = new ConcurrentHashMap<>();
+
+   /**
+    * Suite, test and class declaration each allocated class was taken from, used to write the bucket suites.
+    */
+   private final TestNgSuiteLayout suiteLayout = new TestNgSuiteLayout();
+
+   /**
+    * Method index of each loaded class, so classes declared in many {@code <test>} blocks are inspected once.
+    */
+   private final Map<Class<?>, TestNgMethodIndex> methodIndexes = new HashMap<>();
+
+   /**
+    * Class names of the discovered test classes, converted lazily when a suite declares {@code <packages>}.
+    */
+   private List<String> classInventory;
+
+   /**
+    * Groups selected through the plugin configuration, applied on top of the groups selected by the suites.
+    */
+   private TestNgGroupFilter commandLineGroups = TestNgGroupFilter.none();
+
+   /**
+    * Weighs test methods by {@code invocationCount}, {@code threadPoolSize} and data provider rows.
+    */
+   private TestNgInvocationEstimator invocationEstimator;
+
    /**
     * Constructs a new {@code TestNgAllocatorService} instance.
     *
@@ -50,10 +102,17 @@ public class TestNgAllocatorService extends BaseAllocatorService {
     *
     * <p>This method:
     * <ul>
-    *   <li>Parses TestNG suite XML files to identify relevant test classes.</li>
+    *   <li>Discovers TestNG suite XML files selected by name, following nested {@code <suite-files>}. Without
+    *       suite names, generates a suite declaring every TestNG class instead.</li>
     *   <li>Loads each test class using the {@link TestClassLoader}.</li>
-    *   <li>Counts the number of test methods within each class based on TestNG annotations.</li>
-    *   <li>Filters test methods according to the suites specified in the configuration.</li>
+    *   <li>Expands {@code <packages>} against the discovered test classes.</li>
+    *   <li>Counts the number of test methods within each class based on TestNG annotations,
+    *       including class-level {@code @Test}.</li>
+    *   <li>Filters test methods by the {@code <include>} and {@code <exclude>} entries of the suites.</li>
+    *   <li>Filters test methods by their groups, as selected by the suites and the configured groups.</li>
+    *   <li>Weighs each method by its invocations and data provider rows, see {@link TestNgInvocationEstimator}.</li>
+    *   <li>Sums the counts of a class declared in several {@code <test>} blocks, counting identical
+    *       declarations once.</li>
     *   <li>Returns a map of class names and their respective test method counts.</li>
     * </ul>
     *
@@ -69,22 +128,66 @@ public class TestNgAllocatorService extends BaseAllocatorService {
                                                           final TestSplitterConfiguration config) {
 
       final TestSplitterConfigurationTestng configTestNg = (TestSplitterConfigurationTestng) config;
-      final Set<String> suiteNames = configTestNg.getSuites();
-
-      final Map<String, Integer> classMethodCounts = new HashMap<>();
-      final List<File> suiteXmlFiles = findAllXmlFilesInProject(Paths.get(configTestNg.getProjectRoot()));
-
-      for (File xmlFile : suiteXmlFiles) {
-         try {
-            final List<XmlSuite> xmlSuites = new Parser(xmlFile.getAbsolutePath()).parseToList();
-            for (XmlSuite xmlSuite : xmlSuites) {
-               if (suiteNames.contains(xmlSuite.getName())) {
-                  processSuite(xmlSuite, testClassLoader, config, classMethodCounts);
-               }
+      if (configTestNg.getSuites() == null || configTestNg.getSuites().isEmpty()) {
+         final List<String> testNgClasses = new ArrayList<>();
+         for (File classFile : classFiles) {
+            String className = ClassFileDiscovery.fileToClassName(classFile, config.getTestOutputDirectory());
+            Class<?> clazz = testClassLoader.loadClass(className);
+            if (clazz != null && TestEngine.detect(clazz) == TestEngine.TESTNG) {
+               testNgClasses.add(className);
             }
-         } catch (Exception e) {
-            throw new IllegalStateException("Failed to parse TestNG suite file: " + xmlFile.getAbsolutePath(), e);
          }
+         getLog().info(String.format("[TestSplitter] No TestNG suites configured, allocating %d TestNG classes",
+               testNgClasses.size()));
+         return calculateClassMethodCounts(List.of(classSuite(testNgClasses)), classFiles, testClassLoader,
+               configTestNg);
+      }
+      final TestNgSuiteDiscovery suiteDiscovery = new TestNgSuiteDiscovery(
+            configTestNg.getSuiteFileIncludes(),
+            configTestNg.getSuiteFileExcludes(),
+            cachesOf(configTestNg)
+      );
+      final List<XmlSuite> xmlSuites = suiteDiscovery.discover(
+            Paths.get(configTestNg.getProjectRoot()),
+            configTestNg.getSuites()
+      );
+      return calculateClassMethodCounts(xmlSuites, classFiles, testClassLoader, configTestNg);
+   }
+
+   /**
+    * Calculates the number of matching test methods per class declared by already resolved suites.
+    *
+    * <p>Used directly when the suites do not come from XML files, for example the generated suite
+    * covering every TestNG class in mixed-engine allocation.
+    *
+    * @param xmlSuites       The suites to allocate.
+    * @param classFiles      List of test class files.
+    * @param testClassLoader The test class loader used to dynamically load test classes.
+    * @param configTestNg    The TestNG-specific test allocation configuration.
+    * @return A mapping of test class names to their number of executable test methods.
+    */
+   Map<String, Integer> calculateClassMethodCounts(final List<XmlSuite> xmlSuites,
+                                                   final List<File> classFiles,
+                                                   final TestClassLoader testClassLoader,
+                                                   final TestSplitterConfigurationTestng configTestNg) {
+      final Map<String, Integer> classMethodCounts = new HashMap<>();
+      suiteConcurrency.clear();
+      suiteLayout.clear();
+      methodIndexes.clear();
+      classInventory = null;
+      invocationEstimator = new TestNgInvocationEstimator(
+            cachesOf(configTestNg).history(configTestNg.getReportsDirectory()),
+            Paths.get(configTestNg.getProjectRoot())
+      );
+      commandLineGroups =
+            TestNgGroupFilter.of(configTestNg.getIncludeGroups(), configTestNg.getExcludeGroups(), null);
+
+      for (XmlSuite xmlSuite : xmlSuites) {
+         processSuite(xmlSuite, classFiles, testClassLoader, configTestNg, classMethodCounts);
+      }
+      if (suiteLayout.getDuplicates() > 0) {
+         getLog().info(String.format("[TestSplitter] Skipped %d identical class declarations across <test> blocks",
+               suiteLayout.getDuplicates()));
       }
 
       return classMethodCounts;
@@ -96,150 +199,449 @@ public class TestNgAllocatorService extends BaseAllocatorService {
     * Processes a single TestNG {@link XmlSuite} and accumulates method counts
     * for its tests and classes that match the configured suite names.
     *
-    * <p>Delegates traversal to {@link #processTest(XmlTest, TestClassLoader, TestSplitterConfiguration, Map)}.</p>
+    * <p>Delegates traversal to
+    * {@link #processTest(XmlTest, List, TestClassLoader, TestSplitterConfiguration, Map)}.</p>
     *
-    * @param suite   the parsed TestNG suite to process
+    * @param suite      the parsed TestNG suite to process
+    * @param classFiles the compiled test classes, used to expand {@code <packages>}
     * @param loader  the class loader used to resolve test classes
     * @param config  splitter configuration (used for parallel-by-methods policy)
     * @param counts  mutable accumulator of class name -> test method count
     */
    private void processSuite(XmlSuite suite,
+                             List<File> classFiles,
                              TestClassLoader loader,
                              TestSplitterConfiguration config,
                              Map<String, Integer> counts) {
       for (XmlTest xmlTest : suite.getTests()) {
-         processTest(xmlTest, loader, config, counts);
+         processTest(xmlTest, classFiles, loader, config, counts);
       }
    }
 
 
    /**
     * Processes a single TestNG {@link XmlTest} and accumulates method counts
-    * for each declared {@link XmlClass}.
+    * for each declared {@link XmlClass} and for the classes of each declared {@link XmlPackage}.
+    *
+    * <p>The groups selected by the {@code <groups>} block of the test (including the suite's
+    * {@code <groups>} and {@code <define>} meta-groups) restrict the methods counted for its classes.
+    *
+    * <p>A class declared again with other parameters, groups or method includes and excludes runs again, so
+    * its counts are added to those of its earlier declarations and the generated bucket suites repeat it.
+    * A declaration identical to an earlier one of the class is a duplicate: it is neither counted again nor
+    * repeated, see {@link TestNgSuiteLayout}.
     *
     * <p>Delegates class-level handling to
-    * {@link #processClass(XmlClass, TestClassLoader, TestSplitterConfiguration, Map)}.</p>
+    * {@link #processClass(XmlClass, TestNgGroupFilter, TestClassLoader, TestSplitterConfiguration, Map)}.</p>
     *
-    * @param xmlTest the TestNG test block inside a suite
-    * @param loader  the class loader used to resolve test classes
-    * @param config  splitter configuration (used for parallel-by-methods policy)
-    * @param counts  mutable accumulator of class name -> test method count
+    * @param xmlTest    the TestNG test block inside a suite
+    * @param classFiles the compiled test classes, used to expand {@code <packages>}
+    * @param loader     the class loader used to resolve test classes
+    * @param config     splitter configuration (used for parallel-by-methods policy)
+    * @param counts     mutable accumulator of class name -> test method count
     */
    private void processTest(XmlTest xmlTest,
+                            List<File> classFiles,
                             TestClassLoader loader,
                             TestSplitterConfiguration config,
                             Map<String, Integer> counts) {
-      for (XmlClass xmlClass : xmlTest.getXmlClasses()) {
-         processClass(xmlClass, loader, config, counts);
+      final ExecutionConcurrency concurrency = resolveConcurrency(xmlTest);
+      final TestNgGroupFilter groupFilter = TestNgGroupFilter.of(
+            xmlTest.getIncludedGroups(),
+            xmlTest.getExcludedGroups(),
+            xmlTest.getMetaGroups()
+      );
+      final List<XmlClass> xmlClasses = new ArrayList<>(xmlTest.getXmlClasses());
+      for (XmlPackage xmlPackage : xmlTest.getXmlPackages()) {
+         for (String className : expandPackage(xmlPackage, classFiles, config)) {
+            xmlClasses.add(new XmlClass(className, false));
+         }
+      }
+
+      for (XmlClass xmlClass : xmlClasses) {
+         if (suiteLayout.isDeclared(xmlTest, xmlClass)) {
+            suiteLayout.markDuplicate();
+         } else if (processClass(xmlClass, groupFilter, loader, config, counts)) {
+            suiteLayout.declare(xmlTest, xmlClass);
+            suiteConcurrency.putIfAbsent(xmlClass.getName(), concurrency);
+         }
+      }
+   }
+
+   /**
+    * Derives the effective concurrency of the classes declared in a {@code <test>} block.
+    *
+    * <p>The {@code <test>} inherits {@code parallel} and {@code thread-count} from its suite unless it
+    * overrides them:
+    * <ul>
+    *   <li>{@code parallel="methods"} runs methods of a class concurrently.</li>
+    *   <li>{@code parallel="classes"} and {@code parallel="instances"} run classes concurrently.</li>
+    *   <li>Any other mode is treated as sequential within the bucket.</li>
+    * </ul>
+    *
+    * @param xmlTest the TestNG test block inside a suite
+    * @return the concurrency its classes execute with
+    */
+   private ExecutionConcurrency resolveConcurrency(XmlTest xmlTest) {
+      final XmlSuite.ParallelMode mode = xmlTest.getParallel();
+      final int threads = xmlTest.getThreadCount();
+      if (mode == XmlSuite.ParallelMode.METHODS) {
+         return ExecutionConcurrency.of(threads, 1);
+      }
+      if (mode == XmlSuite.ParallelMode.CLASSES || mode == XmlSuite.ParallelMode.INSTANCES) {
+         return ExecutionConcurrency.of(1, threads);
+      }
+      return ExecutionConcurrency.sequential();
+   }
+
+   /**
+    * Creates a cost model from the parallel settings of the processed TestNG suites.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param testClassLoader   The test class loader (unused, suites already describe concurrency).
+    * @param config            The TestNG-specific test allocation configuration.
+    * @return The cost model reflecting {@code parallel} and {@code thread-count} of each class's suite.
+    */
+   @Override
+   protected ExecutionCostModel createCostModel(Map<String, Integer> classMethodCounts,
+                                                TestClassLoader testClassLoader,
+                                                TestSplitterConfiguration config) {
+      return new ExecutionCostModel(suiteConcurrency, ExecutionConcurrency.sequential());
+   }
+
+   /**
+    * Keeps classes whose tests depend on each other in one packing unit.
+    *
+    * <p>Builds a {@link TestNgDependencyGraph} over the test methods and groups of the allocated classes
+    * and returns its multi-class components. Splitting such a component would make TestNG skip the
+    * dependent tests on the runner that lacks their dependencies.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param testClassLoader   The test class loader used to resolve the allocated classes.
+    * @param config            The TestNG-specific test allocation configuration.
+    * @return Sets of class names connected through {@code dependsOnMethods} or {@code dependsOnGroups}.
+    */
+   @Override
+   protected List<Set<String>> findInseparableClasses(Map<String, Integer> classMethodCounts,
+                                                      TestClassLoader testClassLoader,
+                                                      TestSplitterConfiguration config) {
+      final Map<String, TestNgMethodIndex> indexes = new LinkedHashMap<>();
+      for (String className : classMethodCounts.keySet()) {
+         final Class<?> clazz = testClassLoader.loadClass(className);
+         if (clazz != null) {
+            indexes.put(className, methodIndex(clazz));
+         }
+      }
+
+      final TestNgDependencyGraph graph = TestNgDependencyGraph.build(indexes);
+      getLog().info(String.format(
+            "[TestSplitter] Dependency graph: %d methods, %d edges, %d inseparable class sets, "
+                  + "largest component=%d classes/%d methods",
+            graph.getMethodCount(), graph.getEdgeCount(), graph.getInseparableClasses().size(),
+            graph.getLargestComponentClasses(), graph.getLargestComponentMethods()));
+      return graph.getInseparableClasses();
+   }
+
+   /**
+    * Finds the classes with a test method in any of the given groups.
+    *
+    * @param classMethodCounts The calculated method counts per class.
+    * @param tags              The groups to look for.
+    * @param testClassLoader   The test class loader used to resolve the allocated classes.
+    * @param config            The TestNG-specific test allocation configuration.
+    * @return The names of the classes with a test method in any of the groups.
+    */
+   @Override
+   protected Set<String> findTaggedClasses(Map<String, Integer> classMethodCounts,
+                                           Set<String> tags,
+                                           TestClassLoader testClassLoader,
+                                           TestSplitterConfiguration config) {
+      final Set<String> tagged = new HashSet<>();
+      for (String className : classMethodCounts.keySet()) {
+         final Class<?> clazz = testClassLoader.loadClass(className);
+         if (clazz == null) {
+            continue;
+         }
+         final TestNgMethodIndex index = methodIndex(clazz);
+         if (index.getTestMethods().stream()
+               .anyMatch(method -> !Collections.disjoint(index.getGroups(method), tags))) {
+            tagged.add(className);
+         }
       }
+      return tagged;
+   }
+
+   /**
+    * Writes a trimmed TestNG suite per bucket and references it from the manifest as {@code suiteFile}.
+    *
+    * <p>A bucket suite contains only the bucket's classes, each with every distinct {@code <test>} block and
+    * method includes and excludes it was allocated from, and inherits the parameters, listeners and
+    * parallel settings of the original suites. When the classes of a bucket come from several suites,
+    * one file is written per suite and the bucket suite references them through {@code <suite-files>}.
+    * Buckets without TestNG classes get no suite file.
+    *
+    * <p>Suite files of a previous run are removed first. Nothing is written when no suite output
+    * directory is configured.
+    *
+    * @param buckets The allocated buckets, in job order.
+    * @param config  The TestNG-specific test allocation configuration.
+    * @return The {@code suiteFile} attribute of each job.
+    * @throws MojoExecutionException If a suite file cannot be written.
+    */
+   @Override
+   @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST")
+   protected List<Map<String, Object>> describeBuckets(List<TestBucket> buckets,
+                                                       TestSplitterConfiguration config)
+         throws MojoExecutionException {
+      final File outputDirectory = ((TestSplitterConfigurationTestng) config).getSuiteOutputDirectory();
+      if (outputDirectory == null) {
+         return List.of();
+      }
+
+      final Path directory = outputDirectory.toPath();
+      final Path projectRoot = config.getProjectRoot() == null ? null : Paths.get(config.getProjectRoot());
+      final List<Map<String, Object>> attributes = new ArrayList<>(buckets.size());
+      try {
+         deleteSuiteFiles(directory);
+         Files.createDirectories(directory);
+         for (int i = 0; i < buckets.size(); i++) {
+            List<XmlSuite> suites =
+                  suiteLayout.suitesFor(buckets.get(i).getClassNames(), config.isFailuresFirst());
+            if (suites.isEmpty()) {
+               attributes.add(Map.of());
+            } else {
+               Path suiteFile = writeBucketSuite(directory, i, suites);
+               attributes.add(Map.of(SUITE_FILE_ATTRIBUTE, displayPath(projectRoot, suiteFile)));
+            }
+         }
+      } catch (IOException e) {
+         throw new MojoExecutionException("Failed to write TestNG bucket suites to " + directory, e);
+      }
+
+      getLog().info(String.format("[TestSplitter] Generated %d TestNG bucket suite files in %s",
+            buckets.size(), directory.toAbsolutePath()));
+      return attributes;
+   }
+
+   private static Path writeBucketSuite(Path directory, int jobIndex, List<XmlSuite> suites) throws IOException {
+      final String name = SUITE_FILE_PREFIX + jobIndex;
+      final Path suiteFile = directory.resolve(name + SUITE_FILE_SUFFIX);
+      if (suites.size() == 1) {
+         Files.writeString(suiteFile, suites.get(0).toXml(), StandardCharsets.UTF_8);
+         return suiteFile;
+      }
+
+      final List<String> children = new ArrayList<>(suites.size());
+      for (int i = 0; i < suites.size(); i++) {
+         String child = name + "-" + i + SUITE_FILE_SUFFIX;
+         Files.writeString(directory.resolve(child), suites.get(i).toXml(), StandardCharsets.UTF_8);
+         children.add(child);
+      }
+      final XmlSuite parent = new XmlSuite();
+      parent.setName(name);
+      parent.setSuiteFiles(children);
+      Files.writeString(suiteFile, parent.toXml(), StandardCharsets.UTF_8);
+      return suiteFile;
+   }
+
+   private static void deleteSuiteFiles(Path directory) throws IOException {
+      if (!Files.isDirectory(directory)) {
+         return;
+      }
+      try (Stream<Path> files = Files.list(directory)) {
+         for (Path file : files.toList()) {
+            String fileName = file.getFileName().toString();
+            if (fileName.startsWith(SUITE_FILE_PREFIX) && fileName.endsWith(SUITE_FILE_SUFFIX)) {
+               Files.delete(file);
+            }
+         }
+      }
+   }
+
+   private static String displayPath(Path projectRoot, Path file) {
+      final Path absolute = file.toAbsolutePath().normalize();
+      if (projectRoot != null) {
+         Path root = projectRoot.toAbsolutePath().normalize();
+         if (absolute.startsWith(root)) {
+            return root.relativize(absolute).toString().replace('\\', '/');
+         }
+      }
+      return absolute.toString();
    }
 
    /**
     * Resolves the given {@link XmlClass}, determines how many test methods
-    * it contributes based on includes and configuration, and merges the count
-    * into the provided accumulator.
+    * it contributes based on includes, excludes, groups and configuration, and records the count
+    * in the provided accumulator, adding it to the count of earlier declarations of the class.
     *
     * <ul>
     *   <li>If the class cannot be loaded, it is skipped silently (no change to counts).</li>
-    *   <li>If includes are present, only matching {@code @Test} methods are counted.</li>
-    *   <li>If no includes are present and {@code parallelMethods == false}, the class counts as 1.</li>
-    *   <li>Otherwise, all declared {@code @Test} methods are counted.</li>
+    *   <li>Without includes, excludes or group selection, see
+    *       {@link #countClassTests(Class, TestSplitterConfiguration)}.</li>
+    *   <li>Otherwise only the selected test methods are considered, and a class without any is skipped.
+    *       Include and exclude entries are method names or regular expressions.</li>
+    *   <li>Selected methods are counted individually when includes or excludes are present or
+    *       {@code parallelMethods} is enabled; otherwise the class counts as 1.</li>
     * </ul>
     *
-    * @param xmlClass the class declaration from the TestNG XML
-    * @param loader   the class loader used to resolve the class
-    * @param config   splitter configuration (uses {@code isParallelMethods()})
-    * @param counts   mutable accumulator of class name -> test method count
+    * @param xmlClass    the class declaration from the TestNG XML
+    * @param groupFilter the groups selected by the enclosing {@code <test>}
+    * @param loader      the class loader used to resolve the class
+    * @param config      splitter configuration (uses {@code isParallelMethods()})
+    * @param counts      mutable accumulator of class name -> test method count
+    * @return {@code true} if the class was allocated
     */
-   private void processClass(XmlClass xmlClass,
+   private boolean processClass(XmlClass xmlClass,
+                             TestNgGroupFilter groupFilter,
                              TestClassLoader loader,
                              TestSplitterConfiguration config,
                              Map<String, Integer> counts) {
       final String className = xmlClass.getName();
       final Class<?> clazz = loader.loadClass(className);
       if (clazz == null) {
-         return;
+         return false;
       }
 
-      final List<XmlInclude> includes = xmlClass.getIncludedMethods();
-      final int testCount = (includes != null && !includes.isEmpty())
-            ? countIncludedMethods(clazz, includes)
-            : countClassTests(clazz, config);
+      final List<String> includes = xmlClass.getIncludedMethods().stream().map(XmlInclude::getName).toList();
+      final List<String> excludes = xmlClass.getExcludedMethods();
+      final boolean methodSelection = !includes.isEmpty() || (excludes != null && !excludes.isEmpty());
+      if (!methodSelection && !groupFilter.isActive() && !commandLineGroups.isActive()) {
+         counts.merge(className, countClassTests(clazz, config), Integer::sum);
+         return true;
+      }
+
+      final TestNgMethodIndex index = methodIndex(clazz);
+      final List<Method> selected = index.select(includes, excludes).stream()
+            .filter(method -> groupFilter.accepts(index.getGroups(method)))
+            .filter(method -> commandLineGroups.accepts(index.getGroups(method)))
+            .toList();
+      if (selected.isEmpty()) {
+         return false;
+      }
 
+      final int testCount = (methodSelection || config.isParallelMethods()) ? weigh(clazz, selected) : 1;
       counts.merge(className, testCount, Integer::sum);
+      return true;
    }
 
    /**
-    * Counts how many included method names from the TestNG XML correspond to
-    * declared methods on {@code clazz} that are annotated with {@link org.testng.annotations.Test @Test}.
+    * Expands a {@code <package>} declaration into the matching classes of the discovered test inventory.
     *
-    * <p>Method name matching is exact (by {@link Method#getName()}).</p>
+    * <p>A package name ending in {@code .*} also matches its sub-packages. The package's
+    * {@code <include>} and {@code <exclude>} entries are regular expressions matched against the
+    * fully qualified class name. Nested classes are not expanded, as TestNG does not either.
     *
-    * @param clazz    the resolved test class
-    * @param includes list of included method entries from the TestNG XML
-    * @return the number of included methods that exist on the class and are annotated with {@code @Test}
+    * @param xmlPackage the package declaration from the TestNG XML
+    * @param classFiles the compiled test classes
+    * @param config     splitter configuration (uses {@code getTestOutputDirectory()})
+    * @return the names of the classes declared by the package entry
     */
-   private int countIncludedMethods(Class<?> clazz, List<XmlInclude> includes) {
-      int matchedCount = 0;
-      for (XmlInclude include : includes) {
-         final String methodName = include.getName();
-         for (Method m : clazz.getDeclaredMethods()) {
-            if (m.getName().equals(methodName) && m.isAnnotationPresent(Test.class)) {
-               matchedCount++;
-            }
+   private List<String> expandPackage(XmlPackage xmlPackage,
+                                      List<File> classFiles,
+                                      TestSplitterConfiguration config) {
+      final String name = xmlPackage.getName();
+      final boolean recursive = name.endsWith(".*");
+      final String packageName = recursive ? name.substring(0, name.length() - 2) : name;
+      final List<Pattern> includes = xmlPackage.getInclude().stream().map(Pattern::compile).toList();
+      final List<Pattern> excludes = xmlPackage.getExclude().stream().map(Pattern::compile).toList();
+
+      final List<String> result = new ArrayList<>();
+      for (String className : inventory(classFiles, config)) {
+         final int lastDot = className.lastIndexOf('.');
+         final String classPackage = lastDot < 0 ? "" : className.substring(0, lastDot);
+         final boolean inPackage = classPackage.equals(packageName)
+               || (recursive && classPackage.startsWith(packageName + "."));
+         if (inPackage
+               && (includes.isEmpty() || includes.stream().anyMatch(p -> p.matcher(className).matches()))
+               && excludes.stream().noneMatch(p -> p.matcher(className).matches())) {
+            result.add(className);
          }
       }
-      return matchedCount;
+      return result;
+   }
+
+   /**
+    * Returns the top-level class names of the discovered test classes, converting them on first use.
+    *
+    * @param classFiles the compiled test classes
+    * @param config     splitter configuration (uses {@code getTestOutputDirectory()})
+    * @return the class names of the inventory
+    */
+   private List<String> inventory(List<File> classFiles, TestSplitterConfiguration config) {
+      if (classInventory == null) {
+         final File baseDir = config.getTestOutputDirectory();
+         classInventory = classFiles.stream()
+               .map(classFile -> ClassFileDiscovery.fileToClassName(classFile, baseDir))
+               .filter(className -> className.indexOf('$') < 0)
+               .toList();
+      }
+      return classInventory;
+   }
+
+   /**
+    * Returns the method index of the given class, building it once per run.
+    *
+    * @param clazz the resolved test class
+    * @return the method index of the class
+    */
+   private TestNgMethodIndex methodIndex(Class<?> clazz) {
+      return methodIndexes.computeIfAbsent(clazz, TestNgMethodIndex::of);
    }
 
    /**
-    * Computes the number of test methods contributed by {@code clazz} when no includes are specified.
+    * Computes the number of test methods contributed by {@code clazz} when neither methods nor groups are selected.
     *
     * <ul>
     *   <li>If {@code config.isParallelMethods()} is {@code false}, returns {@code 1}
     *       (treat the class as a single execution unit).</li>
-    *   <li>Otherwise, returns the count of declared methods annotated with
-    *       {@link org.testng.annotations.Test @Test}.</li>
+    *   <li>Otherwise, returns the number of test methods of the class, including the public methods
+    *       of classes annotated with {@link org.testng.annotations.Test @Test}.</li>
     * </ul>
     *
     * @param clazz  the resolved test class
     * @param config splitter configuration (uses {@code isParallelMethods()})
-    * @return {@code 1} when not running in parallel-by-methods mode, otherwise the number of {@code @Test} methods
+    * @return {@code 1} when not running in parallel-by-methods mode, otherwise the number of test methods
     */
    private int countClassTests(Class<?> clazz, TestSplitterConfiguration config) {
       if (!config.isParallelMethods()) {
          return 1;
       }
+      return weigh(clazz, methodIndex(clazz).getTestMethods());
+   }
 
-      int testCount = 0;
-      for (Method m : clazz.getDeclaredMethods()) {
-         if (m.isAnnotationPresent(Test.class)) {
-            testCount++;
-         }
+   /**
+    * Sums the invocation weights of the given test methods.
+    *
+    * @param clazz   the resolved test class
+    * @param methods test methods of the class
+    * @return the number of sequential invocation slots the methods occupy
+    * @see TestNgInvocationEstimator
+    */
+   private int weigh(Class<?> clazz, List<Method> methods) {
+      int weight = 0;
+      for (Method method : methods) {
+         weight += invocationEstimator.weight(clazz, method);
       }
-      return testCount;
+      return weight;
    }
 
    /**
-    * Scans the project directory for TestNG XML suite files.
-    *
-    * <p>This method searches for all `.xml` files under the given project root directory.
-    * It is primarily used to locate TestNG suite configurations for test allocation.
+    * Builds a suite declaring every given TestNG class, used when no suites are configured.
     *
-    * @param projectRoot The root directory of the project.
-    * @return A list of {@link File} objects representing TestNG XML suite files.
+    * @param classNames fully qualified names of the TestNG classes
+    * @return a suite with a single {@code <test>} declaring all classes
     */
-   private List<File> findAllXmlFilesInProject(Path projectRoot) {
-      List<File> result = new ArrayList<>();
-      try (Stream<Path> pathStream = Files.walk(projectRoot)) {
-         pathStream
-               .filter(Files::isRegularFile)
-               .filter(p -> p.getFileName().toString().endsWith(".xml"))
-               .forEach(p -> result.add(p.toFile()));
-      } catch (IOException e) {
-         throw new UncheckedIOException("Failed to traverse project root: " + projectRoot, e);
+   static XmlSuite classSuite(List<String> classNames) {
+      final XmlSuite suite = new XmlSuite();
+      suite.setName(CLASS_SUITE_NAME);
+      final XmlTest test = new XmlTest(suite);
+      test.setName(CLASS_SUITE_NAME);
+      final List<XmlClass> classes = new ArrayList<>(classNames.size());
+      for (int i = 0; i < classNames.size(); i++) {
+         classes.add(new XmlClass(classNames.get(i), i, false));
       }
-      return result;
+      test.setXmlClasses(classes);
+      return suite;
    }
 
 }
@@ -0,0 +1,261 @@
+package io.cyborgcode.roa.maven.plugins.allocator;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactorAllocatorMojo Tests")
+class ReactorAllocatorMojoTest {
+
+   @Mock
+   private Log log;
+
+   private ReactorAllocatorMojo mojo;
+
+   @TempDir
+   Path tempDir;
+
+   @BeforeEach
+   void setUp() throws Exception {
+      mojo = new ReactorAllocatorMojo();
+      setField(mojo, "log", log);
+      lenient().doNothing().when(log).info(anyString());
+   }
+
+   @Nested
+   @DisplayName("Execute Tests")
+   class ExecuteTests {
+
+      @Test
+      @DisplayName("Should skip execution when disabled")
+      void shouldSkipExecutionWhenDisabled() throws Exception {
+         // Arrange
+         setField(mojo, "enabled", false);
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("Disabled. Skipping"));
+         verify(log, never()).info(contains("Scanning"));
+      }
+
+      @Test
+      @DisplayName("Should pack the tests of every module with compiled tests into one manifest")
+      void shouldPackTestsOfEveryModuleIntoOneManifest() throws Exception {
+         // Arrange
+         MavenProject parent = module("parent", "pom", tempDir);
+         MavenProject billing = module("billing", "jar", tempDir.resolve("billing"));
+         MavenProject docs = module("docs", "jar", tempDir.resolve("docs"));
+         copyClass(InvoiceTestFixture.class, Path.of(billing.getBuild().getTestOutputDirectory()));
+         String outputFile = tempDir.resolve("grouped-tests").toString();
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "junit");
+         setField(mojo, "project", parent);
+         setField(mojo, "reactorProjects", List.of(parent, billing, docs));
+         setField(mojo, "testOutputDir", new File(parent.getBuild().getTestOutputDirectory()));
+         setField(mojo, "projectBaseDir", tempDir.toFile());
+         setField(mojo, "reportsDirectory", tempDir.resolve("target/surefire-reports").toFile());
+         setField(mojo, "outputJsonFile", outputFile);
+         setField(mojo, "maxMethods", 20);
+         setField(mojo, "parallelMethods", true);
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("Scanning 1 of 3 reactor modules"));
+         verify(log).info(contains("Module com.acme:billing: 1 units"));
+         String manifest = Files.readString(Path.of(outputFile + ".json"));
+         assertTrue(manifest.contains("\"modules\":[\"com.acme:billing\"]"), manifest);
+         assertTrue(manifest.contains(InvoiceTestFixture.class.getName()), manifest);
+      }
+
+      @Test
+      @DisplayName("Should reject a time budget, which modules packed together would ignore")
+      void shouldRejectTimeBudget() throws Exception {
+         // Arrange
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "junit");
+         setField(mojo, "timeBudget", 600);
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+         verify(log, never()).info(contains("Scanning"));
+      }
+
+      @Test
+      @DisplayName("Should allocate the classes of TestNG modules without suites")
+      void shouldAllocateTestNgModulesWithoutSuitesByClass() throws Exception {
+         // Arrange
+         MavenProject orders = module("orders", "jar", tempDir.resolve("orders"));
+         copyClass(OrderTestNgFixture.class, Path.of(orders.getBuild().getTestOutputDirectory()));
+         String outputFile = tempDir.resolve("grouped-tests").toString();
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "testng");
+         setField(mojo, "project", orders);
+         setField(mojo, "reactorProjects", List.of(orders));
+         setField(mojo, "testOutputDir", new File(orders.getBuild().getTestOutputDirectory()));
+         setField(mojo, "projectBaseDir", tempDir.resolve("orders").toFile());
+         setField(mojo, "reportsDirectory", tempDir.resolve("orders/target/surefire-reports").toFile());
+         setField(mojo, "outputJsonFile", outputFile);
+         setField(mojo, "maxMethods", 20);
+         setField(mojo, "parallelMethods", true);
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("Module com.acme:orders: 1 units"));
+         String manifest = Files.readString(Path.of(outputFile + ".json"));
+         assertTrue(manifest.contains(OrderTestNgFixture.class.getName()), manifest);
+      }
+
+      @Test
+      @DisplayName("Should reject TestNG modules whose Surefire configuration runs suite files")
+      void shouldRejectTestNgModulesWithSuiteXmlFiles() throws Exception {
+         // Arrange
+         MavenProject orders = module("orders", "jar", tempDir.resolve("orders"));
+         Files.createDirectories(Path.of(orders.getBuild().getTestOutputDirectory()));
+         Xpp3Dom suiteXmlFiles = new Xpp3Dom("suiteXmlFiles");
+         Xpp3Dom suiteXmlFile = new Xpp3Dom("suiteXmlFile");
+         suiteXmlFile.setValue("testng.xml");
+         suiteXmlFiles.addChild(suiteXmlFile);
+         Xpp3Dom configuration = new Xpp3Dom("configuration");
+         configuration.addChild(suiteXmlFiles);
+         Plugin surefire = new Plugin();
+         surefire.setGroupId("org.apache.maven.plugins");
+         surefire.setArtifactId("maven-surefire-plugin");
+         surefire.setConfiguration(configuration);
+         orders.getBuild().addPlugin(surefire);
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "testng");
+         setField(mojo, "project", orders);
+         setField(mojo, "reactorProjects", List.of(orders));
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+         verify(log, never()).info(contains("Scanning"));
+      }
+
+      @Test
+      @DisplayName("Should reject TestNG suites, which jobs listing classes would ignore")
+      void shouldRejectTestNgSuites() throws Exception {
+         // Arrange
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "testng");
+         setField(mojo, "suites", "Regression");
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+         verify(log, never()).info(contains("Scanning"));
+      }
+
+      @ParameterizedTest
+      @ValueSource(strings = {"auto", "mixed"})
+      @DisplayName("Should reject engines whose jobs need engine-specific attributes")
+      void shouldRejectEnginesNeedingEngineSpecificAttributes(String engine) throws Exception {
+         // Arrange
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", engine);
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+         verify(log, never()).info(contains("Scanning"));
+      }
+   }
+
+   private MavenProject module(String artifactId, String packaging, Path baseDirectory) {
+      MavenProject module = new MavenProject();
+      module.setGroupId("com.acme");
+      module.setArtifactId(artifactId);
+      module.setPackaging(packaging);
+      module.setFile(baseDirectory.resolve("pom.xml").toFile());
+      module.getBuild().setDirectory(baseDirectory.resolve("target").toString());
+      module.getBuild().setTestOutputDirectory(baseDirectory.resolve("target/test-classes").toString());
+      return module;
+   }
+
+   private void copyClass(Class<?> clazz, Path testOutputDirectory) throws Exception {
+      String className = clazz.getName();
+      Path classFile = testOutputDirectory.resolve(className.replace('.', '/') + ".class");
+      Files.createDirectories(classFile.getParent());
+      try (InputStream in = clazz.getResourceAsStream(
+            className.substring(className.lastIndexOf('.') + 1) + ".class")) {
+         Files.copy(in, classFile);
+      }
+   }
+
+   private void setField(Object target, String fieldName, Object value) throws Exception {
+      Field field = findField(target.getClass(), fieldName);
+      field.setAccessible(true);
+      field.set(target, value);
+   }
+
+   private Field findField(Class<?> clazz, String fieldName) throws NoSuchFieldException {
+      try {
+         return clazz.getDeclaredField(fieldName);
+      } catch (NoSuchFieldException e) {
+         if (clazz.getSuperclass() != null) {
+            return findField(clazz.getSuperclass(), fieldName);
+         }
+         throw e;
+      }
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper class compiled into a module's test output - not meant to be executed as tests.
+    */
+   public static class OrderTestNgFixture {
+      @org.testng.annotations.Test
+      public void placesOrder() {
+      }
+   }
+
+   /**
+    * Helper class compiled into a module's test output - not meant to be executed as tests.
+    */
+   static class InvoiceTestFixture {
+      @org.junit.jupiter.api.Test
+      public void issuesInvoice() {
+      }
+
+      @org.junit.jupiter.api.Test
+      public void cancelsInvoice() {
+      }
+   }
+
+}
@@ -1,11 +1,20 @@
 package io.cyborgcode.roa.maven.plugins.allocator;
 
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestRoot;
 import java.io.File;
+import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import org.apache.maven.model.Plugin;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -19,12 +28,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TestAllocatorMojo Tests")
@@ -160,6 +173,26 @@ class TestAllocatorMojoTest {
          verify(log).info(contains("tagsInclude"));
          verify(log).info(contains("tagsExclude"));
       }
+
+      @Test
+      @DisplayName("Should reject unsupported class orders")
+      void shouldRejectUnsupportedClassOrders() throws Exception {
+         // Arrange
+         File testOutputDir = tempDir.resolve("test-classes").toFile();
+         testOutputDir.mkdirs();
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "junit");
+         setField(mojo, "testOutputDir", testOutputDir);
+         setField(mojo, "maxMethods", 20);
+         setField(mojo, "outputJsonFile", tempDir.resolve("output").toString());
+         setField(mojo, "projectBaseDir", tempDir.toFile());
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+         setField(mojo, "order", "random");
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+      }
    }
 
    @Nested
@@ -252,6 +285,425 @@ class TestAllocatorMojoTest {
          // Act & Assert
          assertDoesNotThrow(() -> mojo.execute());
       }
+
+      @Test
+      @DisplayName("Should allocate all engines together with auto engine")
+      void shouldAllocateAllEnginesTogetherWithAutoEngine() throws Exception {
+         // Arrange
+         File testOutputDir = tempDir.resolve("test-classes").toFile();
+         testOutputDir.mkdirs();
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "auto");
+         setField(mojo, "testOutputDir", testOutputDir);
+         setField(mojo, "maxMethods", 20);
+         setField(mojo, "outputJsonFile", tempDir.resolve("output").toString());
+         setField(mojo, "projectBaseDir", tempDir.toFile());
+         setField(mojo, "parallelMethods", true);
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("testEngine = auto"));
+         verify(log).info(contains("tagsInclude"));
+         verify(log).info(contains("groupsInclude"));
+      }
+
+      @Test
+      @DisplayName("Should allocate Cucumber scenarios with cucumber engine")
+      void shouldAllocateCucumberScenariosWithCucumberEngine() throws Exception {
+         // Arrange
+         File testOutputDir = tempDir.resolve("test-classes").toFile();
+         testOutputDir.mkdirs();
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "cucumber");
+         setField(mojo, "testOutputDir", testOutputDir);
+         setField(mojo, "maxMethods", 20);
+         setField(mojo, "outputJsonFile", tempDir.resolve("output").toString());
+         setField(mojo, "projectBaseDir", tempDir.toFile());
+         setField(mojo, "parallelMethods", true);
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+         setField(mojo, "featuresDirectory", tempDir.resolve("features").toFile());
+         setField(mojo, "cucumberTags", "@smoke");
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("testEngine = cucumber"));
+         verify(log).info(contains("tagExpression = @smoke"));
+      }
+   }
+
+   @Nested
+   @DisplayName("Execute Tests - Test Roots")
+   class ExecuteTestsTestRoots {
+
+      @BeforeEach
+      void setUpRoots() throws Exception {
+         Path unitRoot = tempDir.resolve("test-classes");
+         Path integrationRoot = tempDir.resolve("it-classes");
+         copyClass(InvoiceTestFixture.class, unitRoot);
+         copyClass(InvoiceTestFixture.class, integrationRoot);
+         copyClass(CheckoutItFixture.class, integrationRoot);
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "junit");
+         setField(mojo, "testOutputDir", unitRoot.toFile());
+         setField(mojo, "maxMethods", 20);
+         setField(mojo, "outputJsonFile", tempDir.resolve("output").toString());
+         setField(mojo, "projectBaseDir", tempDir.toFile());
+         setField(mojo, "parallelMethods", true);
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+         setField(mojo, "testRoots", List.of(
+               new TestRoot(unitRoot.toFile(), null),
+               new TestRoot(integrationRoot.toFile(), "failsafe")));
+      }
+
+      @Test
+      @DisplayName("Should allocate the roots together, each class once with its first root")
+      void shouldAllocateRootsTogether() throws Exception {
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("Scanning 2 test roots"));
+         verify(log).info(contains("Skipped 1 classes allocated with a preceding test root"));
+         String manifest = Files.readString(tempDir.resolve("output.json"));
+         assertTrue(manifest.contains("{\"surefire\":[\"" + InvoiceTestFixture.class.getName() + "\"]}"),
+               manifest);
+         assertTrue(manifest.contains("{\"failsafe\":[\"" + CheckoutItFixture.class.getName() + "\"]}"),
+               manifest);
+      }
+
+      @Test
+      @DisplayName("Should write one manifest per runner with separate packing")
+      void shouldWriteOneManifestPerRunnerWithSeparatePacking() throws Exception {
+         // Arrange
+         setField(mojo, "rootPacking", "separate");
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         assertTrue(Files.readString(tempDir.resolve("output-surefire.json"))
+               .contains(InvoiceTestFixture.class.getName()));
+         assertTrue(Files.readString(tempDir.resolve("output-failsafe.json"))
+               .contains(CheckoutItFixture.class.getName()));
+      }
+
+      @Test
+      @DisplayName("Should allocate a TestNG test root without suites by class")
+      void shouldAllocateTestNgTestRootByClass() throws Exception {
+         // Arrange
+         Path testNgRoot = tempDir.resolve("testng-it-classes");
+         copyClass(PaymentTestNgItFixture.class, testNgRoot);
+         setField(mojo, "testEngine", "testng");
+         setField(mojo, "testRoots", List.of(new TestRoot(testNgRoot.toFile(), "failsafe")));
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("Scanning 1 test roots"));
+         String manifest = Files.readString(tempDir.resolve("output.json"));
+         assertTrue(manifest.contains("{\"failsafe\":[\"" + PaymentTestNgItFixture.class.getName() + "\"]}"),
+               manifest);
+      }
+
+      @Test
+      @DisplayName("Should reject a TestNG test root whose runner plugin runs suite files")
+      void shouldRejectTestNgTestRootWithSuiteXmlFiles() throws Exception {
+         // Arrange
+         Xpp3Dom configuration = new Xpp3Dom("configuration");
+         configuration.addChild(patterns("suiteXmlFiles", "suiteXmlFile", "testng-it.xml"));
+         Plugin failsafe = new Plugin();
+         failsafe.setConfiguration(configuration);
+         when(mavenProject.getPlugin("org.apache.maven.plugins:maven-failsafe-plugin")).thenReturn(failsafe);
+         setField(mojo, "testEngine", "testng");
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+         verify(log, never()).info(contains("Scanning"));
+      }
+
+      @ParameterizedTest
+      @ValueSource(strings = {"suites", "mixed", "launcher", "resultCache", "sticky", "timeBudget", "order"})
+      @DisplayName("Should reject engines and settings the test roots do not support")
+      void shouldRejectEnginesAndSettingsTestRootsDoNotSupport(String setting) throws Exception {
+         // Arrange
+         switch (setting) {
+            case "suites" -> {
+               setField(mojo, "testEngine", "testng");
+               setField(mojo, "suites", "Regression");
+            }
+            case "mixed" -> setField(mojo, "testEngine", setting);
+            case "launcher" -> setField(mojo, "junitDiscovery", "launcher");
+            case "resultCache" -> setField(mojo, "resultCache", tempDir.resolve("results").toFile());
+            case "sticky" -> setField(mojo, "sticky", true);
+            case "timeBudget" -> setField(mojo, "timeBudget", 600);
+            default -> setField(mojo, "order", "failures");
+         }
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+         verify(log, never()).info(contains("Scanning"));
+      }
+
+      @Test
+      @DisplayName("Should reject unsupported root packing")
+      void shouldRejectUnsupportedRootPacking() throws Exception {
+         // Arrange
+         setField(mojo, "rootPacking", "interleaved");
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+      }
+   }
+
+   @Nested
+   @DisplayName("Execute Tests - Runner Patterns")
+   class ExecuteTestsRunnerPatterns {
+
+      @BeforeEach
+      void setUpClasses() throws Exception {
+         Path testOutputDir = tempDir.resolve("test-classes");
+         copyClass(InvoiceTestFixture.class, testOutputDir);
+         copyClass(CheckoutItFixture.class, testOutputDir);
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "junit");
+         setField(mojo, "testOutputDir", testOutputDir.toFile());
+         setField(mojo, "maxMethods", 20);
+         setField(mojo, "outputJsonFile", tempDir.resolve("output").toString());
+         setField(mojo, "projectBaseDir", tempDir.toFile());
+         setField(mojo, "parallelMethods", true);
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+         setField(mojo, "runnerPatterns", true);
+      }
+
+      @Test
+      @DisplayName("Should select the classes matching the Surefire patterns of the project")
+      void shouldSelectClassesMatchingSurefirePatterns() throws Exception {
+         // Arrange
+         Xpp3Dom configuration = new Xpp3Dom("configuration");
+         configuration.addChild(patterns("includes", "include", "**/*Fixture.java"));
+         configuration.addChild(patterns("excludes", "exclude", "**/*Checkout*"));
+         Plugin surefire = new Plugin();
+         surefire.setConfiguration(configuration);
+         when(mavenProject.getPlugin("org.apache.maven.plugins:maven-surefire-plugin")).thenReturn(surefire);
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("Selected 1 of 2 class files"));
+         String manifest = Files.readString(tempDir.resolve("output.json"));
+         assertTrue(manifest.contains(InvoiceTestFixture.class.getName()), manifest);
+         assertFalse(manifest.contains(CheckoutItFixture.class.getName()), manifest);
+      }
+
+      @Test
+      @DisplayName("Should prefer the patterns given to the goal over those of the project")
+      void shouldPreferPatternsGivenToGoal() throws Exception {
+         // Arrange
+         setField(mojo, "includes", "**/*Fixture");
+         setField(mojo, "excludes", "**/*Invoice*");
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         String manifest = Files.readString(tempDir.resolve("output.json"));
+         assertTrue(manifest.contains(CheckoutItFixture.class.getName()), manifest);
+         assertFalse(manifest.contains(InvoiceTestFixture.class.getName()), manifest);
+      }
+
+      @Test
+      @DisplayName("Should skip nested classes with the default patterns")
+      void shouldSkipNestedClassesWithDefaultPatterns() throws Exception {
+         // Act
+         mojo.execute();
+
+         // Assert
+         verify(log).info(contains("Selected 0 of 2 class files"));
+      }
+   }
+
+   @Nested
+   @DisplayName("Execute Tests - Rerun Failed")
+   class ExecuteTestsRerunFailed {
+
+      @BeforeEach
+      void setUpReports() throws Exception {
+         Path reports = Files.createDirectories(tempDir.resolve("surefire-reports"));
+         Files.writeString(reports.resolve("TEST-com.acme.CartTest.xml"), "<testsuite>"
+               + "<testcase classname=\"com.acme.CartTest\" name=\"addsItem\" time=\"2\"><failure/></testcase>"
+               + "<testcase classname=\"com.acme.CartTest\" name=\"totals\" time=\"1\"/>"
+               + "</testsuite>");
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "rerunFailed", true);
+         setField(mojo, "testOutputDir", tempDir.resolve("test-classes").toFile());
+         setField(mojo, "outputJsonFile", tempDir.resolve("output").toString());
+         setField(mojo, "projectBaseDir", tempDir.toFile());
+         setField(mojo, "reportsDirectory", reports.toFile());
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+      }
+
+      @Test
+      @DisplayName("Should allocate the failed methods of the previous attempt without scanning classes")
+      void shouldAllocateFailedMethodsOfPreviousAttempt() throws Exception {
+         // Arrange
+         setField(mojo, "testEngine", "junit");
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         String manifest = Files.readString(tempDir.resolve("output.json"));
+         assertTrue(manifest.contains("\"com.acme.CartTest#addsItem\""), manifest);
+         assertFalse(manifest.contains("totals"), manifest);
+         verify(log, never()).info(contains("Starting test splitting"));
+      }
+
+      @Test
+      @DisplayName("Should reject rerunning Cucumber scenarios")
+      void shouldRejectRerunningCucumberScenarios() throws Exception {
+         // Arrange
+         setField(mojo, "testEngine", "cucumber");
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+      }
+   }
+
+   @Nested
+   @DisplayName("Execute Tests - Shard")
+   class ExecuteTestsShard {
+
+      private final Properties properties = new Properties();
+
+      @BeforeEach
+      void setUpClasses() throws Exception {
+         Path testOutputDir = tempDir.resolve("test-classes");
+         copyClass(InvoiceTestFixture.class, testOutputDir);
+         copyClass(CheckoutItFixture.class, testOutputDir);
+
+         setField(mojo, "enabled", true);
+         setField(mojo, "testEngine", "junit");
+         setField(mojo, "testOutputDir", testOutputDir.toFile());
+         setField(mojo, "maxMethods", 20);
+         setField(mojo, "outputJsonFile", tempDir.resolve("output").toString());
+         setField(mojo, "projectBaseDir", tempDir.toFile());
+         setField(mojo, "parallelMethods", true);
+         setField(mojo, "maxNumberOfParallelRunners", 5);
+         lenient().when(mavenProject.getProperties()).thenReturn(properties);
+      }
+
+      @Test
+      @DisplayName("Should set the classes of the shard as the test property without writing a manifest")
+      void shouldSetClassesOfShardAsTestProperty() throws Exception {
+         // Arrange
+         setField(mojo, "shard", "1/1");
+         setField(mojo, "shardStrategy", "packed");
+
+         // Act
+         mojo.execute();
+
+         // Assert
+         assertEquals(String.join(",", CheckoutItFixture.class.getName(), InvoiceTestFixture.class.getName()),
+               properties.getProperty("test"));
+         assertFalse(Files.exists(tempDir.resolve("output.json")));
+         verify(log).info(contains("Shard 1/1 (packed): 2 of 2 test classes"));
+      }
+
+      @Test
+      @DisplayName("Should split the classes between the shards by hashing")
+      void shouldSplitClassesBetweenShardsByHashing() throws Exception {
+         // Arrange
+         List<String> selected = new ArrayList<>();
+
+         // Act
+         for (int i = 1; i <= 3; i++) {
+            properties.clear();
+            setField(mojo, "shard", i + "/3");
+            mojo.execute();
+            if ("!**/*".equals(properties.getProperty("test"))) {
+               assertEquals("false", properties.getProperty("surefire.failIfNoSpecifiedTests"));
+               assertFalse(properties.containsKey("skipTests"), "Other plugins honouring skipTests still run");
+            } else {
+               selected.addAll(List.of(properties.getProperty("test").split(",")));
+            }
+         }
+
+         // Assert
+         assertEquals(Set.of(CheckoutItFixture.class.getName(), InvoiceTestFixture.class.getName()),
+               Set.copyOf(selected));
+         assertEquals(2, selected.size());
+      }
+
+      @ParameterizedTest
+      @ValueSource(strings = {"4/3", "first"})
+      @DisplayName("Should reject malformed shards")
+      void shouldRejectMalformedShards(String shard) throws Exception {
+         // Arrange
+         setField(mojo, "shard", shard);
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+      }
+
+      @Test
+      @DisplayName("Should reject unsupported shard strategies")
+      void shouldRejectUnsupportedShardStrategies() throws Exception {
+         // Arrange
+         setField(mojo, "shard", "1/2");
+         setField(mojo, "shardStrategy", "random");
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+      }
+
+      @ParameterizedTest
+      @ValueSource(strings = {"testng", "launcher", "suites", "suiteXmlFiles"})
+      @DisplayName("Should reject sharding where suites or unique IDs describe the tests to run")
+      void shouldRejectShardingWithSuitesOrUniqueIds(String setup) throws Exception {
+         // Arrange
+         setField(mojo, "shard", "1/2");
+         switch (setup) {
+            case "testng" -> setField(mojo, "testEngine", "testng");
+            case "launcher" -> setField(mojo, "junitDiscovery", "launcher");
+            case "suites" -> {
+               setField(mojo, "testEngine", "mixed");
+               setField(mojo, "suites", "Regression");
+            }
+            default -> {
+               Xpp3Dom configuration = new Xpp3Dom("configuration");
+               configuration.addChild(patterns("suiteXmlFiles", "suiteXmlFile", "testng.xml"));
+               Plugin surefire = new Plugin();
+               surefire.setConfiguration(configuration);
+               when(mavenProject.getPlugin("org.apache.maven.plugins:maven-surefire-plugin")).thenReturn(surefire);
+            }
+         }
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+      }
+
+      @Test
+      @DisplayName("Should reject sharding with a time budget")
+      void shouldRejectShardingWithTimeBudget() throws Exception {
+         // Arrange
+         setField(mojo, "shard", "1/2");
+         setField(mojo, "timeBudget", 600);
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> mojo.execute());
+      }
    }
 
    @Nested
@@ -473,6 +925,26 @@ class TestAllocatorMojoTest {
 
    // ===== Helper Methods =====
 
+   private void copyClass(Class<?> clazz, Path testOutputDirectory) throws Exception {
+      String className = clazz.getName();
+      Path classFile = testOutputDirectory.resolve(className.replace('.', '/') + ".class");
+      Files.createDirectories(classFile.getParent());
+      try (InputStream in = clazz.getResourceAsStream(
+            className.substring(className.lastIndexOf('.') + 1) + ".class")) {
+         Files.copy(in, classFile);
+      }
+   }
+
+   private Xpp3Dom patterns(String name, String childName, String... values) {
+      Xpp3Dom patterns = new Xpp3Dom(name);
+      for (String value : values) {
+         Xpp3Dom pattern = new Xpp3Dom(childName);
+         pattern.setValue(value);
+         patterns.addChild(pattern);
+      }
+      return patterns;
+   }
+
    private void setField(Object target, String fieldName, Object value) throws Exception {
       Field field = findField(target.getClass(), fieldName);
       field.setAccessible(true);
@@ -489,4 +961,28 @@ class TestAllocatorMojoTest {
          throw e;
       }
    }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper classes compiled into a test root - not meant to be executed as tests.
+    */
+   static class InvoiceTestFixture {
+      @org.junit.jupiter.api.Test
+      public void issuesInvoice() {
+      }
+   }
+
+   static class CheckoutItFixture {
+      @org.junit.jupiter.api.Test
+      public void checksOut() {
+      }
+   }
+
+   public static class PaymentTestNgItFixture {
+      @org.testng.annotations.Test
+      public void capturesPayment() {
+      }
+   }
+
 }
@@ -0,0 +1,143 @@
+package io.cyborgcode.roa.maven.plugins.allocator.bytecode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ClassFile Tests")
+class ClassFileTest {
+
+   @Nested
+   @DisplayName("parse Tests")
+   class ParseTests {
+
+      @Test
+      @DisplayName("Should read class name and declared methods")
+      void shouldReadClassNameAndDeclaredMethods() throws IOException {
+         // Act
+         ClassFile classFile = ClassFile.parse(bytes(ParsedFixture.class));
+
+         // Assert
+         assertEquals(ParsedFixture.class.getName(), classFile.getClassName());
+         assertTrue(classFile.findMethod("rows", "()[[Ljava/lang/Object;").isPresent());
+         assertTrue(classFile.findMethod("rows", null).isPresent());
+         assertTrue(classFile.findMethod("missing", null).isEmpty());
+      }
+
+      @Test
+      @DisplayName("Should expose referenced classes from the constant pool")
+      void shouldExposeReferencedClassesFromConstantPool() throws IOException {
+         // Act
+         List<String> referenced = ClassFile.parse(bytes(ParsedFixture.class)).getReferencedClasses();
+
+         // Assert
+         assertTrue(referenced.contains("java/lang/StringBuilder"));
+      }
+
+      @Test
+      @DisplayName("Should expose the classes named in type descriptors")
+      void shouldExposeClassesNamedInTypeDescriptors() throws IOException {
+         // Act
+         List<String> described = ClassFile.parse(bytes(ParsedFixture.class)).getDescriptorClasses();
+
+         // Assert
+         assertTrue(described.contains("java/lang/Object"));
+      }
+
+      @Test
+      @DisplayName("Should reject content that is not a class file")
+      void shouldRejectContentThatIsNotClassFile() {
+         // Act & Assert
+         assertThrows(IOException.class, () -> ClassFile.parse(new byte[] {1, 2, 3, 4, 5, 6, 7, 8}));
+      }
+   }
+
+   @Nested
+   @DisplayName("Instructions Tests")
+   class InstructionsTests {
+
+      @Test
+      @DisplayName("Should visit the string constants loaded by a method")
+      void shouldVisitStringConstantsLoadedByMethod() throws IOException {
+         // Arrange
+         ClassFile classFile = ClassFile.parse(bytes(ParsedFixture.class));
+         byte[] code = classFile.findMethod("text", null).orElseThrow().getCode();
+         List<String> strings = new ArrayList<>();
+
+         // Act
+         Instructions.forEach(code, (opcode, bytes, offset) -> {
+            if (opcode == Instructions.LDC) {
+               strings.add(classFile.stringConstant(Instructions.u1(bytes, offset + 1)));
+            }
+         });
+
+         // Assert
+         assertEquals(List.of("first", "second"), strings);
+      }
+
+      @Test
+      @DisplayName("Should step over switch instructions")
+      void shouldStepOverSwitchInstructions() throws IOException {
+         // Arrange
+         byte[] code = ClassFile.parse(bytes(ParsedFixture.class)).findMethod("select", null).orElseThrow().getCode();
+         int[] visited = {0};
+
+         // Act
+         Instructions.forEach(code, (opcode, bytes, offset) -> visited[0] += Instructions.length(bytes, offset));
+
+         // Assert
+         assertEquals(code.length, visited[0]);
+      }
+   }
+
+   private static byte[] bytes(Class<?> type) throws IOException {
+      try (InputStream in = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+         return in.readAllBytes();
+      }
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class ParsedFixture {
+      public Object[][] rows() {
+         return new Object[][] {{1}, {2}};
+      }
+
+      public String text() {
+         return new StringBuilder("first").append("second").toString();
+      }
+
+      public int select(int value) {
+         switch (value) {
+            case 1:
+               return 10;
+            case 2:
+               return 20;
+            case 3:
+               return 30;
+            default:
+               break;
+         }
+         switch (value) {
+            case 100:
+               return 1;
+            case 10_000:
+               return 2;
+            default:
+               return 0;
+         }
+      }
+   }
+
+}
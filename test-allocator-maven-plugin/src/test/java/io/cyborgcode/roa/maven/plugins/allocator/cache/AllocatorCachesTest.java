@@ -0,0 +1,117 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cache;
+
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testng.xml.XmlSuite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("AllocatorCaches Tests")
+class AllocatorCachesTest {
+
+   private static final String REPORT = """
+         <?xml version="1.0" encoding="UTF-8"?>
+         <testsuite name="com.example.LoginTest" tests="1">
+           <testcase name="login" classname="com.example.LoginTest" time="%s"/>
+         </testsuite>
+         """;
+
+   @TempDir
+   Path tempDir;
+
+   @Nested
+   @DisplayName("forSession Tests")
+   class ForSessionTests {
+
+      @Test
+      @DisplayName("Should create fresh caches without a session")
+      void shouldCreateFreshCachesWithoutSession() {
+         // Act & Assert
+         assertNotSame(AllocatorCaches.forSession(null), AllocatorCaches.forSession(null));
+      }
+   }
+
+   @Nested
+   @DisplayName("suite Tests")
+   class SuiteTests {
+
+      @Test
+      @DisplayName("Should parse a suite content hash only once")
+      void shouldParseSuiteContentHashOnce() {
+         // Arrange
+         AllocatorCaches caches = new AllocatorCaches();
+         AtomicInteger parses = new AtomicInteger();
+
+         // Act
+         XmlSuite first = caches.suite("abc", hash -> {
+            parses.incrementAndGet();
+            return new XmlSuite();
+         });
+         XmlSuite second = caches.suite("abc", hash -> {
+            parses.incrementAndGet();
+            return new XmlSuite();
+         });
+
+         // Assert
+         assertSame(first, second);
+         assertEquals(1, parses.get());
+      }
+   }
+
+   @Nested
+   @DisplayName("history Tests")
+   class HistoryTests {
+
+      @Test
+      @DisplayName("Should reuse the history of an unchanged reports directory")
+      void shouldReuseHistoryOfUnchangedDirectory() throws IOException {
+         // Arrange
+         Files.writeString(tempDir.resolve("TEST-com.example.LoginTest.xml"), String.format(REPORT, "1.5"));
+         AllocatorCaches caches = new AllocatorCaches();
+
+         // Act
+         TestHistory first = caches.history(tempDir.toFile());
+         TestHistory second = caches.history(tempDir.toFile());
+
+         // Assert
+         assertSame(first, second);
+         assertEquals(1.5, first.method("com.example.LoginTest", "login").getDuration(), 0.0001);
+      }
+
+      @Test
+      @DisplayName("Should read reports again once they are rewritten")
+      void shouldReadReportsAgainOnceRewritten() throws IOException {
+         // Arrange
+         Path report = tempDir.resolve("TEST-com.example.LoginTest.xml");
+         Files.writeString(report, String.format(REPORT, "1.5"));
+         AllocatorCaches caches = new AllocatorCaches();
+         caches.history(tempDir.toFile());
+         Files.writeString(report, String.format(REPORT, "4.0"));
+         report.toFile().setLastModified(System.currentTimeMillis() + 60_000);
+
+         // Act
+         TestHistory history = caches.history(tempDir.toFile());
+
+         // Assert
+         assertEquals(4.0, history.method("com.example.LoginTest", "login").getDuration(), 0.0001);
+      }
+
+      @Test
+      @DisplayName("Missing directory should yield the empty history")
+      void missingDirectoryShouldYieldEmptyHistory() {
+         // Act & Assert
+         assertSame(TestHistory.empty(), new AllocatorCaches().history(tempDir.resolve("missing").toFile()));
+         assertSame(TestHistory.empty(), new AllocatorCaches().history(null));
+      }
+   }
+
+}
@@ -0,0 +1,89 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cache;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("StripedCache Tests")
+class StripedCacheTest {
+
+   @Nested
+   @DisplayName("get Tests")
+   class GetTests {
+
+      @Test
+      @DisplayName("Should load a key once and return the cached value afterwards")
+      void shouldLoadKeyOnce() {
+         // Arrange
+         StripedCache<String, String> cache = new StripedCache<>(4, 8);
+         AtomicInteger loads = new AtomicInteger();
+
+         // Act
+         String first = cache.get("suite", key -> key + "#" + loads.incrementAndGet());
+         String second = cache.get("suite", key -> key + "#" + loads.incrementAndGet());
+
+         // Assert
+         assertEquals("suite#1", first);
+         assertEquals("suite#1", second);
+         assertEquals(1, loads.get());
+      }
+
+      @Test
+      @DisplayName("Should evict the least recently used entry of a full stripe")
+      void shouldEvictLeastRecentlyUsedEntry() {
+         // Arrange
+         StripedCache<Integer, String> cache = new StripedCache<>(1, 2);
+         cache.get(1, String::valueOf);
+         cache.get(2, String::valueOf);
+         cache.get(1, key -> "reloaded");
+
+         // Act
+         cache.get(3, String::valueOf);
+
+         // Assert
+         assertEquals(2, cache.size());
+         assertEquals("1", cache.get(1, key -> "reloaded"));
+         assertEquals("reloaded", cache.get(2, key -> "reloaded"));
+      }
+
+      @Test
+      @DisplayName("Should not cache null values")
+      void shouldNotCacheNullValues() {
+         // Arrange
+         StripedCache<String, String> cache = new StripedCache<>(4, 8);
+
+         // Act
+         String missing = cache.get("suite", key -> null);
+
+         // Assert
+         assertNull(missing);
+         assertEquals(0, cache.size());
+         assertEquals("loaded", cache.get("suite", key -> "loaded"));
+      }
+
+      @Test
+      @DisplayName("Concurrent lookups of the same key should all see the first stored value")
+      void concurrentLookupsShouldSeeFirstStoredValue() {
+         // Arrange
+         StripedCache<Integer, Object> cache = new StripedCache<>(16, 64);
+
+         // Act
+         List<Object> values = IntStream.range(0, 200).parallel()
+               .mapToObj(i -> cache.get(i % 10, key -> new Object()))
+               .toList();
+
+         // Assert
+         assertEquals(10, cache.size());
+         for (int i = 0; i < values.size(); i++) {
+            assertEquals(cache.get(i % 10, key -> null), values.get(i));
+         }
+      }
+   }
+
+}
@@ -0,0 +1,208 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cache;
+
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestTagInventory;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TestInventoryCache Tests")
+class TestInventoryCacheTest {
+
+   private static final String PROJECT = "com.acme:checkout@/build/test-classes";
+
+   @Mock
+   private TestClassLoader testClassLoader;
+
+   @TempDir
+   Path tempDir;
+
+   private TestInventoryCache cache;
+
+   private File checkoutFile;
+
+   private File searchFile;
+
+   @BeforeEach
+   void setUp() throws IOException {
+      cache = new TestInventoryCache(1, 4);
+      checkoutFile = writeClassFile(CheckoutFixture.class);
+      searchFile = writeClassFile(SearchFixture.class);
+   }
+
+   @Nested
+   @DisplayName("inventory Tests")
+   class InventoryTests {
+
+      @Test
+      @DisplayName("Should reuse the tests of unchanged classes without loading them again")
+      void shouldReuseTestsOfUnchangedClasses() {
+         // Arrange
+         when(testClassLoader.getUrls()).thenReturn(new URL[0]);
+         stubLoading(CheckoutFixture.class, SearchFixture.class);
+         List<File> classFiles = List.of(checkoutFile, searchFile);
+
+         // Act
+         TestInventoryCache.Lookup first = cache.inventory(PROJECT, classFiles, tempDir.toFile(), testClassLoader);
+         TestInventoryCache.Lookup second = cache.inventory(PROJECT, classFiles, tempDir.toFile(), testClassLoader);
+
+         // Assert
+         assertEquals(0, first.getReusedClasses());
+         assertEquals(2, second.getReusedClasses());
+         assertEquals(Map.of(CheckoutFixture.class.getName(), 2, SearchFixture.class.getName(), 1),
+               second.getInventory().countsFor(Set.of(), Set.of(), true));
+         verify(testClassLoader, times(1)).loadClass(CheckoutFixture.class.getName());
+         verify(testClassLoader, times(1)).loadClass(SearchFixture.class.getName());
+      }
+
+      @Test
+      @DisplayName("Should reflect changed classes again and drop deleted ones")
+      void shouldReflectChangedClassesAndDropDeletedOnes() throws IOException {
+         // Arrange
+         when(testClassLoader.getUrls()).thenReturn(new URL[0]);
+         stubLoading(CheckoutFixture.class, SearchFixture.class);
+         cache.inventory(PROJECT, List.of(checkoutFile, searchFile), tempDir.toFile(), testClassLoader);
+         Files.writeString(checkoutFile.toPath(), "recompiled");
+         checkoutFile.setLastModified(checkoutFile.lastModified() + 60_000);
+
+         // Act
+         TestInventoryCache.Lookup lookup =
+               cache.inventory(PROJECT, List.of(checkoutFile), tempDir.toFile(), testClassLoader);
+
+         // Assert
+         assertEquals(0, lookup.getReusedClasses());
+         assertEquals(Map.of(CheckoutFixture.class.getName(), 2),
+               lookup.getInventory().countsFor(Set.of(), Set.of(), true));
+         verify(testClassLoader, times(2)).loadClass(CheckoutFixture.class.getName());
+      }
+
+      @Test
+      @DisplayName("Should reflect subclasses again when a supertype in the test output changes")
+      void shouldReflectSubclassesWhenSupertypeChanges() throws IOException {
+         // Arrange
+         when(testClassLoader.getUrls()).thenReturn(new URL[0]);
+         stubLoading(InheritingFixture.class);
+         File baseFile = writeClassFile(BaseFixture.class);
+         List<File> classFiles = List.of(writeClassFile(InheritingFixture.class));
+         cache.inventory(PROJECT, classFiles, tempDir.toFile(), testClassLoader);
+         TestInventoryCache.Lookup unchanged =
+               cache.inventory(PROJECT, classFiles, tempDir.toFile(), testClassLoader);
+         Files.writeString(baseFile.toPath(), "recompiled");
+         baseFile.setLastModified(baseFile.lastModified() + 60_000);
+
+         // Act
+         TestInventoryCache.Lookup lookup = cache.inventory(PROJECT, classFiles, tempDir.toFile(), testClassLoader);
+
+         // Assert
+         assertEquals(1, unchanged.getReusedClasses());
+         assertEquals(0, lookup.getReusedClasses(), "The base class is not allocated, but its change counts");
+         verify(testClassLoader, times(2)).loadClass(InheritingFixture.class.getName());
+      }
+
+      @Test
+      @DisplayName("Should discard the recorded tests when the dependency classpath changes")
+      void shouldDiscardRecordedTestsWhenClasspathChanges() throws Exception {
+         // Arrange
+         Path dependency = Files.writeString(tempDir.resolve("shared-fixtures.jar"), "jar");
+         when(testClassLoader.getUrls())
+               .thenReturn(new URL[0])
+               .thenReturn(new URL[] {dependency.toUri().toURL()});
+         stubLoading(CheckoutFixture.class);
+         List<File> classFiles = List.of(checkoutFile);
+         cache.inventory(PROJECT, classFiles, tempDir.toFile(), testClassLoader);
+
+         // Act
+         TestInventoryCache.Lookup lookup = cache.inventory(PROJECT, classFiles, tempDir.toFile(), testClassLoader);
+
+         // Assert
+         assertEquals(0, lookup.getReusedClasses());
+         verify(testClassLoader, times(2)).loadClass(CheckoutFixture.class.getName());
+      }
+   }
+
+   @Nested
+   @DisplayName("scan Tests")
+   class ScanTests {
+
+      @Test
+      @DisplayName("Should record the tests, tags and sequential classes of every loadable class")
+      void shouldRecordTestsOfEveryLoadableClass() {
+         // Arrange
+         stubLoading(CheckoutFixture.class);
+         when(testClassLoader.loadClass(SearchFixture.class.getName())).thenReturn(null);
+
+         // Act
+         TestTagInventory inventory =
+               TestInventoryCache.scan(List.of(checkoutFile, searchFile), tempDir.toFile(), testClassLoader);
+
+         // Assert
+         assertEquals(2, inventory.size());
+         assertEquals(Map.of("smoke", 1), inventory.tagIndex());
+      }
+   }
+
+   private void stubLoading(Class<?>... classes) {
+      for (Class<?> clazz : classes) {
+         doReturn(clazz).when(testClassLoader).loadClass(clazz.getName());
+      }
+   }
+
+   private File writeClassFile(Class<?> clazz) throws IOException {
+      Path classFile = tempDir.resolve(clazz.getName().replace('.', File.separatorChar) + ".class");
+      Files.createDirectories(classFile.getParent());
+      return Files.writeString(classFile, clazz.getSimpleName()).toFile();
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper classes inspected by reflection - not meant to be executed as tests.
+    */
+   static class CheckoutFixture {
+      @Test
+      @Tag("smoke")
+      void payByCard() {
+      }
+
+      @Test
+      void refund() {
+      }
+   }
+
+   static class SearchFixture {
+      @Test
+      void searchByName() {
+      }
+   }
+
+   abstract static class BaseFixture {
+      @Test
+      void login() {
+      }
+   }
+
+   static class InheritingFixture extends BaseFixture {
+   }
+
+}
@@ -0,0 +1,55 @@
+package io.cyborgcode.roa.maven.plugins.allocator.config;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TagProfile Tests")
+class TagProfileTest {
+
+   @Nested
+   @DisplayName("tagFilter Tests")
+   class TagFilterTests {
+
+      @Test
+      @DisplayName("Should select tests matching any include expression and no exclude expression")
+      void shouldSelectTestsMatchingAnyIncludeAndNoExclude() {
+         // Arrange
+         TagProfile profile = new TagProfile("fast", "smoke & !slow, none()", "flaky");
+
+         // Act
+         Predicate<Collection<String>> filter = profile.tagFilter();
+
+         // Assert
+         assertTrue(filter.test(Set.of("smoke")));
+         assertTrue(filter.test(Set.of()), "Untagged tests match none()");
+         assertFalse(filter.test(Set.of("smoke", "slow")));
+         assertFalse(filter.test(Set.of("smoke", "flaky")));
+      }
+
+      @Test
+      @DisplayName("Should select every test without includes or excludes")
+      void shouldSelectEveryTestWithoutIncludesOrExcludes() {
+         // Act & Assert
+         assertTrue(new TagProfile("all", null, " ").tagFilter().test(Set.of("slow")));
+      }
+
+      @Test
+      @DisplayName("Should reject malformed tag expressions")
+      void shouldRejectMalformedTagExpressions() {
+         // Arrange
+         TagProfile profile = new TagProfile("broken", "smoke &", null);
+
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, profile::tagFilter);
+      }
+   }
+
+}
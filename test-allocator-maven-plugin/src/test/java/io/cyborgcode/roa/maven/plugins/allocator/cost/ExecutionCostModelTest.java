@@ -0,0 +1,116 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cost;
+
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("ExecutionCostModel Tests")
+class ExecutionCostModelTest {
+
+   @Nested
+   @DisplayName("classCost Tests")
+   class ClassCostTests {
+
+      @Test
+      @DisplayName("Sequential model should cost one unit per method")
+      void sequentialModelShouldCostOneUnitPerMethod() {
+         // Act
+         double cost = ExecutionCostModel.sequential().classCost("TestClass", 12);
+
+         // Assert
+         assertEquals(12.0, cost, 0.0001);
+      }
+
+      @Test
+      @DisplayName("Should divide methods by method concurrency")
+      void shouldDivideMethodsByMethodConcurrency() {
+         // Arrange
+         ExecutionCostModel model = new ExecutionCostModel(
+               Map.of("Concurrent", ExecutionConcurrency.of(4, 1)),
+               ExecutionConcurrency.sequential()
+         );
+
+         // Act & Assert
+         assertEquals(10.0, model.classCost("Concurrent", 40), 0.0001);
+         assertEquals(40.0, model.classCost("Other", 40), 0.0001, "Unknown classes use the default concurrency");
+      }
+
+      @Test
+      @DisplayName("Non-empty class should cost at least one unit")
+      void nonEmptyClassShouldCostAtLeastOneUnit() {
+         // Arrange
+         ExecutionCostModel model = new ExecutionCostModel(Map.of(), ExecutionConcurrency.of(16, 1));
+
+         // Act & Assert
+         assertEquals(1.0, model.classCost("Small", 3), 0.0001);
+         assertEquals(0.0, model.classCost("Empty", 0), 0.0001);
+      }
+   }
+
+   @Nested
+   @DisplayName("BucketEstimate Tests")
+   class BucketEstimateTests {
+
+      @Test
+      @DisplayName("Sequential bucket should sum class costs")
+      void sequentialBucketShouldSumClassCosts() {
+         // Act
+         double cost = ExecutionCostModel.sequential().emptyBucket()
+               .with("A", 5)
+               .with("B", 7)
+               .getCost();
+
+         // Assert
+         assertEquals(12.0, cost, 0.0001);
+      }
+
+      @Test
+      @DisplayName("Concurrent classes should share the bucket but not beat the largest class")
+      void concurrentClassesShouldShareBucketButNotBeatLargestClass() {
+         // Arrange
+         ExecutionCostModel model = new ExecutionCostModel(Map.of(), ExecutionConcurrency.of(1, 4));
+
+         // Act
+         double balanced = model.emptyBucket().with("A", 4).with("B", 4).with("C", 4).with("D", 4).getCost();
+         double skewed = model.emptyBucket().with("A", 20).with("B", 2).getCost();
+
+         // Assert
+         assertEquals(4.0, balanced, 0.0001);
+         assertEquals(20.0, skewed, 0.0001);
+      }
+
+      @Test
+      @DisplayName("Empty bucket should cost nothing")
+      void emptyBucketShouldCostNothing() {
+         assertEquals(0.0, ExecutionCostModel.sequential().emptyBucket().getCost(), 0.0001);
+      }
+   }
+
+   @Nested
+   @DisplayName("ExecutionConcurrency Tests")
+   class ExecutionConcurrencyTests {
+
+      @Test
+      @DisplayName("Should clamp factors to at least one")
+      void shouldClampFactorsToAtLeastOne() {
+         // Act
+         ExecutionConcurrency concurrency = ExecutionConcurrency.of(0, -3);
+
+         // Assert
+         assertSame(ExecutionConcurrency.sequential(), concurrency);
+         assertEquals(1, concurrency.getMethods());
+         assertEquals(1, concurrency.getClasses());
+      }
+
+      @Test
+      @DisplayName("Should use configured cores when positive")
+      void shouldUseConfiguredCoresWhenPositive() {
+         assertEquals(6, ExecutionConcurrency.resolveCores(6));
+         assertEquals(Runtime.getRuntime().availableProcessors(), ExecutionConcurrency.resolveCores(0));
+      }
+   }
+}
@@ -0,0 +1,120 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cost;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("JunitPlatformConcurrency Tests")
+class JunitPlatformConcurrencyTest {
+
+   @Nested
+   @DisplayName("load Tests")
+   class LoadTests {
+
+      @Test
+      @DisplayName("Should be disabled when properties file is missing")
+      void shouldBeDisabledWhenPropertiesFileIsMissing(@TempDir Path tempDir) {
+         // Act
+         JunitPlatformConcurrency concurrency = JunitPlatformConcurrency.load(tempDir.toFile(), 8);
+
+         // Assert
+         assertFalse(concurrency.isEnabled());
+         assertEquals(ExecutionConcurrency.sequential(), concurrency.resolve(PlainFixture.class));
+      }
+
+      @Test
+      @DisplayName("Should read fixed parallelism from properties file")
+      void shouldReadFixedParallelismFromPropertiesFile(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         Files.writeString(tempDir.resolve(JunitPlatformConcurrency.PROPERTIES_FILE), """
+               junit.jupiter.execution.parallel.enabled=true
+               junit.jupiter.execution.parallel.mode.default=concurrent
+               junit.jupiter.execution.parallel.mode.classes.default=same_thread
+               junit.jupiter.execution.parallel.config.strategy=fixed
+               junit.jupiter.execution.parallel.config.fixed.parallelism=6
+               """);
+
+         // Act
+         JunitPlatformConcurrency concurrency = JunitPlatformConcurrency.load(tempDir.toFile(), 2);
+         ExecutionConcurrency resolved = concurrency.resolve(PlainFixture.class);
+
+         // Assert
+         assertTrue(concurrency.isEnabled());
+         assertEquals(6, resolved.getMethods());
+         assertEquals(1, resolved.getClasses());
+      }
+   }
+
+   @Nested
+   @DisplayName("resolve Tests")
+   class ResolveTests {
+
+      @Test
+      @DisplayName("Should scale dynamic strategy by cores")
+      void shouldScaleDynamicStrategyByCores() {
+         // Arrange
+         Properties properties = new Properties();
+         properties.setProperty("junit.jupiter.execution.parallel.enabled", "true");
+         properties.setProperty("junit.jupiter.execution.parallel.mode.default", "concurrent");
+         properties.setProperty("junit.jupiter.execution.parallel.config.dynamic.factor", "1.5");
+
+         // Act
+         ExecutionConcurrency resolved = JunitPlatformConcurrency.fromProperties(properties, 4)
+               .resolve(PlainFixture.class);
+
+         // Assert
+         assertEquals(6, resolved.getMethods());
+         assertEquals(6, resolved.getClasses(), "Classes mode defaults to the default mode");
+      }
+
+      @Test
+      @DisplayName("Class-level @Execution should override the default mode")
+      void classLevelExecutionShouldOverrideDefaultMode() {
+         // Arrange
+         Properties properties = new Properties();
+         properties.setProperty("junit.jupiter.execution.parallel.enabled", "true");
+         properties.setProperty("junit.jupiter.execution.parallel.config.strategy", "fixed");
+         properties.setProperty("junit.jupiter.execution.parallel.config.fixed.parallelism", "3");
+         JunitPlatformConcurrency concurrency = JunitPlatformConcurrency.fromProperties(properties, 8);
+
+         // Act & Assert
+         assertEquals(1, concurrency.resolve(PlainFixture.class).getMethods());
+         assertEquals(3, concurrency.resolve(ConcurrentFixture.class).getMethods());
+      }
+
+      @Test
+      @DisplayName("Should be sequential when parallel execution is disabled")
+      void shouldBeSequentialWhenParallelExecutionIsDisabled() {
+         // Arrange
+         Properties properties = new Properties();
+         properties.setProperty("junit.jupiter.execution.parallel.mode.default", "concurrent");
+
+         // Act
+         JunitPlatformConcurrency concurrency = JunitPlatformConcurrency.fromProperties(properties, 8);
+
+         // Assert
+         assertFalse(concurrency.isEnabled());
+         assertEquals(ExecutionConcurrency.sequential(), concurrency.resolve(ConcurrentFixture.class));
+      }
+   }
+
+   // ===== Test Fixtures =====
+
+   static class PlainFixture {
+   }
+
+   @Execution(ExecutionMode.CONCURRENT)
+   static class ConcurrentFixture {
+   }
+}
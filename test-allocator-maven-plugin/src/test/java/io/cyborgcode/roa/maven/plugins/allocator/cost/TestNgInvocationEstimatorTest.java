@@ -0,0 +1,161 @@
+package io.cyborgcode.roa.maven.plugins.allocator.cost;
+
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testng.annotations.DataProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("TestNgInvocationEstimator Tests")
+class TestNgInvocationEstimatorTest {
+
+   private final TestNgInvocationEstimator estimator = new TestNgInvocationEstimator(TestHistory.empty(), null);
+
+   @Nested
+   @DisplayName("Invocation Tests")
+   class InvocationTests {
+
+      @Test
+      @DisplayName("Should divide invocation count by thread pool size")
+      void shouldDivideInvocationCountByThreadPoolSize() throws NoSuchMethodException {
+         // Act & Assert
+         assertEquals(2, weight(estimator, InvocationFixture.class, "pooled"));
+         assertEquals(3, weight(estimator, InvocationFixture.class, "unevenPool"), "Partial rounds count as a slot");
+         assertEquals(10, weight(estimator, InvocationFixture.class, "repeated"));
+         assertEquals(1, weight(estimator, InvocationFixture.class, "plain"));
+      }
+   }
+
+   @Nested
+   @DisplayName("Data Provider Tests")
+   class DataProviderTests {
+
+      @Test
+      @DisplayName("Should count rows of array literal providers")
+      void shouldCountRowsOfArrayLiteralProviders() throws NoSuchMethodException {
+         // Act & Assert
+         assertEquals(3, weight(estimator, DataProviderFixture.class, "literal"));
+         assertEquals(4, weight(estimator, DataProviderFixture.class, "sized"));
+         assertEquals(6, weight(estimator, DataProviderFixture.class, "literalRepeated"),
+               "Rows are multiplied by invocation slots");
+      }
+
+      @Test
+      @DisplayName("Should count rows of referenced CSV files")
+      void shouldCountRowsOfReferencedCsvFiles(@TempDir Path tempDir) throws IOException, NoSuchMethodException {
+         // Arrange
+         Files.writeString(tempDir.resolve("users.csv"), "# user,password\nalice,a\n\nbob,b\ncarol,c\n");
+         TestNgInvocationEstimator csvEstimator = new TestNgInvocationEstimator(TestHistory.empty(), tempDir);
+
+         // Act & Assert
+         assertEquals(3, weight(csvEstimator, DataProviderFixture.class, "csv"));
+      }
+
+      @Test
+      @DisplayName("Should fall back to history for dynamic providers")
+      void shouldFallBackToHistoryForDynamicProviders(@TempDir Path tempDir)
+            throws IOException, NoSuchMethodException {
+         // Arrange
+         String className = DataProviderFixture.class.getName();
+         StringBuilder report = new StringBuilder("<testsuite>");
+         for (int i = 0; i < 5; i++) {
+            report.append("<testcase classname=\"").append(className).append("\" name=\"dynamic\" time=\"1\"/>");
+         }
+         Files.writeString(tempDir.resolve("TEST-dynamic.xml"), report.append("</testsuite>").toString());
+         TestNgInvocationEstimator historyEstimator =
+               new TestNgInvocationEstimator(TestHistory.load(tempDir.toFile()), null);
+
+         // Act & Assert
+         assertEquals(5, weight(historyEstimator, DataProviderFixture.class, "dynamic"));
+         assertEquals(1, weight(estimator, DataProviderFixture.class, "dynamic"), "Without history one row is assumed");
+      }
+   }
+
+   private static int weight(TestNgInvocationEstimator estimator, Class<?> type, String methodName)
+         throws NoSuchMethodException {
+      Method method = type.getDeclaredMethod(methodName);
+      return estimator.weight(type, method);
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class InvocationFixture {
+      @org.testng.annotations.Test(invocationCount = 10, threadPoolSize = 5)
+      public void pooled() {
+      }
+
+      @org.testng.annotations.Test(invocationCount = 7, threadPoolSize = 3)
+      public void unevenPool() {
+      }
+
+      @org.testng.annotations.Test(invocationCount = 10)
+      public void repeated() {
+      }
+
+      @org.testng.annotations.Test
+      public void plain() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class DataProviderFixture {
+      @DataProvider
+      public Object[][] literalRows() {
+         return new Object[][] {{"a"}, {"b"}, {"c"}};
+      }
+
+      @DataProvider(name = "sizedRows")
+      public Object[][] sizedProvider() {
+         return new Object[4][1];
+      }
+
+      @DataProvider
+      public Object[][] csvRows() {
+         return readCsv("users.csv");
+      }
+
+      @DataProvider
+      public Iterator<Object[]> dynamicRows() {
+         return List.<Object[]>of().iterator();
+      }
+
+      @org.testng.annotations.Test(dataProvider = "literalRows")
+      public void literal() {
+      }
+
+      @org.testng.annotations.Test(dataProvider = "sizedRows")
+      public void sized() {
+      }
+
+      @org.testng.annotations.Test(dataProvider = "literalRows", invocationCount = 4, threadPoolSize = 2)
+      public void literalRepeated() {
+      }
+
+      @org.testng.annotations.Test(dataProvider = "csvRows")
+      public void csv() {
+      }
+
+      @org.testng.annotations.Test(dataProvider = "dynamicRows")
+      public void dynamic() {
+      }
+
+      private static Object[][] readCsv(String file) {
+         return new Object[0][];
+      }
+   }
+
+}
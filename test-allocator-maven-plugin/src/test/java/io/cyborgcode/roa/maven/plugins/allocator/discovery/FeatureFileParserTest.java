@@ -0,0 +1,168 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("FeatureFileParser Tests")
+class FeatureFileParserTest {
+
+   private static final String LOGIN_FEATURE = String.join("\n",
+         "# language: en",
+         "@auth",
+         "Feature: Login",
+         "",
+         "  Background:",
+         "    Given the login page",
+         "",
+         "  @smoke",
+         "  Scenario: Valid login",
+         "    When I log in with",
+         "      | user  | password |",
+         "      | alice | secret   |",
+         "    Then I see the dashboard",
+         "",
+         "  Scenario Outline: Invalid login",
+         "    When I log in as <user>",
+         "    \"\"\"",
+         "    Scenario: not a scenario",
+         "    \"\"\"",
+         "",
+         "    @regression",
+         "    Examples: Unknown users",
+         "      | user  |",
+         "      | bob   |",
+         "      | carol |",
+         "",
+         "    Examples: Locked users",
+         "      | user |",
+         "      | dave |",
+         "",
+         "  Rule: Passwords expire",
+         "    @slow",
+         "    Example: Expired password",
+         "      When I log in with an expired password");
+
+   @TempDir
+   Path tempDir;
+
+   @Nested
+   @DisplayName("parse Tests")
+   class ParseTests {
+
+      @Test
+      @DisplayName("Should expand outlines into one scenario per example row")
+      void shouldExpandOutlinesIntoOneScenarioPerExampleRow() throws Exception {
+         // Arrange
+         Path feature = write("login.feature", LOGIN_FEATURE);
+
+         // Act
+         List<FeatureScenario> scenarios = FeatureFileParser.parse(feature);
+
+         // Assert
+         assertEquals(List.of(9, 24, 25, 29, 33), scenarios.stream().map(FeatureScenario::getLine).toList(),
+               "Step data tables, doc strings and example headers are not scenarios");
+         assertEquals("Invalid login", scenarios.get(1).getName());
+         assertEquals("Login", scenarios.get(1).getFeatureName());
+      }
+
+      @Test
+      @DisplayName("Should expand a scenario followed by examples as an outline")
+      void shouldExpandScenarioWithExamplesAsOutline() throws Exception {
+         // Arrange
+         Path feature = write("search.feature", String.join("\n",
+               "Feature: Search",
+               "  @fast",
+               "  Scenario: Search by <term>",
+               "    When I search for <term>",
+               "    Examples:",
+               "      | term  |",
+               "      | shoes |",
+               "      | hats  |",
+               "  Example: Empty search",
+               "    When I search for nothing"));
+
+         // Act
+         List<FeatureScenario> scenarios = FeatureFileParser.parse(feature);
+
+         // Assert
+         assertEquals(List.of(7, 8, 9), scenarios.stream().map(FeatureScenario::getLine).toList());
+         assertEquals("Search by <term>", scenarios.get(0).getName());
+         assertEquals(Set.of("@fast"), scenarios.get(1).getTags());
+      }
+
+      @Test
+      @DisplayName("Should inherit tags from the feature, rule and examples block")
+      void shouldInheritTagsFromFeatureRuleAndExamples() throws Exception {
+         // Arrange
+         Path feature = write("login.feature", LOGIN_FEATURE);
+
+         // Act
+         List<FeatureScenario> scenarios = FeatureFileParser.parse(feature);
+
+         // Assert
+         assertEquals(Set.of("@auth", "@smoke"), scenarios.get(0).getTags());
+         assertEquals(Set.of("@auth", "@regression"), scenarios.get(1).getTags());
+         assertEquals(Set.of("@auth"), scenarios.get(3).getTags());
+         assertEquals(Set.of("@auth", "@slow"), scenarios.get(4).getTags());
+      }
+
+      @Test
+      @DisplayName("Should build path:line selectors relative to a root")
+      void shouldBuildSelectorsRelativeToRoot() throws Exception {
+         // Arrange
+         Path feature = write("features/login.feature", LOGIN_FEATURE);
+
+         // Act
+         FeatureScenario scenario = FeatureFileParser.parse(feature).get(0);
+
+         // Assert
+         assertEquals("features/login.feature:9", scenario.selector(tempDir));
+      }
+   }
+
+   @Nested
+   @DisplayName("findFeatureFiles Tests")
+   class FindFeatureFilesTests {
+
+      @Test
+      @DisplayName("Should find feature files recursively and parse them together")
+      void shouldFindFeatureFilesRecursively() throws Exception {
+         // Arrange
+         write("a/first.feature", "Feature: First\n  Scenario: One\n");
+         write("b/c/second.feature", "Feature: Second\n  Scenario: Two\n  Scenario: Three\n");
+         write("b/notes.txt", "Scenario: ignored");
+
+         // Act
+         List<Path> files = FeatureFileParser.findFeatureFiles(tempDir.toFile());
+         List<FeatureScenario> scenarios = FeatureFileParser.parseAll(files);
+
+         // Assert
+         assertEquals(2, files.size());
+         assertEquals(List.of("One", "Two", "Three"), scenarios.stream().map(FeatureScenario::getName).toList());
+      }
+
+      @Test
+      @DisplayName("Should return nothing for a missing directory")
+      void shouldReturnNothingForMissingDirectory() {
+         // Act & Assert
+         assertTrue(FeatureFileParser.findFeatureFiles(tempDir.resolve("missing").toFile()).isEmpty());
+      }
+   }
+
+   private Path write(String name, String content) throws Exception {
+      Path file = tempDir.resolve(name);
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, content);
+      return file;
+   }
+
+}
@@ -0,0 +1,148 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DisplayName("JunitPlatformDiscovery Tests")
+class JunitPlatformDiscoveryTest {
+
+   private static final String SAMPLE_SOURCE = String.join("\n",
+         "package sample;",
+         "",
+         "import org.junit.jupiter.api.Nested;",
+         "import org.junit.jupiter.api.Tag;",
+         "import org.junit.jupiter.api.Test;",
+         "",
+         "@Tag(\"smoke\")",
+         "public class SampleTest {",
+         "   @Test void first() {}",
+         "   @Test @Tag(\"slow\") void second() {}",
+         "   @Nested class Inner {",
+         "      @Test void third() {}",
+         "   }",
+         "}");
+
+   private static final List<String> PLATFORM_CLASSES = List.of(
+         "org.junit.platform.launcher.core.LauncherFactory",
+         "org.junit.platform.engine.TestEngine",
+         "org.junit.platform.commons.util.ReflectionUtils",
+         "org.junit.jupiter.engine.JupiterTestEngine",
+         "org.junit.jupiter.api.Test",
+         "org.opentest4j.AssertionFailedError",
+         "org.apiguardian.api.API"
+   );
+
+   @TempDir
+   Path tempDir;
+
+   @Nested
+   @DisplayName("discover Tests")
+   class DiscoverTests {
+
+      @Test
+      @DisplayName("Should discover the leaves of the test plan with their class and tags")
+      void shouldDiscoverLeavesWithClassAndTags() throws Exception {
+         // Arrange
+         List<URL> classpath = compileSample();
+
+         // Act
+         List<DiscoveredTest> tests = JunitPlatformDiscovery.discover(
+               classpath.toArray(new URL[0]), List.of(tempDir.toFile()), Set.of(), Set.of());
+
+         // Assert
+         assertEquals(3, tests.size());
+         assertTrue(tests.stream().allMatch(test -> test.getUnit().equals("sample.SampleTest")),
+               "Nested classes are allocated with their enclosing class");
+         DiscoveredTest second = tests.stream()
+               .filter(test -> test.getUniqueId().contains("[method:second()]"))
+               .findFirst()
+               .orElseThrow();
+         assertTrue(second.getUniqueId().startsWith("[engine:junit-jupiter]"));
+         assertEquals(Set.of("smoke", "slow"), second.getTags());
+      }
+
+      @Test
+      @DisplayName("Should apply tag filters during discovery")
+      void shouldApplyTagFiltersDuringDiscovery() throws Exception {
+         // Arrange
+         List<URL> classpath = compileSample();
+
+         // Act
+         List<DiscoveredTest> tests = JunitPlatformDiscovery.discover(
+               classpath.toArray(new URL[0]), List.of(tempDir.toFile()), Set.of("smoke"), Set.of("slow"));
+
+         // Assert
+         assertEquals(2, tests.size());
+         assertTrue(tests.stream().noneMatch(test -> test.getTags().contains("slow")));
+      }
+
+      @Test
+      @DisplayName("Should fail when the launcher is not on the test classpath")
+      void shouldFailWhenLauncherIsNotOnTestClasspath() {
+         // Act
+         IllegalStateException exception = assertThrows(IllegalStateException.class,
+               () -> JunitPlatformDiscovery.discover(new URL[0], List.of(tempDir.toFile()), Set.of(), Set.of()));
+
+         // Assert
+         assertTrue(exception.getMessage().contains("junit-platform-launcher"));
+      }
+   }
+
+   /**
+    * Compiles the sample test into the temporary directory and returns the classpath to discover it with.
+    */
+   private List<URL> compileSample() throws Exception {
+      final List<URL> classpath = new ArrayList<>();
+      for (String className : PLATFORM_CLASSES) {
+         URL location = locationOf(className);
+         assumeTrue(location != null, className + " is not available to the tests");
+         classpath.add(location);
+      }
+      final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      assumeTrue(compiler != null, "A Java compiler is required");
+
+      final Path source = tempDir.resolve("src/sample/SampleTest.java");
+      Files.createDirectories(source.getParent());
+      Files.writeString(source, SAMPLE_SOURCE, StandardCharsets.UTF_8);
+      final List<String> compileClasspath = new ArrayList<>();
+      for (URL url : classpath) {
+         compileClasspath.add(Path.of(url.toURI()).toString());
+      }
+      assertEquals(0, compiler.run(null, null, null,
+            "-d", tempDir.toString(), "-cp", String.join(File.pathSeparator, compileClasspath),
+            source.toString()));
+
+      classpath.add(0, tempDir.toUri().toURL());
+      return classpath;
+   }
+
+   private static URL locationOf(String className) {
+      try {
+         CodeSource codeSource = Class.forName(className, false, JunitPlatformDiscoveryTest.class.getClassLoader())
+               .getProtectionDomain()
+               .getCodeSource();
+         return codeSource == null ? null : codeSource.getLocation();
+      } catch (ClassNotFoundException e) {
+         return null;
+      }
+   }
+
+}
@@ -2,6 +2,7 @@ package io.cyborgcode.roa.maven.plugins.allocator.discovery;
 
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
 import java.io.File;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -157,6 +158,27 @@ class TestClassLoaderTest {
       }
    }
 
+   @Nested
+   @DisplayName("getUrls Tests")
+   class GetUrlsTests {
+
+      @Test
+      @DisplayName("Should return test classpath entries before compile classpath entries")
+      void shouldReturnTestEntriesBeforeCompileEntries() throws Exception {
+         // Arrange
+         when(config.getMavenProject()).thenReturn(mavenProject);
+         when(mavenProject.getTestClasspathElements()).thenReturn(List.of("target/test-classes", "target/classes"));
+         when(mavenProject.getCompileClasspathElements()).thenReturn(List.of("target/classes"));
+
+         // Act
+         URL[] urls = TestClassLoader.from(config).getUrls();
+
+         // Assert
+         assertEquals(2, urls.length, "Duplicate entries are listed once");
+         assertEquals(new File("target/test-classes").toURI().toURL(), urls[0]);
+      }
+   }
+
    @Nested
    @DisplayName("loadClass Tests")
    class LoadClassTests {
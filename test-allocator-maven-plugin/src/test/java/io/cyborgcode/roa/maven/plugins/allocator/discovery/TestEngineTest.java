@@ -0,0 +1,146 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("TestEngine Tests")
+class TestEngineTest {
+
+   @Nested
+   @DisplayName("detect Tests")
+   class DetectTests {
+
+      @Test
+      @DisplayName("Should detect JUnit Jupiter from @Test and @Testable annotations")
+      void shouldDetectJunitJupiter() {
+         // Act & Assert
+         assertEquals(TestEngine.JUNIT_JUPITER, TestEngine.detect(JupiterFixture.class));
+         assertEquals(TestEngine.JUNIT_JUPITER, TestEngine.detect(ParameterizedFixture.class));
+      }
+
+      @Test
+      @DisplayName("Should detect JUnit Jupiter from annotations reaching @Testable through several meta-annotations")
+      void shouldDetectJunitJupiterThroughNestedMetaAnnotations() {
+         // Act & Assert
+         assertEquals(TestEngine.JUNIT_JUPITER, TestEngine.detect(RepeatedFixture.class));
+         assertEquals(TestEngine.JUNIT_JUPITER, TestEngine.detect(ComposedParameterizedFixture.class));
+      }
+
+      @Test
+      @DisplayName("Should detect TestNG from method-level and inherited class-level @Test")
+      void shouldDetectTestNg() {
+         // Act & Assert
+         assertEquals(TestEngine.TESTNG, TestEngine.detect(TestNgMethodFixture.class));
+         assertEquals(TestEngine.TESTNG, TestEngine.detect(TestNgInheritedFixture.class));
+      }
+
+      @Test
+      @DisplayName("Should return null for classes without tests")
+      void shouldReturnNullForClassesWithoutTests() {
+         // Act & Assert
+         assertNull(TestEngine.detect(NoTestsFixture.class));
+      }
+
+      @Test
+      @DisplayName("Should expose JUnit Platform engine ids")
+      void shouldExposeJunitPlatformEngineIds() {
+         // Act & Assert
+         assertEquals("junit-jupiter", TestEngine.JUNIT_JUPITER.getId());
+         assertEquals("junit-vintage", TestEngine.JUNIT_VINTAGE.getId());
+         assertEquals("testng", TestEngine.TESTNG.getId());
+      }
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class JupiterFixture {
+      @Test
+      void test() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class ParameterizedFixture {
+      @ParameterizedTest
+      @ValueSource(ints = {1, 2})
+      void test(int value) {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class RepeatedFixture {
+      @RepeatedTest(2)
+      void test() {
+      }
+   }
+
+   /**
+    * Composed annotation reaching {@code @Testable} through {@code @ParameterizedTest} and {@code @TestTemplate}.
+    */
+   @Target(ElementType.METHOD)
+   @Retention(RetentionPolicy.RUNTIME)
+   @ParameterizedTest
+   @ValueSource(ints = {1, 2})
+   @interface EachValue {
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class ComposedParameterizedFixture {
+      @EachValue
+      void test(int value) {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   public static class TestNgMethodFixture {
+      @org.testng.annotations.Test
+      public void test() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   @org.testng.annotations.Test
+   public static class TestNgBaseFixture {
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   public static class TestNgInheritedFixture extends TestNgBaseFixture {
+      public void test() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class NoTestsFixture {
+      public void helper() {
+      }
+   }
+
+}
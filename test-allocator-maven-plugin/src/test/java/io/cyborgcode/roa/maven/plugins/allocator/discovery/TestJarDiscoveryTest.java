@@ -0,0 +1,120 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("TestJarDiscovery Tests")
+class TestJarDiscoveryTest {
+
+   @TempDir
+   Path tempDir;
+
+   @Nested
+   @DisplayName("resolve Tests")
+   class ResolveTests {
+
+      @Test
+      @DisplayName("Should select the artifacts matching any pattern")
+      void shouldSelectArtifactsMatchingAnyPattern() throws IOException {
+         // Arrange
+         Artifact sharedTests = artifact("com.acme", "shared", "test-jar", "tests");
+         Artifact shared = artifact("com.acme", "shared", "jar", null);
+         Artifact other = artifact("org.other", "fixtures", "test-jar", "tests");
+
+         // Act & Assert
+         assertEquals(List.of(sharedTests.getFile()),
+               TestJarDiscovery.resolve(List.of(sharedTests, shared, other), Set.of("com.acme:shared:test-jar")));
+         assertEquals(List.of(sharedTests.getFile(), other.getFile()),
+               TestJarDiscovery.resolve(List.of(sharedTests, shared, other), Set.of("*:*:*:tests")));
+         assertEquals(List.of(sharedTests.getFile(), shared.getFile()),
+               TestJarDiscovery.resolve(List.of(sharedTests, shared, other), Set.of("com.acme:sha*")));
+      }
+
+      @Test
+      @DisplayName("Should select nothing without patterns or with malformed ones")
+      void shouldSelectNothingWithoutPatterns() throws IOException {
+         // Arrange
+         Artifact sharedTests = artifact("com.acme", "shared", "test-jar", "tests");
+
+         // Act & Assert
+         assertEquals(List.of(), TestJarDiscovery.resolve(List.of(sharedTests), Set.of()));
+         assertEquals(List.of(), TestJarDiscovery.resolve(List.of(sharedTests), Set.of("com.acme")));
+         assertEquals(List.of(), TestJarDiscovery.resolve(null, Set.of("com.acme:shared")));
+      }
+   }
+
+   @Nested
+   @DisplayName("findClassFiles Tests")
+   class FindClassFilesTests {
+
+      @Test
+      @DisplayName("Should list the classes of each JAR below the test output directory")
+      void shouldListClassesBelowTestOutputDirectory() throws IOException {
+         // Arrange
+         File jar = jar("shared-tests.jar",
+               "com/acme/CheckoutTest.class",
+               "com/acme/CheckoutTest$Nested.class",
+               "com/acme/package-info.class",
+               "META-INF/versions/11/com/acme/CheckoutTest.class",
+               "module-info.class",
+               "com/acme/fixtures.csv");
+         File testOutputDirectory = tempDir.resolve("test-classes").toFile();
+
+         // Act
+         List<File> classFiles = TestJarDiscovery.findClassFiles(List.of(jar), testOutputDirectory);
+
+         // Assert
+         assertEquals(List.of("com.acme.CheckoutTest", "com.acme.CheckoutTest$Nested"), classFiles.stream()
+               .map(file -> ClassFileDiscovery.fileToClassName(file, testOutputDirectory))
+               .toList());
+      }
+
+      @Test
+      @DisplayName("Should report JARs that cannot be read")
+      void shouldReportUnreadableJars() throws IOException {
+         // Arrange
+         File jar = Files.writeString(tempDir.resolve("broken.jar"), "not a zip").toFile();
+
+         // Act & Assert
+         assertThrows(RuntimeException.class,
+               () -> TestJarDiscovery.findClassFiles(List.of(jar), tempDir.toFile()));
+      }
+   }
+
+   private Artifact artifact(String groupId, String artifactId, String type, String classifier) throws IOException {
+      Artifact artifact = new DefaultArtifact(groupId, artifactId, "1.0", "test", type, classifier,
+            new DefaultArtifactHandler(type));
+      artifact.setFile(jar(groupId + "-" + artifactId + "-" + type + ".jar", "com/acme/Placeholder.class"));
+      return artifact;
+   }
+
+   private File jar(String name, String... entries) throws IOException {
+      Path jar = tempDir.resolve(name);
+      try (OutputStream out = Files.newOutputStream(jar); ZipOutputStream zip = new ZipOutputStream(out)) {
+         for (String entry : entries) {
+            zip.putNextEntry(new ZipEntry(entry));
+            zip.write(new byte[] {1, 2, 3});
+            zip.closeEntry();
+         }
+      }
+      return jar.toFile();
+   }
+
+}
@@ -0,0 +1,117 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlMethodSelector;
+import org.testng.xml.XmlPackage;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestNgSuiteCopies Tests")
+class TestNgSuiteCopiesTest {
+
+   @Nested
+   @DisplayName("copySuite Tests")
+   class CopySuiteTests {
+
+      @Test
+      @DisplayName("Should copy the attributes of a suite without its tests and packages")
+      void shouldCopySuiteAttributesWithoutContent() {
+         // Arrange
+         XmlSuite original = new XmlSuite();
+         original.setName("Regression");
+         original.setParameters(Map.of("env", "staging"));
+         original.setListeners(List.of("com.example.ReportListener"));
+         original.setVerbose(2);
+         original.setTimeOut("60000");
+         original.setMethodSelectors(List.of(new XmlMethodSelector()));
+         original.setXmlPackages(List.of(new XmlPackage("com.example.*")));
+         new XmlTest(original).setName("Api");
+
+         // Act
+         XmlSuite copy = TestNgSuiteCopies.copySuite(original);
+
+         // Assert
+         assertEquals("Regression", copy.getName());
+         assertEquals(Map.of("env", "staging"), copy.getParameters());
+         assertEquals(List.of("com.example.ReportListener"), copy.getListeners());
+         assertEquals(2, copy.getVerbose());
+         assertEquals("60000", copy.getTimeOut());
+         assertEquals(1, copy.getMethodSelectors().size());
+         assertTrue(copy.getTests().isEmpty());
+         assertTrue(copy.getXmlPackages().isEmpty());
+      }
+   }
+
+   @Nested
+   @DisplayName("copyTest Tests")
+   class CopyTestTests {
+
+      @Test
+      @DisplayName("Should copy the attributes of a test into the given suite without its classes")
+      void shouldCopyTestAttributesWithoutClasses() {
+         // Arrange
+         XmlTest original = new XmlTest(new XmlSuite());
+         original.setName("Api");
+         original.setVerbose(3);
+         original.setTimeOut(5000);
+         original.setIncludedGroups(List.of("smoke"));
+         original.addMetaGroup("all", List.of("smoke", "slow"));
+         original.setMethodSelectors(List.of(new XmlMethodSelector()));
+         original.setXmlClasses(List.of(new XmlClass("com.example.LoginTest", false)));
+         XmlSuite suite = new XmlSuite();
+
+         // Act
+         XmlTest copy = TestNgSuiteCopies.copyTest(suite, original);
+
+         // Assert
+         assertSame(suite, copy.getSuite());
+         assertEquals(List.of(copy), suite.getTests());
+         assertEquals("Api", copy.getName());
+         assertEquals(3, copy.getVerbose());
+         assertEquals("5000", copy.getTimeOut());
+         assertEquals(List.of("smoke"), copy.getIncludedGroups());
+         assertEquals(List.of("smoke", "slow"), copy.getMetaGroups().get("all"));
+         assertEquals(1, copy.getMethodSelectors().size());
+         assertTrue(copy.getXmlClasses().isEmpty());
+      }
+   }
+
+   @Nested
+   @DisplayName("copyClass Tests")
+   class CopyClassTests {
+
+      @Test
+      @DisplayName("Should copy a class entry with its parameters and method includes and excludes")
+      void shouldCopyClassEntry() {
+         // Arrange
+         XmlClass original = new XmlClass("com.example.LoginTest", false);
+         original.setParameters(Map.of("user", "admin"));
+         original.setIncludedMethods(List.of(new XmlInclude("login")));
+         original.setExcludedMethods(List.of("logout"));
+         XmlTest test = new XmlTest(new XmlSuite());
+
+         // Act
+         XmlClass copy = TestNgSuiteCopies.copyClass(test, original, 4);
+
+         // Assert
+         assertNotSame(original, copy);
+         assertSame(test, copy.getXmlTest());
+         assertEquals(4, copy.getIndex());
+         assertEquals(Map.of("user", "admin"), copy.getLocalParameters());
+         assertEquals("login", copy.getIncludedMethods().get(0).getName());
+         assertEquals(List.of("logout"), copy.getExcludedMethods());
+      }
+   }
+
+}
@@ -0,0 +1,206 @@
+package io.cyborgcode.roa.maven.plugins.allocator.discovery;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cache.AllocatorCaches;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testng.xml.XmlSuite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestNgSuiteDiscovery Tests")
+class TestNgSuiteDiscoveryTest {
+
+   private static final String SUITE_TEMPLATE = """
+         <?xml version="1.0" encoding="UTF-8"?>
+         <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+         <suite name="%s">
+           %s
+         </suite>
+         """;
+
+   @Nested
+   @DisplayName("findCandidates Tests")
+   class FindCandidatesTests {
+
+      @Test
+      @DisplayName("Should prune default excluded directories and files")
+      void shouldPruneDefaultExcludedDirectoriesAndFiles(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         write(tempDir.resolve("testng.xml"), suite("Root", ""));
+         write(tempDir.resolve("src/test/resources/smoke.xml"), suite("Smoke", ""));
+         write(tempDir.resolve("pom.xml"), "<project/>");
+         write(tempDir.resolve("target/surefire-reports/TEST-x.xml"), "<testsuite/>");
+         write(tempDir.resolve("node_modules/pkg/suite.xml"), suite("Hidden", ""));
+
+         // Act
+         List<Path> candidates = new TestNgSuiteDiscovery(null, null).findCandidates(tempDir);
+
+         // Assert
+         assertEquals(2, candidates.size(), "Only testng.xml and smoke.xml should be candidates");
+         assertTrue(candidates.stream().noneMatch(p -> p.toString().contains("target")));
+      }
+
+      @Test
+      @DisplayName("Should honour configured include and exclude globs")
+      void shouldHonourConfiguredIncludeAndExcludeGlobs(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         write(tempDir.resolve("suites/regression.xml"), suite("Regression", ""));
+         write(tempDir.resolve("suites/legacy/old.xml"), suite("Old", ""));
+         write(tempDir.resolve("config/app.xml"), "<config/>");
+
+         // Act
+         List<Path> candidates = new TestNgSuiteDiscovery(Set.of("suites/**"), Set.of("**/legacy/**"))
+               .findCandidates(tempDir);
+
+         // Assert
+         assertEquals(1, candidates.size());
+         assertTrue(candidates.get(0).endsWith("suites/regression.xml"));
+      }
+   }
+
+   @Nested
+   @DisplayName("hasSuiteRoot Tests")
+   class HasSuiteRootTests {
+
+      @Test
+      @DisplayName("Should recognise suite documents without resolving the DTD")
+      void shouldRecogniseSuiteDocuments(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         Path suiteFile = write(tempDir.resolve("testng.xml"), suite("Suite", ""));
+         Path otherFile = write(tempDir.resolve("logback-test.xml"), "<configuration><root/></configuration>");
+         Path brokenFile = write(tempDir.resolve("broken.xml"), "not xml at all");
+
+         // Act & Assert
+         assertTrue(TestNgSuiteDiscovery.hasSuiteRoot(suiteFile));
+         assertFalse(TestNgSuiteDiscovery.hasSuiteRoot(otherFile));
+         assertFalse(TestNgSuiteDiscovery.hasSuiteRoot(brokenFile));
+      }
+   }
+
+   @Nested
+   @DisplayName("discover Tests")
+   class DiscoverTests {
+
+      @Test
+      @DisplayName("Should follow nested suite files of a selected suite")
+      void shouldFollowNestedSuiteFiles(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         write(tempDir.resolve("testng.xml"), suite("Master", """
+               <suite-files>
+                 <suite-file path="nested/child.xml"/>
+               </suite-files>
+               """));
+         write(tempDir.resolve("nested/child.xml"), suite("Child", """
+               <test name="ChildTest">
+                 <classes>
+                   <class name="com.example.ChildTest"/>
+                 </classes>
+               </test>
+               """));
+
+         // Act
+         List<XmlSuite> suites = new TestNgSuiteDiscovery(null, null)
+               .discover(tempDir, Set.of("Master"));
+
+         // Assert
+         assertEquals(List.of("Master", "Child"), suites.stream().map(XmlSuite::getName).toList());
+      }
+
+      @Test
+      @DisplayName("Should link nested suites to the suite referencing them")
+      void shouldLinkNestedSuitesToTheirParent(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         write(tempDir.resolve("testng.xml"), suite("Master", """
+               <parameter name="browser" value="chrome"/>
+               <suite-files>
+                 <suite-file path="child.xml"/>
+               </suite-files>
+               """));
+         write(tempDir.resolve("child.xml"), suite("Child", ""));
+
+         // Act
+         List<XmlSuite> suites = new TestNgSuiteDiscovery(null, null)
+               .discover(tempDir, Set.of("Master"));
+
+         // Assert
+         XmlSuite master = suites.get(0);
+         XmlSuite child = suites.get(1);
+         assertSame(master, child.getParentSuite());
+         assertEquals(List.of(child), master.getChildSuites());
+         assertEquals("chrome", child.getParentSuite().getParameter("browser"));
+      }
+
+      @Test
+      @DisplayName("Should hand out copies of cached suites and resolve identical files at their own path")
+      void shouldHandOutCopiesAndResolveIdenticalFilesAtTheirOwnPath(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         String master = suite("Master", """
+               <suite-files>
+                 <suite-file path="child.xml"/>
+               </suite-files>
+               """);
+         write(tempDir.resolve("a/testng.xml"), master);
+         write(tempDir.resolve("a/child.xml"), suite("ChildA", ""));
+         write(tempDir.resolve("b/testng.xml"), master);
+         write(tempDir.resolve("b/child.xml"), suite("ChildB", ""));
+         AllocatorCaches caches = new AllocatorCaches();
+
+         // Act
+         List<XmlSuite> first = new TestNgSuiteDiscovery(null, null, caches).discover(tempDir, Set.of("Master"));
+         List<XmlSuite> second = new TestNgSuiteDiscovery(null, null, caches).discover(tempDir, Set.of("Master"));
+
+         // Assert
+         assertEquals(List.of("Master", "ChildA", "Master", "ChildB"),
+               first.stream().map(XmlSuite::getName).toList());
+         assertNotSame(first.get(0), second.get(0));
+      }
+
+      @Test
+      @DisplayName("Should return nothing when no suite names are requested")
+      void shouldReturnNothingWhenNoSuiteNamesAreRequested(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         write(tempDir.resolve("testng.xml"), suite("Suite", ""));
+
+         // Act & Assert
+         assertTrue(new TestNgSuiteDiscovery(null, null).discover(tempDir, Set.of()).isEmpty());
+      }
+
+      @Test
+      @DisplayName("Should fail when a nested suite file is missing")
+      void shouldFailWhenNestedSuiteFileIsMissing(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         write(tempDir.resolve("testng.xml"), suite("Master", """
+               <suite-files>
+                 <suite-file path="missing.xml"/>
+               </suite-files>
+               """));
+
+         TestNgSuiteDiscovery discovery = new TestNgSuiteDiscovery(null, null);
+         Set<String> suiteNames = Set.of("Master");
+
+         // Act & Assert
+         assertThrows(IllegalStateException.class, () -> discovery.discover(tempDir, suiteNames));
+      }
+   }
+
+   private static String suite(String name, String body) {
+      return String.format(SUITE_TEMPLATE, name, body);
+   }
+
+   private static Path write(Path file, String content) throws IOException {
+      Files.createDirectories(file.getParent());
+      return Files.writeString(file, content);
+   }
+}
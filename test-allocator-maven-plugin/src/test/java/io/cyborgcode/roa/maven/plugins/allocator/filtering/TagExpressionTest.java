@@ -0,0 +1,93 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TagExpression Tests")
+class TagExpressionTest {
+
+   @Nested
+   @DisplayName("matches Tests")
+   class MatchesTests {
+
+      @ParameterizedTest
+      @NullAndEmptySource
+      @ValueSource(strings = {"   "})
+      @DisplayName("Blank expressions should match every scenario")
+      void blankExpressionsShouldMatchEveryScenario(String expression) {
+         // Act & Assert
+         assertTrue(TagExpression.parse(expression).matches(Set.of()));
+      }
+
+      @Test
+      @DisplayName("Should evaluate and, or and not with their precedence")
+      void shouldEvaluateOperatorsWithPrecedence() {
+         // Arrange
+         TagExpression expression = TagExpression.parse("@smoke or @api and not @slow");
+
+         // Act & Assert
+         assertTrue(expression.matches(Set.of("@smoke", "@slow")), "and binds tighter than or");
+         assertTrue(expression.matches(Set.of("@api")));
+         assertFalse(expression.matches(Set.of("@api", "@slow")));
+      }
+
+      @Test
+      @DisplayName("Should honour parentheses")
+      void shouldHonourParentheses() {
+         // Arrange
+         TagExpression expression = TagExpression.parse("@smoke and not (@slow or @wip)");
+
+         // Act & Assert
+         assertTrue(expression.matches(Set.of("@smoke")));
+         assertFalse(expression.matches(Set.of("@smoke", "@wip")));
+         assertFalse(expression.matches(Set.of("@slow")));
+      }
+
+      @Test
+      @DisplayName("Should evaluate JUnit Platform operators and tag functions")
+      void shouldEvaluateJunitPlatformOperatorsAndTagFunctions() {
+         // Arrange
+         TagExpression expression = TagExpression.parseJunit("smoke & !(slow | wip)");
+         TagExpression untagged = TagExpression.parseJunit("none()");
+
+         // Act & Assert
+         assertTrue(expression.matches(Set.of("smoke")));
+         assertFalse(expression.matches(Set.of("smoke", "wip")));
+         assertFalse(expression.matches(Set.of("and")), "Words are tags in JUnit Platform expressions");
+         assertTrue(untagged.matches(Set.of()));
+         assertFalse(untagged.matches(Set.of("smoke")));
+         assertTrue(TagExpression.parseJunit("any()").matches(Set.of("smoke")));
+      }
+   }
+
+   @Nested
+   @DisplayName("parse Tests")
+   class ParseTests {
+
+      @ParameterizedTest
+      @ValueSource(strings = {"@smoke and", "(@smoke or @api", "@smoke @api", "or @smoke"})
+      @DisplayName("Should reject malformed expressions")
+      void shouldRejectMalformedExpressions(String expression) {
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> TagExpression.parse(expression));
+      }
+
+      @ParameterizedTest
+      @ValueSource(strings = {"smoke &", "(smoke | api", "smoke api", "| smoke", "none("})
+      @DisplayName("Should reject malformed JUnit Platform expressions")
+      void shouldRejectMalformedJunitExpressions(String expression) {
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> TagExpression.parseJunit(expression));
+      }
+   }
+
+}
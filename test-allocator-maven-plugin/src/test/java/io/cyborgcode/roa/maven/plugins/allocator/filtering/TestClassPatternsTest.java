@@ -0,0 +1,81 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestClassPatterns Tests")
+class TestClassPatternsTest {
+
+   @Nested
+   @DisplayName("matches Tests")
+   class MatchesTests {
+
+      @Test
+      @DisplayName("Should select the classes of the Surefire defaults in any package")
+      void shouldSelectClassesOfSurefireDefaults() {
+         // Arrange
+         TestClassPatterns patterns =
+               TestClassPatterns.compile(TestClassPatterns.SUREFIRE_INCLUDES, TestClassPatterns.DEFAULT_EXCLUDES);
+
+         // Act & Assert
+         assertTrue(patterns.matches("com/acme/CheckoutTest.class"));
+         assertTrue(patterns.matches("com/acme/TestCheckout.class"));
+         assertTrue(patterns.matches("com/acme/CheckoutTests.class"));
+         assertTrue(patterns.matches("CheckoutTestCase.class"));
+         assertFalse(patterns.matches("com/acme/CheckoutTest$Nested.class"));
+         assertFalse(patterns.matches("com/acme/CheckoutFixture.class"));
+         assertFalse(patterns.matches("com/acme/CheckoutIT.class"));
+      }
+
+      @Test
+      @DisplayName("Should keep single wildcards within one directory")
+      void shouldKeepSingleWildcardsWithinOneDirectory() {
+         // Arrange
+         TestClassPatterns patterns = TestClassPatterns.compile(List.of("com/*/Checkout?est.class"), null);
+
+         // Act & Assert
+         assertTrue(patterns.matches("com/acme/CheckoutTest.class"));
+         assertFalse(patterns.matches("com/acme/shop/CheckoutTest.class"));
+         assertFalse(patterns.matches("com/acme/CheckoutTests.class"));
+      }
+
+      @Test
+      @DisplayName("Should split comma-separated patterns and ignore method filters")
+      void shouldSplitCommaSeparatedPatterns() {
+         // Arrange
+         TestClassPatterns patterns =
+               TestClassPatterns.compile(List.of("**/*IT.java, **/Checkout*#pay*"), List.of("**/legacy/**"));
+
+         // Act & Assert
+         assertTrue(patterns.matches("com/acme/SearchIT.class"));
+         assertTrue(patterns.matches("com/acme/CheckoutFlow.class"));
+         assertFalse(patterns.matches("com/acme/legacy/SearchIT.class"));
+      }
+
+      @Test
+      @DisplayName("Should match regular expressions against the class file path")
+      void shouldMatchRegularExpressions() {
+         // Arrange
+         TestClassPatterns patterns = TestClassPatterns.compile(List.of("%regex[com/acme/(checkout|search)/.*]"),
+               List.of("%regex[.*Slow.*]"));
+
+         // Act & Assert
+         assertTrue(patterns.matches("com/acme/search/ByNameCheck.class"));
+         assertFalse(patterns.matches("com/acme/search/SlowSearchTest.class"));
+         assertFalse(patterns.matches("com/acme/billing/InvoiceTest.class"));
+      }
+
+      @Test
+      @DisplayName("Should select nothing without includes")
+      void shouldSelectNothingWithoutIncludes() {
+         // Act & Assert
+         assertFalse(TestClassPatterns.compile(null, null).matches("com/acme/CheckoutTest.class"));
+      }
+   }
+
+}
@@ -10,10 +10,13 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("TestMethodFilter Tests")
@@ -230,6 +233,36 @@ class TestMethodFilterTest {
       }
    }
 
+   @Nested
+   @DisplayName("extractTestMethodTags Tests")
+   class ExtractTestMethodTagsTests {
+
+      @Test
+      @DisplayName("Should map every test method to its tags, including repeated and container tags")
+      void shouldMapEveryTestMethodToItsTags() {
+         // Act
+         Map<String, Set<String>> tags = TestMethodFilter.extractTestMethodTags(TestClassWithMultipleMethods.class)
+               .entrySet().stream()
+               .collect(Collectors.toMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+
+         // Assert
+         assertEquals(5, tags.size());
+         assertEquals(Set.of("smoke", "fast"), tags.get("smokeTest2"));
+         assertEquals(Set.of("integration", "slow"), tags.get("integrationSlowTest"));
+         assertEquals(Set.of(), tags.get("untaggedTest"));
+      }
+
+      @Test
+      @DisplayName("Should select tests with an included tag and without excluded tags")
+      void shouldSelectTestsByTags() {
+         // Act & Assert
+         assertTrue(TestMethodFilter.matchesTags(Set.of("smoke"), null, null));
+         assertTrue(TestMethodFilter.matchesTags(Set.of("smoke", "fast"), Set.of("fast"), Set.of("slow")));
+         assertFalse(TestMethodFilter.matchesTags(Set.of("smoke", "slow"), Set.of("smoke"), Set.of("slow")));
+         assertFalse(TestMethodFilter.matchesTags(Set.of(), Set.of("smoke"), Set.of()));
+      }
+   }
+
    // ===== Test Helper Classes =====
 
    static class TestClassWithMultipleMethods {
@@ -0,0 +1,90 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestNgGroupFilter Tests")
+class TestNgGroupFilterTest {
+
+   @Nested
+   @DisplayName("of Tests")
+   class OfTests {
+
+      @Test
+      @DisplayName("Should return the inactive filter without groups")
+      void shouldReturnInactiveFilterWithoutGroups() {
+         // Act
+         TestNgGroupFilter filter = TestNgGroupFilter.of(null, Set.of(), null);
+
+         // Assert
+         assertSame(TestNgGroupFilter.none(), filter);
+         assertFalse(filter.isActive());
+         assertTrue(filter.accepts(Set.of()));
+      }
+   }
+
+   @Nested
+   @DisplayName("accepts Tests")
+   class AcceptsTests {
+
+      @Test
+      @DisplayName("Should require an included group")
+      void shouldRequireIncludedGroup() {
+         // Arrange
+         TestNgGroupFilter filter = TestNgGroupFilter.of(Set.of("smoke"), null, null);
+
+         // Act & Assert
+         assertTrue(filter.accepts(Set.of("smoke", "ui")));
+         assertFalse(filter.accepts(Set.of("regression")));
+         assertFalse(filter.accepts(Set.of()), "Methods without groups are not included");
+      }
+
+      @Test
+      @DisplayName("Excluded groups should win over included groups")
+      void excludedGroupsShouldWinOverIncludedGroups() {
+         // Arrange
+         TestNgGroupFilter filter = TestNgGroupFilter.of(Set.of("smoke"), Set.of("broken"), null);
+
+         // Act & Assert
+         assertFalse(filter.accepts(Set.of("smoke", "broken")));
+         assertTrue(TestNgGroupFilter.of(null, Set.of("broken"), null).accepts(Set.of()));
+      }
+
+      @Test
+      @DisplayName("Should match group names as regular expressions")
+      void shouldMatchGroupNamesAsRegularExpressions() {
+         // Arrange
+         TestNgGroupFilter filter = TestNgGroupFilter.of(Set.of("api\\..*"), Set.of(".*slow"), null);
+
+         // Act & Assert
+         assertTrue(filter.accepts(Set.of("api.users")));
+         assertFalse(filter.accepts(Set.of("api.users", "api.slow")));
+         assertFalse(filter.accepts(Set.of("ui")));
+      }
+
+      @Test
+      @DisplayName("Should expand nested meta-groups")
+      void shouldExpandNestedMetaGroups() {
+         // Arrange
+         Map<String, List<String>> metaGroups = Map.of(
+               "all", List.of("functional", "checkin"),
+               "functional", List.of("windows", "linux"),
+               "cyclic", List.of("cyclic")
+         );
+         TestNgGroupFilter filter = TestNgGroupFilter.of(Set.of("all", "cyclic"), null, metaGroups);
+
+         // Act & Assert
+         assertTrue(filter.accepts(Set.of("linux")));
+         assertTrue(filter.accepts(Set.of("checkin")));
+         assertFalse(filter.accepts(Set.of("functional")), "Meta-group names are replaced by their members");
+      }
+   }
+}
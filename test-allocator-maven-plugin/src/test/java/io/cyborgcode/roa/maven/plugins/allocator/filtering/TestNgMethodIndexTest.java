@@ -0,0 +1,233 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestNgMethodIndex Tests")
+class TestNgMethodIndexTest {
+
+   @Nested
+   @DisplayName("of Tests")
+   class OfTests {
+
+      @Test
+      @DisplayName("Should index only enabled @Test methods")
+      void shouldIndexOnlyEnabledTestMethods() {
+         // Act
+         List<String> names = names(TestNgMethodIndex.of(MethodLevelFixture.class).getTestMethods());
+
+         // Assert
+         assertEquals(3, names.size());
+         assertTrue(names.containsAll(List.of("loginValid", "loginInvalid", "logout")));
+      }
+
+      @Test
+      @DisplayName("Class-level @Test should make public methods tests")
+      void classLevelTestShouldMakePublicMethodsTests() {
+         // Act
+         List<String> names = names(TestNgMethodIndex.of(ClassLevelFixture.class).getTestMethods());
+
+         // Assert
+         assertEquals(2, names.size(), "Configuration, data provider, static and non-public methods are excluded");
+         assertTrue(names.containsAll(List.of("first", "second")));
+      }
+
+      @Test
+      @DisplayName("Class-level @Test should be inherited from superclasses")
+      void classLevelTestShouldBeInheritedFromSuperclasses() {
+         // Act
+         List<String> names = names(TestNgMethodIndex.of(InheritedClassLevelFixture.class).getTestMethods());
+
+         // Assert
+         assertEquals(3, names.size());
+         assertTrue(names.contains("third"));
+      }
+
+      @Test
+      @DisplayName("Should index @Test methods inherited from abstract base classes")
+      void shouldIndexTestMethodsInheritedFromBaseClasses() {
+         // Act
+         TestNgMethodIndex index = TestNgMethodIndex.of(ConcreteFixture.class);
+
+         // Assert
+         assertEquals(List.of("concrete", "inherited"), names(index.getTestMethods()).stream().sorted().toList(),
+               "An override without @Test hides the base test method");
+         assertEquals(List.of("inherited"), names(index.select(List.of("inherited"), List.of())));
+      }
+   }
+
+   @Nested
+   @DisplayName("getGroups Tests")
+   class GetGroupsTests {
+
+      @Test
+      @DisplayName("Should combine method groups with inherited class-level groups")
+      void shouldCombineMethodGroupsWithInheritedClassLevelGroups() throws NoSuchMethodException {
+         // Arrange
+         TestNgMethodIndex index = TestNgMethodIndex.of(GroupedFixture.class);
+
+         // Act
+         Set<String> smokeGroups = index.getGroups(GroupedFixture.class.getMethod("smoke"));
+         Set<String> plainGroups = index.getGroups(GroupedFixture.class.getMethod("plain"));
+
+         // Assert
+         assertEquals(Set.of("api", "base", "smoke"), smokeGroups);
+         assertEquals(Set.of("api", "base"), plainGroups);
+      }
+   }
+
+   @Nested
+   @DisplayName("select Tests")
+   class SelectTests {
+
+      private final TestNgMethodIndex index = TestNgMethodIndex.of(MethodLevelFixture.class);
+
+      @Test
+      @DisplayName("Should return all test methods without includes or excludes")
+      void shouldReturnAllTestMethodsWithoutIncludesOrExcludes() {
+         assertEquals(3, index.select(List.of(), List.of()).size());
+         assertEquals(3, index.select(null, null).size());
+      }
+
+      @Test
+      @DisplayName("Should resolve literal and regex includes without duplicates")
+      void shouldResolveLiteralAndRegexIncludesWithoutDuplicates() {
+         // Act
+         List<String> names = names(index.select(List.of("login.*", "loginValid", "unknown"), List.of()));
+
+         // Assert
+         assertEquals(2, names.size());
+         assertTrue(names.containsAll(List.of("loginValid", "loginInvalid")));
+      }
+
+      @Test
+      @DisplayName("Should drop methods matching excludes")
+      void shouldDropMethodsMatchingExcludes() {
+         // Act
+         List<String> names = names(index.select(List.of(), List.of(".*Invalid")));
+
+         // Assert
+         assertEquals(List.of("loginValid", "logout"), names.stream().sorted().toList());
+      }
+   }
+
+   private static List<String> names(List<Method> methods) {
+      return methods.stream().map(Method::getName).toList();
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class MethodLevelFixture {
+      @org.testng.annotations.Test
+      public void loginValid() {
+      }
+
+      @org.testng.annotations.Test
+      public void loginInvalid() {
+      }
+
+      @org.testng.annotations.Test
+      public void logout() {
+      }
+
+      @org.testng.annotations.Test(enabled = false)
+      public void disabled() {
+      }
+
+      public void helper() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   @org.testng.annotations.Test
+   public static class ClassLevelFixture {
+      public void first() {
+      }
+
+      public void second() {
+      }
+
+      @BeforeMethod
+      public void setUp() {
+      }
+
+      @DataProvider
+      public Object[][] data() {
+         return new Object[0][];
+      }
+
+      public static void utility() {
+      }
+
+      void packagePrivate() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   @org.testng.annotations.Test(groups = "base")
+   public static class GroupedBaseFixture {
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   @org.testng.annotations.Test(groups = "api")
+   public static class GroupedFixture extends GroupedBaseFixture {
+      @org.testng.annotations.Test(groups = "smoke")
+      public void smoke() {
+      }
+
+      public void plain() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   public abstract static class AbstractBaseFixture {
+      @org.testng.annotations.Test
+      public void inherited() {
+      }
+
+      @org.testng.annotations.Test
+      public void overridden() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   public static class ConcreteFixture extends AbstractBaseFixture {
+      @org.testng.annotations.Test
+      public void concrete() {
+      }
+
+      @Override
+      public void overridden() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   public static class InheritedClassLevelFixture extends ClassLevelFixture {
+      public void third() {
+      }
+   }
+}
@@ -0,0 +1,47 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestNgNameMatcher Tests")
+class TestNgNameMatcherTest {
+
+   @Nested
+   @DisplayName("matches Tests")
+   class MatchesTests {
+
+      @Test
+      @DisplayName("Should match literal entries exactly and regular expressions against the whole name")
+      void shouldMatchLiteralsAndRegularExpressions() {
+         // Arrange
+         TestNgNameMatcher matcher = TestNgNameMatcher.of(List.of("smoke", "api\\..*"));
+
+         // Act & Assert
+         assertTrue(matcher.matches("smoke"));
+         assertTrue(matcher.matches("api.orders"));
+         assertFalse(matcher.matches("smoke-slow"));
+         assertFalse(matcher.matches("web.api.orders"));
+         assertEquals(Set.of("smoke"), matcher.getLiterals());
+         assertTrue(matcher.hasPatterns());
+      }
+
+      @Test
+      @DisplayName("Should match nothing without entries")
+      void shouldMatchNothingWithoutEntries() {
+         // Act
+         TestNgNameMatcher matcher = TestNgNameMatcher.of(null);
+
+         // Assert
+         assertTrue(matcher.isEmpty());
+         assertFalse(matcher.matches("smoke"));
+      }
+   }
+
+}
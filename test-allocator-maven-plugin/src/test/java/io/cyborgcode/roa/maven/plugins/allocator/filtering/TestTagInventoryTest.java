@@ -0,0 +1,85 @@
+package io.cyborgcode.roa.maven.plugins.allocator.filtering;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("TestTagInventory Tests")
+class TestTagInventoryTest {
+
+   private TestTagInventory inventory;
+
+   @BeforeEach
+   void setUp() {
+      inventory = new TestTagInventory();
+      inventory.add("com.example.CheckoutTest", "payByCard", Set.of("smoke", "payments"));
+      inventory.add("com.example.CheckoutTest", "payByVoucher", Set.of("payments", "flaky"));
+      inventory.add("com.example.CheckoutTest", "refund", Set.of());
+      inventory.add("com.example.SearchTest", "searchByName", Set.of("smoke"));
+      inventory.add("com.example.SearchTest", "searchByTag", Set.of());
+   }
+
+   @Nested
+   @DisplayName("countsFor Tests")
+   class CountsForTests {
+
+      @Test
+      @DisplayName("Should count the tests of each unit selected by the include and exclude tags")
+      void shouldCountSelectedTestsPerUnit() {
+         // Act & Assert
+         assertEquals(Map.of("com.example.CheckoutTest", 1, "com.example.SearchTest", 1),
+               inventory.countsFor(Set.of("smoke"), Set.of(), true));
+         assertEquals(Map.of("com.example.CheckoutTest", 2, "com.example.SearchTest", 2),
+               inventory.countsFor(null, Set.of("flaky"), true));
+         assertEquals(Map.of("com.example.CheckoutTest", 2),
+               inventory.countsFor(Set.of("payments"), null, true));
+      }
+
+      @Test
+      @DisplayName("Should count sequential units once")
+      void shouldCountSequentialUnitsOnce() {
+         // Arrange
+         inventory.markSequential("com.example.CheckoutTest");
+
+         // Act & Assert
+         assertEquals(Map.of("com.example.CheckoutTest", 1, "com.example.SearchTest", 2),
+               inventory.countsFor(Set.of(), Set.of(), true));
+         assertEquals(Map.of("com.example.CheckoutTest", 1, "com.example.SearchTest", 1),
+               inventory.countsFor(Set.of(), Set.of(), false));
+      }
+   }
+
+   @Nested
+   @DisplayName("idsFor Tests")
+   class IdsForTests {
+
+      @Test
+      @DisplayName("Should return the selected identifiers in discovery order")
+      void shouldReturnSelectedIdentifiersInDiscoveryOrder() {
+         // Act & Assert
+         assertEquals(List.of("payByCard", "refund"),
+               inventory.idsFor("com.example.CheckoutTest", Set.of(), Set.of("flaky")));
+         assertEquals(List.of(), inventory.idsFor("com.example.UnknownTest", Set.of(), Set.of()));
+      }
+   }
+
+   @Nested
+   @DisplayName("tagIndex Tests")
+   class TagIndexTests {
+
+      @Test
+      @DisplayName("Should count the tests carrying each tag")
+      void shouldCountTestsPerTag() {
+         // Act & Assert
+         assertEquals(Map.of("flaky", 1, "payments", 2, "smoke", 2), inventory.tagIndex());
+         assertEquals(5, inventory.size());
+      }
+   }
+
+}
@@ -0,0 +1,103 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("BucketOrder Tests")
+class BucketOrderTest {
+
+   private static final String REPORT = """
+         <?xml version="1.0" encoding="UTF-8"?>
+         <testsuite name="Report" tests="6">
+           <testcase name="first" classname="A" time="1"/>
+           <testcase name="second" classname="A" time="1"/>
+           <testcase name="third" classname="A" time="1"/>
+           <testcase name="fourth" classname="A" time="1">
+             <failure message="boom"/>
+           </testcase>
+           <testcase name="first" classname="C" time="1"/>
+           <testcase name="second" classname="C" time="1">
+             <error message="boom"/>
+           </testcase>
+         </testsuite>
+         """;
+
+   @Nested
+   @DisplayName("failuresFirst Tests")
+   class FailuresFirstTests {
+
+      @Test
+      @DisplayName("Should order classes by failure rate, then by estimated cost")
+      void shouldOrderClassesByFailureRateThenCost(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         Files.writeString(tempDir.resolve("TEST-Report.xml"), REPORT);
+         List<PackingUnit> units = PackingUnit.singletons(counts("A", 3, "B", 2, "C", 2, "D", 1));
+         TestBucket bucket = new TestBucket(List.of("A", "B", "C", "D"), 8, 8.0);
+
+         // Act
+         List<TestBucket> ordered = BucketOrder.failuresFirst(List.of(bucket), units,
+               TestHistory.load(tempDir.toFile()), ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of("C", "A", "D", "B"), ordered.get(0).getClassNames());
+         assertEquals(8, ordered.get(0).getTotalMethods());
+         assertEquals(8.0, ordered.get(0).getEstimatedCost());
+      }
+
+      @Test
+      @DisplayName("Should keep inseparable classes together and classes without a unit last")
+      void shouldKeepInseparableClassesTogether() {
+         // Arrange
+         List<PackingUnit> units = PackingUnit.of(counts("A", 2, "B", 2, "C", 1), List.of(Set.of("A", "B")));
+         List<TestBucket> buckets = List.of(new TestBucket(List.of("X", "A", "B", "C"), 6),
+               new TestBucket(List.of("D"), 1));
+
+         // Act
+         List<TestBucket> ordered = BucketOrder.failuresFirst(buckets, units, TestHistory.empty(),
+               ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of("C", "A", "B", "X"), ordered.get(0).getClassNames());
+         assertEquals(List.of("D"), ordered.get(1).getClassNames());
+      }
+   }
+
+   @Nested
+   @DisplayName("failureRate Tests")
+   class FailureRateTests {
+
+      @Test
+      @DisplayName("Should share failed and errored invocations over all classes of a unit")
+      void shouldShareFailuresOverAllClassesOfUnit(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         Files.writeString(tempDir.resolve("TEST-Report.xml"), REPORT);
+         PackingUnit unit = PackingUnit.of(counts("A", 4, "C", 2), List.of(Set.of("A", "C"))).get(0);
+
+         // Act & Assert
+         assertEquals(2.0 / 6, BucketOrder.failureRate(unit, TestHistory.load(tempDir.toFile())), 1e-9);
+         assertEquals(0.0, BucketOrder.failureRate(unit, TestHistory.empty()));
+      }
+   }
+
+   private static Map<String, Integer> counts(Object... classesAndMethods) {
+      Map<String, Integer> counts = new LinkedHashMap<>();
+      for (int i = 0; i < classesAndMethods.length; i += 2) {
+         counts.put((String) classesAndMethods[i], (Integer) classesAndMethods[i + 1]);
+      }
+      return counts;
+   }
+
+}
@@ -0,0 +1,131 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import io.cyborgcode.roa.maven.plugins.allocator.history.TestHistory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("BudgetSelection Tests")
+class BudgetSelectionTest {
+
+   private static final String REPORT = """
+         <?xml version="1.0" encoding="UTF-8"?>
+         <testsuite name="A" tests="4">
+           <testcase name="first" classname="A" time="1"/>
+           <testcase name="second" classname="A" time="2"/>
+           <testcase name="third" classname="A" time="3"/>
+           <testcase name="fourth" classname="A" time="6">
+             <failure message="boom"/>
+           </testcase>
+         </testsuite>
+         """;
+
+   private static final ToDoubleFunction<PackingUnit> BY_METHODS = PackingUnit::getTotalMethods;
+
+   @Nested
+   @DisplayName("select Tests")
+   class SelectTests {
+
+      @Test
+      @DisplayName("Should select every unit that fits and defer units exceeding the budget of a runner")
+      void shouldSelectEveryUnitThatFits() {
+         // Act
+         BudgetSelection.Result result = BudgetSelection.select(units(), BY_METHODS, 3, 10,
+               ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of(List.of("A"), List.of("B"), List.of("C", "D")), classesOf(result));
+         assertEquals(List.of(List.of("E")), result.getDeferred().stream().map(PackingUnit::getClassNames).toList());
+         assertEquals(18.0, result.getSelectedValue());
+         assertEquals(30.0, result.getTotalValue());
+      }
+
+      @Test
+      @DisplayName("Should select the most valuable units within the budget")
+      void shouldSelectMostValuableUnitsWithinBudget() {
+         // Arrange
+         ToDoubleFunction<PackingUnit> valuation =
+               BudgetSelection.valuation(TestHistory.empty(), Set.of("C"), Set.of("D"));
+
+         // Act
+         BudgetSelection.Result result = BudgetSelection.select(units(), valuation, 1, 9,
+               ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of(List.of("C", "D")), classesOf(result));
+         assertEquals(List.of(List.of("E"), List.of("A"), List.of("B")),
+               result.getDeferred().stream().map(PackingUnit::getClassNames).toList(), "Most valuable first");
+         assertEquals(21.0, result.getSelectedValue());
+      }
+
+      @Test
+      @DisplayName("Should defer units until every runner fits its budget")
+      void shouldDeferUnitsUntilEveryRunnerFits() {
+         // Act
+         BudgetSelection.Result result = BudgetSelection.select(units(), BY_METHODS, 2, 8,
+               ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of(List.of("A"), List.of("C", "D")), classesOf(result));
+         assertEquals(List.of(List.of("E"), List.of("B")),
+               result.getDeferred().stream().map(PackingUnit::getClassNames).toList());
+      }
+   }
+
+   @Nested
+   @DisplayName("valuation Tests")
+   class ValuationTests {
+
+      @Test
+      @DisplayName("Should weigh the methods of a unit by its failure rate, impact and priority")
+      void shouldWeighMethodsBySignals(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         Files.writeString(tempDir.resolve("TEST-A.xml"), REPORT);
+         TestHistory history = TestHistory.load(tempDir.toFile());
+         PackingUnit unit = PackingUnit.singletons(Map.of("A", 4)).get(0);
+
+         // Act & Assert
+         assertEquals(8.0, BudgetSelection.valuation(history, Set.of(), Set.of()).applyAsDouble(unit));
+         assertEquals(24.0, BudgetSelection.valuation(history, Set.of("A"), Set.of("A")).applyAsDouble(unit));
+         assertEquals(4.0, BudgetSelection.valuation(TestHistory.empty(), Set.of(), Set.of()).applyAsDouble(unit));
+      }
+
+      @Test
+      @DisplayName("Should relate method-time units to seconds by the mean recorded invocation")
+      void shouldComputeSecondsPerMethod(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         Files.writeString(tempDir.resolve("TEST-A.xml"), REPORT);
+
+         // Act & Assert
+         assertEquals(3.0, BudgetSelection.secondsPerMethod(TestHistory.load(tempDir.toFile())));
+         assertEquals(0.0, BudgetSelection.secondsPerMethod(TestHistory.empty()));
+      }
+   }
+
+   private static List<PackingUnit> units() {
+      Map<String, Integer> counts = new LinkedHashMap<>();
+      counts.put("A", 6);
+      counts.put("B", 5);
+      counts.put("C", 4);
+      counts.put("D", 3);
+      counts.put("E", 12);
+      return PackingUnit.singletons(counts);
+   }
+
+   private static List<List<String>> classesOf(BudgetSelection.Result result) {
+      return result.getBuckets().stream().map(TestBucket::getClassNames).toList();
+   }
+
+}
@@ -0,0 +1,76 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("PackingUnit Tests")
+class PackingUnitTest {
+
+   @Nested
+   @DisplayName("of Tests")
+   class OfTests {
+
+      @Test
+      @DisplayName("Should merge inseparable classes and keep the others single")
+      void shouldMergeInseparableClassesAndKeepOthersSingle() {
+         // Arrange
+         Map<String, Integer> classMethodCounts = new LinkedHashMap<>();
+         classMethodCounts.put("A", 3);
+         classMethodCounts.put("B", 4);
+         classMethodCounts.put("C", 5);
+
+         // Act
+         List<PackingUnit> units = PackingUnit.of(classMethodCounts, List.of(Set.of("A", "C", "Unknown")));
+
+         // Assert
+         assertEquals(2, units.size());
+         assertEquals(List.of("A", "C"), units.get(0).getClassNames());
+         assertEquals(8, units.get(0).getTotalMethods());
+         assertEquals(List.of("B"), units.get(1).getClassNames());
+      }
+
+      @Test
+      @DisplayName("Singletons should preserve the iteration order")
+      void singletonsShouldPreserveIterationOrder() {
+         // Arrange
+         Map<String, Integer> classMethodCounts = new LinkedHashMap<>();
+         classMethodCounts.put("Second", 1);
+         classMethodCounts.put("First", 2);
+
+         // Act
+         List<PackingUnit> units = PackingUnit.singletons(classMethodCounts);
+
+         // Assert
+         assertEquals(List.of("Second"), units.get(0).getClassNames());
+         assertEquals(List.of("First"), units.get(1).getClassNames());
+      }
+   }
+
+   @Nested
+   @DisplayName("cost Tests")
+   class CostTests {
+
+      @Test
+      @DisplayName("Should estimate the unit like a bucket of its classes")
+      void shouldEstimateUnitLikeBucketOfItsClasses() {
+         // Arrange
+         ExecutionCostModel costModel = new ExecutionCostModel(Map.of(), ExecutionConcurrency.of(1, 2));
+         Map<String, Integer> classMethodCounts = new LinkedHashMap<>();
+         classMethodCounts.put("A", 6);
+         classMethodCounts.put("B", 4);
+         PackingUnit unit = PackingUnit.of(classMethodCounts, List.of(Set.of("A", "B"))).get(0);
+
+         // Act & Assert
+         assertEquals(6.0, unit.cost(costModel), 0.0001, "Two classes run side by side, bounded by the larger one");
+      }
+   }
+}
@@ -0,0 +1,132 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Shard Tests")
+class ShardTest {
+
+   @Nested
+   @DisplayName("parse Tests")
+   class ParseTests {
+
+      @Test
+      @DisplayName("Should parse the index and total of a shard")
+      void shouldParseIndexAndTotal() {
+         // Act
+         Shard shard = Shard.parse(" 3/16 ");
+
+         // Assert
+         assertEquals(3, shard.getIndex());
+         assertEquals(16, shard.getTotal());
+         assertEquals("3/16", shard.toString());
+      }
+
+      @ParameterizedTest
+      @NullSource
+      @ValueSource(strings = {"3", "0/4", "5/4", "a/4", "1/2/3"})
+      @DisplayName("Should reject malformed shards and indexes out of range")
+      void shouldRejectMalformedShards(String value) {
+         // Act & Assert
+         assertThrows(IllegalArgumentException.class, () -> Shard.parse(value));
+      }
+   }
+
+   @Nested
+   @DisplayName("hashed Tests")
+   class HashedTests {
+
+      @Test
+      @DisplayName("Should assign every unit to exactly one shard, regardless of discovery order")
+      void shouldAssignEveryUnitToExactlyOneShard() {
+         // Arrange
+         Map<String, Integer> counts = counts(200);
+         List<PackingUnit> units = PackingUnit.of(counts, List.of(Set.of("com.acme.Test7", "com.acme.Test8")));
+         List<PackingUnit> reversed = new ArrayList<>(units);
+         Collections.reverse(reversed);
+
+         // Act
+         List<String> assigned = new ArrayList<>();
+         for (int i = 1; i <= 4; i++) {
+            TestBucket bucket = Shard.parse(i + "/4").hashed(units, ExecutionCostModel.sequential());
+            assertEquals(bucket.getClassNames(),
+                  Shard.parse(i + "/4").hashed(reversed, ExecutionCostModel.sequential()).getClassNames());
+            assertTrue(bucket.getClassNames().size() > 20, "Shard " + i + " should hold a fair share");
+            assigned.addAll(bucket.getClassNames());
+         }
+
+         // Assert
+         assertEquals(200, assigned.size());
+         assertEquals(counts.keySet(), new HashSet<>(assigned));
+         assertEquals(Shard.owner("com.acme.Test7", 4) + 1, IntStream.rangeClosed(1, 4)
+               .filter(i -> Shard.parse(i + "/4").hashed(units, ExecutionCostModel.sequential())
+                     .getClassNames().contains("com.acme.Test8"))
+               .findFirst().orElseThrow(), "Inseparable classes should share a shard");
+      }
+
+      @Test
+      @DisplayName("Should move only the units of the added shard when the number of shards grows")
+      void shouldMoveOnlyUnitsOfAddedShard() {
+         // Act
+         long moved = counts(1000).keySet().stream()
+               .filter(name -> Shard.owner(name, 8) != Shard.owner(name, 9) && Shard.owner(name, 9) != 8)
+               .count();
+
+         // Assert
+         assertEquals(0, moved, "A unit moves only to the added shard");
+      }
+   }
+
+   @Nested
+   @DisplayName("packed Tests")
+   class PackedTests {
+
+      @Test
+      @DisplayName("Should pack units onto the least loaded shard, most expensive first")
+      void shouldPackUnitsOntoLeastLoadedShard() {
+         // Arrange
+         Map<String, Integer> counts = new LinkedHashMap<>();
+         counts.put("D", 4);
+         counts.put("A", 9);
+         counts.put("C", 5);
+         counts.put("B", 6);
+         List<PackingUnit> units = PackingUnit.singletons(counts);
+
+         // Act
+         TestBucket first = Shard.parse("1/2").packed(units, ExecutionCostModel.sequential());
+         TestBucket second = Shard.parse("2/2").packed(units, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of("A", "D"), first.getClassNames());
+         assertEquals(13.0, first.getEstimatedCost());
+         assertEquals(List.of("B", "C"), second.getClassNames());
+         assertEquals(11, second.getTotalMethods());
+      }
+   }
+
+   private static Map<String, Integer> counts(int classes) {
+      Map<String, Integer> counts = new LinkedHashMap<>();
+      for (int i = 0; i < classes; i++) {
+         counts.put("com.acme.Test" + i, 1 + i % 5);
+      }
+      return counts;
+   }
+
+}
@@ -0,0 +1,122 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("StickyBucketAllocator Tests")
+class StickyBucketAllocatorTest {
+
+   @Nested
+   @DisplayName("allocate Tests")
+   class AllocateTests {
+
+      @Test
+      @DisplayName("Should keep classes in their previous buckets and place new classes on the least loaded one")
+      void shouldKeepClassesInPreviousBuckets() {
+         // Arrange
+         List<PackingUnit> units = PackingUnit.singletons(counts("A", 5, "B", 4, "C", 6, "D", 3));
+         List<TestBucket> fresh = List.of(new TestBucket(List.of("C"), 6), new TestBucket(List.of("A", "B"), 9),
+               new TestBucket(List.of("D"), 3));
+
+         // Act
+         StickyBucketAllocator.Result result = StickyBucketAllocator.allocate(
+               units, Map.of("A", 0, "B", 0, "C", 1, "Gone", 1), fresh, 0.1, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of(List.of("A", "B"), List.of("C"), List.of("D")),
+               result.getBuckets().stream().map(TestBucket::getClassNames).toList());
+         assertEquals(9.0, result.getFreshCost());
+         assertEquals(0, result.getChurn().getMoved());
+         assertEquals(1, result.getChurn().getAdded());
+         assertEquals(1, result.getChurn().getRemoved());
+      }
+
+      @Test
+      @DisplayName("Should move the classes that no longer fit within the tolerated cost")
+      void shouldMoveClassesThatNoLongerFit() {
+         // Arrange
+         List<PackingUnit> units = PackingUnit.singletons(counts("A", 5, "B", 5, "C", 5, "D", 5));
+         List<TestBucket> fresh =
+               List.of(new TestBucket(List.of("A", "B"), 10), new TestBucket(List.of("C", "D"), 10));
+
+         // Act
+         StickyBucketAllocator.Result result = StickyBucketAllocator.allocate(
+               units, Map.of("A", 0, "B", 0, "C", 0, "D", 0), fresh, 0, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of(List.of("A", "B"), List.of("C", "D")),
+               result.getBuckets().stream().map(TestBucket::getClassNames).toList());
+         assertEquals(2, result.getChurn().getMoved());
+      }
+
+      @Test
+      @DisplayName("Should keep an empty bucket in place so later buckets keep their job index")
+      void shouldKeepEmptyBucketInPlace() {
+         // Arrange
+         List<PackingUnit> units = PackingUnit.singletons(counts("A", 5, "B", 5, "C", 5));
+         List<TestBucket> fresh = List.of(new TestBucket(List.of("A"), 5), new TestBucket(List.of("B"), 5),
+               new TestBucket(List.of("C"), 5));
+
+         // Act
+         StickyBucketAllocator.Result result = StickyBucketAllocator.allocate(
+               units, Map.of("A", 0, "B", 0, "C", 2), fresh, 1.0, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of(List.of("A", "B"), List.of(), List.of("C")),
+               result.getBuckets().stream().map(TestBucket::getClassNames).toList());
+         assertEquals(0, result.getChurn().getMoved(), "C stays in job 2");
+      }
+
+      @Test
+      @DisplayName("Should fall back to the fresh buckets when keeping classes exceeds the tolerated cost")
+      void shouldFallBackToFreshBuckets() {
+         // Arrange
+         List<PackingUnit> units = PackingUnit.singletons(counts("A", 6, "B", 4, "C", 4, "D", 2));
+         List<TestBucket> fresh = List.of(new TestBucket(List.of("A", "D"), 8), new TestBucket(List.of("B", "C"), 8));
+
+         // Act
+         StickyBucketAllocator.Result result = StickyBucketAllocator.allocate(
+               units, Map.of("A", 0, "B", 0, "C", 1, "D", 1), fresh, 0, ExecutionCostModel.sequential());
+
+         // Assert
+         assertSame(fresh, result.getBuckets());
+         assertEquals(2, result.getChurn().getMoved(), "B and D change jobs");
+      }
+
+      @Test
+      @DisplayName("Should keep an inseparable unit in the bucket most of its classes were in")
+      void shouldKeepInseparableUnitInBucketOfMostClasses() {
+         // Arrange
+         List<PackingUnit> units = PackingUnit.of(counts("A", 1, "B", 1, "C", 1, "D", 1),
+               List.of(Set.of("A", "B", "C")));
+         List<TestBucket> fresh = List.of(new TestBucket(List.of("A", "B", "C"), 3), new TestBucket(List.of("D"), 1));
+
+         // Act
+         StickyBucketAllocator.Result result = StickyBucketAllocator.allocate(
+               units, Map.of("A", 1, "B", 1, "C", 0, "D", 0), fresh, 0, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(List.of("D"), result.getBuckets().get(0).getClassNames());
+         assertEquals(Set.of("A", "B", "C"), Set.copyOf(result.getBuckets().get(1).getClassNames()));
+         assertEquals(1, result.getChurn().getMoved());
+      }
+   }
+
+   private static Map<String, Integer> counts(Object... classesAndMethods) {
+      Map<String, Integer> counts = new LinkedHashMap<>();
+      for (int i = 0; i < classesAndMethods.length; i += 2) {
+         counts.put((String) classesAndMethods[i], (Integer) classesAndMethods[i + 1]);
+      }
+      return counts;
+   }
+
+}
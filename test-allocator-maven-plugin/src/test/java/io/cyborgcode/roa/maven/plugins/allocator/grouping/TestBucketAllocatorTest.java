@@ -1,5 +1,7 @@
 package io.cyborgcode.roa.maven.plugins.allocator.grouping;
 
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,8 +10,10 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -377,4 +381,107 @@ class TestBucketAllocatorTest {
                "Each class should appear exactly once across all buckets");
       }
    }
+
+   @Nested
+   @DisplayName("groupClasses with cost model Tests")
+   class GroupClassesWithCostModelTests {
+
+      @Test
+      @DisplayName("Should pack concurrent classes by estimated cost instead of method count")
+      void shouldPackConcurrentClassesByEstimatedCost() {
+         // Arrange
+         Map<String, Integer> classMethodCounts = Map.of(
+               "ConcurrentA", 40,
+               "ConcurrentB", 40
+         );
+         ExecutionCostModel costModel = new ExecutionCostModel(Map.of(), ExecutionConcurrency.of(4, 1));
+
+         // Act
+         List<TestBucket> buckets = TestBucketAllocator.groupClasses(classMethodCounts, 20, costModel);
+
+         // Assert
+         assertEquals(1, buckets.size(), "Two classes of cost 10 fit one bucket of 20");
+         assertEquals(80, buckets.get(0).getTotalMethods());
+         assertEquals(20.0, buckets.get(0).getEstimatedCost(), 0.0001);
+      }
+
+      @Test
+      @DisplayName("Sequential cost model should match method count grouping")
+      void sequentialCostModelShouldMatchMethodCountGrouping() {
+         // Arrange
+         Map<String, Integer> classMethodCounts = Map.of(
+               "Class1", 12,
+               "Class2", 10,
+               "Class3", 5
+         );
+
+         // Act
+         List<TestBucket> buckets = TestBucketAllocator.groupClasses(
+               classMethodCounts, 15, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(2, buckets.size());
+         buckets.forEach(bucket ->
+               assertEquals(bucket.getTotalMethods(), bucket.getEstimatedCost(), 0.0001));
+      }
+   }
+
+   @Nested
+   @DisplayName("groupUnits Tests")
+   class GroupUnitsTests {
+
+      @Test
+      @DisplayName("Should never split the classes of a unit")
+      void shouldNeverSplitClassesOfUnit() {
+         // Arrange
+         Map<String, Integer> classMethodCounts = new LinkedHashMap<>();
+         classMethodCounts.put("Producer", 6);
+         classMethodCounts.put("Consumer", 6);
+         classMethodCounts.put("Independent", 8);
+         List<PackingUnit> units = PackingUnit.of(classMethodCounts, List.of(Set.of("Producer", "Consumer")));
+
+         // Act
+         List<TestBucket> buckets = TestBucketAllocator.groupUnits(units, 10, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(2, buckets.size());
+         assertEquals(List.of("Producer", "Consumer"), buckets.get(0).getClassNames(),
+               "The unit exceeds the limit and gets its own bucket");
+         assertEquals(12, buckets.get(0).getTotalMethods());
+         assertEquals(List.of("Independent"), buckets.get(1).getClassNames());
+      }
+   }
+
+   @Nested
+   @DisplayName("allocate Tests")
+   class AllocateTests {
+
+      @Test
+      @DisplayName("Should give every unit its own bucket when there are enough runners")
+      void shouldGiveEveryUnitItsOwnBucketWhenEnoughRunners() {
+         // Arrange
+         List<PackingUnit> units = PackingUnit.singletons(Map.of("Small", 2, "Large", 30));
+
+         // Act
+         List<TestBucket> buckets = TestBucketAllocator.allocate(units, 2, 10, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(2, buckets.size());
+         assertTrue(buckets.stream().allMatch(bucket -> bucket.getClassNames().size() == 1));
+      }
+
+      @Test
+      @DisplayName("Should group units when there are more units than runners")
+      void shouldGroupUnitsWhenMoreUnitsThanRunners() {
+         // Arrange
+         List<PackingUnit> units = PackingUnit.singletons(Map.of("First", 4, "Second", 5, "Third", 6));
+
+         // Act
+         List<TestBucket> buckets = TestBucketAllocator.allocate(units, 2, 20, ExecutionCostModel.sequential());
+
+         // Assert
+         assertEquals(1, buckets.size());
+         assertEquals(15, buckets.get(0).getTotalMethods());
+      }
+   }
 }
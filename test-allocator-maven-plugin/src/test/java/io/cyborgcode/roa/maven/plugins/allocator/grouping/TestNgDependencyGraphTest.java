@@ -0,0 +1,139 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import io.cyborgcode.roa.maven.plugins.allocator.filtering.TestNgMethodIndex;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestNgDependencyGraph Tests")
+class TestNgDependencyGraphTest {
+
+   private static final String PACKAGE = "io.cyborgcode.roa.maven.plugins.allocator.grouping.TestNgDependencyGraphTest$";
+
+   @Nested
+   @DisplayName("build Tests")
+   class BuildTests {
+
+      @Test
+      @DisplayName("Should join classes connected through dependsOnGroups")
+      void shouldJoinClassesConnectedThroughDependsOnGroups() {
+         // Act
+         TestNgDependencyGraph graph = TestNgDependencyGraph.build(indexes(
+               SetupFixture.class, DependentFixture.class, SmokeFixture.class));
+
+         // Assert
+         assertEquals(List.of(Set.of(PACKAGE + "SetupFixture", PACKAGE + "DependentFixture")),
+               graph.getInseparableClasses(), "Sharing a group nobody depends on must not join classes");
+         assertEquals(2, graph.getLargestComponentClasses());
+         assertEquals(3, graph.getLargestComponentMethods());
+         assertEquals(4, graph.getMethodCount());
+      }
+
+      @Test
+      @DisplayName("Should join classes connected through qualified dependsOnMethods")
+      void shouldJoinClassesConnectedThroughQualifiedDependsOnMethods() {
+         // Act
+         TestNgDependencyGraph graph = TestNgDependencyGraph.build(indexes(
+               SmokeFixture.class, QualifiedDependentFixture.class));
+
+         // Assert
+         assertEquals(1, graph.getInseparableClasses().size());
+         assertEquals(1, graph.getEdgeCount());
+      }
+
+      @Test
+      @DisplayName("Should resolve regular expression dependsOnGroups against the known groups")
+      void shouldResolveRegularExpressionDependsOnGroups() {
+         // Act
+         TestNgDependencyGraph graph = TestNgDependencyGraph.build(indexes(
+               SetupFixture.class, PatternDependentFixture.class, SmokeFixture.class));
+
+         // Assert
+         assertEquals(List.of(Set.of(PACKAGE + "SetupFixture", PACKAGE + "PatternDependentFixture")),
+               graph.getInseparableClasses());
+         assertEquals(2, graph.getEdgeCount(), "Each method depending on the pattern must reach only 'init'");
+      }
+
+      @Test
+      @DisplayName("Should keep independent classes apart")
+      void shouldKeepIndependentClassesApart() {
+         // Act
+         TestNgDependencyGraph graph = TestNgDependencyGraph.build(indexes(SetupFixture.class, SmokeFixture.class));
+
+         // Assert
+         assertTrue(graph.getInseparableClasses().isEmpty());
+         assertEquals(1, graph.getLargestComponentClasses());
+      }
+   }
+
+   private static Map<String, TestNgMethodIndex> indexes(Class<?>... classes) {
+      Map<String, TestNgMethodIndex> indexes = new LinkedHashMap<>();
+      for (Class<?> clazz : classes) {
+         indexes.put(clazz.getName(), TestNgMethodIndex.of(clazz));
+      }
+      return indexes;
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class SetupFixture {
+      @org.testng.annotations.Test(groups = {"init", "smoke"})
+      public void createUser() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class DependentFixture {
+      @org.testng.annotations.Test(dependsOnGroups = "init")
+      public void updateUser() {
+      }
+
+      @org.testng.annotations.Test(dependsOnMethods = "updateUser")
+      public void deleteUser() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class PatternDependentFixture {
+      @org.testng.annotations.Test(dependsOnGroups = "in.*")
+      public void readUser() {
+      }
+
+      @org.testng.annotations.Test(dependsOnGroups = "in.*")
+      public void listUsers() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class SmokeFixture {
+      @org.testng.annotations.Test(groups = "smoke")
+      public void ping() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class QualifiedDependentFixture {
+      @org.testng.annotations.Test(dependsOnMethods =
+            "io.cyborgcode.roa.maven.plugins.allocator.grouping.TestNgDependencyGraphTest$SmokeFixture.ping")
+      public void afterPing() {
+      }
+   }
+}
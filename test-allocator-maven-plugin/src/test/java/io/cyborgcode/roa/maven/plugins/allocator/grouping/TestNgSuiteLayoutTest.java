@@ -0,0 +1,215 @@
+package io.cyborgcode.roa.maven.plugins.allocator.grouping;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlMethodSelector;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestNgSuiteLayout Tests")
+class TestNgSuiteLayoutTest {
+
+   private TestNgSuiteLayout layout;
+   private XmlSuite regression;
+   private XmlTest api;
+   private XmlTest ui;
+   private XmlTest smoke;
+
+   @BeforeEach
+   void setUp() {
+      layout = new TestNgSuiteLayout();
+
+      regression = new XmlSuite();
+      regression.setName("Regression");
+      regression.setParallel(XmlSuite.ParallelMode.CLASSES);
+      regression.setThreadCount(3);
+      regression.setParameters(Map.of("env", "staging"));
+      regression.setListeners(List.of("com.example.ReportListener"));
+      api = test(regression, "Api");
+      ui = test(regression, "Ui");
+
+      XmlSuite smokeSuite = new XmlSuite();
+      smokeSuite.setName("Smoke");
+      smoke = test(smokeSuite, "Smoke");
+   }
+
+   @Nested
+   @DisplayName("declare Tests")
+   class DeclareTests {
+
+      @Test
+      @DisplayName("Should keep differing declarations of a class and fold identical ones")
+      void shouldKeepDifferingDeclarationsAndFoldIdenticalOnes() {
+         // Arrange
+         XmlClass selective = new XmlClass("com.example.LoginTest", false);
+         selective.setIncludedMethods(List.of(new XmlInclude("login")));
+         layout.declare(api, selective);
+         layout.declare(ui, new XmlClass("com.example.LoginTest", false));
+         XmlClass repeated = new XmlClass("com.example.LoginTest", false);
+         repeated.setIncludedMethods(List.of(new XmlInclude("login")));
+
+         // Act
+         boolean identical = layout.isDeclared(api, repeated);
+         layout.declare(api, repeated);
+         List<XmlSuite> suites = layout.suitesFor(List.of("com.example.LoginTest"));
+
+         // Assert
+         assertTrue(identical);
+         assertFalse(layout.isDeclared(smoke, new XmlClass("com.example.LoginTest", false)),
+               "Another suite's parameters make another run");
+         List<XmlTest> tests = suites.get(0).getTests();
+         assertEquals(List.of("Api", "Ui"), tests.stream().map(XmlTest::getName).toList());
+         assertEquals(1, tests.get(0).getXmlClasses().size(), "The identical declaration is folded");
+         assertEquals("login", tests.get(0).getXmlClasses().get(0).getIncludedMethods().get(0).getName());
+         assertTrue(tests.get(1).getXmlClasses().get(0).getIncludedMethods().isEmpty());
+      }
+
+      @Test
+      @DisplayName("Clear should forget declarations and duplicates")
+      void clearShouldForgetDeclarationsAndDuplicates() {
+         // Arrange
+         layout.declare(api, new XmlClass("com.example.LoginTest", false));
+         layout.markDuplicate();
+
+         // Act
+         layout.clear();
+
+         // Assert
+         assertFalse(layout.isDeclared("com.example.LoginTest"));
+         assertEquals(0, layout.getDuplicates());
+      }
+   }
+
+   @Nested
+   @DisplayName("suitesFor Tests")
+   class SuitesForTests {
+
+      @Test
+      @DisplayName("Should trim suites to the given classes and inherit suite settings")
+      void shouldTrimSuitesToGivenClassesAndInheritSuiteSettings() {
+         // Arrange
+         layout.declare(api, new XmlClass("com.example.ApiTest", false));
+         layout.declare(ui, new XmlClass("com.example.UiTest", false));
+         layout.declare(api, new XmlClass("com.example.OtherApiTest", false));
+
+         // Act
+         List<XmlSuite> suites = layout.suitesFor(List.of("com.example.OtherApiTest", "com.example.ApiTest"));
+
+         // Assert
+         assertEquals(1, suites.size());
+         XmlSuite suite = suites.get(0);
+         assertEquals("Regression", suite.getName());
+         assertEquals(XmlSuite.ParallelMode.CLASSES, suite.getParallel());
+         assertEquals(3, suite.getThreadCount());
+         assertEquals("staging", suite.getParameter("env"));
+         assertEquals(List.of("com.example.ReportListener"), suite.getListeners());
+         assertEquals(1, suite.getTests().size(), "Tests without selected classes are trimmed");
+         List<XmlClass> classes = suite.getTests().get(0).getXmlClasses();
+         assertEquals(List.of("com.example.ApiTest", "com.example.OtherApiTest"),
+               classes.stream().map(XmlClass::getName).toList(), "Classes keep their declaration order");
+      }
+
+      @Test
+      @DisplayName("Should keep method selectors, group dependencies and invocation settings of a test")
+      void shouldKeepMethodSelectorsGroupDependenciesAndInvocationSettings() {
+         // Arrange
+         XmlMethodSelector selector = new XmlMethodSelector();
+         selector.setName("com.example.Selector");
+         api.setMethodSelectors(List.of(selector));
+         api.addXmlDependencyGroup("checkout", "login");
+         api.setGroupByInstances(true);
+         api.setSkipFailedInvocationCounts(true);
+         layout.declare(api, new XmlClass("com.example.ApiTest", false));
+
+         // Act
+         XmlTest test = layout.suitesFor(List.of("com.example.ApiTest")).get(0).getTests().get(0);
+
+         // Assert
+         assertEquals(List.of("com.example.Selector"),
+               test.getMethodSelectors().stream().map(XmlMethodSelector::getName).toList());
+         assertEquals(Map.of("checkout", "login"), test.getXmlDependencyGroups());
+         assertTrue(test.getGroupByInstances());
+         assertTrue(test.skipFailedInvocationCounts());
+      }
+
+      @Test
+      @DisplayName("Should inherit parameters and listeners of parent suites")
+      void shouldInheritParametersAndListenersOfParentSuites() {
+         // Arrange
+         XmlSuite master = new XmlSuite();
+         master.setName("Master");
+         master.setParameters(Map.of("env", "production", "browser", "chrome"));
+         master.setListeners(List.of("com.example.RetryListener"));
+         regression.setParentSuite(master);
+         layout.declare(api, new XmlClass("com.example.ApiTest", false));
+
+         // Act
+         XmlSuite suite = layout.suitesFor(List.of("com.example.ApiTest")).get(0);
+
+         // Assert
+         assertEquals("staging", suite.getParameter("env"), "The suite's own parameters win");
+         assertEquals("chrome", suite.getParameter("browser"));
+         assertEquals(List.of("com.example.ReportListener", "com.example.RetryListener"), suite.getListeners());
+      }
+
+      @Test
+      @DisplayName("Should return one suite per original suite")
+      void shouldReturnOneSuitePerOriginalSuite() {
+         // Arrange
+         layout.declare(api, new XmlClass("com.example.ApiTest", false));
+         layout.declare(smoke, new XmlClass("com.example.SmokeTest", false));
+
+         // Act
+         List<XmlSuite> suites = layout.suitesFor(List.of("com.example.SmokeTest", "com.example.ApiTest"));
+
+         // Assert
+         assertEquals(List.of("Regression", "Smoke"), suites.stream().map(XmlSuite::getName).toList());
+      }
+
+      @Test
+      @DisplayName("Should order suites, tests and classes as given and preserve that order")
+      void shouldOrderAsGivenAndPreserveOrder() {
+         // Arrange
+         layout.declare(api, new XmlClass("com.example.ApiTest", false));
+         layout.declare(ui, new XmlClass("com.example.UiTest", false));
+         layout.declare(api, new XmlClass("com.example.OtherApiTest", false));
+         layout.declare(smoke, new XmlClass("com.example.SmokeTest", false));
+
+         // Act
+         List<XmlSuite> suites = layout.suitesFor(List.of("com.example.SmokeTest", "com.example.UiTest",
+               "com.example.OtherApiTest", "com.example.ApiTest"), true);
+
+         // Assert
+         assertEquals(List.of("Smoke", "Regression"), suites.stream().map(XmlSuite::getName).toList());
+         List<XmlTest> tests = suites.get(1).getTests();
+         assertEquals(List.of("Ui", "Api"), tests.stream().map(XmlTest::getName).toList());
+         assertEquals(List.of("com.example.OtherApiTest", "com.example.ApiTest"),
+               tests.get(1).getXmlClasses().stream().map(XmlClass::getName).toList());
+         assertTrue(tests.get(1).getPreserveOrder());
+      }
+
+      @Test
+      @DisplayName("Should ignore undeclared classes")
+      void shouldIgnoreUndeclaredClasses() {
+         // Act & Assert
+         assertTrue(layout.suitesFor(List.of("com.example.Unknown")).isEmpty());
+      }
+   }
+
+   private static XmlTest test(XmlSuite suite, String name) {
+      XmlTest test = new XmlTest(suite);
+      test.setName(name);
+      return test;
+   }
+
+}
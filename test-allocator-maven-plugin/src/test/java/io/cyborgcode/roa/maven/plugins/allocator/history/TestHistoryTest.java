@@ -0,0 +1,75 @@
+package io.cyborgcode.roa.maven.plugins.allocator.history;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestHistory Tests")
+class TestHistoryTest {
+
+   private static final String REPORT = """
+         <?xml version="1.0" encoding="UTF-8"?>
+         <testsuite name="com.example.LoginTest" tests="4">
+           <testcase name="login[1]" classname="com.example.LoginTest" time="1.5"/>
+           <testcase name="login[2]" classname="com.example.LoginTest" time="0.5">
+             <failure message="boom"/>
+           </testcase>
+           <testcase name="login(String)" classname="com.example.LoginTest" time="1,000.0"/>
+           <testcase name="logout" classname="com.example.LoginTest" time="2"/>
+         </testsuite>
+         """;
+
+   @Nested
+   @DisplayName("load Tests")
+   class LoadTests {
+
+      @Test
+      @DisplayName("Should aggregate invocations, durations and failures per method")
+      void shouldAggregateInvocationsDurationsAndFailuresPerMethod(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         Files.writeString(tempDir.resolve("TEST-com.example.LoginTest.xml"), REPORT);
+
+         // Act
+         TestHistory history = TestHistory.load(tempDir.toFile());
+
+         // Assert
+         TestHistory.MethodResult login = history.method("com.example.LoginTest", "login");
+         assertEquals(3, login.getInvocations());
+         assertEquals(1002.0, login.getDuration(), 0.0001);
+         assertEquals(1, login.getFailures());
+         assertEquals(4, history.testClass("com.example.LoginTest").getInvocations());
+      }
+
+      @Test
+      @DisplayName("Should ignore files that are not reports")
+      void shouldIgnoreFilesThatAreNotReports(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         Files.writeString(tempDir.resolve("com.example.LoginTest.txt"), "not a report");
+         Files.writeString(tempDir.resolve("TEST-broken.xml"), "<testsuite><testcase");
+
+         // Act
+         TestHistory history = TestHistory.load(tempDir.toFile());
+
+         // Assert
+         assertTrue(history.isEmpty());
+      }
+
+      @Test
+      @DisplayName("Missing directory should yield the empty history")
+      void missingDirectoryShouldYieldEmptyHistory(@TempDir Path tempDir) {
+         // Act & Assert
+         assertSame(TestHistory.empty(), TestHistory.load(tempDir.resolve("missing").toFile()));
+         assertSame(TestHistory.empty(), TestHistory.load(null));
+         assertSame(TestHistory.MethodResult.NONE, TestHistory.empty().method("Any", "test"));
+      }
+   }
+
+}
@@ -0,0 +1,182 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ClassDependencyGraph Tests")
+class ClassDependencyGraphTest {
+
+   @TempDir
+   Path tempDir;
+
+   private Path mainClasses;
+
+   private Path testClasses;
+
+   @BeforeEach
+   void setUp() throws IOException {
+      mainClasses = tempDir.resolve("classes");
+      testClasses = tempDir.resolve("test-classes");
+      copyClass(PriceFixture.class, mainClasses);
+      copyClass(CartFixture.class, mainClasses);
+      copyClass(CartTestFixture.class, testClasses);
+      copyClass(SearchTestFixture.class, testClasses);
+   }
+
+   @Nested
+   @DisplayName("dependentsOf Tests")
+   class DependentsOfTests {
+
+      @Test
+      @DisplayName("Should find the classes depending on a changed class transitively")
+      void shouldFindDependentsTransitively() {
+         // Arrange
+         ClassDependencyGraph graph =
+               ClassDependencyGraph.build(List.of(mainClasses.toFile(), testClasses.toFile()), null);
+
+         // Act
+         Set<String> affected = graph.dependentsOf(List.of(PriceFixture.class.getName()));
+
+         // Assert
+         assertEquals(Set.of(PriceFixture.class.getName(), CartFixture.class.getName(),
+               CartTestFixture.class.getName()), affected);
+         assertTrue(graph.contains(SearchTestFixture.class.getName()));
+         assertFalse(graph.contains("com.acme.Unknown"));
+      }
+
+      @Test
+      @DisplayName("Should affect the nested classes of a changed class")
+      void shouldAffectNestedClassesOfChangedClass() {
+         // Arrange
+         ClassDependencyGraph graph = ClassDependencyGraph.build(List.of(testClasses.toFile()), null);
+
+         // Act
+         Set<String> affected = graph.dependentsOf(List.of(ClassDependencyGraphTest.class.getName()));
+
+         // Assert
+         assertTrue(affected.contains(CartTestFixture.class.getName()));
+         assertTrue(affected.contains(SearchTestFixture.class.getName()));
+      }
+   }
+
+   @Nested
+   @DisplayName("dependenciesOf Tests")
+   class DependenciesOfTests {
+
+      @Test
+      @DisplayName("Should find the classes of the graph a class depends on transitively")
+      void shouldFindDependenciesTransitively() {
+         // Arrange
+         ClassDependencyGraph graph =
+               ClassDependencyGraph.build(List.of(mainClasses.toFile(), testClasses.toFile()), null);
+
+         // Act
+         Set<String> dependencies = graph.dependenciesOf(CartTestFixture.class.getName());
+
+         // Assert
+         assertEquals(Set.of(CartTestFixture.class.getName(), CartFixture.class.getName(),
+               PriceFixture.class.getName()), dependencies);
+         assertEquals(mainClasses.resolve(PriceFixture.class.getName().replace('.', '/') + ".class").toFile()
+               .getAbsoluteFile(), graph.classFile(PriceFixture.class.getName()));
+      }
+   }
+
+   @Nested
+   @DisplayName("build Tests")
+   class BuildTests {
+
+      @Test
+      @DisplayName("Should reuse the cached references of unchanged class files")
+      void shouldReuseCachedReferencesOfUnchangedClassFiles() throws IOException {
+         // Arrange
+         File cacheFile = tempDir.resolve("cache/class-dependencies.json").toFile();
+         List<File> directories = List.of(mainClasses.toFile(), testClasses.toFile());
+         ClassDependencyGraph.build(directories, cacheFile);
+         File cart = mainClasses.resolve(CartFixture.class.getName().replace('.', '/') + ".class").toFile();
+         long lastModified = cart.lastModified();
+         Files.write(cart.toPath(), new byte[(int) cart.length()]);
+         cart.setLastModified(lastModified);
+
+         // Act
+         ClassDependencyGraph graph = ClassDependencyGraph.build(directories, cacheFile);
+
+         // Assert
+         assertTrue(cacheFile.isFile());
+         assertTrue(graph.dependentsOf(List.of(PriceFixture.class.getName()))
+               .contains(CartTestFixture.class.getName()));
+      }
+
+      @Test
+      @DisplayName("Should parse recompiled class files again")
+      void shouldParseRecompiledClassFilesAgain() throws IOException {
+         // Arrange
+         File cacheFile = tempDir.resolve("class-dependencies.json").toFile();
+         ClassDependencyGraph.build(List.of(mainClasses.toFile()), cacheFile);
+         File cart = mainClasses.resolve(CartFixture.class.getName().replace('.', '/') + ".class").toFile();
+         Files.delete(cart.toPath());
+         copyClass(SearchTestFixture.class, mainClasses);
+
+         // Act
+         ClassDependencyGraph graph = ClassDependencyGraph.build(List.of(mainClasses.toFile()), cacheFile);
+
+         // Assert
+         assertFalse(graph.contains(CartFixture.class.getName()));
+         assertTrue(graph.contains(SearchTestFixture.class.getName()));
+      }
+   }
+
+   static void copyClass(Class<?> clazz, Path directory) throws IOException {
+      String className = clazz.getName();
+      Path classFile = directory.resolve(className.replace('.', '/') + ".class");
+      Files.createDirectories(classFile.getParent());
+      try (InputStream in = clazz.getResourceAsStream(
+            className.substring(className.lastIndexOf('.') + 1) + ".class")) {
+         Files.copy(in, classFile);
+      }
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper classes inspected as bytecode - not meant to be executed as tests.
+    */
+   static class PriceFixture {
+      int amount() {
+         return 1;
+      }
+   }
+
+   static class CartFixture {
+      int total() {
+         return new PriceFixture().amount();
+      }
+   }
+
+   static class CartTestFixture {
+      @org.junit.jupiter.api.Test
+      void totals() {
+         new CartFixture().total();
+      }
+   }
+
+   static class SearchTestFixture {
+      @org.junit.jupiter.api.Test
+      void finds() {
+      }
+   }
+
+}
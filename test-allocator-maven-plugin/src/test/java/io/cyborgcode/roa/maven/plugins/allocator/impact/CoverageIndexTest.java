@@ -0,0 +1,97 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.cyborgcode.roa.maven.plugins.allocator.impact.JacocoExecReaderTest.writeExec;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("CoverageIndex Tests")
+class CoverageIndexTest {
+
+   @TempDir
+   Path tempDir;
+
+   private Path coverage;
+
+   private File indexFile;
+
+   @BeforeEach
+   void setUp() throws IOException {
+      coverage = Files.createDirectories(tempDir.resolve("coverage"));
+      indexFile = tempDir.resolve("test-splitter/coverage-index.bin").toFile();
+      writeExec(coverage.resolve("com.acme.CartTest.exec"), "com.acme.Cart", "com.acme.Price$Rule");
+      writeExec(coverage.resolve("com.acme.SearchTest.exec"), "com.acme.Search", "com.acme.Cart");
+   }
+
+   @Nested
+   @DisplayName("testsCovering Tests")
+   class TestsCoveringTests {
+
+      @Test
+      @DisplayName("Should find the tests covering changed classes and their nested classes")
+      void shouldFindTestsCoveringChangedClasses() {
+         // Arrange
+         CoverageIndex index = CoverageIndex.load(coverage.toFile(), indexFile);
+
+         // Act & Assert
+         assertEquals(Set.of("com.acme.CartTest"), index.testsCovering(List.of("com.acme.Price")));
+         assertEquals(Set.of("com.acme.CartTest", "com.acme.SearchTest"),
+               index.testsCovering(List.of("com.acme.Cart")));
+         assertEquals(Set.of(), index.testsCovering(List.of("com.acme.Invoice")));
+         assertTrue(index.containsTest("com.acme.SearchTest"));
+         assertFalse(index.containsTest("com.acme.InvoiceTest"));
+      }
+   }
+
+   @Nested
+   @DisplayName("load Tests")
+   class LoadTests {
+
+      @Test
+      @DisplayName("Should reuse the stored index while the execution data is unchanged")
+      void shouldReuseStoredIndex() throws IOException {
+         // Arrange
+         CoverageIndex.load(coverage.toFile(), indexFile);
+         Path cartExec = coverage.resolve("com.acme.CartTest.exec");
+         long lastModified = cartExec.toFile().lastModified();
+         Files.write(cartExec, new byte[(int) Files.size(cartExec)]);
+         cartExec.toFile().setLastModified(lastModified);
+
+         // Act
+         CoverageIndex index = CoverageIndex.load(coverage.toFile(), indexFile);
+
+         // Assert
+         assertTrue(indexFile.isFile());
+         assertEquals(Set.of("com.acme.CartTest"), index.testsCovering(List.of("com.acme.Price")));
+      }
+
+      @Test
+      @DisplayName("Should rebuild the index when execution data is added")
+      void shouldRebuildIndexWhenExecutionDataIsAdded() throws IOException {
+         // Arrange
+         CoverageIndex.load(coverage.toFile(), indexFile);
+         writeExec(coverage.resolve("com.acme.InvoiceTest.exec"), "com.acme.Price");
+
+         // Act
+         CoverageIndex index = CoverageIndex.load(coverage.toFile(), indexFile);
+
+         // Assert
+         assertEquals(3, index.testCount());
+         assertEquals(Set.of("com.acme.CartTest", "com.acme.InvoiceTest"),
+               index.testsCovering(List.of("com.acme.Price")));
+      }
+   }
+
+}
@@ -0,0 +1,67 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("GitChanges Tests")
+class GitChangesTest {
+
+   @TempDir
+   Path tempDir;
+
+   @Nested
+   @DisplayName("changedFiles Tests")
+   class ChangedFilesTests {
+
+      @Test
+      @DisplayName("Should list modified, deleted and untracked files of the working tree")
+      void shouldListChangedFilesOfWorkingTree() throws Exception {
+         // Arrange
+         Path module = Files.createDirectories(tempDir.resolve("checkout"));
+         Files.writeString(module.resolve("Cart.java"), "class Cart {}");
+         Files.writeString(module.resolve("Price.java"), "class Price {}");
+         Files.writeString(tempDir.resolve("README.md"), "docs");
+         git("init", "-q");
+         git("add", ".");
+         git("-c", "user.name=ci", "-c", "user.email=ci@example.com", "commit", "-q", "-m", "base");
+         Files.writeString(module.resolve("Cart.java"), "class Cart { int total; }");
+         Files.delete(module.resolve("Price.java"));
+         Files.writeString(module.resolve("Search.java"), "class Search {}");
+
+         // Act
+         List<File> changed = GitChanges.changedFiles(module.toFile(), "HEAD");
+
+         // Assert
+         assertEquals(Set.of("Cart.java", "Price.java", "Search.java"),
+               changed.stream().map(File::getName).collect(Collectors.toSet()));
+      }
+
+      @Test
+      @DisplayName("Should report directories outside a git working tree")
+      void shouldReportDirectoriesOutsideWorkingTree() {
+         // Act & Assert
+         assertThrows(IOException.class, () -> GitChanges.changedFiles(tempDir.toFile(), "HEAD"));
+      }
+   }
+
+   private void git(String... arguments) throws Exception {
+      List<String> command = new ArrayList<>(List.of("git"));
+      command.addAll(List.of(arguments));
+      Process process = new ProcessBuilder(command).directory(tempDir.toFile()).inheritIO().start();
+      assertEquals(0, process.waitFor());
+   }
+
+}
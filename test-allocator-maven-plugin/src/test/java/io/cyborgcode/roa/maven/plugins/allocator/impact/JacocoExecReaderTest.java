@@ -0,0 +1,85 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("JacocoExecReader Tests")
+class JacocoExecReaderTest {
+
+   @TempDir
+   Path tempDir;
+
+   @Nested
+   @DisplayName("coveredClasses Tests")
+   class CoveredClassesTests {
+
+      @Test
+      @DisplayName("Should read the classes with an executed probe")
+      void shouldReadClassesWithExecutedProbe() throws IOException {
+         // Arrange
+         Path execFile = writeExec(tempDir.resolve("com.acme.CartTest.exec"),
+               "com.acme.Cart", "com.acme.Price$Rule", "!com.acme.Search");
+
+         // Act
+         Set<String> covered = JacocoExecReader.coveredClasses(execFile.toFile());
+
+         // Assert
+         assertEquals(Set.of("com.acme.Cart", "com.acme.Price$Rule"), covered);
+      }
+
+      @Test
+      @DisplayName("Should reject data of other formats")
+      void shouldRejectDataOfOtherFormats() {
+         // Act & Assert
+         assertThrows(IOException.class, () -> JacocoExecReader.coveredClasses(
+               new ByteArrayInputStream(new byte[] {0x01, (byte) 0xC0, (byte) 0xC0, 0x10, 0x06})));
+         assertThrows(IOException.class, () -> JacocoExecReader.coveredClasses(
+               new ByteArrayInputStream(new byte[] {0x42})));
+      }
+   }
+
+   /**
+    * Writes execution data in the JaCoCo format, with 129 probes per class.
+    *
+    * @param execFile the file to write
+    * @param classes  binary names of the classes; names prefixed with {@code !} have no executed probe
+    * @return the written file
+    */
+   static Path writeExec(Path execFile, String... classes) throws IOException {
+      try (OutputStream stream = Files.newOutputStream(execFile);
+           DataOutputStream out = new DataOutputStream(stream)) {
+         out.writeByte(0x01);
+         out.writeChar(0xC0C0);
+         out.writeChar(0x1007);
+         out.writeByte(0x10);
+         out.writeUTF("runner-1");
+         out.writeLong(1L);
+         out.writeLong(2L);
+         for (String className : classes) {
+            boolean executed = !className.startsWith("!");
+            out.writeByte(0x11);
+            out.writeLong(className.hashCode());
+            out.writeUTF(className.replace("!", "").replace('.', '/'));
+            out.writeByte(0x81);
+            out.writeByte(0x01);
+            for (int i = 0; i < 17; i++) {
+               out.writeByte(executed && i == 16 ? 1 : 0);
+            }
+         }
+      }
+      return execFile;
+   }
+
+}
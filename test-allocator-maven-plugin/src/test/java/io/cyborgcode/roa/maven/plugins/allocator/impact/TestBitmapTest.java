@@ -0,0 +1,104 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.BitSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestBitmap Tests")
+class TestBitmapTest {
+
+   @Nested
+   @DisplayName("add Tests")
+   class AddTests {
+
+      @Test
+      @DisplayName("Should keep sparse identifiers of several containers")
+      void shouldKeepSparseIdentifiersOfSeveralContainers() {
+         // Arrange
+         TestBitmap bitmap = new TestBitmap();
+
+         // Act
+         bitmap.add(70_000);
+         bitmap.add(3);
+         bitmap.add(3);
+         bitmap.add(65_535);
+
+         // Assert
+         assertEquals(3, bitmap.cardinality());
+         assertTrue(bitmap.contains(70_000));
+         assertTrue(bitmap.contains(65_535));
+         assertFalse(bitmap.contains(4));
+         assertEquals(bits(3, 65_535, 70_000), union(bitmap));
+      }
+
+      @Test
+      @DisplayName("Should switch dense containers to bitmaps")
+      void shouldSwitchDenseContainersToBitmaps() {
+         // Arrange
+         TestBitmap bitmap = new TestBitmap();
+         BitSet expected = new BitSet();
+
+         // Act
+         for (int id = 0; id < 15_000; id += 3) {
+            bitmap.add(id);
+            expected.set(id);
+         }
+
+         // Assert
+         assertEquals(5_000, bitmap.cardinality());
+         assertTrue(bitmap.contains(14_997));
+         assertFalse(bitmap.contains(14_998));
+         assertEquals(expected, union(bitmap));
+      }
+   }
+
+   @Nested
+   @DisplayName("write Tests")
+   class WriteTests {
+
+      @Test
+      @DisplayName("Should read back array and bitmap containers")
+      void shouldReadBackArrayAndBitmapContainers() throws IOException {
+         // Arrange
+         TestBitmap bitmap = new TestBitmap();
+         for (int id = 0; id < 10_000; id += 2) {
+            bitmap.add(id);
+         }
+         bitmap.add(200_000);
+         ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+         // Act
+         bitmap.write(new DataOutputStream(bytes));
+         TestBitmap read = TestBitmap.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+         // Assert
+         assertEquals(union(bitmap), union(read));
+         assertEquals(5_001, read.cardinality());
+      }
+   }
+
+   private BitSet union(TestBitmap bitmap) {
+      BitSet union = new BitSet();
+      bitmap.orInto(union);
+      return union;
+   }
+
+   private BitSet bits(int... ids) {
+      BitSet bits = new BitSet();
+      for (int id : ids) {
+         bits.set(id);
+      }
+      return bits;
+   }
+
+}
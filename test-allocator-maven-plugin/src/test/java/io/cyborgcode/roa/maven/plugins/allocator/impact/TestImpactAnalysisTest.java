@@ -0,0 +1,179 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.cyborgcode.roa.maven.plugins.allocator.impact.ClassDependencyGraphTest.copyClass;
+import static io.cyborgcode.roa.maven.plugins.allocator.impact.JacocoExecReaderTest.writeExec;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestImpactAnalysis Tests")
+class TestImpactAnalysisTest {
+
+   private static final String CART_TEST = ClassDependencyGraphTest.CartTestFixture.class.getName();
+   private static final String SEARCH_TEST = ClassDependencyGraphTest.SearchTestFixture.class.getName();
+
+   @TempDir
+   Path tempDir;
+
+   private Path sourceRoot;
+
+   private Path classes;
+
+   @BeforeEach
+   void setUp() throws IOException {
+      sourceRoot = tempDir.resolve("src/test/java");
+      classes = tempDir.resolve("classes");
+      copyClass(ClassDependencyGraphTest.PriceFixture.class, classes);
+      copyClass(ClassDependencyGraphTest.CartFixture.class, classes);
+      copyClass(ClassDependencyGraphTest.CartTestFixture.class, classes);
+      copyClass(ClassDependencyGraphTest.SearchTestFixture.class, classes);
+   }
+
+   @Nested
+   @DisplayName("select Tests")
+   class SelectTests {
+
+      @Test
+      @DisplayName("Should select the tests depending on changed classes and tests outside the graph")
+      void shouldSelectTestsDependingOnChangedClasses() {
+         // Arrange
+         TestImpactAnalysis analysis = analysis(new AtomicInteger(),
+               source(ClassDependencyGraphTest.PriceFixture.class.getName()));
+
+         // Act
+         TestImpactAnalysis.Selection selection =
+               analysis.select(List.of(CART_TEST, SEARCH_TEST, "com.acme.SharedJarTest"));
+
+         // Assert
+         assertEquals(Set.of(CART_TEST, "com.acme.SharedJarTest"), selection.getTests());
+         assertEquals(1, selection.getChangedClasses());
+      }
+
+      @Test
+      @DisplayName("Should select the tests covering changed classes, changed tests and tests without coverage")
+      void shouldSelectTestsByCoverage() throws IOException {
+         // Arrange
+         Path coverage = Files.createDirectories(tempDir.resolve("coverage"));
+         writeExec(coverage.resolve("com.acme.CartTest.exec"), "com.acme.Cart", "com.acme.PaymentGateway");
+         writeExec(coverage.resolve("com.acme.SearchTest.exec"), "com.acme.Search");
+         writeExec(coverage.resolve("com.acme.InvoiceTest.exec"), "com.acme.Invoice");
+         TestImpactAnalysis analysis = new TestImpactAnalysis("origin/main", tempDir.toFile(),
+               List.of(sourceRoot.toFile()), List.of(), tempDir.resolve("coverage-index.bin").toFile(),
+               coverage.toFile()) {
+            @Override
+            protected List<File> changedFiles() {
+               return List.of(source("com.acme.PaymentGateway"), source("com.acme.InvoiceTest"));
+            }
+         };
+
+         // Act
+         TestImpactAnalysis.Selection selection = analysis.select(
+               List.of("com.acme.CartTest", "com.acme.SearchTest", "com.acme.InvoiceTest", "com.acme.RefundTest"));
+
+         // Assert
+         assertEquals(Set.of("com.acme.CartTest", "com.acme.InvoiceTest", "com.acme.RefundTest"),
+               selection.getTests());
+         assertEquals(2, selection.getChangedClasses());
+      }
+
+      @Test
+      @DisplayName("Should select all tests when a non-Java file changed")
+      void shouldSelectAllTestsWhenNonJavaFileChanged() {
+         // Arrange
+         TestImpactAnalysis analysis = analysis(new AtomicInteger(),
+               source(ClassDependencyGraphTest.PriceFixture.class.getName()), tempDir.resolve("pom.xml").toFile());
+
+         // Act
+         TestImpactAnalysis.Selection selection = analysis.select(List.of(CART_TEST, SEARCH_TEST));
+
+         // Assert
+         assertTrue(selection.isAll());
+         assertTrue(selection.getFallbackReason().contains("pom.xml"));
+      }
+
+      @Test
+      @DisplayName("Should select all tests when the changes cannot be listed")
+      void shouldSelectAllTestsWhenChangesCannotBeListed() {
+         // Arrange
+         TestImpactAnalysis analysis = new TestImpactAnalysis("origin/main", tempDir.toFile(), List.of(),
+               List.of(classes.toFile()), null) {
+            @Override
+            protected List<File> changedFiles() throws IOException {
+               throw new IOException("unknown revision");
+            }
+         };
+
+         // Act
+         TestImpactAnalysis.Selection selection = analysis.select(List.of(CART_TEST));
+
+         // Assert
+         assertTrue(selection.isAll());
+         assertTrue(selection.getFallbackReason().contains("origin/main"));
+      }
+
+      @Test
+      @DisplayName("Should list the changes once for all selections")
+      void shouldListChangesOnce() {
+         // Arrange
+         AtomicInteger listings = new AtomicInteger();
+         TestImpactAnalysis analysis = analysis(listings);
+
+         // Act
+         analysis.select(List.of(CART_TEST));
+         TestImpactAnalysis.Selection selection = analysis.select(List.of(SEARCH_TEST));
+
+         // Assert
+         assertEquals(1, listings.get());
+         assertEquals(Set.of(), selection.getTests());
+      }
+   }
+
+   @Nested
+   @DisplayName("toClassName Tests")
+   class ToClassNameTests {
+
+      @Test
+      @DisplayName("Should map sources of known and conventional source roots")
+      void shouldMapSourcesOfSourceRoots() {
+         // Arrange
+         TestImpactAnalysis analysis = analysis(new AtomicInteger());
+
+         // Act & Assert
+         assertEquals(Optional.of("com.acme.Cart"), analysis.toClassName(source("com.acme.Cart")));
+         assertEquals(Optional.of("com.acme.Price"), analysis.toClassName(
+               tempDir.resolve("../pricing/src/main/java/com/acme/Price.java").toFile()));
+         assertEquals(Optional.empty(), analysis.toClassName(tempDir.resolve("scripts/Setup.java").toFile()));
+         assertEquals(Optional.empty(), analysis.toClassName(
+               tempDir.resolve("src/test/resources/cart.json").toFile()));
+      }
+   }
+
+   private TestImpactAnalysis analysis(AtomicInteger listings, File... changedFiles) {
+      return new TestImpactAnalysis("origin/main", tempDir.toFile(), List.of(sourceRoot.toFile()),
+            List.of(classes.toFile()), null) {
+         @Override
+         protected List<File> changedFiles() {
+            listings.incrementAndGet();
+            return List.of(changedFiles);
+         }
+      };
+   }
+
+   private File source(String className) {
+      return sourceRoot.resolve(className.replace('.', '/') + ".java").toFile();
+   }
+
+}
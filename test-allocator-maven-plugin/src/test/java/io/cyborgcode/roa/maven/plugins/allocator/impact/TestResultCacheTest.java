@@ -0,0 +1,140 @@
+package io.cyborgcode.roa.maven.plugins.allocator.impact;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static io.cyborgcode.roa.maven.plugins.allocator.impact.ClassDependencyGraphTest.copyClass;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("TestResultCache Tests")
+class TestResultCacheTest {
+
+   private static final String CART_TEST = ClassDependencyGraphTest.CartTestFixture.class.getName();
+   private static final String SEARCH_TEST = ClassDependencyGraphTest.SearchTestFixture.class.getName();
+   private static final List<String> TESTS = List.of(CART_TEST, SEARCH_TEST, "com.acme.SharedJarTest");
+
+   @TempDir
+   Path tempDir;
+
+   private Path classes;
+
+   private Path reports;
+
+   @BeforeEach
+   void setUp() throws IOException {
+      classes = tempDir.resolve("test-classes");
+      reports = Files.createDirectories(tempDir.resolve("surefire-reports"));
+      copyClass(ClassDependencyGraphTest.PriceFixture.class, classes);
+      copyClass(ClassDependencyGraphTest.CartFixture.class, classes);
+      copyClass(ClassDependencyGraphTest.CartTestFixture.class, classes);
+      copyClass(ClassDependencyGraphTest.SearchTestFixture.class, classes);
+      Files.writeString(classes.resolve("app.properties"), "currency=EUR");
+   }
+
+   @Nested
+   @DisplayName("lookup Tests")
+   class LookupTests {
+
+      @Test
+      @DisplayName("Should hit the test classes that passed with unchanged content")
+      void shouldHitTestClassesThatPassedWithUnchangedContent() throws IOException {
+         // Arrange
+         cache().lookup(TESTS);
+         report(CART_TEST, true);
+         report(SEARCH_TEST, false);
+
+         // Act
+         Map<String, String> hits = cache().lookup(TESTS);
+
+         // Assert
+         assertEquals(Set.of(CART_TEST), hits.keySet());
+         assertEquals(64, hits.get(CART_TEST).length());
+         assertEquals(hits, cache().lookup(TESTS));
+      }
+
+      @Test
+      @DisplayName("Should miss the test classes whose dependencies or resources changed")
+      void shouldMissTestClassesWhoseDependenciesOrResourcesChanged() throws IOException {
+         // Arrange
+         cache().lookup(TESTS);
+         report(CART_TEST, true);
+         report(SEARCH_TEST, true);
+         cache().lookup(TESTS);
+         Path price = classes.resolve(ClassDependencyGraphTest.PriceFixture.class.getName().replace('.', '/')
+               + ".class");
+         Files.write(price, new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE},
+               StandardOpenOption.APPEND);
+
+         // Act
+         Map<String, String> afterClassChange = cache().lookup(TESTS);
+         Files.writeString(classes.resolve("app.properties"), "currency=USD");
+         Map<String, String> afterResourceChange = cache().lookup(TESTS);
+
+         // Assert
+         assertEquals(Set.of(SEARCH_TEST), afterClassChange.keySet());
+         assertTrue(afterResourceChange.isEmpty());
+      }
+
+      @Test
+      @DisplayName("Should learn the outcomes of all classes of a per-suite report")
+      void shouldLearnOutcomesOfAllClassesOfSuiteReport() throws IOException {
+         // Arrange
+         cache().lookup(TESTS);
+         Path report = reports.resolve("TEST-TestSuite.xml");
+         Files.writeString(report, "<testsuite name=\"TestSuite\">"
+               + "<testcase classname=\"" + CART_TEST + "\" name=\"runs\" time=\"0.5\"/>"
+               + "<testcase classname=\"" + SEARCH_TEST + "\" name=\"runs\" time=\"0.5\">"
+               + "<failure message=\"boom\"/></testcase></testsuite>");
+         report.toFile().setLastModified(System.currentTimeMillis() + 60_000);
+
+         // Act
+         Map<String, String> hits = cache().lookup(TESTS);
+
+         // Assert
+         assertEquals(Set.of(CART_TEST), hits.keySet());
+      }
+
+      @Test
+      @DisplayName("Should ignore reports written before the allocation")
+      void shouldIgnoreReportsWrittenBeforeAllocation() throws IOException {
+         // Arrange
+         cache().lookup(TESTS);
+         File stale = report(CART_TEST, true);
+         stale.setLastModified(System.currentTimeMillis() - 60_000);
+
+         // Act
+         Map<String, String> hits = cache().lookup(TESTS);
+
+         // Assert
+         assertTrue(hits.isEmpty());
+      }
+   }
+
+   private TestResultCache cache() {
+      return new TestResultCache(tempDir.resolve("store/test-results.json").toFile(), reports.toFile(),
+            List.of(classes.toFile()), List.of(), tempDir.resolve("store/class-dependencies.json").toFile());
+   }
+
+   private File report(String className, boolean passed) throws IOException {
+      Path report = reports.resolve("TEST-" + className + ".xml");
+      Files.writeString(report, "<testsuite name=\"" + className + "\">"
+            + "<testcase classname=\"" + className + "\" name=\"runs\" time=\"0.5\">"
+            + (passed ? "" : "<failure message=\"boom\"/>")
+            + "</testcase></testsuite>");
+      report.toFile().setLastModified(System.currentTimeMillis() + 60_000);
+      return report.toFile();
+   }
+
+}
@@ -1,13 +1,19 @@
 package io.cyborgcode.roa.maven.plugins.allocator.service;
 
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
 import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.impact.TestImpactAnalysis;
+import io.cyborgcode.roa.maven.plugins.allocator.impact.TestResultCache;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
@@ -21,6 +27,8 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -44,6 +52,12 @@ class BaseAllocatorServiceTest {
    @Mock
    private TestSplitterConfiguration config;
 
+   @Mock
+   private TestImpactAnalysis impactAnalysis;
+
+   @Mock
+   private TestResultCache resultCache;
+
    private TestableAllocatorService service;
 
    @TempDir
@@ -283,6 +297,239 @@ class BaseAllocatorServiceTest {
       }
    }
 
+   @Nested
+   @DisplayName("selectImpactedTests Tests")
+   class SelectImpactedTestsTests {
+
+      @Test
+      @DisplayName("Should keep the counts of the affected classes")
+      void shouldKeepCountsOfAffectedClasses() {
+         // Arrange
+         Map<String, Integer> counts = Map.of("CartTest", 3, "SearchTest", 2);
+         when(config.getImpactAnalysis()).thenReturn(impactAnalysis);
+         when(impactAnalysis.select(counts.keySet()))
+               .thenReturn(new TestImpactAnalysis.Selection(Set.of("CartTest"), 1, null));
+
+         // Act
+         Map<String, Integer> selected = service.selectImpactedTests(counts, config);
+
+         // Assert
+         assertEquals(Map.of("CartTest", 3), selected);
+         verify(log).info(contains("allocating 1 of 2 test classes"));
+      }
+
+      @Test
+      @DisplayName("Should keep all counts when every test may be affected")
+      void shouldKeepAllCountsWhenEveryTestMayBeAffected() {
+         // Arrange
+         Map<String, Integer> counts = Map.of("CartTest", 3, "SearchTest", 2);
+         when(config.getImpactAnalysis()).thenReturn(impactAnalysis);
+         when(impactAnalysis.select(counts.keySet()))
+               .thenReturn(new TestImpactAnalysis.Selection(null, 0, "changed non-Java file pom.xml"));
+
+         // Act
+         Map<String, Integer> selected = service.selectImpactedTests(counts, config);
+
+         // Assert
+         assertEquals(counts, selected);
+         verify(log).info(contains("changed non-Java file pom.xml"));
+      }
+   }
+
+   @Nested
+   @DisplayName("skipCachedTests Tests")
+   class SkipCachedTestsTests {
+
+      @Test
+      @DisplayName("Should leave out the cached classes and list them with their hashes")
+      void shouldLeaveOutCachedClassesAndListThem() throws Exception {
+         // Arrange
+         Map<String, Integer> counts = Map.of("CartTest", 3, "SearchTest", 2);
+         String outputFile = tempDir.resolve("grouped-tests").toString();
+         when(config.getResultCache()).thenReturn(resultCache);
+         when(resultCache.lookup(counts.keySet())).thenReturn(Map.of("SearchTest", "a1b2"));
+
+         // Act
+         Map<String, Integer> remaining = service.skipCachedTests(counts, List.of(), config, outputFile);
+
+         // Assert
+         assertEquals(Map.of("CartTest", 3), remaining);
+         assertEquals("{\"SearchTest\":\"a1b2\"}",
+               Files.readString(tempDir.resolve("grouped-tests-cached.json")));
+         verify(log).info(contains("skipping 1 of 2 test classes"));
+      }
+
+      @Test
+      @DisplayName("Should keep cached classes that must share a bucket with a class that runs")
+      void shouldKeepCachedClassesInseparableFromClassThatRuns() throws Exception {
+         // Arrange
+         Map<String, Integer> counts = Map.of("CartTest", 3, "SearchTest", 2, "LoginTest", 1);
+         when(config.getResultCache()).thenReturn(resultCache);
+         when(resultCache.lookup(counts.keySet())).thenReturn(Map.of("SearchTest", "a1b2", "LoginTest", "c3d4"));
+
+         // Act
+         Map<String, Integer> remaining = service.skipCachedTests(counts, List.of(Set.of("CartTest", "SearchTest")),
+               config, tempDir.resolve("grouped-tests").toString());
+
+         // Assert
+         assertEquals(Map.of("CartTest", 3, "SearchTest", 2), remaining);
+         verify(log).info(contains("skipping 1 of 3 test classes"));
+      }
+
+      @Test
+      @DisplayName("Should keep all classes when the result cache is disabled")
+      void shouldKeepAllClassesWhenResultCacheIsDisabled() throws Exception {
+         // Arrange
+         Map<String, Integer> counts = Map.of("CartTest", 3);
+
+         // Act
+         Map<String, Integer> remaining =
+               service.skipCachedTests(counts, List.of(), config, tempDir.resolve("grouped-tests").toString());
+
+         // Assert
+         assertEquals(counts, remaining);
+         assertFalse(Files.exists(tempDir.resolve("grouped-tests-cached.json")));
+      }
+   }
+
+   @Nested
+   @DisplayName("Sticky allocate Tests")
+   class StickyAllocateTests {
+
+      @Test
+      @DisplayName("Should keep classes in the jobs of the previous manifest and report the churn")
+      void shouldKeepClassesInJobsOfPreviousManifest() throws Exception {
+         // Arrange
+         String outputFile = tempDir.resolve("grouped-tests").toString();
+         Files.writeString(tempDir.resolve("grouped-tests.json"),
+               "[{\"jobIndex\":0,\"classes\":[\"A\",\"B\"]},{\"jobIndex\":1,\"classes\":[\"C\"]}]");
+         when(config.isSticky()).thenReturn(true);
+         when(config.getStickyTolerance()).thenReturn(0.1);
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(2);
+         when(config.getMaxMethodsPerBucket()).thenReturn(10);
+
+         // Act
+         service.allocate(new LinkedHashMap<>(Map.of("A", 5, "B", 4, "C", 6, "D", 3)), null, config, outputFile);
+
+         // Assert
+         List<Map<String, Object>> jobs = new Gson().fromJson(Files.readString(tempDir.resolve("grouped-tests.json")),
+               new TypeToken<List<Map<String, Object>>>() {
+               }.getType());
+         assertEquals(List.of(List.of("A", "B"), List.of("C"), List.of("D")),
+               jobs.stream().map(job -> job.get("classes")).toList());
+         verify(log).info(contains("moved 0 of 3 previous classes (1 added, 0 removed)"));
+      }
+
+      @Test
+      @DisplayName("Should mark a job left empty in place so runners skip it")
+      void shouldMarkEmptyJobInPlace() throws Exception {
+         // Arrange
+         String outputFile = tempDir.resolve("grouped-tests").toString();
+         Files.writeString(tempDir.resolve("grouped-tests.json"), "[{\"jobIndex\":0,\"classes\":[\"A\",\"B\"]},"
+               + "{\"jobIndex\":1,\"classes\":[]},{\"jobIndex\":2,\"classes\":[\"C\"]}]");
+         when(config.isSticky()).thenReturn(true);
+         when(config.getStickyTolerance()).thenReturn(1.0);
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(3);
+         when(config.getMaxMethodsPerBucket()).thenReturn(10);
+
+         // Act
+         service.allocate(new LinkedHashMap<>(Map.of("A", 5, "B", 5, "C", 5)), null, config, outputFile);
+
+         // Assert
+         List<Map<String, Object>> jobs = new Gson().fromJson(Files.readString(tempDir.resolve("grouped-tests.json")),
+               new TypeToken<List<Map<String, Object>>>() {
+               }.getType());
+         assertEquals(List.of(List.of("A", "B"), List.of(), List.of("C")),
+               jobs.stream().map(job -> job.get("classes")).toList());
+         assertEquals(1.0, jobs.get(1).get("jobIndex"));
+         assertEquals(true, jobs.get(1).get("empty"));
+         assertEquals(0.0, jobs.get(1).get("totalMethods"));
+         assertFalse(jobs.get(0).containsKey("empty"));
+         assertFalse(jobs.get(2).containsKey("empty"));
+      }
+
+      @Test
+      @DisplayName("Should allocate fresh without a previous manifest")
+      void shouldAllocateFreshWithoutPreviousManifest() throws Exception {
+         // Arrange
+         when(config.isSticky()).thenReturn(true);
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(2);
+
+         // Act
+         service.allocate(Map.of("A", 5), null, config, tempDir.resolve("grouped-tests").toString());
+
+         // Assert
+         verify(log).info(contains("no previous manifest"));
+         assertTrue(Files.exists(tempDir.resolve("grouped-tests.json")));
+      }
+
+      @Test
+      @DisplayName("Should read no jobs from an unreadable manifest")
+      void shouldReadNoJobsFromUnreadableManifest() throws Exception {
+         // Arrange
+         Path manifest = Files.writeString(tempDir.resolve("grouped-tests.json"), "{not json");
+
+         // Act & Assert
+         assertTrue(BaseAllocatorService.readPreviousJobs(manifest).isEmpty());
+      }
+   }
+
+   @Nested
+   @DisplayName("allocate with time budget Tests")
+   class BudgetAllocateTests {
+
+      @Test
+      @DisplayName("Should allocate the most valuable classes within the budget and write the deferred ones")
+      void shouldAllocateMostValuableClassesWithinBudget() throws Exception {
+         // Arrange
+         Map<String, Integer> counts = new LinkedHashMap<>();
+         counts.put("A", 6);
+         counts.put("B", 5);
+         counts.put("C", 4);
+         counts.put("D", 3);
+         counts.put("E", 12);
+         when(config.getTimeBudget()).thenReturn(9);
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(1);
+         when(config.getImpactAnalysis()).thenReturn(impactAnalysis);
+         when(impactAnalysis.select(counts.keySet()))
+               .thenReturn(new TestImpactAnalysis.Selection(Set.of("C"), 1, null));
+
+         // Act
+         service.allocate(counts, null, config, tempDir.resolve("grouped-tests").toString());
+
+         // Assert
+         List<Map<String, Object>> jobs = new Gson().fromJson(Files.readString(tempDir.resolve("grouped-tests.json")),
+               new TypeToken<List<Map<String, Object>>>() {
+               }.getType());
+         assertEquals(List.of(List.of("B", "C")), jobs.stream().map(job -> job.get("classes")).toList());
+         List<Map<String, Object>> deferred = new Gson().fromJson(
+               Files.readString(tempDir.resolve("grouped-tests-deferred.json")),
+               new TypeToken<List<Map<String, Object>>>() {
+               }.getType());
+         assertEquals(List.of(List.of("E"), List.of("A"), List.of("D")),
+               deferred.stream().map(entry -> entry.get("classes")).toList());
+         assertEquals(12.0, deferred.get(0).get("estimatedSeconds"));
+         verify(log).info(contains("assuming one second per test method"));
+         verify(log).info(contains("valuing 1 of 5 test classes higher"));
+         verify(log).info(contains("selected 2 of 5 test classes"));
+      }
+
+      @Test
+      @DisplayName("Should keep every class for valuing instead of selecting the impacted ones")
+      void shouldKeepEveryClassForValuing() {
+         // Arrange
+         Map<String, Integer> counts = Map.of("CartTest", 3, "SearchTest", 2);
+         when(config.getImpactAnalysis()).thenReturn(impactAnalysis);
+         when(config.getTimeBudget()).thenReturn(600);
+
+         // Act
+         Map<String, Integer> selected = service.selectImpactedTests(counts, config);
+
+         // Assert
+         assertEquals(counts, selected);
+      }
+   }
+
    // ===== Test Implementation =====
 
    /**
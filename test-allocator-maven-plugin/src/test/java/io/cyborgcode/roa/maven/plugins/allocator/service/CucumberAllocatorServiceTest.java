@@ -0,0 +1,127 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationCucumber;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CucumberAllocatorService Tests")
+class CucumberAllocatorServiceTest {
+
+   private static final String CHECKOUT_FEATURE = String.join("\n",
+         "Feature: Checkout",
+         "  @smoke",
+         "  Scenario: Pay by card",
+         "    When I pay by card",
+         "",
+         "  @wip",
+         "  Scenario: Pay by voucher",
+         "    When I pay by voucher",
+         "",
+         "  @smoke",
+         "  Scenario Outline: Pay in <currency>",
+         "    When I pay in <currency>",
+         "    Examples:",
+         "      | currency |",
+         "      | EUR      |",
+         "      | USD      |");
+
+   private static final String SEARCH_FEATURE = String.join("\n",
+         "@smoke",
+         "Feature: Search",
+         "  Scenario: Search by name",
+         "    When I search by name");
+
+   @Mock
+   private Log log;
+
+   @Mock
+   private TestClassLoader testClassLoader;
+
+   @TempDir
+   Path tempDir;
+
+   private CucumberAllocatorService service;
+
+   @BeforeEach
+   void setUp() throws Exception {
+      service = new CucumberAllocatorService(log);
+      Path features = Files.createDirectories(tempDir.resolve("src/test/resources/features"));
+      Files.writeString(features.resolve("checkout.feature"), CHECKOUT_FEATURE);
+      Files.writeString(features.resolve("search.feature"), SEARCH_FEATURE);
+   }
+
+   @Nested
+   @DisplayName("calculateClassMethodCounts Tests")
+   class CalculateClassMethodCountsTests {
+
+      @Test
+      @DisplayName("Should allocate every scenario matching the tag expression by its path:line selector")
+      void shouldAllocateMatchingScenariosBySelector() {
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(
+               List.of(), testClassLoader, config("@smoke and not @wip"));
+
+         // Assert
+         assertEquals(Map.of(
+               "src/test/resources/features/checkout.feature:3", 1,
+               "src/test/resources/features/checkout.feature:15", 1,
+               "src/test/resources/features/checkout.feature:16", 1,
+               "src/test/resources/features/search.feature:3", 1
+         ), result);
+         verify(log).info(contains("Selected 4 of 5 scenarios from 2 feature files"));
+      }
+
+      @Test
+      @DisplayName("Should weigh scenarios by the recorded duration of their feature")
+      void shouldWeighScenariosByRecordedDurationOfTheirFeature() throws Exception {
+         // Arrange
+         Path reports = Files.createDirectories(tempDir.resolve("reports"));
+         Files.writeString(reports.resolve("TEST-Cucumber.xml"), String.join("\n",
+               "<testsuite>",
+               "  <testcase classname=\"Checkout\" name=\"Pay by card\" time=\"9.0\"/>",
+               "  <testcase classname=\"Checkout\" name=\"Pay in EUR\" time=\"9.0\"/>",
+               "  <testcase classname=\"Search\" name=\"Search by name\" time=\"1.0\"/>",
+               "  <testcase classname=\"Search\" name=\"Search by name again\" time=\"1.0\"/>",
+               "</testsuite>"));
+         TestSplitterConfigurationCucumber config = TestSplitterConfigurationCucumber.builder()
+               .projectRoot(tempDir.toString())
+               .featuresDirectory(tempDir.resolve("src/test/resources").toFile())
+               .reportsDirectory(reports.toFile())
+               .build();
+
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(List.of(), testClassLoader, config);
+
+         // Assert
+         assertEquals(2, result.get("src/test/resources/features/checkout.feature:3"),
+               "Checkout scenarios take 9s against a 5s mean");
+         assertEquals(1, result.get("src/test/resources/features/search.feature:3"));
+      }
+   }
+
+   private TestSplitterConfigurationCucumber config(String tagExpression) {
+      return TestSplitterConfigurationCucumber.builder()
+            .projectRoot(tempDir.toString())
+            .featuresDirectory(tempDir.resolve("src/test/resources").toFile())
+            .tagExpression(tagExpression)
+            .build();
+   }
+
+}
@@ -1,24 +1,36 @@
 package io.cyborgcode.roa.maven.plugins.allocator.service;
 
+import io.cyborgcode.roa.maven.plugins.allocator.config.TagProfile;
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationJunit;
 import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
 import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,8 +46,14 @@ class JunitAllocatorServiceTest {
    @Mock
    private TestSplitterConfigurationJunit config;
 
+   @Mock
+   private MavenProject mavenProject;
+
    private JunitAllocatorService service;
 
+   @TempDir
+   Path tempDir;
+
    @BeforeEach
    void setUp() {
       service = new JunitAllocatorService(log);
@@ -267,6 +285,80 @@ class JunitAllocatorServiceTest {
       }
    }
 
+   @Nested
+   @DisplayName("Launcher discovery Tests")
+   class LauncherDiscoveryTests {
+
+      @Test
+      @DisplayName("Should count by reflection when the launcher is not on the test classpath")
+      void shouldCountByReflectionWhenLauncherIsMissing() {
+         // Arrange
+         File testDir = new File("target/test-classes").getAbsoluteFile();
+         List<File> classFiles = List.of(new File(testDir, "com/example/TestClass.class"));
+
+         when(config.isLauncherDiscovery()).thenReturn(true);
+         when(config.getTestOutputDirectory()).thenReturn(testDir);
+         when(config.getIncludeTags()).thenReturn(Collections.emptySet());
+         when(config.getExcludeTags()).thenReturn(Collections.emptySet());
+         when(config.isParallelMethods()).thenReturn(true);
+         when(testClassLoader.getUrls()).thenReturn(new URL[0]);
+         when(testClassLoader.loadClass(anyString()))
+               .thenAnswer(invocation -> SampleTestMethodsFixture.class);
+
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(
+               classFiles,
+               testClassLoader,
+               config
+         );
+
+         // Assert
+         assertEquals(Map.of("com.example.TestClass", 3), result);
+         assertTrue(service.describeBuckets(List.of(new TestBucket(List.of("com.example.TestClass"), 3)), config)
+               .isEmpty(), "Unique IDs are only recorded by launcher discovery");
+         verify(log).warn(contains("Launcher discovery unavailable"));
+      }
+   }
+
+   @Nested
+   @DisplayName("Tag profile Tests")
+   class TagProfileTests {
+
+      @Test
+      @DisplayName("Should allocate every profile from one inventory and write the tag index")
+      void shouldAllocateEveryProfileFromOneInventory() throws Exception {
+         // Arrange
+         String className = SampleTestMethodsFixture.class.getName();
+         Path testOutputDir = tempDir.resolve("test-classes");
+         Path classFile = testOutputDir.resolve(className.replace('.', '/') + ".class");
+         Files.createDirectories(classFile.getParent());
+         try (InputStream in = SampleTestMethodsFixture.class.getResourceAsStream(
+               className.substring(className.lastIndexOf('.') + 1) + ".class")) {
+            Files.copy(in, classFile);
+         }
+         String outputFile = tempDir.resolve("grouped-tests").toString();
+
+         when(config.getTagProfiles()).thenReturn(List.of(
+               new TagProfile("smoke", "smoke", null),
+               new TagProfile("stable", "", "integration")));
+         when(config.getMavenProject()).thenReturn(mavenProject);
+         when(config.getTestOutputDirectory()).thenReturn(testOutputDir.toFile());
+         when(config.getJsonOutputFile()).thenReturn(outputFile);
+         when(config.isParallelMethods()).thenReturn(true);
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(5);
+
+         // Act
+         service.allocateTests(config);
+
+         // Assert
+         assertTrue(Files.readString(Path.of(outputFile + "-smoke.json")).contains("\"totalMethods\":1"));
+         assertTrue(Files.readString(Path.of(outputFile + "-stable.json")).contains("\"totalMethods\":2"));
+         assertEquals("{\"integration\":1,\"smoke\":1}", Files.readString(Path.of(outputFile + "-tags.json")));
+         assertFalse(Files.exists(Path.of(outputFile + ".json")), "Profiles replace the single manifest");
+         verify(log).info(contains("Inventory of 3 tests shared by 2 tag profiles"));
+      }
+   }
+
    // ===== Test Fixtures =====
 
    /**
@@ -0,0 +1,186 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationJunit;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationMixed;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationTestng;
+import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MixedAllocatorService Tests")
+class MixedAllocatorServiceTest {
+
+   private static final String JUPITER_CLASS =
+         "io.cyborgcode.roa.maven.plugins.allocator.service.MixedAllocatorServiceTest$JupiterFixture";
+   private static final String TESTNG_CLASS =
+         "io.cyborgcode.roa.maven.plugins.allocator.service.MixedAllocatorServiceTest$TestNgFixture";
+   private static final String PLAIN_CLASS =
+         "io.cyborgcode.roa.maven.plugins.allocator.service.MixedAllocatorServiceTest$PlainFixture";
+
+   @Mock
+   private Log log;
+
+   @Mock
+   private TestClassLoader testClassLoader;
+
+   @TempDir
+   Path tempDir;
+
+   private MixedAllocatorService service;
+
+   private TestSplitterConfigurationMixed config;
+
+   private List<File> classFiles;
+
+   @BeforeEach
+   void setUp() {
+      service = new MixedAllocatorService(log);
+      File testOutputDirectory = tempDir.resolve("test-classes").toFile();
+      String projectRoot = tempDir.toString();
+      config = TestSplitterConfigurationMixed.builder()
+            .testOutputDirectory(testOutputDirectory)
+            .projectRoot(projectRoot)
+            .parallelMethods(true)
+            .junit(TestSplitterConfigurationJunit.builder()
+                  .testOutputDirectory(testOutputDirectory)
+                  .projectRoot(projectRoot)
+                  .parallelMethods(true)
+                  .includeTags(Set.of())
+                  .excludeTags(Set.of())
+                  .build())
+            .testng(TestSplitterConfigurationTestng.builder()
+                  .testOutputDirectory(testOutputDirectory)
+                  .projectRoot(projectRoot)
+                  .parallelMethods(true)
+                  .suites(Set.of())
+                  .build())
+            .build();
+      classFiles = List.of(
+            classFile(testOutputDirectory, JUPITER_CLASS),
+            classFile(testOutputDirectory, TESTNG_CLASS),
+            classFile(testOutputDirectory, PLAIN_CLASS)
+      );
+
+      when(testClassLoader.loadClass(anyString())).thenAnswer(invocation -> switch (invocation.<String>getArgument(0)) {
+         case JUPITER_CLASS -> JupiterFixture.class;
+         case TESTNG_CLASS -> TestNgFixture.class;
+         case PLAIN_CLASS -> PlainFixture.class;
+         default -> null;
+      });
+   }
+
+   @Nested
+   @DisplayName("calculateClassMethodCounts Tests")
+   class CalculateClassMethodCountsTests {
+
+      @Test
+      @DisplayName("Should count each class with the rules of its engine")
+      void shouldCountEachClassWithRulesOfItsEngine() {
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(classFiles, testClassLoader, config);
+
+         // Assert
+         assertEquals(Map.of(JUPITER_CLASS, 2, TESTNG_CLASS, 3), result,
+               "TestNG classes are counted without suites, classes without tests are skipped");
+      }
+   }
+
+   @Nested
+   @DisplayName("describeBuckets Tests")
+   class DescribeBucketsTests {
+
+      @Test
+      @DisplayName("Should record the classes of each engine per job")
+      void shouldRecordClassesOfEachEnginePerJob() throws Exception {
+         // Arrange
+         service.calculateClassMethodCounts(classFiles, testClassLoader, config);
+
+         // Act
+         List<Map<String, Object>> attributes = service.describeBuckets(
+               List.of(new TestBucket(List.of(JUPITER_CLASS, TESTNG_CLASS), 5)),
+               config
+         );
+
+         // Assert
+         assertEquals(1, attributes.size());
+         assertEquals(Map.of("junit-jupiter", List.of(JUPITER_CLASS), "testng", List.of(TESTNG_CLASS)),
+               attributes.get(0).get("engines"));
+         assertFalse(attributes.get(0).containsKey("suiteFile"), "No suite output directory is configured");
+      }
+
+      @Test
+      @DisplayName("Should pass only TestNG classes to dependency analysis")
+      void shouldOnlyPassTestNgClassesToDependencyAnalysis() {
+         // Arrange
+         Map<String, Integer> counts = service.calculateClassMethodCounts(classFiles, testClassLoader, config);
+
+         // Act & Assert
+         assertTrue(service.findInseparableClasses(counts, testClassLoader, config).isEmpty());
+      }
+   }
+
+   private static File classFile(File testOutputDirectory, String className) {
+      return new File(testOutputDirectory, className.replace('.', File.separatorChar) + ".class");
+   }
+
+   // ===== Test Fixtures =====
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class JupiterFixture {
+      @Test
+      void first() {
+      }
+
+      @Test
+      void second() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   public static class TestNgFixture {
+      @org.testng.annotations.Test
+      public void first() {
+      }
+
+      @org.testng.annotations.Test
+      public void second() {
+      }
+
+      @org.testng.annotations.Test
+      public void third() {
+      }
+   }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    */
+   static class PlainFixture {
+      public void helper() {
+      }
+   }
+
+}
@@ -0,0 +1,161 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionConcurrency;
+import io.cyborgcode.roa.maven.plugins.allocator.cost.ExecutionCostModel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactorAllocatorService Tests")
+class ReactorAllocatorServiceTest {
+
+   private static final String BILLING = "com.acme:billing";
+   private static final String SEARCH = "com.acme:search";
+
+   @Mock
+   private Log log;
+
+   @Mock
+   private TestSplitterConfiguration config;
+
+   @TempDir
+   Path tempDir;
+
+   private ReactorAllocatorService service;
+
+   @BeforeEach
+   void setUp() {
+      service = new ReactorAllocatorService(log);
+      when(config.getJsonOutputFile()).thenReturn(tempDir.resolve("grouped-tests").toString());
+   }
+
+   @Nested
+   @DisplayName("allocateTests Tests")
+   class AllocateTestsTests {
+
+      @Test
+      @DisplayName("Should pack the units of all modules together and list the modules of each job")
+      void shouldPackUnitsOfAllModulesTogether() throws Exception {
+         // Arrange
+         Map<String, AllocationScan> scans = new LinkedHashMap<>();
+         scans.put(BILLING, new AllocationScan(
+               Map.of("com.acme.InvoiceTest", 10, "com.acme.TaxTest", 4),
+               ExecutionCostModel.sequential(),
+               List.of(Set.of("com.acme.InvoiceTest", "com.acme.TaxTest"))));
+         scans.put(SEARCH, new AllocationScan(
+               Map.of("src/test/resources/search.feature:3", 1),
+               ExecutionCostModel.sequential(),
+               List.of()));
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(1);
+         when(config.getMaxMethodsPerBucket()).thenReturn(20);
+
+         // Act
+         service.allocateTests(scans, config);
+
+         // Assert
+         List<Map<String, Object>> jobs = readManifest();
+         assertEquals(1, jobs.size(), "Small modules share a runner");
+         assertEquals(List.of(BILLING, SEARCH), jobs.get(0).get("modules"));
+         assertEquals(List.of("src/test/resources/search.feature:3"),
+               ((Map<?, ?>) jobs.get(0).get("classesByModule")).get(SEARCH));
+         assertEquals(3, ((List<?>) jobs.get(0).get("classes")).size());
+         assertEquals(15.0, jobs.get(0).get("totalMethods"));
+         verify(log).info(contains("Packed 3 units of 2 modules into 1 buckets"));
+      }
+
+      @Test
+      @DisplayName("Should estimate units with the concurrency resolved in their module")
+      void shouldEstimateUnitsWithModuleConcurrency() throws Exception {
+         // Arrange
+         Map<String, AllocationScan> scans = new LinkedHashMap<>();
+         scans.put(BILLING, new AllocationScan(
+               Map.of("com.acme.InvoiceTest", 10),
+               new ExecutionCostModel(Map.of("com.acme.InvoiceTest", ExecutionConcurrency.of(4, 1)),
+                     ExecutionConcurrency.sequential()),
+               List.of()));
+         scans.put(SEARCH, new AllocationScan(
+               Map.of("com.acme.InvoiceTest", 10),
+               ExecutionCostModel.sequential(),
+               List.of()));
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(5);
+
+         // Act
+         service.allocateTests(scans, config);
+
+         // Assert
+         Map<Object, Object> durationByModule = new LinkedHashMap<>();
+         readManifest().forEach(job ->
+               durationByModule.put(((List<?>) job.get("modules")).get(0), job.get("estimatedDuration")));
+         assertEquals(Map.of(BILLING, 2.5, SEARCH, 10.0), durationByModule,
+               "Classes with the same name in different modules are separate units");
+      }
+   }
+
+   @Nested
+   @DisplayName("Test Root Tests")
+   class TestRootTests {
+
+      @Test
+      @DisplayName("Should group merged test roots by runner, each unit keeping the cost of its root")
+      void shouldGroupMergedTestRootsByRunner() throws Exception {
+         // Arrange
+         AllocationScan unitRoot = new AllocationScan(
+               Map.of("com.acme.InvoiceTest", 8),
+               new ExecutionCostModel(Map.of("com.acme.InvoiceTest", ExecutionConcurrency.of(4, 1)),
+                     ExecutionConcurrency.sequential()),
+               List.of());
+         AllocationScan extraUnitRoot = new AllocationScan(
+               Map.of("com.acme.TaxTest", 2),
+               ExecutionCostModel.sequential(),
+               List.of());
+         AllocationScan integrationRoot = new AllocationScan(
+               Map.of("com.acme.CheckoutIT", 6),
+               ExecutionCostModel.sequential(),
+               List.of());
+         Map<String, AllocationScan> scans = new LinkedHashMap<>();
+         scans.put("surefire", unitRoot.merge(extraUnitRoot));
+         scans.put("failsafe", integrationRoot);
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(1);
+         when(config.getMaxMethodsPerBucket()).thenReturn(20);
+
+         // Act
+         new ReactorAllocatorService(log, "runners", "classesByRunner").allocateTests(scans, config);
+
+         // Assert
+         List<Map<String, Object>> jobs = readManifest();
+         assertEquals(List.of("surefire", "failsafe"), jobs.get(0).get("runners"));
+         assertEquals(List.of("com.acme.CheckoutIT"),
+               ((Map<?, ?>) jobs.get(0).get("classesByRunner")).get("failsafe"));
+         assertEquals(10.0, jobs.get(0).get("estimatedDuration"), "2 + 2 + 6 with InvoiceTest run four at a time");
+         verify(log).info(contains("Packed 3 units of 2 runners into 1 buckets"));
+      }
+   }
+
+   private List<Map<String, Object>> readManifest() throws Exception {
+      return new Gson().fromJson(Files.readString(tempDir.resolve("grouped-tests.json")),
+            new TypeToken<List<Map<String, Object>>>() {
+            }.getType());
+   }
+
+}
@@ -0,0 +1,182 @@
+package io.cyborgcode.roa.maven.plugins.allocator.service;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfiguration;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RerunAllocatorService Tests")
+class RerunAllocatorServiceTest {
+
+   @Mock
+   private Log log;
+
+   @Mock
+   private TestSplitterConfiguration config;
+
+   @TempDir
+   Path tempDir;
+
+   private Path reports;
+
+   private RerunAllocatorService service;
+
+   @BeforeEach
+   void setUp() throws IOException {
+      service = new RerunAllocatorService(log);
+      reports = Files.createDirectories(tempDir.resolve("surefire-reports"));
+      lenient().when(config.getReportsDirectory()).thenReturn(reports.toFile());
+      lenient().when(config.getJsonOutputFile()).thenReturn(tempDir.resolve("grouped-tests").toString());
+   }
+
+   @Nested
+   @DisplayName("allocateTests Tests")
+   class AllocateTestsTests {
+
+      @Test
+      @DisplayName("Should pack the failed methods by duration into method selectors")
+      void shouldPackFailedMethodsIntoMethodSelectors() throws Exception {
+         // Arrange
+         report("com.acme.CartTest",
+               "<testcase classname=\"com.acme.CartTest\" name=\"addsItem\" time=\"30\"><failure/></testcase>"
+                     + "<testcase classname=\"com.acme.CartTest\" name=\"removesItem\" time=\"5\"/>"
+                     + "<testcase classname=\"com.acme.CartTest\" name=\"totals(int)[2]\" time=\"4\">"
+                     + "<error/></testcase>");
+         report("com.acme.SearchTest",
+               "<testcase classname=\"com.acme.SearchTest\" name=\"findsByName\" time=\"20\">"
+                     + "<failure/></testcase>"
+                     + "<testcase classname=\"com.acme.SearchTest\" name=\"pages\" time=\"12\">"
+                     + "<failure/></testcase>");
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(2);
+
+         // Act
+         service.allocateTests(config);
+
+         // Assert
+         List<Map<String, Object>> jobs = readManifest();
+         assertEquals(2, jobs.size());
+         assertEquals(List.of("com.acme.CartTest#addsItem+totals"), jobs.get(0).get("tests"));
+         assertEquals(34.0, jobs.get(0).get("estimatedDuration"));
+         assertEquals(2.0, jobs.get(0).get("totalMethods"));
+         assertEquals(List.of("com.acme.SearchTest#findsByName+pages"), jobs.get(1).get("tests"));
+         assertEquals(List.of("com.acme.SearchTest"), jobs.get(1).get("classes"));
+         assertEquals(32.0, jobs.get(1).get("estimatedDuration"));
+         verify(log).info(contains("Rerunning 4 failed tests of 2 classes on 2 runners"));
+      }
+
+      @Test
+      @DisplayName("Should rerun a class failing outside of its test methods as a whole")
+      void shouldRerunClassFailingOutsideOfTestMethods() throws Exception {
+         // Arrange
+         report("com.acme.InvoiceTest",
+               "<testcase classname=\"com.acme.InvoiceTest\" name=\"\" time=\"0\"><error/></testcase>");
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(4);
+
+         // Act
+         service.allocateTests(config);
+
+         // Assert
+         List<Map<String, Object>> jobs = readManifest();
+         assertEquals(1, jobs.size());
+         assertEquals(List.of("com.acme.InvoiceTest"), jobs.get(0).get("tests"));
+      }
+
+      @Test
+      @DisplayName("Should write an empty manifest when nothing failed")
+      void shouldWriteEmptyManifestWhenNothingFailed() throws Exception {
+         // Arrange
+         report("com.acme.CartTest", "<testcase classname=\"com.acme.CartTest\" name=\"addsItem\" time=\"1\"/>");
+         when(config.getMaxNumberOfParallelRunners()).thenReturn(4);
+
+         // Act
+         service.allocateTests(config);
+
+         // Assert
+         assertTrue(readManifest().isEmpty());
+      }
+   }
+
+   @Nested
+   @DisplayName("pack Tests")
+   class PackTests {
+
+      @Test
+      @DisplayName("Should weigh methods without a recorded duration by the mean duration")
+      void shouldWeighMethodsWithoutDurationByMean() {
+         // Arrange
+         Map<String, Double> failed = Map.of("A#slow", 9.0, "A#fast", 3.0, "B#unknown", 0.0, "C#unknown", 0.0);
+
+         // Act
+         List<RerunAllocatorService.Job> jobs = RerunAllocatorService.pack(failed, 2);
+
+         // Assert
+         assertEquals(Set.of(12.0), jobs.stream().map(RerunAllocatorService.Job::getDuration)
+               .collect(Collectors.toSet()), "9 + 3 beside 6 + 6: unknown methods weigh the mean of 9 and 3");
+      }
+
+      @Test
+      @DisplayName("Should select parameterized invocations by their bare method name once")
+      void shouldSelectParameterizedInvocationsByBareMethodName() {
+         // Arrange
+         Map<String, Double> failed = Map.of("A#totals(int)[1]", 3.0, "A#totals(int)[2]", 2.0, "A#adds", 1.0,
+               "B#[1] 42", 1.0);
+
+         // Act
+         List<RerunAllocatorService.Job> jobs = RerunAllocatorService.pack(failed, 1);
+
+         // Assert
+         assertEquals(List.of("A#totals+adds", "B"), jobs.get(0).selectors());
+      }
+
+      @Test
+      @DisplayName("Should pack the invocations of a method together")
+      void shouldPackInvocationsOfMethodTogether() {
+         // Arrange
+         Map<String, Double> failed = Map.of("A#totals(int)[1]", 3.0, "A#totals(int)[2]", 3.0, "B#adds", 3.0);
+
+         // Act
+         List<RerunAllocatorService.Job> jobs = RerunAllocatorService.pack(failed, 2);
+
+         // Assert
+         assertEquals(2, jobs.size());
+         assertEquals(List.of("A#totals"), jobs.get(0).selectors());
+         assertEquals(6.0, jobs.get(0).getDuration());
+         assertEquals(List.of("B#adds"), jobs.get(1).selectors());
+      }
+   }
+
+   private void report(String className, String testCases) throws IOException {
+      Files.writeString(reports.resolve("TEST-" + className + ".xml"),
+            "<testsuite name=\"" + className + "\">" + testCases + "</testsuite>");
+   }
+
+   private List<Map<String, Object>> readManifest() throws Exception {
+      return new Gson().fromJson(Files.readString(tempDir.resolve("grouped-tests.json")),
+            new TypeToken<List<Map<String, Object>>>() {
+            }.getType());
+   }
+
+}
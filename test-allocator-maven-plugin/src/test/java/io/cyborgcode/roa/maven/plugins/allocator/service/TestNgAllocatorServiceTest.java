@@ -2,6 +2,7 @@ package io.cyborgcode.roa.maven.plugins.allocator.service;
 
 import io.cyborgcode.roa.maven.plugins.allocator.config.TestSplitterConfigurationTestng;
 import io.cyborgcode.roa.maven.plugins.allocator.discovery.TestClassLoader;
+import io.cyborgcode.roa.maven.plugins.allocator.grouping.TestBucket;
 import org.apache.maven.plugin.logging.Log;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,6 +23,7 @@ import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -432,6 +434,304 @@ class TestNgAllocatorServiceTest {
                   "Should accumulate method counts for same class");
          }
       }
+
+      @Test
+      @DisplayName("Should add the counts of differing declarations and count identical declarations once")
+      void shouldAddCountsOfDifferingDeclarationsAndCountIdenticalOnce(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         String suiteXml = """
+               <?xml version="1.0" encoding="UTF-8"?>
+               <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+               <suite name="TestSuite">
+                 <test name="Chrome">
+                   <parameter name="browser" value="chrome"/>
+                   <classes>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"/>
+                   </classes>
+                 </test>
+                 <test name="Firefox">
+                   <parameter name="browser" value="firefox"/>
+                   <classes>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"/>
+                   </classes>
+                 </test>
+                 <test name="ChromeAgain">
+                   <parameter name="browser" value="chrome"/>
+                   <classes>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"/>
+                   </classes>
+                 </test>
+               </suite>
+               """;
+
+         Files.writeString(tempDir.resolve("testng.xml"), suiteXml);
+
+         when(config.getProjectRoot()).thenReturn(tempDir.toString());
+         when(config.getSuites()).thenReturn(Set.of("TestSuite"));
+         when(config.isParallelMethods()).thenReturn(true);
+         when(testClassLoader.loadClass("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"))
+               .thenAnswer(invocation -> SampleTestNgMethodsFixture.class);
+
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(Collections.emptyList(), testClassLoader, config);
+
+         // Assert
+         assertEquals(6, result.get("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"),
+               "The chrome and firefox runs both count, the repeated chrome run once");
+      }
+   }
+
+   @Nested
+   @DisplayName("Method selection Tests")
+   class MethodSelectionTests {
+
+      @Test
+      @DisplayName("Should count regex includes minus excludes")
+      void shouldCountRegexIncludesMinusExcludes(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         String suiteXml = """
+               <?xml version="1.0" encoding="UTF-8"?>
+               <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+               <suite name="TestSuite">
+                 <test name="Tests">
+                   <classes>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture">
+                       <methods>
+                         <include name="testMethod.*"/>
+                         <exclude name="testMethod2"/>
+                       </methods>
+                     </class>
+                   </classes>
+                 </test>
+               </suite>
+               """;
+
+         Files.writeString(tempDir.resolve("testng.xml"), suiteXml);
+
+         when(config.getProjectRoot()).thenReturn(tempDir.toString());
+         when(config.getSuites()).thenReturn(Set.of("TestSuite"));
+         when(testClassLoader.loadClass("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"))
+               .thenAnswer(invocation -> SampleTestNgMethodsFixture.class);
+
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(
+               Collections.emptyList(),
+               testClassLoader,
+               config
+         );
+
+         // Assert
+         assertEquals(2, result.get("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"));
+      }
+
+      @Test
+      @DisplayName("Should expand packages against the discovered classes")
+      void shouldExpandPackagesAgainstDiscoveredClasses(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         String suiteXml = """
+               <?xml version="1.0" encoding="UTF-8"?>
+               <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+               <suite name="TestSuite">
+                 <test name="Tests">
+                   <packages>
+                     <package name="com.example.*">
+                       <exclude name=".*Legacy.*"/>
+                     </package>
+                   </packages>
+                 </test>
+               </suite>
+               """;
+
+         Files.writeString(tempDir.resolve("testng.xml"), suiteXml);
+         File outputDir = tempDir.resolve("test-classes").toFile();
+         List<File> classFiles = List.of(
+               new File(outputDir, "com/example/LoginTest.class"),
+               new File(outputDir, "com/example/api/ApiTest.class"),
+               new File(outputDir, "com/example/LegacyTest.class"),
+               new File(outputDir, "com/example/LoginTest$Inner.class"),
+               new File(outputDir, "org/other/OtherTest.class")
+         );
+
+         when(config.getProjectRoot()).thenReturn(tempDir.toString());
+         when(config.getSuites()).thenReturn(Set.of("TestSuite"));
+         when(config.getTestOutputDirectory()).thenReturn(outputDir);
+         when(testClassLoader.loadClass(anyString())).thenAnswer(invocation -> AnotherTestNgMethodsFixture.class);
+
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(classFiles, testClassLoader, config);
+
+         // Assert
+         assertEquals(Set.of("com.example.LoginTest", "com.example.api.ApiTest"), result.keySet());
+      }
+   }
+
+   @Nested
+   @DisplayName("Group selection Tests")
+   class GroupSelectionTests {
+
+      @Test
+      @DisplayName("Should count only methods of groups selected by the suite")
+      void shouldCountOnlyMethodsOfGroupsSelectedBySuite(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         String suiteXml = """
+               <?xml version="1.0" encoding="UTF-8"?>
+               <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+               <suite name="TestSuite">
+                 <test name="Tests">
+                   <groups>
+                     <define name="checkin">
+                       <include name="fast"/>
+                     </define>
+                     <run>
+                       <include name="checkin"/>
+                       <exclude name="broken"/>
+                     </run>
+                   </groups>
+                   <classes>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$GroupedTestNgMethodsFixture"/>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$AnotherTestNgMethodsFixture"/>
+                   </classes>
+                 </test>
+               </suite>
+               """;
+
+         Files.writeString(tempDir.resolve("testng.xml"), suiteXml);
+
+         when(config.getProjectRoot()).thenReturn(tempDir.toString());
+         when(config.getSuites()).thenReturn(Set.of("TestSuite"));
+         when(config.isParallelMethods()).thenReturn(true);
+         when(testClassLoader.loadClass("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$GroupedTestNgMethodsFixture"))
+               .thenAnswer(invocation -> GroupedTestNgMethodsFixture.class);
+         when(testClassLoader.loadClass("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$AnotherTestNgMethodsFixture"))
+               .thenAnswer(invocation -> AnotherTestNgMethodsFixture.class);
+
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(
+               Collections.emptyList(),
+               testClassLoader,
+               config
+         );
+
+         // Assert
+         assertEquals(Map.of("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$GroupedTestNgMethodsFixture", 1),
+               result, "Only the fast, non-broken method runs; classes without selected methods are skipped");
+      }
+
+      @Test
+      @DisplayName("Should apply configured groups on top of the suite")
+      void shouldApplyConfiguredGroupsOnTopOfSuite(@TempDir Path tempDir) throws IOException {
+         // Arrange
+         String suiteXml = """
+               <?xml version="1.0" encoding="UTF-8"?>
+               <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+               <suite name="TestSuite">
+                 <test name="Tests">
+                   <classes>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$GroupedTestNgMethodsFixture"/>
+                   </classes>
+                 </test>
+               </suite>
+               """;
+
+         Files.writeString(tempDir.resolve("testng.xml"), suiteXml);
+
+         when(config.getProjectRoot()).thenReturn(tempDir.toString());
+         when(config.getSuites()).thenReturn(Set.of("TestSuite"));
+         when(config.getExcludeGroups()).thenReturn(Set.of("slow"));
+         when(config.isParallelMethods()).thenReturn(true);
+         when(testClassLoader.loadClass("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$GroupedTestNgMethodsFixture"))
+               .thenAnswer(invocation -> GroupedTestNgMethodsFixture.class);
+
+         // Act
+         Map<String, Integer> result = service.calculateClassMethodCounts(
+               Collections.emptyList(),
+               testClassLoader,
+               config
+         );
+
+         // Assert
+         assertEquals(2, result.get("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$GroupedTestNgMethodsFixture"));
+      }
+   }
+
+   @Nested
+   @DisplayName("Bucket suite Tests")
+   class BucketSuiteTests {
+
+      @Test
+      @DisplayName("Should write a trimmed suite per bucket inheriting the suite settings")
+      void shouldWriteTrimmedSuitePerBucketInheritingSuiteSettings(@TempDir Path tempDir) throws Exception {
+         // Arrange
+         String suiteXml = """
+               <?xml version="1.0" encoding="UTF-8"?>
+               <!DOCTYPE suite SYSTEM "https://testng.org/testng-1.0.dtd">
+               <suite name="TestSuite" parallel="methods" thread-count="4">
+                 <listeners>
+                   <listener class-name="com.example.ReportListener"/>
+                 </listeners>
+                 <parameter name="env" value="staging"/>
+                 <test name="Selected">
+                   <classes>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture">
+                       <methods>
+                         <include name="testMethod1"/>
+                       </methods>
+                     </class>
+                   </classes>
+                 </test>
+                 <test name="Everything">
+                   <classes>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"/>
+                     <class name="io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$AnotherTestNgMethodsFixture"/>
+                   </classes>
+                 </test>
+               </suite>
+               """;
+
+         Files.writeString(tempDir.resolve("testng.xml"), suiteXml);
+         Path suiteOutput = tempDir.resolve("target").resolve("suites");
+         Files.createDirectories(suiteOutput);
+         Files.writeString(suiteOutput.resolve("bucket-7.xml"), "stale");
+
+         when(config.getProjectRoot()).thenReturn(tempDir.toString());
+         when(config.getSuites()).thenReturn(Set.of("TestSuite"));
+         when(config.isParallelMethods()).thenReturn(true);
+         when(config.getSuiteOutputDirectory()).thenReturn(suiteOutput.toFile());
+         when(testClassLoader.loadClass("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"))
+               .thenAnswer(invocation -> SampleTestNgMethodsFixture.class);
+         when(testClassLoader.loadClass("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$AnotherTestNgMethodsFixture"))
+               .thenAnswer(invocation -> AnotherTestNgMethodsFixture.class);
+
+         service.calculateClassMethodCounts(Collections.emptyList(), testClassLoader, config);
+
+         // Act
+         List<Map<String, Object>> attributes = service.describeBuckets(
+               List.of(new TestBucket(List.of("io.cyborgcode.roa.maven.plugins.allocator.service.TestNgAllocatorServiceTest$SampleTestNgMethodsFixture"), 1)),
+               config
+         );
+
+         // Assert
+         assertEquals(List.of(Map.of("suiteFile", "target/suites/bucket-0.xml")), attributes);
+         assertFalse(Files.exists(suiteOutput.resolve("bucket-7.xml")), "Suite files of a previous run are removed");
+
+         String bucketSuite = Files.readString(suiteOutput.resolve("bucket-0.xml"));
+         assertTrue(bucketSuite.contains("com.example.ReportListener"));
+         assertTrue(bucketSuite.contains("staging"));
+         assertTrue(bucketSuite.contains("parallel=\"methods\""));
+         assertTrue(bucketSuite.contains("testMethod1"), "The class keeps the includes of its selective declaration");
+         assertTrue(bucketSuite.contains("Everything"), "The declaration running all methods is kept as well");
+         assertFalse(bucketSuite.contains("AnotherTestNgMethodsFixture"), "Classes of other buckets are trimmed");
+      }
+
+      @Test
+      @DisplayName("Should not write suites without an output directory")
+      void shouldNotWriteSuitesWithoutOutputDirectory() throws Exception {
+         // Act
+         List<Map<String, Object>> attributes = service.describeBuckets(List.of(new TestBucket(List.of("A"), 1)), config);
+
+         // Assert
+         assertTrue(attributes.isEmpty());
+      }
    }
 
    // ===== Test Fixtures =====
@@ -463,4 +763,22 @@ class TestNgAllocatorServiceTest {
       public void anotherTest() {
       }
    }
+
+   /**
+    * Helper class for reflection testing - not meant to be executed as tests.
+    * Methods have @Test annotations with groups so the allocator service can filter them.
+    */
+   static class GroupedTestNgMethodsFixture {
+      @org.testng.annotations.Test(groups = "fast")
+      public void fastTest() {
+      }
+
+      @org.testng.annotations.Test(groups = {"fast", "broken"})
+      public void brokenTest() {
+      }
+
+      @org.testng.annotations.Test(groups = "slow")
+      public void slowTest() {
+      }
+   }
 }